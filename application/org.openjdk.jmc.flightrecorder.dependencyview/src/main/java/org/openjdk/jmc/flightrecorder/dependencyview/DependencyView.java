@@ -80,7 +80,8 @@ import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.common.item.ItemCollectionToolkit;
 import org.openjdk.jmc.common.util.Pair;
 import org.openjdk.jmc.common.util.StringToolkit;
-import org.openjdk.jmc.flightrecorder.serializers.json.IItemCollectionJsonSerializer;
+import org.openjdk.jmc.flightrecorder.serializers.json.PackageDependenciesJsonSerializer;
+import org.openjdk.jmc.flightrecorder.stacktrace.PackageDependencies;
 import org.openjdk.jmc.flightrecorder.ui.FlightRecorderUI;
 import org.openjdk.jmc.ui.common.util.AdapterUtil;
 import org.openjdk.jmc.ui.misc.DisplayToolkit;
@@ -127,12 +128,14 @@ public class DependencyView extends ViewPart implements ISelectionListener {
 				if (isInvalid) {
 					return;
 				}
-				String eventsJson = IItemCollectionJsonSerializer.toJsonString(items, () -> isInvalid);
-				if (isInvalid) {
+				// Only the package edge counts are sent to the browser, not the events
+				PackageDependencies dependencies = PackageDependencies.build(items, packageDepth, () -> isInvalid);
+				if (isInvalid || dependencies == null) {
 					return;
 				} else {
+					String modelJson = PackageDependenciesJsonSerializer.toJsonString(dependencies);
 					view.modelState = ModelState.FINISHED;
-					DisplayToolkit.inDisplayThread().execute(() -> view.setModel(items, eventsJson, packageDepth));
+					DisplayToolkit.inDisplayThread().execute(() -> view.setModel(items, modelJson, packageDepth));
 				}
 			} catch (Exception e) {
 				exception = e;
@@ -182,9 +185,8 @@ public class DependencyView extends ViewPart implements ISelectionListener {
 		public void run() {
 			if (this.isChecked()) {
 				diagramType = type;
-				if (currentItems != null) {
-					String eventsJson = IItemCollectionJsonSerializer.toJsonString(currentItems, () -> false);
-					browser.execute(String.format("updateGraph(`%s`, %d, `%s`);", eventsJson, packageDepth,
+				if (currentItems != null && modelJson != null) {
+					browser.execute(String.format("updateGraph(`%s`, %d, `%s`);", modelJson, packageDepth,
 							diagramType.name()));
 				}
 			}
@@ -215,6 +217,7 @@ public class DependencyView extends ViewPart implements ISelectionListener {
 	private ModelRebuildRunnable modelRebuildRunnable;
 	private int packageDepth = 2;
 	private DiagramType diagramType = DiagramType.CHORD;
+	private String modelJson;
 
 	@Override
 	public void init(IViewSite site, IMemento memento) throws PartInitException {
@@ -343,17 +346,18 @@ public class DependencyView extends ViewPart implements ISelectionListener {
 		}
 	}
 
-	private void setModel(final IItemCollection items, final String eventsJson, int packageDepth) {
+	private void setModel(final IItemCollection items, final String modelJson, int packageDepth) {
 		if (ModelState.FINISHED.equals(modelState) && items.equals(currentItems) && !browser.isDisposed()) {
-			setViewerInput(eventsJson, packageDepth);
+			setViewerInput(modelJson, packageDepth);
 		}
 	}
 
-	private void setViewerInput(String eventsJson, int packageDepth) {
+	private void setViewerInput(String modelJson, int packageDepth) {
+		this.modelJson = modelJson;
 		browser.setText(HTML_PAGE);
 		browser.addListener(SWT.Resize, event -> {
 			browser.execute(
-					String.format("updateGraph(`%s`, %d, `%s`);", eventsJson, packageDepth, diagramType.name()));
+					String.format("updateGraph(`%s`, %d, `%s`);", modelJson, packageDepth, diagramType.name()));
 		});
 
 		browser.addProgressListener(new ProgressAdapter() {
@@ -370,7 +374,7 @@ public class DependencyView extends ViewPart implements ISelectionListener {
 			public void completed(ProgressEvent event) {
 				browser.removeProgressListener(this);
 				browser.execute(
-						String.format("updateGraph(`%s`, %d, `%s`);", eventsJson, packageDepth, diagramType.name()));
+						String.format("updateGraph(`%s`, %d, `%s`);", modelJson, packageDepth, diagramType.name()));
 				loaded = true;
 			}
 		});
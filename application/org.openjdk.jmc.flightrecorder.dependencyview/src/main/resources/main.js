@@ -3,9 +3,9 @@ let height = window.innerHeight;
 
 let levels = 2;
 
-function updateGraph(eventsJson, packageLevels, chartType) {
-	const data = JSON.parse(eventsJson);
-	debug(`${chartType} displaying ${data.events.length} events`);
+function updateGraph(dependenciesJson, packageLevels, chartType) {
+	const data = JSON.parse(dependenciesJson);
+	debug(`${chartType} displaying ${data.items} events`);
 	try {
 		levels = packageLevels;
 		width = window.innerWidth;
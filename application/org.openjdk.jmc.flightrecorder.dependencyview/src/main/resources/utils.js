@@ -1,21 +1,3 @@
-class StackTrace {
-	constructor(stackTraceData) {
-		const frames = (stackTraceData && stackTraceData.frames) || [];
-		this.frames = frames.map((frame) => new StackFrame(frame));
-	}
-}
-
-class StackFrame {
-	constructor({ name }) {
-		this.id = name;
-		const [fqcn, method] = name.split("#");
-		const lastDelimiterIdx = fqcn.lastIndexOf(".");
-		this.package = new Package(fqcn.slice(0, lastDelimiterIdx));
-		this.clazz = fqcn.slice(lastDelimiterIdx + 1);
-		this.method = method.split("(")[0];
-	}
-}
-
 class Package {
 	constructor(name) {
 		this.name = name;
@@ -36,21 +18,6 @@ class Package {
 	}
 }
 
-class Event {
-	constructor({ type, attributes }) {
-		this.type = type;
-		if (!attributes) {
-			return;
-		}
-		this.time = attributes.startTime ||
-					attributes.endTime ||
-					attributes["(endTime)"]
-		this.eventThread = attributes.eventThread;
-		this.stackTrace = new StackTrace(attributes.stackTrace);
-		this.state = attributes.state;
-	}
-}
-
 function debug(msg) {
 	const displayEl = document.getElementById("debug");
 	displayEl.innerHTML += "<br />" + msg;
@@ -61,42 +28,21 @@ function clear() {
 }
 
 // data manipulation for chord diagram
-function truncatePackage(name, level) {
-	return name.split(".").slice(0, level).join(".");
-}
-
+// the package dependencies are counted by the view, with edges sorted by decreasing count
 function transformChordData(json) {
-	const events = json.events.map((e) => new Event(e));
 	// the number of edges rendered on the chart
 	// if the dataset contains more, we show the largest weights
 	const numEdges = Math.min(500, Math.round(Math.min(width, height) / 5));
-	let calls = {};
-	events.forEach((e) => {
-		const frames = e.stackTrace.frames;
-		const len = frames.length;
-		for (let i = len - 1; i > 0; i--) {
-			const source = truncatePackage(frames[i].package.name, levels);
-			const target = truncatePackage(frames[i - 1].package.name, levels);
-			const id = `${source} ${target}`;
-			calls[id] = (calls[id] || 0) + 1;
-		}
-	});
-
-	const totalEdges = Object.keys(calls).length;
+	const totalEdges = json.edges.length;
 	if (numEdges < totalEdges) {
 		displayWarning(numEdges, totalEdges);
 	} else {
 		clearWarning();
 	}
 
-	calls = Object.entries(calls)
-		.sort(([, a], [, b]) => b - a)
+	return json.edges
 		.slice(0, numEdges)
-		.reduce((r, [k, v]) => ({ ...r, [k]: v }), {});
-	return Object.keys(calls).map((id) => {
-		const [source, target] = id.split(" ");
-		return { source, target, value: calls[id] };
-	});
+		.map(({ source, target, value }) => ({ source, target, value }));
 }
 
 function displayWarning(shown, total) {
@@ -114,28 +60,14 @@ function clearWarning() {
 // data manipulation for hierarchical edge bundling diagram
 function transformEdgeBundlingData(data) {
 	const graph = new Graph();
-	data.events
-		.map((d) => new Event(d))
-		.forEach((event) => {
-			const stackTrace = event.stackTrace;
-			if (stackTrace) {
-				const frames = stackTrace.frames.reverse();
-				for (let idx = 0; idx < frames.length; idx++) {
-					const currentFrame = frames[idx];
-					const parentFrame = frames[idx - 1];
-					const current = graph.createAllNodes(currentFrame);
-					if (parentFrame) {
-						const parent = graph.createAllNodes(parentFrame);
-						if (parent != current) {
-							parent.addIncoming(current);
-							current.addOutgoing(parent);
-						}
-					}
-					if (idx === frames.length - 1) {
-						current.leaf = true;
-					}
-				}
-			}
+	data.packages.forEach((name) => graph.createAllNodes(name));
+	data.edges
+		.filter(({ source, target }) => source !== target)
+		.forEach(({ source, target }) => {
+			const parent = graph.createAllNodes(source);
+			const current = graph.createAllNodes(target);
+			parent.addIncoming(current);
+			current.addOutgoing(parent);
 		});
 	return graph;
 }
@@ -158,8 +90,8 @@ class Graph {
 		this.nodesByName = { root: this.root };
 	}
 
-	createAllNodes(frame) {
-		const nodeNames = frame.package.subpackages(levels);
+	createAllNodes(packageName) {
+		const nodeNames = new Package(packageName).subpackages(levels);
 		let node = this.root;
 		for (let nodeName of nodeNames) {
 			const child = this.ensureNode(nodeName);
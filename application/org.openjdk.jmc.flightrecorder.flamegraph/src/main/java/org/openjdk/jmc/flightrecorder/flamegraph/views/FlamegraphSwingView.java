@@ -180,9 +180,12 @@ public class FlamegraphSwingView extends ViewPart implements ISelectionListener
 	private ExportAction[] exportActions;
 	private boolean threadRootAtTop = true;
 	private boolean icicleViewActive = true;
-	private IItemCollection currentItems;
+	private volatile IItemCollection currentItems;
 	private volatile ModelState modelState = ModelState.NONE;
 	private ModelRebuildRunnable modelRebuildRunnable;
+	// The model whose frames are shown, and a model with its layout that is not shown and can be updated
+	private Pair<StacktraceTreeModel, List<FrameBox<Node>>> displayedTreeModel;
+	private Pair<StacktraceTreeModel, List<FrameBox<Node>>> spareTreeModel;
 	private IAttribute<IQuantity> currentAttribute;
 	private AttributeSelection attributeSelection;
 	private IToolBarManager toolBar;
@@ -356,16 +359,33 @@ public class FlamegraphSwingView extends ViewPart implements ISelectionListener
 				if (attribute != null) {
 					filteredItems = filteredItems.apply(ItemFilters.hasAttribute(attribute));
 				}
-				var treeModel = new StacktraceTreeModel(filteredItems, view.frameSeparator, !view.threadRootAtTop,
-						attribute, () -> isInvalid);
+				StacktraceTreeModel treeModel;
+				List<FrameBox<Node>> frameBoxList = null;
+				var previous = view.takeSpareTreeModel();
+				if (previous != null && Objects.equals(previous.left.getAttribute(), attribute)
+						&& previous.left.isInvertedStacks() == !view.threadRootAtTop
+						&& previous.left.getFrameSeparator().equals(view.frameSeparator)) {
+					// Only apply the stack traces that changed, and keep the layout if nothing did
+					treeModel = previous.left;
+					if (!treeModel.update(filteredItems, () -> isInvalid)) {
+						frameBoxList = previous.right;
+					}
+				} else {
+					treeModel = new StacktraceTreeModel(filteredItems, view.frameSeparator, !view.threadRootAtTop,
+							attribute, () -> isInvalid);
+				}
 				if (isInvalid) {
+					// The model is not shown, so it can still be updated by the next rebuild
+					view.putSpareTreeModel(new Pair<>(treeModel, null));
 					return;
 				}
 				var rootFrameDescription = createRootNodeDescription(items);
-				var frameBoxList = convert(treeModel);
+				if (frameBoxList == null) {
+					frameBoxList = convert(treeModel);
+				}
 				if (!isInvalid) {
 					view.modelState = ModelState.FINISHED;
-					view.setModel(items, frameBoxList, rootFrameDescription);
+					view.setModel(items, new Pair<>(treeModel, frameBoxList), rootFrameDescription);
 					DisplayToolkit.inDisplayThread().execute(() -> {
 						var attributeList = AttributeSelection.extractAttributes(items);
 						String attrName = attribute != null ? attribute.getName() : null;
@@ -789,6 +809,32 @@ public class FlamegraphSwingView extends ViewPart implements ISelectionListener
 		}
 	}
 
+	/**
+	 * Takes the tree model that is not displayed, and its frame layout if any, so that the next model
+	 * can be built by updating it. The nodes of the displayed model are read by the Swing thread and
+	 * are never updated. Only one rebuild at a time can own the spare model.
+	 */
+	private synchronized Pair<StacktraceTreeModel, List<FrameBox<Node>>> takeSpareTreeModel() {
+		var treeModel = spareTreeModel;
+		spareTreeModel = null;
+		return treeModel;
+	}
+
+	private synchronized void putSpareTreeModel(Pair<StacktraceTreeModel, List<FrameBox<Node>>> treeModel) {
+		spareTreeModel = treeModel;
+	}
+
+	/**
+	 * Called on the Swing thread once the frames of a model are displayed. The previously displayed
+	 * model is then no longer read and becomes the spare model.
+	 */
+	private synchronized void treeModelDisplayed(Pair<StacktraceTreeModel, List<FrameBox<Node>>> treeModel) {
+		if (displayedTreeModel != null && displayedTreeModel.left != treeModel.left) {
+			spareTreeModel = displayedTreeModel;
+		}
+		displayedTreeModel = treeModel;
+	}
+
 	private IAttribute<IQuantity> getCurrentAttribute() {
 		return currentAttribute;
 	}
@@ -798,12 +844,20 @@ public class FlamegraphSwingView extends ViewPart implements ISelectionListener
 	}
 
 	private void setModel(
-		final IItemCollection items, final List<FrameBox<Node>> flatFrameList, String rootFrameDescription) {
+		final IItemCollection items, final Pair<StacktraceTreeModel, List<FrameBox<Node>>> treeModel,
+		String rootFrameDescription) {
+		var flatFrameList = treeModel.right;
 		if (ModelState.FINISHED.equals(modelState) && items.equals(currentItems)) {
 			SwingUtilities.invokeLater(() -> {
+				if (!items.equals(currentItems)) {
+					// The selection changed while the model was waiting to be shown
+					putSpareTreeModel(treeModel);
+					return;
+				}
 				flamegraphView.setModel(new FrameModel<>(rootFrameDescription,
 						(frameA, frameB) -> Objects.equals(frameA.actualNode.getFrame(), frameB.actualNode.getFrame()),
 						flatFrameList));
+				treeModelDisplayed(treeModel);
 
 				Display.getDefault().asyncExec(() -> {
 					if (embeddingComposite.isDisposed()) {
@@ -812,6 +866,8 @@ public class FlamegraphSwingView extends ViewPart implements ISelectionListener
 					Stream.of(exportActions).forEach((action) -> action.setEnabled(!flatFrameList.isEmpty()));
 				});
 			});
+		} else {
+			putSpareTreeModel(treeModel);
 		}
 	}
 
@@ -65,8 +65,12 @@ import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.part.ViewPart;
 import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.common.item.ItemCollectionToolkit;
+import org.openjdk.jmc.common.item.ItemCountMatrix;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.common.util.StringToolkit;
-import org.openjdk.jmc.flightrecorder.serializers.json.IItemCollectionJsonSerializer;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.serializers.json.ItemCountMatrixJsonSerializer;
 import org.openjdk.jmc.flightrecorder.ui.FlightRecorderUI;
 import org.openjdk.jmc.ui.common.util.AdapterUtil;
 import org.openjdk.jmc.ui.misc.DisplayToolkit;
@@ -80,6 +84,8 @@ public class HeatmapView extends ViewPart implements ISelectionListener {
 				loadStringFromFile("heatmap.js"));
 	}
 
+	private static final IQuantity BUCKET_SIZE = UnitLookup.MILLISECOND.quantity(100);
+
 	private enum ModelState {
 		NOT_STARTED, STARTED, FINISHED, NONE;
 	}
@@ -108,12 +114,15 @@ public class HeatmapView extends ViewPart implements ISelectionListener {
 				if (isInvalid) {
 					return;
 				}
-				String eventsJson = IItemCollectionJsonSerializer.toJsonString(items, () -> isInvalid);
-				if (isInvalid) {
+				// Only the binned counts are sent to the browser, not the events
+				ItemCountMatrix matrix = ItemCountMatrix.build(items, JfrAttributes.START_TIME, BUCKET_SIZE,
+						() -> isInvalid);
+				if (isInvalid || matrix == null) {
 					return;
 				} else {
+					String heatmapJson = ItemCountMatrixJsonSerializer.toJsonString(matrix);
 					view.modelState = ModelState.FINISHED;
-					DisplayToolkit.inDisplayThread().execute(() -> view.setModel(items, eventsJson));
+					DisplayToolkit.inDisplayThread().execute(() -> view.setModel(items, heatmapJson));
 				}
 			} catch (Exception e) {
 				exception = e;
@@ -209,13 +218,13 @@ public class HeatmapView extends ViewPart implements ISelectionListener {
 		}
 	}
 
-	private void setModel(final IItemCollection items, final String eventsJson) {
+	private void setModel(final IItemCollection items, final String heatmapJson) {
 		if (ModelState.FINISHED.equals(modelState) && items.equals(currentItems) && !browser.isDisposed()) {
-			setViewerInput(eventsJson);
+			setViewerInput(heatmapJson);
 		}
 	}
 
-	private void setViewerInput(String eventsJson) {
+	private void setViewerInput(String heatmapJson) {
 		browser.setText(HTML_PAGE);
 
 		browser.addProgressListener(new ProgressAdapter() {
@@ -231,7 +240,7 @@ public class HeatmapView extends ViewPart implements ISelectionListener {
 			@Override
 			public void completed(ProgressEvent event) {
 				browser.removeProgressListener(this);
-				browser.execute(String.format("updateHeatmap(`%s`);", eventsJson));
+				browser.execute(String.format("updateHeatmap(`%s`);", heatmapJson));
 				loaded = true;
 			}
 		});
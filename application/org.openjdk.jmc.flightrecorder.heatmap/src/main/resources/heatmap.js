@@ -53,9 +53,8 @@ window.logger = new Logger();
 
 try {
 	function updateHeatmap(jsonStr) {
-		const rawData = JSON.parse(jsonStr);
-		const eventTimes = getEventTimes(rawData);
-		const binnedData = getBinnedData(eventTimes);
+		const matrix = JSON.parse(jsonStr);
+		const binnedData = getBinnedData(matrix);
 		chart.data = binnedData;
 		renderHeatmap(chart.data);
 	}
@@ -73,26 +72,15 @@ try {
 		return result;
 	}
 
-	function getEventTimes(rawData) {
-		return rawData.events
-			.filter((event) => event.attributes)
-			.map(
-				(event) =>
-					event.attributes.startTime ||
-					event.attributes.endTime ||
-					event.attributes["(endTime)"]
-			)
-			.map((time) => new Date(time / 10e5));
-	}
-
-	function getBinnedData(eventTimes) {
-		const scale = d3.scaleTime().domain(d3.extent(eventTimes)).nice(); // ♥️♥️♥️
-		const timeRangeMs = scale.domain()[1] - scale.domain()[0];
-		const binFn = d3
-			.bin()
-			.domain(scale.domain())
-			.thresholds(timeRangeMs / 100);
-		return binFn(eventTimes);
+	// The events are counted in time buckets by the view, with start and bucket size in nanoseconds
+	function getBinnedData(matrix) {
+		const startMs = matrix.xStart / 10e5;
+		const bucketSizeMs = matrix.xBucketSize / 10e5;
+		return matrix.counts.map((row, i) => ({
+			x0: new Date(startMs + i * bucketSizeMs),
+			x1: new Date(startMs + (i + 1) * bucketSizeMs),
+			length: d3.sum(row),
+		}));
 	}
 
 	function getChartConfig(binnedData) {
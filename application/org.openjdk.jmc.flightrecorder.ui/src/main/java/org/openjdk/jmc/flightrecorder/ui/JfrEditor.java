@@ -77,7 +77,6 @@ import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.IRange;
 import org.openjdk.jmc.common.util.ExceptionToolkit;
-import org.openjdk.jmc.flightrecorder.internal.EventArrays;
 import org.openjdk.jmc.flightrecorder.ui.common.ImageConstants;
 import org.openjdk.jmc.flightrecorder.ui.messages.internal.Messages;
 import org.openjdk.jmc.flightrecorder.ui.preferences.PreferenceKeys;
@@ -381,9 +380,9 @@ public class JfrEditor extends EditorPart implements INavigationLocationProvider
 		setPartName(ei.getName());
 	}
 
-	void repositoryLoaded(EventArrays repo, IRange<IQuantity> fullRange) {
+	void repositoryLoaded(StreamModel model, IRange<IQuantity> fullRange) {
 		if (!resultContainer.isDisposed()) {
-			items = new StreamModel(repo);
+			items = model;
 			this.fullRange = fullRange;
 			try {
 				getSite().getPage().showView(CONTENT_OUTLINE_VIEW_ID, null, IWorkbenchPage.VIEW_VISIBLE);
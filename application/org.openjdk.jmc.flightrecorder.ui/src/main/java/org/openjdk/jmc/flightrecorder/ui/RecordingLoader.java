@@ -33,14 +33,14 @@
 package org.openjdk.jmc.flightrecorder.ui;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.text.MessageFormat;
 import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -48,11 +48,9 @@ import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.dialogs.ProgressIndicator;
-import org.eclipse.jface.window.Window;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IEditorInput;
 import org.openjdk.jmc.common.IDisplayable;
-import org.openjdk.jmc.common.collection.ListToolkit;
 import org.openjdk.jmc.common.io.IOToolkit;
 import org.openjdk.jmc.common.item.IItem;
 import org.openjdk.jmc.common.item.IMemberAccessor;
@@ -64,18 +62,20 @@ import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
 import org.openjdk.jmc.flightrecorder.JfrAttributes;
 import org.openjdk.jmc.flightrecorder.JfrLoaderToolkit;
 import org.openjdk.jmc.flightrecorder.internal.ChunkInfo;
+import org.openjdk.jmc.flightrecorder.internal.ChunkedItemCollection;
 import org.openjdk.jmc.flightrecorder.internal.EventArray;
 import org.openjdk.jmc.flightrecorder.internal.EventArrays;
 import org.openjdk.jmc.flightrecorder.internal.FlightRecordingLoader;
 import org.openjdk.jmc.flightrecorder.internal.NotEnoughMemoryException;
 import org.openjdk.jmc.flightrecorder.internal.VersionNotSupportedException;
+import org.openjdk.jmc.flightrecorder.parser.ParserExtensionRegistry;
+import org.openjdk.jmc.flightrecorder.stacktrace.FrameFilter;
 import org.openjdk.jmc.flightrecorder.ui.messages.internal.Messages;
 import org.openjdk.jmc.flightrecorder.ui.preferences.PreferenceKeys;
 import org.openjdk.jmc.ui.MCPathEditorInput;
 import org.openjdk.jmc.ui.WorkbenchToolkit;
 import org.openjdk.jmc.ui.misc.DialogToolkit;
 import org.openjdk.jmc.ui.misc.DisplayToolkit;
-import org.openjdk.jmc.ui.wizards.OnePageWizardDialog;
 
 public class RecordingLoader extends Job {
 
@@ -96,9 +96,7 @@ public class RecordingLoader extends Job {
 		boolean closeEditor = true;
 		try {
 			File file = MCPathEditorInput.getFile(ei);
-			EventArrays events = doCreateRecording(file, new ProgressMonitor(monitor, ui));
-			checkForJRockitRecording(events);
-			onRecordingLoaded(events);
+			doCreateRecording(file, new ProgressMonitor(monitor, ui));
 			closeEditor = false;
 			return Status.OK_STATUS;
 		} catch (VersionNotSupportedException e) {
@@ -118,6 +116,7 @@ public class RecordingLoader extends Job {
 	}
 
 	private void onRecordingLoaded(EventArrays events) {
+		checkForJRockitRecording(events);
 		IQuantity startTime = null;
 		IQuantity endTime = null;
 		for (EventArray typeEntry : events.getArrays()) {
@@ -135,6 +134,15 @@ public class RecordingLoader extends Job {
 				}
 			}
 		}
+		onRecordingLoaded(new StreamModel(events), startTime, endTime);
+	}
+
+	private void onRecordingLoaded(ChunkedItemCollection items) {
+		IRange<IQuantity> chunksRange = getRange(items.getChunks());
+		onRecordingLoaded(new StreamModel(items), chunksRange.getStart(), chunksRange.getEnd());
+	}
+
+	private void onRecordingLoaded(StreamModel model, IQuantity startTime, IQuantity endTime) {
 		String warning;
 		if (startTime == null) {
 			warning = Messages.FILE_OPENER_WARNING_NO_EVENTS;
@@ -157,34 +165,38 @@ public class RecordingLoader extends Job {
 				if (warning != null) {
 					DialogToolkit.showWarning(editor.getSite().getShell(), Messages.FILE_OPENER_WARNING_TITLE, warning);
 				}
-				editor.repositoryLoaded(events, fullRange);
+				editor.repositoryLoaded(model, fullRange);
 			}
 		});
 	}
 
-	private EventArrays doCreateRecording(File file, ProgressMonitor lm)
+	private void doCreateRecording(File file, ProgressMonitor lm)
 			throws CouldNotLoadRecordingException, IOException {
-		// FIXME: Can we calculate available memory without resorting to System.gc?
-		System.gc();
-		Runtime runtime = Runtime.getRuntime();
-		long availableMemory = runtime.maxMemory() - runtime.totalMemory() + runtime.freeMemory();
+		long availableMemory = getAvailableMemory();
 
 		boolean showHiddenFrames = shouldShowHiddenFrames();
 
 		if (availableMemory > (zippedFileMemoryFactor * file.length())) { // Try load from stream
-			try (InputStream stream = IOToolkit.openUncompressedStream(file)) {
+			EventArrays events = null;
+			try (FileInputStream stream = new FileInputStream(file)) {
 				boolean hideExperimentals = !FlightRecorderUI.getDefault().includeExperimentalEventsAndFields();
 				boolean ignoreTruncatedChunk = FlightRecorderUI.getDefault().allowIncompleteRecordingFile();
-				return JfrLoaderToolkit.loadStream(stream, hideExperimentals, ignoreTruncatedChunk, showHiddenFrames);
+				// The file is decompressed while the chunks are parsed, so track progress by file position
+				lm.setWorkSize(stream.getChannel(), file.length());
+				events = JfrLoaderToolkit.loadStream(lm, stream, hideExperimentals, ignoreTruncatedChunk,
+						showHiddenFrames);
 			} catch (NotEnoughMemoryException | OutOfMemoryError e) {
-				// Try to load part of the file
+				// Load from the unzipped file instead
+			}
+			if (events != null) {
+				onRecordingLoaded(events);
+				return;
 			}
 		}
-		String fileName = file.getName();
 		if (IOToolkit.isCompressedFile(file)) {
 			file = unzipFile(file);
 		}
-		return loadFromUnzippedFile(file, fileName, lm, availableMemory);
+		loadFromUnzippedFile(file, lm, availableMemory);
 	}
 
 	private static void checkForJRockitRecording(EventArrays events) {
@@ -202,48 +214,50 @@ public class RecordingLoader extends Job {
 		}
 	}
 
-	private EventArrays loadFromUnzippedFile(
-		File unzippedFile, String recordingFileName, ProgressMonitor lm, long availableMemory)
+	/**
+	 * Load all chunks of the file if it fits in memory. Otherwise, or if loading all chunks fails,
+	 * only keep as many chunks in memory as fit and reload other chunks when they are needed.
+	 */
+	private void loadFromUnzippedFile(File unzippedFile, ProgressMonitor lm, long availableMemory)
 			throws IOException, CouldNotLoadRecordingException {
 		boolean hideExperimentals = !FlightRecorderUI.getDefault().includeExperimentalEventsAndFields();
 		boolean ignoreTruncatedChunk = FlightRecorderUI.getDefault().allowIncompleteRecordingFile();
 		boolean showHiddenFrames = shouldShowHiddenFrames();
+		long maxLoadSize = availableMemory / UNZIPPED_FILE_TO_MEMORY_QUOTA;
 
+		List<ChunkInfo> allChunks;
+		EventArrays events = null;
 		try (RandomAccessFile raf = new RandomAccessFile(unzippedFile, "r")) { //$NON-NLS-1$
-			List<ChunkInfo> allChunks = FlightRecordingLoader
-					.readChunkInfo(FlightRecordingLoader.createChunkSupplier(raf));
-			IRange<IQuantity> fullRange = getRange(allChunks);
-			long maxLoadSize = availableMemory / UNZIPPED_FILE_TO_MEMORY_QUOTA;
-			List<ChunkInfo> toLoad = (unzippedFile.length() > maxLoadSize) ? getLastChunks(allChunks, maxLoadSize)
-					: allChunks;
-			while (!toLoad.isEmpty()) {
+			allChunks = FlightRecordingLoader.readChunkInfo(FlightRecordingLoader.createChunkSupplier(raf));
+			if (unzippedFile.length() <= maxLoadSize) {
 				try {
 					raf.seek(0);
-					if (toLoad.size() != allChunks.size()) {
-						IRange<IQuantity> toLoadRange = getRange(toLoad);
-						IRange<IQuantity> confirmedRange = confirmRangeWizard(toLoadRange, fullRange,
-								recordingFileName);
-						if (!toLoadRange.equals(confirmedRange)) {
-							toLoad = getChunksInRange(allChunks, confirmedRange);
-						}
-						lm.setWorkSize(toLoad.size());
-						return JfrLoaderToolkit.readChunks(lm, FlightRecordingLoader.createChunkSupplier(raf, toLoad),
-								hideExperimentals, ignoreTruncatedChunk, showHiddenFrames);
-					} else {
-						lm.setWorkSize(allChunks.size());
-						return JfrLoaderToolkit.readChunks(lm, FlightRecordingLoader.createChunkSupplier(raf),
-								hideExperimentals, ignoreTruncatedChunk, showHiddenFrames);
-					}
-				} catch (NotEnoughMemoryException nem) {
-					// Try again with lower loadQuota
-				} catch (OutOfMemoryError e) {
-					// Try again with lower loadQuota
+					lm.setWorkSize(allChunks.size());
+					events = JfrLoaderToolkit.readChunks(lm, FlightRecordingLoader.createChunkSupplier(raf),
+							hideExperimentals, ignoreTruncatedChunk, showHiddenFrames);
+				} catch (NotEnoughMemoryException | OutOfMemoryError e) {
+					// Load the chunks on demand instead, keeping less than what just failed to fit
+					maxLoadSize = Math.min(unzippedFile.length() / 2,
+							getAvailableMemory() / UNZIPPED_FILE_TO_MEMORY_QUOTA);
 				}
-				int keepChunks = (int) (toLoad.size() * 0.7);
-				toLoad = toLoad.subList(toLoad.size() - keepChunks, toLoad.size());
 			}
 		}
-		throw new NotEnoughMemoryException();
+		if (events != null) {
+			onRecordingLoaded(events);
+			return;
+		}
+		lm.setWorkSize(allChunks.size());
+		ChunkedItemCollection items = ChunkedItemCollection.load(lm, unzippedFile, allChunks, maxLoadSize,
+				ParserExtensionRegistry.getParserExtensions(), hideExperimentals, ignoreTruncatedChunk,
+				showHiddenFrames ? null : FrameFilter.EXCLUDE_HIDDEN);
+		onRecordingLoaded(items);
+	}
+
+	private static long getAvailableMemory() {
+		// FIXME: Can we calculate available memory without resorting to System.gc?
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.maxMemory() - runtime.totalMemory() + runtime.freeMemory();
 	}
 
 	private boolean shouldShowHiddenFrames() {
@@ -288,45 +302,6 @@ public class RecordingLoader extends Job {
 		return QuantityRange.createWithEnd(minStart, maxEnd);
 	}
 
-	private static List<ChunkInfo> getChunksInRange(List<ChunkInfo> chunks, IRange<IQuantity> range) {
-		return chunks.stream().filter(ci -> QuantityRange.intersection(ci.getChunkRange(), range) != null)
-				.collect(Collectors.toList());
-	}
-
-	private static List<ChunkInfo> getLastChunks(List<ChunkInfo> chunks, long maxTotalSize) {
-		LinkedList<ChunkInfo> result = new LinkedList<>();
-		for (ChunkInfo ci : ListToolkit.backwards(chunks)) {
-			if (maxTotalSize > ci.getChunkSize()) {
-				result.addFirst(ci);
-				maxTotalSize -= ci.getChunkSize();
-			} else {
-				break;
-			}
-		}
-		return result;
-	}
-
-	private IRange<IQuantity> confirmRangeWizard(
-		IRange<IQuantity> suggested, IRange<IQuantity> fullRange, String recordingFileName) {
-		SelectRangeWizardPage rangeWizard = new SelectRangeWizardPage(suggested, fullRange, recordingFileName);
-		final OnePageWizardDialog dialog = new OnePageWizardDialog(editor.getSite().getShell(), rangeWizard);
-		dialog.setWidthConstraint(600, 600);
-		dialog.setHeightConstraint(400, 400);
-		DisplayToolkit.safeSyncExec(new Runnable() {
-
-			@Override
-			public void run() {
-				dialog.open();
-			}
-
-		});
-		if (dialog.getReturnCode() == Window.OK) {
-			return rangeWizard.getRange();
-		} else {
-			throw new OperationCanceledException();
-		}
-	}
-
 	private void bringToFront() {
 		DisplayToolkit.safeSyncExec(new Runnable() {
 			@Override
@@ -338,8 +313,12 @@ public class RecordingLoader extends Job {
 
 	private static class ProgressMonitor implements Runnable {
 
+		private static final int FILE_POSITION_WORK_SIZE = 1000;
 		private final IProgressMonitor pm;
 		private final ProgressIndicator ui;
+		private FileChannel channel;
+		private long fileSize;
+		private int worked;
 
 		ProgressMonitor(IProgressMonitor pm, ProgressIndicator ui) {
 			this.pm = pm;
@@ -347,17 +326,43 @@ public class RecordingLoader extends Job {
 		}
 
 		public void setWorkSize(int totalWork) {
+			channel = null;
 			pm.beginTask("", totalWork); //$NON-NLS-1$
 			DisplayToolkit.safeAsyncExec(() -> ui.beginTask(totalWork));
 		}
 
+		/**
+		 * Report progress as the read position in a file rather than as the number of loaded
+		 * chunks.
+		 */
+		public void setWorkSize(FileChannel channel, long fileSize) {
+			setWorkSize(FILE_POSITION_WORK_SIZE);
+			this.channel = channel;
+			this.fileSize = Math.max(fileSize, 1);
+			worked = 0;
+		}
+
 		@Override
 		public void run() {
 			if (pm.isCanceled()) {
 				throw new OperationCanceledException();
 			}
-			pm.worked(1);
-			DisplayToolkit.safeAsyncExec(() -> ui.worked(1));
+			int work = 1;
+			if (channel != null) {
+				try {
+					int done = (int) Math.min(channel.position() * FILE_POSITION_WORK_SIZE / fileSize,
+							FILE_POSITION_WORK_SIZE);
+					work = done - worked;
+					worked = done;
+				} catch (IOException e) {
+					work = 0;
+				}
+			}
+			if (work > 0) {
+				int newWork = work;
+				pm.worked(newWork);
+				DisplayToolkit.safeAsyncExec(() -> ui.worked(newWork));
+			}
 		}
 
 	}
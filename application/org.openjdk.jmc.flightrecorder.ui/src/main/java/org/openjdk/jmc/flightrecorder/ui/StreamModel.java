@@ -33,6 +33,8 @@
 package org.openjdk.jmc.flightrecorder.ui;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -54,6 +56,7 @@ import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.IRange;
 import org.openjdk.jmc.common.util.PredicateToolkit;
 import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.internal.ChunkedItemCollection;
 import org.openjdk.jmc.flightrecorder.internal.EventArray;
 import org.openjdk.jmc.flightrecorder.internal.EventArrays;
 import org.openjdk.jmc.flightrecorder.ui.EventTypeFolderNode.TypeWithCategory;
@@ -61,17 +64,32 @@ import org.openjdk.jmc.flightrecorder.ui.EventTypeFolderNode.TypeWithCategory;
 public class StreamModel {
 
 	private final EventArray[] eventsByType;
+	private final ChunkedItemCollection chunkedItems;
 	private final Set<IRange<IQuantity>> chunkRanges;
 	private final IItemCollection constantPools;
 	private final IItemCollection constants;
 
 	StreamModel(EventArrays eventsByType) {
 		this.eventsByType = eventsByType.getArrays();
+		this.chunkedItems = null;
 		this.chunkRanges = eventsByType.getChunkTimeranges();
 		this.constantPools = eventsByType.getConstantPools();
 		this.constants = eventsByType.getConstants();
 	}
 
+	/**
+	 * Create a model for a recording that is too large to keep in memory. Chunks are loaded from
+	 * the file when needed. Constant pool statistics are available, but the constants themselves
+	 * are not, see {@link #hasConstants()}.
+	 */
+	StreamModel(ChunkedItemCollection chunkedItems) {
+		this.eventsByType = null;
+		this.chunkedItems = chunkedItems;
+		this.chunkRanges = chunkedItems.getUnfilteredTimeRanges();
+		this.constantPools = chunkedItems.getConstantPools();
+		this.constants = ItemCollectionToolkit.EMPTY;
+	}
+
 	public IItemCollection getConstantPools() {
 		return constantPools;
 	}
@@ -80,7 +98,18 @@ public class StreamModel {
 		return constants;
 	}
 
+	/**
+	 * @return {@code false} if the constants of the recording are not kept in memory, in which case
+	 *         {@link #getConstants()} is empty
+	 */
+	public boolean hasConstants() {
+		return chunkedItems == null;
+	}
+
 	public IItemCollection getItems(IRange<IQuantity> range, IItemFilter filter) {
+		if (chunkedItems != null) {
+			return chunkedItems.selectRange(range).apply(filter);
+		}
 		IItemIterable[] rangedStreams = Stream.of(eventsByType).map(ea -> {
 			IType<IItem> eventType = ea.getType();
 			Predicate<IItem> predicate = filter.getPredicate(eventType);
@@ -97,6 +126,9 @@ public class StreamModel {
 	}
 
 	public IItemCollection getItems(IRange<IQuantity> range) {
+		if (chunkedItems != null) {
+			return chunkedItems.selectRange(range);
+		}
 		return ItemCollectionToolkit.build(
 				() -> Arrays.stream(eventsByType)
 						.map(ea -> ItemIterableToolkit
@@ -105,6 +137,9 @@ public class StreamModel {
 	}
 
 	public IItemCollection getItems() {
+		if (chunkedItems != null) {
+			return chunkedItems;
+		}
 		return ItemCollectionToolkit.build(
 				() -> Arrays.stream(eventsByType)
 						.map(ea -> ItemIterableToolkit.build(() -> Arrays.stream(ea.getEvents()), ea.getType())),
@@ -167,6 +202,9 @@ public class StreamModel {
 	}
 
 	public EventTypeFolderNode getTypeTree(Stream<IItemIterable> items) {
+		if (chunkedItems != null) {
+			return getChunkedTypeTree(items);
+		}
 		Map<IType<IItem>, Long> itemCountByType = items
 				.collect(Collectors.toMap(IItemIterable::getType, is -> is.getItemCount(), Long::sum));
 		Function<EventArray, TypeWithCategory> eventArrayToTypeWithCategoryMapper = ea -> {
@@ -177,6 +215,20 @@ public class StreamModel {
 				.buildRoot(Stream.of(eventsByType).map(eventArrayToTypeWithCategoryMapper).filter(Objects::nonNull));
 	}
 
+	private EventTypeFolderNode getChunkedTypeTree(Stream<IItemIterable> items) {
+		// Each load of a chunk has its own type instances, so count the items by type identifier
+		Map<String, IType<IItem>> typesById = new LinkedHashMap<>();
+		Map<String, Long> itemCountById = new HashMap<>();
+		items.forEach(is -> {
+			String typeId = is.getType().getIdentifier();
+			typesById.putIfAbsent(typeId, is.getType());
+			itemCountById.merge(typeId, is.getItemCount(), Long::sum);
+		});
+		return EventTypeFolderNode.buildRoot(typesById.entrySet().stream()
+				.map(e -> new TypeWithCategory(e.getValue(), chunkedItems.getTypeCategory(e.getKey()),
+						itemCountById.get(e.getKey()))));
+	}
+
 	public EventTypeFolderNode getTypeTree() {
 		return getTypeTree(getItems().stream());
 	}
@@ -117,11 +117,25 @@ public class BucketBuilder<C extends IItemConsumer<C>> {
 	public static <C extends IItemConsumer<C>, T> IQuantitySeries<T> aggregatorSeries(
 		IItemCollection items, IAggregator<IQuantity, C> a, IAttribute<IQuantity> xAttribute) {
 		return new IQuantitySeries<T>() {
+			// Built on first use and reused for every range, if the aggregator allows it. It keeps a
+			// reference to each item for as long as the series is used; see BucketPyramid.
+			private BucketPyramid<C> pyramid;
+			private boolean pyramidBuilt;
+
 			@Override
-			public XYQuantities<T> getQuantities(SubdividedQuantityRange xBucketRange) {
-				int bucketCount = xBucketRange.getNumSubdividers();
-				BucketBuilder<C> bb = new BucketBuilder<>(bucketCount, xAttribute, a, xBucketRange);
-				IQuantity[] buckets = bb.buildBuckets(items);
+			public synchronized XYQuantities<T> getQuantities(SubdividedQuantityRange xBucketRange) {
+				if (!pyramidBuilt) {
+					pyramid = BucketPyramid.build(items, a, xAttribute);
+					pyramidBuilt = true;
+				}
+				IQuantity[] buckets;
+				if (pyramid != null) {
+					buckets = pyramid.buildBuckets(xBucketRange);
+				} else {
+					int bucketCount = xBucketRange.getNumSubdividers();
+					BucketBuilder<C> bb = new BucketBuilder<>(bucketCount, xAttribute, a, xBucketRange);
+					buckets = bb.buildBuckets(items);
+				}
 				return XYQuantities.create(null, Arrays.asList(buckets), xBucketRange);
 			}
 
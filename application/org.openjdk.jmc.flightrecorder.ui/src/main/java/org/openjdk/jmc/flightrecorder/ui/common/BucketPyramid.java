@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.ui.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmc.common.item.Aggregators;
+import org.openjdk.jmc.common.item.IAggregator;
+import org.openjdk.jmc.common.item.IAttribute;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemConsumer;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.ui.charts.SubdividedQuantityRange;
+
+/**
+ * Items sorted on an x attribute together with pre-merged item consumers for power-of-two sized
+ * blocks of consecutive items. Once built, the items of any x range can be aggregated by merging
+ * O(log n) blocks, so redrawing a chart with a different zoom level or width does not have to
+ * consume every item again.
+ * <p>
+ * The result is exact, but it relies on the merge method of the consumers not modifying or sharing
+ * the merged consumer. This is only known to hold for a few of the aggregators in
+ * {@link Aggregators}, see {@link #build(IItemCollection, IAggregator, IAttribute)}.
+ * <p>
+ * Building the pyramid sorts the items of each type, unless they are already in x order, so it
+ * costs O(n log n) once. The pyramid then keeps, for as long as it is referenced, one array with
+ * a reference to each item, since items at the edges of a bucket are consumed one by one, and one
+ * consumer per {@code LEAF_SIZE} items, about twice over for all levels. The x values are not
+ * kept, but read from the items when bucket boundaries are searched for.
+ */
+class BucketPyramid<C extends IItemConsumer<C>> {
+
+	private static final int LEAF_SIZE = 64;
+
+	private final IAggregator<IQuantity, C> aggregator;
+	private final List<SortedItems> types;
+
+	private class SortedItems {
+		final IType<IItem> type;
+		final IItem[] items;
+		final IMemberAccessor<IQuantity, IItem> xAccessor;
+		/**
+		 * Level k holds consumers for blocks of {@code LEAF_SIZE << k} items.
+		 */
+		final List<List<C>> levels = new ArrayList<>();
+
+		SortedItems(IType<IItem> type, IItem[] items, IMemberAccessor<IQuantity, IItem> xAccessor) {
+			this.type = type;
+			this.items = items;
+			this.xAccessor = xAccessor;
+			List<C> level = IntStream.range(0, (items.length + LEAF_SIZE - 1) / LEAF_SIZE).parallel()
+					.mapToObj(this::buildLeaf).collect(Collectors.toList());
+			while (level.size() > 1) {
+				levels.add(level);
+				List<C> children = level;
+				level = IntStream.range(0, (children.size() + 1) / 2).parallel()
+						.mapToObj(i -> buildNode(children, i)).collect(Collectors.toList());
+			}
+			levels.add(level);
+		}
+
+		private C buildLeaf(int block) {
+			C consumer = aggregator.newItemConsumer(type);
+			int end = Math.min(items.length, (block + 1) * LEAF_SIZE);
+			for (int i = block * LEAF_SIZE; i < end; i++) {
+				consumer.consume(items[i]);
+			}
+			return consumer;
+		}
+
+		private C buildNode(List<C> children, int node) {
+			C consumer = aggregator.newItemConsumer(type).merge(children.get(2 * node));
+			if (2 * node + 1 < children.size()) {
+				consumer = consumer.merge(children.get(2 * node + 1));
+			}
+			return consumer;
+		}
+
+		/**
+		 * @return the index of the first item at or after {@code from} that falls in the bucket
+		 *         {@code bucket} or later
+		 */
+		int firstIndex(SubdividedQuantityRange xRange, int bucket, int from) {
+			// Gallop from the previous position, since the next bucket boundary is typically close
+			int low = from;
+			int high = from;
+			int step = 1;
+			while (high < items.length && getBucket(xRange, high) < bucket) {
+				low = high + 1;
+				high += step;
+				step *= 2;
+			}
+			high = Math.min(high, items.length);
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (getBucket(xRange, mid) < bucket) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		int getBucket(SubdividedQuantityRange xRange, int index) {
+			return xRange.getFloorSubdivider(xAccessor.getMember(items[index]));
+		}
+
+		/**
+		 * Aggregate the items from {@code start} (inclusive) to {@code end} (exclusive) using the
+		 * largest aligned blocks that fit in the range.
+		 */
+		C aggregate(int start, int end) {
+			C consumer = aggregator.newItemConsumer(type);
+			int i = start;
+			while (i < end) {
+				if (i % LEAF_SIZE != 0 || i + LEAF_SIZE > end) {
+					consumer.consume(items[i++]);
+					continue;
+				}
+				int level = 0;
+				int size = LEAF_SIZE;
+				while (level + 1 < levels.size() && i % (size * 2) == 0 && i + size * 2 <= end) {
+					level++;
+					size *= 2;
+				}
+				consumer = consumer.merge(levels.get(level).get(i / size));
+				i += size;
+			}
+			return consumer;
+		}
+	}
+
+	private BucketPyramid(IAggregator<IQuantity, C> aggregator) {
+		this.aggregator = aggregator;
+		types = new ArrayList<>();
+	}
+
+	/**
+	 * Build a pyramid for the items in a collection.
+	 *
+	 * @return the pyramid, or {@code null} if the aggregator is not known to be safe to use with
+	 *         pre-merged consumers
+	 */
+	static <C extends IItemConsumer<C>> BucketPyramid<C> build(
+		IItemCollection items, IAggregator<IQuantity, C> aggregator, IAttribute<IQuantity> xAttribute) {
+		BucketPyramid<C> pyramid = new BucketPyramid<>(aggregator);
+		for (IItemIterable is : items) {
+			if (aggregator.acceptType(is.getType())
+					&& !isMergeSafe(aggregator, aggregator.newItemConsumer(is.getType()))) {
+				return null;
+			}
+		}
+		items.parallelStream().filter(is -> aggregator.acceptType(is.getType())).map(is -> {
+			IMemberAccessor<IQuantity, IItem> xAccessor = xAttribute.getAccessor(is.getType());
+			if (xAccessor == null) {
+				return null;
+			}
+			IItem[] sorted = is.stream().filter(item -> xAccessor.getMember(item) != null).toArray(IItem[]::new);
+			Comparator<IItem> byX = Comparator.comparing(xAccessor::getMember);
+			if (!isSorted(sorted, byX)) {
+				Arrays.parallelSort(sorted, byX);
+			}
+			return pyramid.new SortedItems(is.getType(), sorted, xAccessor);
+		}).filter(t -> t != null).forEachOrdered(pyramid.types::add);
+		return pyramid;
+	}
+
+	private static boolean isSorted(IItem[] items, Comparator<IItem> comparator) {
+		for (int i = 1; i < items.length; i++) {
+			if (comparator.compare(items[i - 1], items[i]) > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Consumers that always merge into the receiver and only copy immutable values from the merged
+	 * consumer.
+	 */
+	private static boolean isMergeSafe(IAggregator<?, ?> aggregator, IItemConsumer<?> consumer) {
+		return aggregator instanceof Aggregators.Sum || consumer instanceof Aggregators.CountConsumer
+				|| consumer instanceof Aggregators.MinMaxConsumer || consumer instanceof Aggregators.AvgConsumer
+				|| consumer instanceof Aggregators.VarianceConsumer;
+	}
+
+	IQuantity[] buildBuckets(SubdividedQuantityRange xRange) {
+		int bucketCount = xRange.getNumSubdividers();
+		List<C> buckets = new ArrayList<>(Collections.nCopies(bucketCount, null));
+		for (SortedItems t : types) {
+			// Only visit the buckets that have items, jumping directly to the bucket of the next item
+			int start = t.firstIndex(xRange, 0, 0);
+			while (start < t.items.length) {
+				int bucket = t.getBucket(xRange, start);
+				if (bucket >= bucketCount) {
+					break;
+				}
+				int end = t.firstIndex(xRange, bucket + 1, start + 1);
+				C consumer = t.aggregate(start, end);
+				C previous = buckets.get(bucket);
+				buckets.set(bucket, previous == null ? consumer : previous.merge(consumer));
+				start = end;
+			}
+		}
+		IQuantity[] q = new IQuantity[bucketCount];
+		for (int i = 0; i < bucketCount; i++) {
+			C consumer = buckets.get(i);
+			if (consumer == null) {
+				if (types.isEmpty()) {
+					continue;
+				}
+				// Empty consumers do not change the value when merged, but a bucket needs at least one
+				consumer = aggregator.newItemConsumer(types.get(0).type);
+			}
+			q[i] = aggregator.getValue(Collections.singleton(consumer).iterator());
+		}
+		return q;
+	}
+}
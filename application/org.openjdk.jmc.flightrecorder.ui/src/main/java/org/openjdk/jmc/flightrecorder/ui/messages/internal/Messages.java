@@ -100,6 +100,7 @@ public class Messages extends NLS {
 	public static String CompilationsPage_ROW_DURATIONS;
 	public static String CompilationsPage_TAB_COMPILATIONS;
 	public static String CompilationsPage_TAB_COMPILATIONS_FAILED;
+	public static String ConstantPoolsPage_CONSTANTS_NOT_AVAILABLE;
 	public static String ConstantPoolsPage_PAGE_NAME;
 	public static String ConstantPoolsPage_SIZE_TOTAL_PERCENTAGE;
 	public static String ConstantPoolsPage_SIZE_TOTAL_PERCENTAGE_DESC;
@@ -531,10 +532,6 @@ public class Messages extends NLS {
 	public static String SecurityPage_SECTION_X509_CERTIFICATES;
 	public static String SecurityPage_SECTION_X509_ALGORITHMS;
 	public static String SELECTION_STORE_NO_SELECTION;
-	public static String SELECT_RANGE_WIZARD_DESCRIPTION;
-	public static String SELECT_RANGE_WIZARD_TEXT;
-	public static String SELECT_RANGE_WIZARD_TITLE;
-	public static String SELECT_RANGE_WIZARD_TO_MUCH_SELECTED_WARNING;
 	public static String STACKTRACE_VIEW_COUNT_COLUMN_NAME;
 	public static String STACKTRACE_VIEW_PERCENTAGE_COLUMN_NAME;
 	public static String STACKTRACE_VIEW_PERCENTAGE_BY_DURATION_COLUMN_NAME;
@@ -33,6 +33,7 @@
  */
 package org.openjdk.jmc.flightrecorder.ui.pages;
 
+import org.eclipse.jface.dialogs.IMessageProvider;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.SashForm;
@@ -158,6 +159,9 @@ public class ConstantPoolsPage extends AbstractDataPage {
 			constantHistogram.addListener(container::showSelection);
 
 			PersistableSashForm.loadState(sash, state.getChild(SASH_ELEMENT));
+			if (!getDataSource().hasConstants()) {
+				form.setMessage(Messages.ConstantPoolsPage_CONSTANTS_NOT_AVAILABLE, IMessageProvider.INFORMATION);
+			}
 			byTypeFilter.loadState(state.getChild(TYPE_FILTER));
 			constantValueFilter.loadState(state.getChild(VALUE_FILTER));
 		}
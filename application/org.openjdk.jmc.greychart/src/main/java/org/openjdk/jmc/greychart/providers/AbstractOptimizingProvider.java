@@ -37,6 +37,7 @@ import java.util.Iterator;
 
 import org.openjdk.jmc.common.xydata.DataSeries;
 import org.openjdk.jmc.common.xydata.IXYData;
+import org.openjdk.jmc.common.xydata.MultiResolutionDataSeries;
 import org.openjdk.jmc.greychart.impl.OptimizingProvider;
 
 /**
@@ -112,4 +113,27 @@ public abstract class AbstractOptimizingProvider implements OptimizingProvider {
 		}
 		m_dataBoundsComputed = true;
 	}
+
+	/**
+	 * Creates an iterator for the data series that is allowed to use precomputed, downsampled data
+	 * if the series is a {@link MultiResolutionDataSeries}.
+	 *
+	 * @param dataSeries
+	 *            the data series
+	 * @param min
+	 *            the minimum X value of returned data points
+	 * @param max
+	 *            the maximum X value of returned data points
+	 * @param resolution
+	 *            the number of samples that will be rendered
+	 * @return an iterator of data points
+	 */
+	@SuppressWarnings("unchecked")
+	protected static Iterator<IXYData<Long, Number>> createIterator(
+		DataSeries<IXYData<Long, Number>> dataSeries, long min, long max, int resolution) {
+		if (dataSeries instanceof MultiResolutionDataSeries) {
+			return ((MultiResolutionDataSeries<IXYData<Long, Number>>) dataSeries).createIterator(min, max, resolution);
+		}
+		return dataSeries.createIterator(min, max);
+	}
 }
@@ -131,7 +131,7 @@ public final class AveragingProvider extends AbstractOptimizingProvider {
 	}
 
 	private AveragingSampleBuffer createSampleBuffer(int width) {
-		Iterator<IXYData<Long, Number>> it = m_dataSeries.createIterator(m_requestedStartX, m_requestedEndX);
+		Iterator<IXYData<Long, Number>> it = createIterator(m_dataSeries, m_requestedStartX, m_requestedEndX, width);
 		if (!it.hasNext()) {
 			return new AveragingSampleBuffer(0);
 		}
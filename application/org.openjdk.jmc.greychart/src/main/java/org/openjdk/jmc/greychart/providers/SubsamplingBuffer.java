@@ -48,6 +48,24 @@ public class SubsamplingBuffer extends AbstractSampler {
 	}
 
 	public void addDataPoint(double normalizedX, double currentY) {
+		addDataPoint(normalizedX, currentY, currentY, currentY, 1);
+	}
+
+	/**
+	 * Adds a data point that represents a number of already aggregated samples.
+	 *
+	 * @param normalizedX
+	 *            the normalized x value [0, 1]
+	 * @param currentY
+	 *            the representative (average) value of the samples
+	 * @param minY
+	 *            the smallest value of the samples
+	 * @param maxY
+	 *            the largest value of the samples
+	 * @param count
+	 *            the number of samples
+	 */
+	public void addDataPoint(double normalizedX, double currentY, double minY, double maxY, long count) {
 		if (normalizedX < 0 || normalizedX > 1.0) {
 			throw new IllegalArgumentException("Must add a normalized value [0, 1]! Value was " + normalizedX); //$NON-NLS-1$
 		}
@@ -55,8 +73,8 @@ public class SubsamplingBuffer extends AbstractSampler {
 		int currentIndex = normalizedX == 1.0 ? getSize() - 1 : getIndex(currentX);
 		SamplePoint point = getSamplePoint(currentIndex);
 
-		point.min = Math.min(point.min, currentY);
-		point.max = Math.max(point.max, currentY);
+		point.min = Math.min(point.min, minY);
+		point.max = Math.max(point.max, maxY);
 
 		if (currentX < point.xIn) {
 			point.xIn = currentX;
@@ -68,7 +86,7 @@ public class SubsamplingBuffer extends AbstractSampler {
 			point.yOut = currentY;
 		}
 
-		point.count++;
+		point.count += count;
 		m_maxY = Math.max(m_maxY, point.max);
 		m_minY = Math.min(m_minY, point.min);
 	}
@@ -35,6 +35,7 @@ package org.openjdk.jmc.greychart.providers;
 import java.awt.Polygon;
 import java.util.Iterator;
 
+import org.openjdk.jmc.common.xydata.AggregatedTimestampedData;
 import org.openjdk.jmc.common.xydata.DataSeries;
 import org.openjdk.jmc.common.xydata.IXYData;
 import org.openjdk.jmc.greychart.XAxis;
@@ -193,7 +194,10 @@ public final class SubsamplingProvider extends AbstractOptimizingProvider {
 	}
 
 	private AbstractSampler createSampleBuffer(int width) {
-		Iterator<IXYData<Long, Number>> it = m_dataSeries.createIterator(m_requestedStartX, m_requestedEndX);
+		// Integration needs every sample, so only use downsampled data when not integrating
+		Iterator<IXYData<Long, Number>> it = isIntegrate()
+				? m_dataSeries.createIterator(m_requestedStartX, m_requestedEndX)
+				: createIterator(m_dataSeries, m_requestedStartX, m_requestedEndX, width);
 		if (!it.hasNext()) {
 			return isIntegrate() ? new IntegratingSubsamplingBuffer(0) : new SubsamplingBuffer(0);
 		}
@@ -279,7 +283,12 @@ public final class SubsamplingProvider extends AbstractOptimizingProvider {
 		SubsamplingBuffer sampleBuffer, long worldWidth, long leftEdge, IXYData<Long, Number> data) {
 		double n = getNormalizedX(data, worldWidth, leftEdge);
 		double y = data.getY().doubleValue();
-		sampleBuffer.addDataPoint(n, y);
+		if (data instanceof AggregatedTimestampedData) {
+			AggregatedTimestampedData aggregated = (AggregatedTimestampedData) data;
+			sampleBuffer.addDataPoint(n, y, aggregated.getMin(), aggregated.getMax(), aggregated.getCount());
+		} else {
+			sampleBuffer.addDataPoint(n, y);
+		}
 	}
 
 	private void addIntegratedValue(
@@ -32,6 +32,7 @@
  */
 package org.openjdk.jmc.joverflow.ui;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -118,7 +119,8 @@ public class JOverflowEditor extends EditorPart {
 		setPartName(input.getName());
 
 		String inputPath = input.getPath().toOSString();
-		mLoader = new ModelLoader(inputPath, new ModelLoaderListener() {
+		File indexCacheDir = JOverflowPlugin.getDefault().getIndexCacheDir();
+		mLoader = new ModelLoader(inputPath, indexCacheDir, new ModelLoaderListener() {
 			private double worked = 0; // the amount of work already done
 
 			@Override
@@ -32,6 +32,8 @@
  */
 package org.openjdk.jmc.joverflow.ui;
 
+import java.io.File;
+
 import org.openjdk.jmc.ui.MCAbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
@@ -45,6 +47,8 @@ public class JOverflowPlugin extends MCAbstractUIPlugin {
 
 	static final String ICON_UNDO_EDIT = "undo_edit.gif"; //$NON-NLS-1$
 
+	private static final String INDEX_CACHE_FOLDER = "index_cache"; //$NON-NLS-1$
+
 	// The shared instance
 	private static JOverflowPlugin m_plugin;
 
@@ -75,4 +79,16 @@ public class JOverflowPlugin extends MCAbstractUIPlugin {
 	public static JOverflowPlugin getDefault() {
 		return m_plugin;
 	}
+
+	/**
+	 * Returns the directory where indexes of opened heap dumps are kept, or null if it could not be
+	 * created.
+	 */
+	public File getIndexCacheDir() {
+		File dir = getStateLocation().append(INDEX_CACHE_FOLDER).toFile();
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			return null;
+		}
+		return dir;
+	}
 }
@@ -32,6 +32,7 @@
  */
 package org.openjdk.jmc.joverflow.ui.model;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -53,6 +54,8 @@ import org.openjdk.jmc.joverflow.heap.model.Snapshot;
 import org.openjdk.jmc.joverflow.heap.parser.HeapDumpReader;
 import org.openjdk.jmc.joverflow.heap.parser.HprofParsingCancelledException;
 import org.openjdk.jmc.joverflow.heap.parser.ReadBuffer;
+import org.openjdk.jmc.joverflow.stats.DominatorTree;
+import org.openjdk.jmc.joverflow.stats.DominatorTreeCalculator;
 import org.openjdk.jmc.joverflow.stats.StandardStatsCalculator;
 import org.openjdk.jmc.joverflow.support.Constants;
 import org.openjdk.jmc.joverflow.support.HeapStats;
@@ -67,9 +70,11 @@ import org.openjdk.jmc.joverflow.util.VerboseOutputCollector;
 public class ModelLoader implements ProblemRecorder, Runnable {
 
 	private final String fileName;
+	private final File indexCacheDir;
 	private Map<RefChainElement, Map<ClusterType, Map<String, ObjectClusterImpl>>> clusterMap = new IdentityHashMap<>();
 	private HeapDumpReader reader;
 	private StandardStatsCalculator calculator;
+	private DominatorTreeCalculator dominatorTreeCalculator;
 	private ModelLoaderListener loaderListener;
 
 	static {
@@ -77,7 +82,17 @@ public class ModelLoader implements ProblemRecorder, Runnable {
 	}
 
 	public ModelLoader(String fileName, ModelLoaderListener loaderListener) {
+		this(fileName, null, loaderListener);
+	}
+
+	/**
+	 * @param indexCacheDir
+	 *            directory where an index of the heap dump is kept, so that it's opened faster next
+	 *            time, or null to always parse the dump
+	 */
+	public ModelLoader(String fileName, File indexCacheDir, ModelLoaderListener loaderListener) {
 		this.fileName = fileName;
+		this.indexCacheDir = indexCacheDir;
 		this.loaderListener = loaderListener;
 	}
 
@@ -94,16 +109,24 @@ public class ModelLoader implements ProblemRecorder, Runnable {
 		Snapshot snapshot = null;
 		try {
 			ReadBuffer.Factory factory = new ReadBuffer.CachedReadBufferFactory(fileName, calculateReadBufMemory());
-			HeapDumpReader reader = HeapDumpReader.createReader(factory, 0, new VerboseOutputCollector());
+			HeapDumpReader reader = HeapDumpReader.createReader(factory, 0, new VerboseOutputCollector(),
+					Runtime.getRuntime().availableProcessors());
+			if (indexCacheDir != null) {
+				reader.setIndexCacheDirectory(indexCacheDir);
+			}
 			setReader(reader);
 			snapshot = reader.read();
 			JavaClass.setFieldBanned(snapshot.getClassForName(Constants.WEAK_REFERENCE), "referent"); //$NON-NLS-1$
-			StandardStatsCalculator dsc = new StandardStatsCalculator(snapshot, ModelLoader.this, true);
+			StandardStatsCalculator dsc = new StandardStatsCalculator(snapshot, ModelLoader.this, true,
+					Runtime.getRuntime().availableProcessors());
 			setCalculator(dsc);
 			dsc.calculate();
+			DominatorTreeCalculator dtc = new DominatorTreeCalculator(snapshot);
+			setDominatorTreeCalculator(dtc);
+			DominatorTree dominatorTree = dtc.calculate();
 			snapshot.discard();
 			snapshot.resetReadBuffer(new ReadBuffer.CachedReadBufferFactory(fileName, 25 * 1024 * 1024));
-			getLoaderListener().onModelLoaded(snapshot, buildModel());
+			getLoaderListener().onModelLoaded(snapshot, buildModel(dominatorTree));
 		} catch (HprofParsingCancelledException e) {
 			if (snapshot != null) {
 				snapshot.discard();
@@ -130,6 +153,9 @@ public class ModelLoader implements ProblemRecorder, Runnable {
 		if (calculator != null) {
 			calculator.cancelCalculation();
 		}
+		if (dominatorTreeCalculator != null) {
+			dominatorTreeCalculator.cancelCalculation();
+		}
 		loaderListener = null;
 	}
 
@@ -212,7 +238,7 @@ public class ModelLoader implements ProblemRecorder, Runnable {
 		np.addObject(obj.getGlobalObjectIndex(), obj.getSize(), 0);
 	}
 
-	private Collection<ReferenceChain> buildModel() {
+	private Collection<ReferenceChain> buildModel(DominatorTree dominatorTree) {
 		ArrayList<ReferenceChain> sums = new ArrayList<>();
 		Iterator<Entry<RefChainElement, Map<ClusterType, Map<String, ObjectClusterImpl>>>> clusterIterator = clusterMap
 				.entrySet().iterator();
@@ -222,6 +248,7 @@ public class ModelLoader implements ProblemRecorder, Runnable {
 			for (Map<String, ObjectClusterImpl> s : e.getValue().values()) {
 				for (ObjectClusterImpl j : s.values()) {
 					j.trim();
+					j.calculateRetainedSize(dominatorTree);
 					summary.add(j);
 				}
 			}
@@ -256,14 +283,19 @@ public class ModelLoader implements ProblemRecorder, Runnable {
 	}
 
 	private synchronized double getProgress() {
-		return (reader == null ? 0 : reader.getProgressPercentage() / 200.0)
-				+ (calculator == null ? 0 : calculator.getProgressPercentage() / 200.0);
+		return (reader == null ? 0 : reader.getProgressPercentage() / 300.0)
+				+ (calculator == null ? 0 : calculator.getProgressPercentage() / 300.0)
+				+ (dominatorTreeCalculator == null ? 0 : dominatorTreeCalculator.getProgressPercentage() / 300.0);
 	}
 
 	private synchronized void setCalculator(StandardStatsCalculator dsc) {
 		calculator = dsc;
 	}
 
+	private synchronized void setDominatorTreeCalculator(DominatorTreeCalculator dtc) {
+		dominatorTreeCalculator = dtc;
+	}
+
 	private synchronized void setReader(HeapDumpReader reader) {
 		this.reader = reader;
 	}
@@ -48,6 +48,12 @@ public interface ObjectCluster {
 
 	int getOverhead();
 
+	/**
+	 * Returns the amount of memory that would be freed if all objects in this cluster became
+	 * unreachable, or -1 if retained sizes have not been calculated.
+	 */
+	long getRetainedSize();
+
 	int getObjectCount();
 
 	int getGlobalObjectIndex(int indexInCluster);
@@ -34,6 +34,8 @@ package org.openjdk.jmc.joverflow.ui.model;
 
 import java.util.Arrays;
 
+import org.openjdk.jmc.joverflow.stats.DominatorTree;
+
 class ObjectClusterImpl implements ObjectCluster {
 
 	private static final int NONE = -1;
@@ -45,6 +47,7 @@ class ObjectClusterImpl implements ObjectCluster {
 	private final String qualifier;
 	private final String className;
 	private int elementsInArray;
+	private long retainedSize = -1;
 
 	ObjectClusterImpl(ClusterType type, String className, String qualifier) {
 		this.type = type;
@@ -67,6 +70,11 @@ class ObjectClusterImpl implements ObjectCluster {
 		return ovhd;
 	}
 
+	@Override
+	public long getRetainedSize() {
+		return retainedSize;
+	}
+
 	@Override
 	public ClusterType getType() {
 		return type;
@@ -110,6 +118,14 @@ class ObjectClusterImpl implements ObjectCluster {
 		}
 	}
 
+	void calculateRetainedSize(DominatorTree dominatorTree) {
+		int[] indices = new int[getObjectCount()];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = getGlobalObjectIndex(i);
+		}
+		retainedSize = dominatorTree.getRetainedSize(indices);
+	}
+
 	@Override
 	public int getGlobalObjectIndex(int indexInCluster) {
 		if (indexInCluster == elementsInArray) {
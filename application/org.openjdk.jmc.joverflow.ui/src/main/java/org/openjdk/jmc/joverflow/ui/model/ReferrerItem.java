@@ -44,28 +44,31 @@ public class ReferrerItem {
 
 	private long ovhd;
 	private long memory;
+	private long retained;
 	private int size;
 	private final String referrer;
 	private final boolean isBranch;
 	private final List<String> commonReferrers;
 
-	ReferrerItem(List<String> commonReferrers, String referrer, long memory, long overhead, int objectCount,
-			boolean isBranch) {
+	ReferrerItem(List<String> commonReferrers, String referrer, long memory, long overhead, long retained,
+			int objectCount, boolean isBranch) {
 		this.isBranch = isBranch;
 		this.referrer = referrer;
 		this.commonReferrers = commonReferrers;
 		ovhd = overhead;
 		this.memory = memory;
+		this.retained = retained;
 		size = objectCount;
 	}
 
 	ReferrerItem(List<String> parentReferrers, String referrer) {
-		this(parentReferrers, referrer, 0, 0, 0, true);
+		this(parentReferrers, referrer, 0, 0, 0, 0, true);
 	}
 
 	void addObjectCluster(ObjectCluster oc) {
 		ovhd += oc.getOverhead();
 		memory += oc.getMemory();
+		retained += Math.max(0, oc.getRetainedSize());
 		size += oc.getObjectCount();
 	}
 
@@ -95,6 +98,14 @@ public class ReferrerItem {
 		return memory;
 	}
 
+	/**
+	 * Returns the sum of retained sizes of the object clusters referred to by these referrers, or 0
+	 * if retained sizes have not been calculated.
+	 */
+	public long getRetained() {
+		return retained;
+	}
+
 	public int getSize() {
 		return size;
 	}
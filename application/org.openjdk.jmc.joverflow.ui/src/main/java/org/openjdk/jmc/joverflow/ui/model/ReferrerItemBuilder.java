@@ -50,6 +50,7 @@ public class ReferrerItemBuilder {
 	private int commonCount;
 	private long commonOverhead;
 	private long commonMemory;
+	private long commonRetained;
 	private RefChainElement lastRef;
 
 	public ReferrerItemBuilder(ObjectCluster oc, RefChainElement ref) {
@@ -59,6 +60,7 @@ public class ReferrerItemBuilder {
 		}
 		commonOverhead += oc.getOverhead();
 		commonMemory += oc.getMemory();
+		commonRetained += Math.max(0, oc.getRetainedSize());
 		commonCount += oc.getObjectCount();
 		lastRef = null;
 	}
@@ -74,7 +76,7 @@ public class ReferrerItemBuilder {
 					commonChain = commonChain.subList(0, commonDepth);
 					itemsAtBranchingLevel.clear();
 					itemsAtBranchingLevel.put(referrerName, new ReferrerItem(commonChain, referrerName, commonMemory,
-							commonOverhead, commonCount, true));
+							commonOverhead, commonRetained, commonCount, true));
 					break;
 				}
 				ref = ref.getReferer();
@@ -92,6 +94,7 @@ public class ReferrerItemBuilder {
 	private void addObjectCluster(ObjectCluster oc, RefChainElement ref) {
 		commonOverhead += oc.getOverhead();
 		commonMemory += oc.getMemory();
+		commonRetained += Math.max(0, oc.getRetainedSize());
 		commonCount += oc.getObjectCount();
 		if (ref != null) {
 			String referrerName = ref.toString();
@@ -109,7 +112,7 @@ public class ReferrerItemBuilder {
 		int commonDepth = 0;
 		for (String r : commonChain) {
 			items.add(new ReferrerItem(commonChain.subList(0, commonDepth), r, commonMemory, commonOverhead,
-					commonCount, false));
+					commonRetained, commonCount, false));
 			commonDepth++;
 		}
 		items.addAll(itemsAtBranchingLevel.values());
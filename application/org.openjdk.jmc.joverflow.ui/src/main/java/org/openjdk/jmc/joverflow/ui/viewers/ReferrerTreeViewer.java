@@ -162,6 +162,13 @@ class ReferrerTreeViewer extends TableViewer {
 				model -> String.format("%,d Bytes", model.getOvhd()), //
 				Comparator.comparingLong(ReferrerItem::getOvhd), false);
 
+		createTreeViewerColumn("Retained KiB", //
+				model -> String.format("%,.2f (%d%%)", //
+						(double) model.getRetained() / 1024f, //
+						Math.round((double) model.getRetained() * 100f / (double) mHeapSize)), //
+				model -> String.format("%,d Bytes", model.getRetained()), //
+				Comparator.comparingLong(ReferrerItem::getRetained), false);
+
 		createTreeViewerColumn("Objects", //
 				model -> String.format("%,d", model.getSize()), //
 				null, //
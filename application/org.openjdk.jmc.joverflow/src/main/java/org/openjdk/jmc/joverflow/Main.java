@@ -48,6 +48,8 @@ import org.openjdk.jmc.joverflow.heap.parser.DumpCorruptedException;
 import org.openjdk.jmc.joverflow.heap.parser.HeapDumpReader;
 import org.openjdk.jmc.joverflow.heap.parser.HprofParsingCancelledException;
 import org.openjdk.jmc.joverflow.heap.parser.ReadBuffer;
+import org.openjdk.jmc.joverflow.stats.DominatorTree;
+import org.openjdk.jmc.joverflow.stats.DominatorTreeCalculator;
 import org.openjdk.jmc.joverflow.stats.LongLivedStringClustersCalculator;
 import org.openjdk.jmc.joverflow.stats.StandardStatsCalculator;
 import org.openjdk.jmc.joverflow.support.DupStringStats;
@@ -82,7 +84,16 @@ public class Main {
 			+ "  -pointer_size=<size in bytes>   Explicitly specify JVM pointer size\n"
 			+ "           to be used in calculations. Makes sense for 64-bit heap dumps.\n"
 			+ "  -use_mmap         Use mmap to access data on disk during heap analysis\n"
-			+ "           (default is JOverflow's own custom disk cache)";
+			+ "           (default is JOverflow's own custom disk cache). Ignored if\n"
+			+ "           the heap dump file is gzip-compressed, which is also supported\n"
+			+ "  -threads=<n>      Use n threads to parse heap dump segments and to read\n"
+			+ "           objects when calculating overall stats (default is the number\n"
+			+ "           of available processors)\n"
+			+ "  -retained_sizes   Calculate the dominator tree and report objects\n"
+			+ "           with the biggest retained size (needs more time and memory)\n"
+			+ "  -index_cache      Keep an index of the dump next to it, so that the dump\n"
+			+ "           is read much faster next time\n"
+			+ "  -index_cache_dir=<dir> Same as -index_cache, but keep the index in dir";
 
 	private static final int MIN_OVHD_TO_REPORT_AS_HEAP_FRACTION = 1000; // 0.1%
 
@@ -93,6 +104,10 @@ public class Main {
 	private static int explicitPointerSize;
 	private static boolean useMmap;
 	private static boolean useBreadthFirst;
+	private static int numThreads = Runtime.getRuntime().availableProcessors();
+	private static boolean calculateRetainedSizes;
+	private static boolean useIndexCache;
+	private static File indexCacheDir;
 	private static boolean findLongLivedStrings;
 	private static File stringsToInternTextFile;
 	private static boolean verbose;
@@ -119,6 +134,15 @@ public class Main {
 					refChainStopperClassPrefixes = parseCommaSeparatedStringsFlag(arg);
 				} else if (arg.startsWith("-pointer_size=")) {
 					explicitPointerSize = parseNumericFlag(arg);
+				} else if (arg.startsWith("-threads=")) {
+					numThreads = parseNumericFlag(arg);
+				} else if (arg.equals("-retained_sizes")) {
+					calculateRetainedSizes = true;
+				} else if (arg.equals("-index_cache")) {
+					useIndexCache = true;
+				} else if (arg.startsWith("-index_cache_dir=")) {
+					useIndexCache = true;
+					indexCacheDir = new File(getFlagValue(arg));
 				} else if (arg.equals("-use_mmap")) {
 					useMmap = true;
 				} else if (arg.equals("-depth_first") || arg.equals("-dfs")) {
@@ -282,7 +306,12 @@ public class Main {
 		ReadBuffer.Factory bufFactory = useMmap ? new ReadBuffer.MmappedBufferFactory(fileName)
 				: new ReadBuffer.CachedReadBufferFactory(fileName, 0);
 		try {
-			final HeapDumpReader reader = HeapDumpReader.createReader(bufFactory, explicitPointerSize, vc);
+			final HeapDumpReader reader = HeapDumpReader.createReader(bufFactory, explicitPointerSize, vc,
+					numThreads);
+			if (useIndexCache) {
+				reader.setIndexCacheDirectory(
+						indexCacheDir != null ? indexCacheDir : new File(fileName).getAbsoluteFile().getParentFile());
+			}
 			ProgressMeter pm = new PrintingProgressMeter() {
 				@Override
 				public int queryPercentage() {
@@ -330,7 +359,8 @@ public class Main {
 		System.err.println("Calculating stats...");
 
 		BatchProblemRecorder recorder = new BatchProblemRecorder();
-		final StandardStatsCalculator ssc = new StandardStatsCalculator(snapshot, recorder, useBreadthFirst);
+		final StandardStatsCalculator ssc = new StandardStatsCalculator(snapshot, recorder, useBreadthFirst,
+				numThreads);
 
 		ProgressMeter pm = new PrintingProgressMeter() {
 			@Override
@@ -356,7 +386,36 @@ public class Main {
 		int minOverheadToReport = (int) (hs.totalObjSize / MIN_OVHD_TO_REPORT_AS_HEAP_FRACTION);
 		DetailedStats ds = recorder.getDetailedStats(minOverheadToReport);
 
-		return new ReportFormatter(hs, ds);
+		DominatorTree dominatorTree = calculateRetainedSizes ? calculateDominatorTree(snapshot) : null;
+
+		return new ReportFormatter(hs, ds, dominatorTree);
+	}
+
+	private static DominatorTree calculateDominatorTree(Snapshot snapshot) {
+		System.err.println("Calculating retained sizes...");
+
+		final DominatorTreeCalculator dtc = new DominatorTreeCalculator(snapshot);
+		ProgressMeter pm = new PrintingProgressMeter() {
+			@Override
+			public int queryPercentage() {
+				return dtc.getProgressPercentage();
+			}
+		};
+		pm.start();
+
+		DominatorTree dominatorTree = null;
+		try {
+			dominatorTree = dtc.calculate();
+		} catch (DumpCorruptedException.Runtime ex) {
+			System.err.println("Heap dump corrupted: " + ex.getMessage());
+			System.exit(-1);
+		} catch (HprofParsingCancelledException ex) {
+			System.err.println("Heap dump parsing cancelled by user");
+			System.exit(-1);
+		}
+
+		pm.stopReporting();
+		return dominatorTree;
 	}
 
 	/**
@@ -175,7 +175,8 @@ public class ReportGenerator {
 		Snapshot snapshot = readSnapshot(hprofFile);
 
 		BatchProblemRecorder recorder = new BatchProblemRecorder();
-		ssc = new StandardStatsCalculator(snapshot, recorder, useBreadthFirstScan);
+		ssc = new StandardStatsCalculator(snapshot, recorder, useBreadthFirstScan,
+				Runtime.getRuntime().availableProcessors());
 		HeapStats hs = ssc.calculate();
 		ssc = null;
 		int minOvhdToReport = (int) hs.totalObjSize / 1000;
@@ -191,7 +192,8 @@ public class ReportGenerator {
 	private Snapshot readSnapshot(String fileName)
 			throws IOException, DumpCorruptedException, HprofParsingCancelledException {
 		VerboseOutputCollector vc = new VerboseOutputCollector();
-		reader = HeapDumpReader.createReader(new ReadBuffer.CachedReadBufferFactory(fileName, 0), 0, vc);
+		reader = HeapDumpReader.createReader(new ReadBuffer.CachedReadBufferFactory(fileName, 0), 0, vc,
+				Runtime.getRuntime().availableProcessors());
 		Snapshot snapshot = reader.read();
 		reader = null;
 		return snapshot;
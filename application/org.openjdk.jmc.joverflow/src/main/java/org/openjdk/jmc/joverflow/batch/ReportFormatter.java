@@ -39,8 +39,10 @@ import java.util.Map;
 
 import org.openjdk.jmc.joverflow.descriptors.CollectionClassDescriptor;
 import org.openjdk.jmc.joverflow.heap.model.JavaClass;
+import org.openjdk.jmc.joverflow.heap.model.JavaHeapObject;
 import org.openjdk.jmc.joverflow.heap.model.JavaObject;
 import org.openjdk.jmc.joverflow.stats.ClassloaderStats;
+import org.openjdk.jmc.joverflow.stats.DominatorTree;
 import org.openjdk.jmc.joverflow.stats.LengthHistogram;
 import org.openjdk.jmc.joverflow.stats.ObjectHistogram;
 import org.openjdk.jmc.joverflow.support.CompressibleStringStats;
@@ -63,14 +65,25 @@ import org.openjdk.jmc.joverflow.util.ObjectToIntMap;
 public class ReportFormatter {
 
 	private static final String DASH_SEPARATOR = "\n---------------------------------------------------";
+	private static final int TOP_RETAINERS_TO_REPORT = 20;
 
 	private final HeapStats hs;
 	private final DetailedStats ds;
+	private final DominatorTree dominatorTree;
 	private final FormattedOutputBuffer b;
 
 	public ReportFormatter(HeapStats hs, DetailedStats ds) {
+		this(hs, ds, null);
+	}
+
+	/**
+	 * @param dominatorTree
+	 *            if not null, objects with the biggest retained size are included in the report
+	 */
+	public ReportFormatter(HeapStats hs, DetailedStats ds, DominatorTree dominatorTree) {
 		this.hs = hs;
 		this.ds = ds;
+		this.dominatorTree = dominatorTree;
 		b = new FormattedOutputBuffer(hs.totalObjSize);
 	}
 
@@ -230,6 +243,18 @@ public class ReportFormatter {
 			b.criticalCheck(entry.getTotalInclusiveSize(), entry.getClazz().getHumanFriendlyNameWithLoaderIfNeeded());
 		}
 
+		if (dominatorTree != null) {
+			b.println("\nObjects with the biggest retained size (not retained by each other)");
+			b.println("   Retained size   Object");
+			b.println("---------------------------------------------------------------");
+			for (JavaHeapObject obj : dominatorTree.getTopRetainers(TOP_RETAINERS_TO_REPORT)) {
+				String objStr = obj instanceof JavaClass
+						? "class " + ((JavaClass) obj).getHumanFriendlyNameWithLoaderIfNeeded()
+						: obj.idAsString();
+				b.format("%16s   %s\n", b.k(dominatorTree.getRetainedSize(obj)), objStr);
+			}
+		}
+
 		b.println(DASH_SEPARATOR);
 		b.startSection("3. NUMBER, SIZE AND NEAREST FIELDS FOR HIGH MEMORY CONSUMERS:");
 
@@ -54,6 +54,15 @@ public class HeapStringReader implements ImplInclusiveSizeCalculator {
 		stringClass.setImplInclusiveSizeCalculator(this);
 	}
 
+	/**
+	 * Creates a reader that shares field indices with the given one, but has its own buffers.
+	 */
+	HeapStringReader(HeapStringReader other) {
+		stringValueIdx = other.stringValueIdx;
+		stringOffsetIdx = other.stringOffsetIdx;
+		stringCountIdx = other.stringCountIdx;
+	}
+
 	public String readString(JavaObject strObj) {
 		fields = strObj.getFields(fields);
 		JavaThing stringValueField = fields[stringValueIdx];
@@ -32,10 +32,13 @@
  */
 package org.openjdk.jmc.joverflow.heap.model;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.openjdk.jmc.joverflow.heap.parser.ReadBuffer;
 import org.openjdk.jmc.joverflow.util.ClassUtils;
+import org.openjdk.jmc.joverflow.util.IndexFileInput;
+import org.openjdk.jmc.joverflow.util.IndexFileOutput;
 import org.openjdk.jmc.joverflow.util.IntArrayList;
 import org.openjdk.jmc.joverflow.util.LongToObjectMap;
 import org.openjdk.jmc.joverflow.util.StringInterner;
@@ -201,6 +204,147 @@ public class JavaClass extends JavaHeapObject {
 				fieldsSizeInFile, instanceSize);
 	}
 
+	/**
+	 * Writes the information about this class that was read from the heap dump, so that the class
+	 * can be recreated later with {@link #readFrom(IndexFileInput, int)}. Should be called before
+	 * the class is resolved.
+	 */
+	void writeTo(IndexFileOutput out) throws IOException {
+		long signersId = ((JavaObjectRef) signers).getId();
+		long protDomainId = ((JavaObjectRef) protectionDomain).getId();
+		out.writeLong(id);
+		out.writeString(name);
+		out.writeLong(((JavaObjectRef) superclass).getId());
+		out.writeLong(((JavaObjectRef) loader).getId());
+		out.writeLong(signersId);
+		out.writeLong(protDomainId);
+
+		out.writeInt(fields.length);
+		for (JavaField field : fields) {
+			out.writeString(field.getName());
+			out.writeInt(field.getTypeId());
+		}
+
+		// Quazi-fields for signers and protection domain are added back when the class is read
+		int numStatics = staticFields.length - ((signersId != 0 || protDomainId != 0) ? 2 : 0);
+		out.writeInt(numStatics);
+		for (int i = 0; i < numStatics; i++) {
+			JavaField field = staticFields[i];
+			out.writeString(field.getName());
+			out.writeInt(field.getTypeId());
+			writeStaticValue(out, field.getTypeId(), staticValues[i]);
+		}
+
+		out.writeInt(fieldsSizeInFile);
+		out.writeInt(instanceSize);
+		out.writeInt(versionNumber);
+	}
+
+	/** Recreates a class written by {@link #writeTo(IndexFileOutput)}. */
+	static JavaClass readFrom(IndexFileInput in, int pointerSize) throws IOException {
+		long id = in.readLong();
+		String name = in.readString();
+		long superclassId = in.readLong();
+		long loaderId = in.readLong();
+		long signersId = in.readLong();
+		long protDomainId = in.readLong();
+
+		int numFields = in.readInt();
+		JavaField[] fields = numFields > 0 ? new JavaField[numFields] : NO_FIELDS;
+		for (int i = 0; i < numFields; i++) {
+			String fieldName = in.readString();
+			fields[i] = JavaField.newInstance(fieldName, (char) in.readInt(), pointerSize);
+		}
+
+		int numStatics = in.readInt();
+		int numQuasiFields = (signersId != 0 || protDomainId != 0) ? 2 : 0;
+		int nAllStatics = numStatics + numQuasiFields;
+		JavaField[] staticFields = nAllStatics > 0 ? new JavaField[nAllStatics] : NO_FIELDS;
+		JavaThing[] staticValues = nAllStatics > 0 ? new JavaThing[nAllStatics] : NO_VALUES;
+		for (int i = 0; i < numStatics; i++) {
+			String fieldName = in.readString();
+			char typeId = (char) in.readInt();
+			staticFields[i] = JavaField.newInstance(fieldName, typeId, pointerSize);
+			staticValues[i] = readStaticValue(in, typeId);
+		}
+		if (numQuasiFields > 0) {
+			JavaField.addStaticQuaziFields(staticFields);
+		}
+
+		int fieldsSizeInFile = in.readInt();
+		int instanceSize = in.readInt();
+		JavaClass clazz = new JavaClass(id, name, superclassId, loaderId, signersId, protDomainId, fields,
+				staticFields, staticValues, fieldsSizeInFile, instanceSize);
+		clazz.versionNumber = in.readInt();
+		return clazz;
+	}
+
+	private static void writeStaticValue(IndexFileOutput out, char typeId, JavaThing value) throws IOException {
+		switch (typeId) {
+		case '[':
+		case 'L':
+			out.writeLong(((JavaObjectRef) value).getId());
+			break;
+		case 'Z':
+			out.writeBoolean(((JavaBoolean) value).getValue());
+			break;
+		case 'B':
+			out.writeInt(((JavaByte) value).getValue());
+			break;
+		case 'S':
+			out.writeInt(((JavaShort) value).getValue());
+			break;
+		case 'C':
+			out.writeInt(((JavaChar) value).getValue());
+			break;
+		case 'I':
+			out.writeInt(((JavaInt) value).getValue());
+			break;
+		case 'J':
+			out.writeLong(((JavaLong) value).getValue());
+			break;
+		case 'F':
+			out.writeInt(Float.floatToRawIntBits(((JavaFloat) value).getValue()));
+			break;
+		case 'D':
+			out.writeLong(Double.doubleToRawLongBits(((JavaDouble) value).getValue()));
+			break;
+		default:
+			throw new IOException("Unexpected static field type " + typeId);
+		}
+	}
+
+	private static JavaThing readStaticValue(IndexFileInput in, char typeId) throws IOException {
+		switch (typeId) {
+		case '[':
+		case 'L':
+			return new JavaObjectRef(in.readLong());
+		case 'Z':
+			return new JavaBoolean(in.readBoolean());
+		case 'B':
+			return new JavaByte((byte) in.readInt());
+		case 'S':
+			return new JavaShort((short) in.readInt());
+		case 'C':
+			return new JavaChar((char) in.readInt());
+		case 'I':
+			return new JavaInt(in.readInt());
+		case 'J':
+			return new JavaLong(in.readLong());
+		case 'F':
+			return new JavaFloat(Float.intBitsToFloat(in.readInt()));
+		case 'D':
+			return new JavaDouble(Double.longBitsToDouble(in.readLong()));
+		default:
+			throw new IOException("Unexpected static field type " + typeId);
+		}
+	}
+
+	/** Used to order classes with the same name when restoring their version chain. */
+	int getVersionNumber() {
+		return versionNumber;
+	}
+
 	@Override
 	public final JavaClass getClazz() {
 		return snapshot.getJavaLangClass();
@@ -403,6 +547,10 @@ public class JavaClass extends JavaHeapObject {
 		numInstances++;
 	}
 
+	public void incNumInstances(int n) {
+		numInstances += n;
+	}
+
 	public int getNumInstances() {
 		return numInstances;
 	}
@@ -411,7 +559,7 @@ public class JavaClass extends JavaHeapObject {
 	 * Updates the total shallow size of all instances of this class. Used only for arrays - for
 	 * objects, we can calculate it by multiplying object size by the number of instances.
 	 */
-	public void updateShallowInstanceSize(int size) {
+	public void updateShallowInstanceSize(long size) {
 		totalShallowInstanceSize += size;
 	}
 
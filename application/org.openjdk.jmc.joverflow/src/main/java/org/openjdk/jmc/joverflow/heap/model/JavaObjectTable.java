@@ -32,12 +32,19 @@
  */
 package org.openjdk.jmc.joverflow.heap.model;
 
+import java.io.IOException;
 import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
+import org.openjdk.jmc.joverflow.heap.parser.DumpCorruptedException;
+import org.openjdk.jmc.joverflow.util.IndexFileInput;
+import org.openjdk.jmc.joverflow.util.IndexFileOutput;
+
 /**
  * Contains the base information about all instances and arrays (but not classes) of the heap dump
  * in the compact table form. Provides a method for creating an instance of JavaLazyReadObject that
@@ -45,23 +52,32 @@ import java.util.NoSuchElementException;
  * provides a method to iterate over all objects in the table.
  * <p>
  * The internal table is organized, conceptually, as an array of ints. However, in reality it
- * consists of multiple 1MB "chunks", to facilitate building this table incrementally and to avoid
- * issues with GC that a very big array could create. Each heap object corresponds to 3 (for
- * instances) or 4 (for arrays) ints in the array. The first two ints contain the object's offset in
- * the dump, its class index in a separate class table, and a bit specifying whether this object is
- * an array, all squeezed collectively into 64 bits. The third int is the "tag word", where various
- * setVisited() etc. methods of {@link JavaLazyReadObject} can set bits as they need. Finally, for
- * arrays the fourth int contains the array's length.
+ * consists of multiple "chunks", to facilitate building this table incrementally and to avoid issues
+ * with GC that a very big array could create. Each heap object corresponds to 3 (for instances) or 4
+ * (for arrays) ints in the array. The first two ints contain the object's offset in the dump, its
+ * class index in a separate class table, and a bit specifying whether this object is an array, all
+ * squeezed collectively into 64 bits. The third int is the "tag word", where various setVisited()
+ * etc. methods of {@link JavaLazyReadObject} can set bits as they need. Finally, for arrays the
+ * fourth int contains the array's length.
  * <p>
- * Since we currently use ints to index objects, and objects on average take 3.5 slots in the table,
- * the maximum number of objects that this table can accomodate is 2^31 / 3.5 ~= 613 million.
+ * Objects are addressed by their ordinal number in the table, which is also their global index
+ * (see {@link JavaHeapObject#getGlobalObjectIndex()}). Each chunk contains a fixed number of
+ * objects, and a bitmap of the objects that are arrays, together with the number of arrays preceding
+ * each 64-bit word of that bitmap. Thus the position of an object within its chunk is calculated in
+ * constant time. Since object ordinals are ints and ordinal 0 is reserved, the maximum number of
+ * objects that this table can accomodate is {@link #MAX_OBJECTS}, about the maximum size of the Java
+ * arrays used by the code that analyzes these objects. Addressing objects by their position in the
+ * table, as we did previously, limited their number to 2^31 / 3.5 ~= 613 million. A dump with more
+ * objects, or with more classes than fit next to the object offsets, is rejected with a
+ * {@link DumpCorruptedException}.
  */
 class JavaObjectTable {
 
-	private static final int CHUNK_MAGNITUDE = 20; // Corresponds to 1024*1024
-	private static final int CHUNK_SIZE = 1 << CHUNK_MAGNITUDE;
+	static final int MAX_OBJECTS = Integer.MAX_VALUE - 1;
 
-	private static final int POS_IN_CHUNK_MASK = CHUNK_SIZE - 1;
+	private static final int CHUNK_MAGNITUDE = 18; // Corresponds to 256K objects, or up to 1M ints
+	private static final int OBJS_PER_CHUNK = 1 << CHUNK_MAGNITUDE;
+	private static final int IDX_IN_CHUNK_MASK = OBJS_PER_CHUNK - 1;
 
 	private static final long LONG_LOW_WORD_MASK = 0x0FFFFFFFFL;
 
@@ -73,103 +89,130 @@ class JavaObjectTable {
 	// maximum number of classes this table can accomodate is  2^28 = 268435456.
 	private final int classIdxShift, arrayMask, objOfsHighWordMask;
 
-	private final int[][] objects;
+	private final Chunk[] chunks;
 	private final JavaClass[] classes;
 
-	private final int numObjs, lastObjEndPos;
+	// Ordinal of the last object plus one. Ordinal 0 is reserved; see Builder.
+	private final int endIdx;
 
-	private JavaObjectTable(int[][] objects, JavaClass[] classes, int numObjs, int lastObjEndPos, int classIdxShift,
-			int arrayMask) {
-		this.objects = objects;
+	private JavaObjectTable(Chunk[] chunks, JavaClass[] classes, int numObjs, int classIdxShift, int arrayMask) {
+		this.chunks = chunks;
 		this.classes = classes;
-		this.numObjs = numObjs;
-		this.lastObjEndPos = lastObjEndPos;
+		this.endIdx = numObjs + 1;
 		this.classIdxShift = classIdxShift;
 		this.arrayMask = arrayMask;
 		this.objOfsHighWordMask = arrayMask - 1;
 	}
 
-	JavaLazyReadObject getObject(int objPosInTable) {
-		int chunkIdx = objPosInTable >> CHUNK_MAGNITUDE;
-		int[] chunk = objects[chunkIdx];
-		int posInCurChunk = objPosInTable & POS_IN_CHUNK_MASK;
-		int startPosInCurChunk = posInCurChunk;
-		int classAndOfsWord1 = chunk[posInCurChunk++];
-		int classAndOfsWord2 = chunk[posInCurChunk++];
+	JavaLazyReadObject getObject(int objIdx) {
+		Chunk chunk = chunks[objIdx >>> CHUNK_MAGNITUDE];
+		return getObject(chunk.data, chunk.getPos(objIdx & IDX_IN_CHUNK_MASK), objIdx);
+	}
+
+	private JavaLazyReadObject getObject(int[] chunk, int posInChunk, int objIdx) {
+		int classAndOfsWord1 = chunk[posInChunk];
+		int classAndOfsWord2 = chunk[posInChunk + 1];
 		long objOfsInFile = ((classAndOfsWord2) & LONG_LOW_WORD_MASK)
 				| (((long) (classAndOfsWord1 & objOfsHighWordMask)) << 32);
 		int classIdx = classAndOfsWord1 >>> classIdxShift;
 		JavaClass clazz = classes[classIdx];
 		boolean isArray = (classAndOfsWord1 & arrayMask) != 0;
 		if (isArray) {
-			int length = chunk[posInCurChunk + 1];
+			int length = chunk[posInChunk + 3];
 			if (clazz.isSingleDimPrimitiveArray()) {
-				return new JavaValueArray(clazz, objOfsInFile, length, chunk, startPosInCurChunk, objPosInTable);
+				return new JavaValueArray(clazz, objOfsInFile, length, chunk, posInChunk, objIdx);
 			} else {
-				return new JavaObjectArray(clazz, objOfsInFile, length, chunk, startPosInCurChunk, objPosInTable);
+				return new JavaObjectArray(clazz, objOfsInFile, length, chunk, posInChunk, objIdx);
 			}
 		} else {
-			return new JavaObject(clazz, objOfsInFile, chunk, startPosInCurChunk, objPosInTable);
+			return new JavaObject(clazz, objOfsInFile, chunk, posInChunk, objIdx);
 		}
 	}
 
 	int size() {
-		return numObjs;
+		return endIdx - 1;
 	}
 
 	Collection<JavaLazyReadObject> getObjects() {
 		return new AbstractCollection<JavaLazyReadObject>() {
 			@Override
 			public Iterator<JavaLazyReadObject> iterator() {
-				return new Iterator<JavaLazyReadObject>() {
-					private int curObjPos = 1; // 1 is important; see Builder.posInCurChunk
-					private int curChunk = 0;
-					private int curChunkEndPos = CHUNK_SIZE - 1;
-
-					@Override
-					public boolean hasNext() {
-						return curObjPos < lastObjEndPos;
-					}
-
-					@Override
-					public JavaLazyReadObject next() {
-						if (!hasNext()) {
-							throw new NoSuchElementException();
-						}
-						JavaLazyReadObject result = getObject(curObjPos);
-						if (result instanceof JavaObject) {
-							curObjPos += 3;
-						} else {
-							curObjPos += 4;
-						}
-						if (curObjPos > curChunkEndPos - 3) {
-							curChunk++;
-							curObjPos = curChunk * CHUNK_SIZE;
-							curChunkEndPos = curObjPos + CHUNK_SIZE - 1;
-						}
-						return result;
-					}
-
-					@Override
-					public void remove() {
-						throw new UnsupportedOperationException();
-					}
-				};
+				return new ObjIterator(0, chunks.length);
 			}
 
 			@Override
 			public int size() {
-				return numObjs;
+				return endIdx - 1;
 			}
 		};
 	}
 
+	/**
+	 * Returns the objects in this table split into partitions, one per internal chunk. Iterating
+	 * over the partitions one after another produces the objects in the same order as
+	 * {@link #getObjects()}, but the partitions can also be iterated independently and concurrently.
+	 */
+	List<Iterable<JavaLazyReadObject>> getObjectPartitions() {
+		List<Iterable<JavaLazyReadObject>> result = new ArrayList<>(chunks.length);
+		for (int i = 0; i < chunks.length; i++) {
+			int chunk = i;
+			result.add(() -> new ObjIterator(chunk, chunk + 1));
+		}
+		return result;
+	}
+
+	/**
+	 * Iterates over objects located in chunks from startChunk (inclusive) to endChunk (exclusive).
+	 * Object positions are tracked as we go, rather than calculated from scratch for each object.
+	 */
+	private class ObjIterator implements Iterator<JavaLazyReadObject> {
+		private final int endObjIdx;
+		private int curObjIdx;
+		private int curPosInChunk;
+
+		ObjIterator(int startChunk, int endChunk) {
+			// 1 is important for the very first chunk; see Builder
+			curObjIdx = startChunk == 0 ? 1 : startChunk << CHUNK_MAGNITUDE;
+			curPosInChunk = startChunk == 0 ? 3 : 0;
+			endObjIdx = (int) Math.min(endIdx, ((long) endChunk) << CHUNK_MAGNITUDE);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return curObjIdx < endObjIdx;
+		}
+
+		@Override
+		public JavaLazyReadObject next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			int[] chunk = chunks[curObjIdx >>> CHUNK_MAGNITUDE].data;
+			JavaLazyReadObject result = getObject(chunk, curPosInChunk, curObjIdx);
+			if (result instanceof JavaObject) {
+				curPosInChunk += 3;
+			} else {
+				curPosInChunk += 4;
+			}
+			curObjIdx++;
+			if ((curObjIdx & IDX_IN_CHUNK_MASK) == 0) {
+				curPosInChunk = 0;
+			}
+			return result;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
 	Collection<JavaLazyReadObject> getUnvisitedObjects() {
 
 		class UnvisitedObjIterator implements Iterator<JavaLazyReadObject> {
-			private int curChunk = 0;
-			private int curChunkEndPos = CHUNK_SIZE - 1;
-			private int curObjPos = 1; // 1 is important; see Builder.posInCurChunk
+			private int curObjIdx = 1; // 1 is important; see Builder
+			private int curPosInChunk = 3;
+			private int[] curChunk = chunks.length > 0 ? chunks[0].data : null;
 
 			UnvisitedObjIterator() {
 				moveToNextUnvisitedObjectIfNeeded();
@@ -177,37 +220,33 @@ class JavaObjectTable {
 
 			@Override
 			public boolean hasNext() {
-				return curObjPos < lastObjEndPos;
+				return curObjIdx < endIdx;
 			}
 
 			@Override
 			public JavaLazyReadObject next() {
-				JavaLazyReadObject result = getObject(curObjPos);
-				if (result instanceof JavaObject) {
-					curObjPos += 3;
-				} else {
-					curObjPos += 4;
-				}
+				JavaLazyReadObject result = getObject(curChunk, curPosInChunk, curObjIdx);
+				moveToNextObject();
 				moveToNextUnvisitedObjectIfNeeded();
 				return result;
 			}
 
 			private void moveToNextUnvisitedObjectIfNeeded() {
-				while (curObjPos < lastObjEndPos) {
-					if (curObjPos > curChunkEndPos - 3) {
-						curChunk++;
-						curObjPos = curChunk * CHUNK_SIZE;
-						curChunkEndPos = curObjPos + CHUNK_SIZE - 1;
-					}
-					if (curObjIsVisited()) {
-						if (curObjIsArray()) {
-							curObjPos += 4;
-						} else {
-							curObjPos += 3;
-						}
-					} else {
-						break;
-					}
+				while (curObjIdx < endIdx && JavaLazyReadObject.isVisited(curChunk[curPosInChunk + 2])) {
+					moveToNextObject();
+				}
+			}
+
+			private void moveToNextObject() {
+				if ((curChunk[curPosInChunk] & arrayMask) != 0) {
+					curPosInChunk += 4;
+				} else {
+					curPosInChunk += 3;
+				}
+				curObjIdx++;
+				if ((curObjIdx & IDX_IN_CHUNK_MASK) == 0 && curObjIdx < endIdx) {
+					curChunk = chunks[curObjIdx >>> CHUNK_MAGNITUDE].data;
+					curPosInChunk = 0;
 				}
 			}
 
@@ -215,15 +254,6 @@ class JavaObjectTable {
 			public void remove() {
 				throw new UnsupportedOperationException();
 			}
-
-			private boolean curObjIsVisited() {
-				return JavaLazyReadObject.isVisited(objects[curChunk][(curObjPos & POS_IN_CHUNK_MASK) + 2]);
-			}
-
-			private boolean curObjIsArray() {
-				int firstWord = objects[curChunk][curObjPos & POS_IN_CHUNK_MASK];
-				return (firstWord & arrayMask) != 0;
-			}
 		}
 
 		return new AbstractCollection<JavaLazyReadObject>() {
@@ -239,88 +269,209 @@ class JavaObjectTable {
 		};
 	}
 
+	/**
+	 * A fixed number of consecutive objects.
+	 */
+	private static class Chunk {
+		private int[] data;
+		// Bit i is set if object i in this chunk is an array
+		private final long[] arrayBits = new long[OBJS_PER_CHUNK / 64];
+		// Element i is the number of arrays among objects 0 .. 64 * i - 1 in this chunk
+		private final int[] numArraysBefore = new int[OBJS_PER_CHUNK / 64];
+
+		int getPos(int idxInChunk) {
+			int word = idxInChunk >>> 6;
+			// Note that the shift distance is taken modulo 64
+			return idxInChunk * 3 + numArraysBefore[word]
+					+ Long.bitCount(arrayBits[word] & ((1L << idxInChunk) - 1));
+		}
+	}
+
 	static class Builder {
 
 		private final int classIdxShift;
 		private final int arrayMask;
 
-		private final ArrayList<int[]> chunksAsList;
+		private final ArrayList<Chunk> chunksAsList;
 
-		private int curChunkIdx = -1;
-		private int[] curChunk;
-		private int posInCurChunk; // Set to 1 for the very first object; see constructor
+		private Chunk curChunk;
+		private int[] curChunkData;
+		private int numObjsInCurChunk;
+		private int numArraysInCurChunk;
+		private int posInCurChunk;
 
 		private int numObjs;
+		private int maxNumObjs = MAX_OBJECTS;
 
 		Builder(long hprofFileSize) {
+			this(getClassIdxShift(hprofFileSize));
+			addChunk();
+			// It is important that the very first object has ordinal 1: this guarantees
+			// that the implementation of getObjectGlobalIndex() in JavaLazyReadObject
+			// returns only non-zero positive values, as required. Ordinal 0 is taken
+			// by a dummy object that is never returned.
+			numObjsInCurChunk = 1;
+			posInCurChunk = 3;
+		}
+
+		private Builder(int classIdxShift) {
+			this.classIdxShift = classIdxShift;
+			arrayMask = 1 << (classIdxShift - 1);
+			chunksAsList = new ArrayList<>();
+		}
+
+		private static int getClassIdxShift(long hprofFileSize) {
 			int nObjOfsBits = 0;
 			while (hprofFileSize > 0) {
 				nObjOfsBits++;
 				hprofFileSize >>= 1;
 			}
-			if (nObjOfsBits > 32) {
-				classIdxShift = nObjOfsBits - 31;
-			} else {
-				classIdxShift = 1;
+			return nObjOfsBits > 32 ? nObjOfsBits - 31 : 1;
+		}
+
+		/**
+		 * Writes the table built so far, so that it can be restored later with
+		 * {@link #readFrom(IndexFileInput)}.
+		 */
+		void writeTo(IndexFileOutput out) throws IOException {
+			out.writeInt(classIdxShift);
+			out.writeInt(numObjs);
+			out.writeInt(chunksAsList.size());
+			out.writeInt(numObjsInCurChunk);
+			out.writeInt(numArraysInCurChunk);
+			out.writeInt(posInCurChunk);
+			for (Chunk chunk : chunksAsList) {
+				int numWords = chunk.arrayBits.length;
+				if (chunk != curChunk) {
+					out.writeInt(chunk.data.length);
+					out.writeInts(chunk.data, 0, chunk.data.length);
+				} else {
+					out.writeInts(chunk.data, 0, posInCurChunk);
+					numWords = (numObjsInCurChunk + 63) / 64;
+				}
+				out.writeLongs(chunk.arrayBits, 0, numWords);
+				out.writeInts(chunk.numArraysBefore, 0, numWords);
 			}
-			arrayMask = 1 << (classIdxShift - 1);
+		}
 
-			chunksAsList = new ArrayList<>();
-			addChunk();
-			// It is important that the very first object is located at position 1:
-			// this guarantees that the implementation of getObjectGlobalIndex() in
-			// JavaLazyReadObject returns only non-zero positive values, as required.
-			posInCurChunk = 1;
+		static Builder readFrom(IndexFileInput in) throws IOException {
+			Builder builder = new Builder(in.readInt());
+			builder.numObjs = in.readInt();
+			int numChunks = in.readInt();
+			int numObjsInLastChunk = in.readInt();
+			int numArraysInLastChunk = in.readInt();
+			int posInLastChunk = in.readInt();
+			for (int i = 0; i < numChunks; i++) {
+				Chunk chunk;
+				int numWords;
+				if (i < numChunks - 1) {
+					chunk = new Chunk();
+					chunk.data = new int[in.readInt()];
+					in.readInts(chunk.data, 0, chunk.data.length);
+					builder.chunksAsList.add(chunk);
+					numWords = chunk.arrayBits.length;
+				} else {
+					builder.addChunk();
+					chunk = builder.curChunk;
+					in.readInts(chunk.data, 0, posInLastChunk);
+					numWords = (numObjsInLastChunk + 63) / 64;
+				}
+				in.readLongs(chunk.arrayBits, 0, numWords);
+				in.readInts(chunk.numArraysBefore, 0, numWords);
+			}
+			builder.numObjsInCurChunk = numObjsInLastChunk;
+			builder.numArraysInCurChunk = numArraysInLastChunk;
+			builder.posInCurChunk = posInLastChunk;
+			return builder;
 		}
 
 		JavaObjectTable buildJavaObjectTable(JavaClass[] classes) {
-			int[][] objects = chunksAsList.toArray(new int[chunksAsList.size()][]);
-			int lastObjEndPos = curChunkIdx * CHUNK_SIZE + posInCurChunk;
-			return new JavaObjectTable(objects, classes, numObjs, lastObjEndPos, classIdxShift, arrayMask);
+			finishChunk();
+			Chunk[] chunks = chunksAsList.toArray(new Chunk[chunksAsList.size()]);
+			return new JavaObjectTable(chunks, classes, numObjs, classIdxShift, arrayMask);
 		}
 
 		int addJavaObject(int classIdx, long objOfsInFile) {
-			if (posInCurChunk > CHUNK_SIZE - 4) {
-				addChunk();
-			}
-			int curAbsPos = curChunkIdx * CHUNK_SIZE + posInCurChunk;
-
+			int objIdx = startObject(false);
 			addClassAndOfs(classIdx, objOfsInFile, false);
 			posInCurChunk++; // Tags word
-			return curAbsPos;
+			return objIdx;
 		}
 
 		int addJavaArray(int classIdx, long objOfsInFile, int length) {
-			if (posInCurChunk > CHUNK_SIZE - 4) {
-				addChunk();
-			}
-			int curAbsPos = curChunkIdx * CHUNK_SIZE + posInCurChunk;
-
+			int objIdx = startObject(true);
 			addClassAndOfs(classIdx, objOfsInFile, true);
 			posInCurChunk++; // Tags word
 			addInt(length);
-			return curAbsPos;
+			return objIdx;
 		}
 
 		int getNumObjects() {
 			return numObjs;
 		}
 
+		/** Lowers the maximum number of objects, so that the limit can be tested. */
+		void setMaxNumObjects(int maxNumObjs) {
+			this.maxNumObjs = maxNumObjs;
+		}
+
+		/**
+		 * Updates the array bitmap of the current chunk for the new object, and returns its ordinal.
+		 */
+		private int startObject(boolean isArray) {
+			if (numObjs == maxNumObjs) {
+				throw new DumpCorruptedException.Runtime("heap dump contains more than " + maxNumObjs
+						+ " objects, which is the maximum that JOverflow supports");
+			}
+			if (numObjsInCurChunk == OBJS_PER_CHUNK) {
+				finishChunk();
+				addChunk();
+			}
+			int idxInChunk = numObjsInCurChunk++;
+			int word = idxInChunk >>> 6;
+			if ((idxInChunk & 63) == 0) {
+				curChunk.numArraysBefore[word] = numArraysInCurChunk;
+			}
+			if (isArray) {
+				curChunk.arrayBits[word] |= 1L << idxInChunk;
+				numArraysInCurChunk++;
+			}
+			return ((chunksAsList.size() - 1) << CHUNK_MAGNITUDE) + idxInChunk;
+		}
+
 		private void addClassAndOfs(int classIdx, long objOfsInFile, boolean isArray) {
+			if (classIdx >>> (32 - classIdxShift) != 0) {
+				throw new DumpCorruptedException.Runtime("heap dump contains more than " + (1L << (32 - classIdxShift))
+						+ " classes, which is the maximum that JOverflow supports for a dump of this size");
+			}
 			numObjs++;
-			curChunk[posInCurChunk++] = ((int) (objOfsInFile >> 32)) | (classIdx << classIdxShift)
+			curChunkData[posInCurChunk++] = ((int) (objOfsInFile >> 32)) | (classIdx << classIdxShift)
 					| (isArray ? arrayMask : 0);
-			curChunk[posInCurChunk++] = (int) objOfsInFile;
+			curChunkData[posInCurChunk++] = (int) objOfsInFile;
 		}
 
 		private void addInt(int intNum) {
-			curChunk[posInCurChunk++] = intNum;
+			curChunkData[posInCurChunk++] = intNum;
+		}
+
+		/**
+		 * Trims the data of the current chunk, which is allocated for the worst case when all objects
+		 * are arrays.
+		 */
+		private void finishChunk() {
+			if (posInCurChunk < curChunkData.length) {
+				curChunkData = Arrays.copyOf(curChunkData, posInCurChunk);
+				curChunk.data = curChunkData;
+			}
 		}
 
 		private void addChunk() {
-			curChunkIdx++;
-			curChunk = new int[CHUNK_SIZE];
+			curChunk = new Chunk();
+			curChunkData = new int[OBJS_PER_CHUNK * 4];
+			curChunk.data = curChunkData;
 			chunksAsList.add(curChunk);
+			numObjsInCurChunk = 0;
+			numArraysInCurChunk = 0;
 			posInCurChunk = 0;
 		}
 	}
@@ -87,6 +87,10 @@ public class Root implements Comparable<Root> {
 		return id;
 	}
 
+	long getRefererId() {
+		return refererId;
+	}
+
 	public String getIdString() {
 		return getTypeName() + '@' + getId();
 	}
@@ -36,12 +36,16 @@ import java.io.IOException;
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.openjdk.jmc.joverflow.heap.parser.ReadBuffer;
 import org.openjdk.jmc.joverflow.support.Constants;
+import org.openjdk.jmc.joverflow.util.IndexFileInput;
+import org.openjdk.jmc.joverflow.util.IndexFileOutput;
 import org.openjdk.jmc.joverflow.util.IntToIntMap;
 import org.openjdk.jmc.joverflow.util.LongToIntMap;
 import org.openjdk.jmc.joverflow.util.LongToObjectMap;
@@ -109,6 +113,10 @@ public class Snapshot {
 	/** Heap dump memory buffer used for lazy reads of JavaHeapObject contents */
 	private ReadBuffer readBuf;
 
+	/** Buffers used instead of readBuf by threads that have their own, see setThreadReadBuffer() */
+	private final ThreadLocal<ReadBuffer> threadReadBuf = new ThreadLocal<>();
+	private final AtomicInteger numThreadReadBufs = new AtomicInteger();
+
 	private HeapStringReader stringReader;
 
 	/**
@@ -237,6 +245,14 @@ public class Snapshot {
 		return objectTable.getObjects();
 	}
 
+	/**
+	 * Returns all objects split into partitions that can be scanned concurrently. Scanning the
+	 * partitions in list order visits objects in the same order as {@link #getObjects()}.
+	 */
+	public List<Iterable<JavaLazyReadObject>> getObjectPartitions() {
+		return objectTable.getObjectPartitions();
+	}
+
 	public Collection<JavaLazyReadObject> getUnvisitedObjects() {
 		return objectTable.getUnvisitedObjects();
 	}
@@ -266,9 +282,34 @@ public class Snapshot {
 	}
 
 	public ReadBuffer getReadBuffer() {
+		if (numThreadReadBufs.get() != 0) {
+			ReadBuffer buf = threadReadBuf.get();
+			if (buf != null) {
+				return buf;
+			}
+		}
 		return readBuf;
 	}
 
+	/**
+	 * Makes the calling thread read objects through the given buffer, or through the shared buffer
+	 * again if buf is null. The buffer should read the same heap dump file, for example it may be
+	 * obtained from {@link ReadBuffer#createThreadBuffer()}. The caller remains responsible for
+	 * closing it.
+	 */
+	public void setThreadReadBuffer(ReadBuffer buf) {
+		ReadBuffer oldBuf = threadReadBuf.get();
+		if (buf != null) {
+			threadReadBuf.set(buf);
+			if (oldBuf == null) {
+				numThreadReadBufs.incrementAndGet();
+			}
+		} else if (oldBuf != null) {
+			threadReadBuf.remove();
+			numThreadReadBufs.decrementAndGet();
+		}
+	}
+
 	/**
 	 * Allows the user to replace the ReadBuffer instance used by this Snapshot, for example to
 	 * reduce memory usage once no more intensive random-access operations are performed. The
@@ -276,7 +317,7 @@ public class Snapshot {
 	 */
 	public void resetReadBuffer(ReadBuffer.Factory bufFactory) {
 		try {
-			readBuf = bufFactory.create(null);
+			readBuf = bufFactory.createReplacement(readBuf);
 		} catch (IOException ex) {
 			throw new RuntimeException(ex);
 		}
@@ -436,6 +477,14 @@ public class Snapshot {
 		return stringReader;
 	}
 
+	/**
+	 * Returns a new string reader that is independent of the one returned by
+	 * {@link #getStringReader()}, and thus can be used in another thread.
+	 */
+	public HeapStringReader createStringReader() {
+		return new HeapStringReader(stringReader);
+	}
+
 	public VerboseOutputCollector getVerboseOutputCollector() {
 		return vc;
 	}
@@ -531,6 +580,16 @@ public class Snapshot {
 		 */
 		public Builder(long hprofFileSize, int hprofIdentifierSize, int explicitPointerSize,
 				VerboseOutputCollector vc) {
+			this(hprofFileSize, hprofFileSize, hprofIdentifierSize, explicitPointerSize, vc);
+		}
+
+		/**
+		 * Same as above, for a file whose size is only estimated, like a compressed one. Data
+		 * structures are sized based on hprofFileSize, but object offsets up to maxHprofFileSize
+		 * can be recorded.
+		 */
+		public Builder(long hprofFileSize, long maxHprofFileSize, int hprofIdentifierSize, int explicitPointerSize,
+				VerboseOutputCollector vc) {
 			this.vc = vc;
 
 			this.hprofPointerSize = hprofIdentifierSize;
@@ -574,12 +633,112 @@ public class Snapshot {
 			}
 
 			classList = new ArrayList<>(objTableSize / 2000);
-			objTableBuilder = new JavaObjectTable.Builder(hprofFileSize);
+			objTableBuilder = new JavaObjectTable.Builder(maxHprofFileSize);
 
 			classIdToJavaClass = new LongToObjectMap<>(objTableSize / 2000, false);
 			classNameToJavaClass = new HashMap<>(objTableSize / 2000);
 		}
 
+		/**
+		 * Creates a builder in the state written by {@link #writeIndex(IndexFileOutput)}.
+		 */
+		private Builder(IndexFileInput in, VerboseOutputCollector vc) throws IOException {
+			this.vc = vc;
+			hprofPointerSize = in.readInt();
+			pointerSize = in.readInt();
+			objHeaderSize = in.readInt();
+			objAlignment = in.readInt();
+			usingNarrowPointers = in.readBoolean();
+			roughTotalObjectSize = in.readLong();
+			unresolvedObjectsOk = in.readBoolean();
+
+			objIdToPosInObjectTable = in.readBoolean() ? new LongToIntMap(0) : new IntToIntMap(0);
+			objIdToPosInObjectTable.readFrom(in);
+			objTableBuilder = JavaObjectTable.Builder.readFrom(in);
+
+			int numClasses = in.readInt();
+			classList = new ArrayList<>(numClasses);
+			classIdToJavaClass = new LongToObjectMap<>(numClasses, false);
+			classNameToJavaClass = new HashMap<>(numClasses);
+			ArrayList<JavaClass> classes = new ArrayList<>(numClasses);
+			for (int i = 0; i < numClasses; i++) {
+				if (in.readBoolean()) {
+					JavaClass clazz = JavaClass.readFrom(in, pointerSize);
+					clazz.setClassListIdx(i);
+					classList.add(clazz);
+					classes.add(clazz);
+				} else { // Class ID for which the class itself hasn't been read
+					long classId = in.readLong();
+					classList.add(classId);
+					classIdToJavaClass.put(classId, i);
+				}
+			}
+			// Register the classes so that multiple versions of a class get chained in the same order
+			// as when they were read from the dump
+			classes.sort(Comparator.comparingInt(JavaClass::getVersionNumber));
+			for (JavaClass clazz : classes) {
+				if (clazz.readId() == -1) { // Synthetic primitive array class
+					classNameToJavaClass.put(clazz.getName(), clazz);
+				} else {
+					addToClassMaps(clazz);
+				}
+			}
+
+			int numRoots = in.readInt();
+			roots.ensureCapacity(numRoots);
+			for (int i = 0; i < numRoots; i++) {
+				long id = in.readLong();
+				long refererId = in.readLong();
+				roots.add(new Root(id, refererId, in.readInt(), ""));
+			}
+		}
+
+		/**
+		 * Writes the state of this builder, so that the same state can be restored later with
+		 * {@link #readIndex(IndexFileInput, VerboseOutputCollector)} without reading the heap dump
+		 * again. Should be called after {@link #onFinishReadObjects()} and before
+		 * {@link #buildSnapshot(ReadBuffer)}. Stack traces of roots are not written.
+		 */
+		public void writeIndex(IndexFileOutput out) throws IOException {
+			out.writeInt(hprofPointerSize);
+			out.writeInt(pointerSize);
+			out.writeInt(objHeaderSize);
+			out.writeInt(objAlignment);
+			out.writeBoolean(usingNarrowPointers);
+			out.writeLong(roughTotalObjectSize);
+			out.writeBoolean(unresolvedObjectsOk);
+
+			out.writeBoolean(objIdToPosInObjectTable instanceof LongToIntMap);
+			objIdToPosInObjectTable.writeTo(out);
+			objTableBuilder.writeTo(out);
+
+			out.writeInt(classList.size());
+			for (Object clazzOrId : classList) {
+				if (clazzOrId instanceof JavaClass) {
+					out.writeBoolean(true);
+					((JavaClass) clazzOrId).writeTo(out);
+				} else {
+					out.writeBoolean(false);
+					out.writeLong((Long) clazzOrId);
+				}
+			}
+
+			out.writeInt(roots.size());
+			for (Root root : roots) {
+				out.writeLong(root.getId());
+				out.writeLong(root.getRefererId());
+				out.writeInt(root.getType());
+			}
+		}
+
+		/**
+		 * Returns a builder in the state written by {@link #writeIndex(IndexFileOutput)}, on which
+		 * {@link #buildSnapshot(ReadBuffer)} can be called right away.
+		 */
+		public static Builder readIndex(IndexFileInput in, VerboseOutputCollector vc) throws IOException {
+			return new Builder(in, vc);
+		}
+
 		/**
 		 * Sets custom ObjTableSizePolicy, that will be used to determine initial object table size.
 		 * By default, it's set as file_size / EXPECTED_OBJ_SIZE_IN_FILE.
@@ -652,6 +811,9 @@ public class Snapshot {
 				clazz.setClassListIdx(classIdx);
 				classList.set(classIdx, clazz);
 			}
+			// The class may have been created by a reader of a heap dump segment concurrently with
+			// an object header size update, so its instance size may be based on a stale value
+			clazz.updateInstanceSize(getInMemoryInstanceSize(clazz.getFieldsSizeInFile()));
 			addToClassMaps(clazz);
 			recheckObjectHeaderSize(clazz);
 		}
@@ -62,9 +62,13 @@ public class CachedReadBuffer extends ReadBuffer {
 	private static final int PAGE_SIZE_MAGNITUDE = 19; // 512KB, seems optimal from experiments
 	private static final int PAGE_SIZE = 1 << PAGE_SIZE_MAGNITUDE;
 	private static final int PAGE_START_MASK = ~(PAGE_SIZE - 1);
+	// Buffers for other threads scan partitions of objects that are mostly contiguous in the file,
+	// so a few pages each are enough
+	private static final int NUM_PAGES_FOR_THREAD = 16;
 
 	private final int numPagesInPool;
-	private final FileReadBuffer frb;
+	private final PageSource frb;
+	private final boolean ownsSource;
 	private final long fileSize;
 	private final byte[] buffer;
 	private final Page[] pageIdxInFileToPage;
@@ -90,30 +94,43 @@ public class CachedReadBuffer extends ReadBuffer {
 	 * GC too frequently.
 	 */
 	static CachedReadBuffer createInstance(RandomAccessFile file, int preferredSize) throws IOException {
-		long fileSize = file.length();
+		return createInstance(new FileReadBuffer(file), preferredSize);
+	}
+
+	/**
+	 * Same as above, but pages are filled from the given source, rather than directly from a file.
+	 */
+	static CachedReadBuffer createInstance(PageSource source, int preferredSize) throws IOException {
+		long fileSize = source.length();
 		long memForCache = (preferredSize <= 0) ? determineCacheSizeFromFreeMem(fileSize) : preferredSize;
 		// No need to have a cache larger than the file length
 		if (memForCache > fileSize) {
 			memForCache = fileSize;
 		}
 		int numPages = (int) ((memForCache + PAGE_SIZE - 1) / PAGE_SIZE);
-		return new CachedReadBuffer(file, numPages);
+		return new CachedReadBuffer(source, numPages, true);
 	}
 
-	private CachedReadBuffer(RandomAccessFile file, int numPgsInPool) throws IOException {
+	private CachedReadBuffer(PageSource source, int numPgsInPool, boolean ownsSource) throws IOException {
 		this.numPagesInPool = numPgsInPool;
+		this.ownsSource = ownsSource;
 		Page[] pagePool = new Page[numPgsInPool];
 		buffer = new byte[numPgsInPool * PAGE_SIZE];
 		for (int i = 0; i < numPgsInPool; i++) {
 			pagePool[i] = new Page(i);
 		}
-		frb = new FileReadBuffer(file);
-		fileSize = file.length();
+		frb = source;
+		fileSize = source.length();
 		int numPagesInFile = (int) ((fileSize >> PAGE_SIZE_MAGNITUDE) + 1);
 		pageIdxInFileToPage = new Page[numPagesInFile];
 		numBytesReadFromFilePage = new int[numPagesInFile];
 
-		prereadPages(pagePool);
+		if (ownsSource) {
+			prereadPages(pagePool);
+		} else {
+			// Other threads read their own parts of the file, so only link the pages
+			linkPages(pagePool);
+		}
 
 		long memForCache = (long) numPgsInPool * PAGE_SIZE;
 		LOGGER.fine("\nDisk cache size set to " + (memForCache >> 20) + "MB");
@@ -148,7 +165,7 @@ public class CachedReadBuffer extends ReadBuffer {
 
 	@SuppressWarnings("unused") // For unused lines inside this method, due to DEBUG_PERF
 	@Override
-	public void get(long pos, byte[] buf, int numBytesToRead) throws IOException {
+	public synchronized void get(long pos, byte[] buf, int numBytesToRead) throws IOException {
 		if (DEBUG_PERF) {
 			lastReadPos = pos;
 			numReads++;
@@ -172,8 +189,8 @@ public class CachedReadBuffer extends ReadBuffer {
 					Page candidate = page;
 					int threshold = PAGE_SIZE * 4 / 5;
 					for (int i = 0; i < numPagesInPool / 8; i++) {
-						int candidateBytes = numBytesReadFromFilePage[candidate.pageIdxInFile];
-						if (candidateBytes > threshold) {
+						if (candidate.pageIdxInFile < 0
+								|| numBytesReadFromFilePage[candidate.pageIdxInFile] > threshold) {
 							page = candidate;
 							break;
 						} else {
@@ -187,7 +204,9 @@ public class CachedReadBuffer extends ReadBuffer {
 						numChanges++;
 					}
 				}
-				pageIdxInFileToPage[page.pageIdxInFile] = null;
+				if (page.pageIdxInFile >= 0) {
+					pageIdxInFileToPage[page.pageIdxInFile] = null;
+				}
 				page.fill(pos & PAGE_START_MASK, pageIdxInFile);
 				numPageSwaps++;
 				pageIdxInFileToPage[pageIdxInFile] = page;
@@ -251,13 +270,13 @@ public class CachedReadBuffer extends ReadBuffer {
 	}
 
 	@Override
-	public int getInt(long pos) throws IOException {
+	public synchronized int getInt(long pos) throws IOException {
 		get(pos, tmpBuf, 4);
 		return ((tmpBuf[0] & 0xFF) << 24) | ((tmpBuf[1] & 0xFF) << 16) | ((tmpBuf[2] & 0xFF) << 8) | (tmpBuf[3] & 0xFF);
 	}
 
 	@Override
-	public long getLong(long pos) throws IOException {
+	public synchronized long getLong(long pos) throws IOException {
 		get(pos, tmpBuf, 8);
 		int word1 = ((tmpBuf[0] & 0xFF) << 24) | ((tmpBuf[1] & 0xFF) << 16) | ((tmpBuf[2] & 0xFF) << 8)
 				| (tmpBuf[3] & 0xFF);
@@ -266,16 +285,40 @@ public class CachedReadBuffer extends ReadBuffer {
 		return (((long) word1) << 32) | ((word2) & 0xFFFFFFFFL);
 	}
 
+	/**
+	 * Returns a small cache that reads pages from the same source as this one. Reads from this
+	 * cache are synchronized, so threads that read many objects concurrently should each use their
+	 * own.
+	 */
+	@Override
+	public ReadBuffer createThreadBuffer() throws IOException {
+		int numPages = (int) Math.min(NUM_PAGES_FOR_THREAD, (fileSize + PAGE_SIZE - 1) / PAGE_SIZE);
+		CachedReadBuffer buf = new CachedReadBuffer(frb, numPages, false);
+		synchronized (this) {
+			buf.pass = pass;
+		}
+		return buf;
+	}
+
 	@Override
 	public void close() {
-		frb.close();
+		if (ownsSource) {
+			frb.close();
+		}
+	}
+
+	/**
+	 * Returns the index that pages are read through, or null if the file is not gzip-compressed.
+	 */
+	GzipIndex getGzipIndex() {
+		return frb instanceof GzipIndex ? (GzipIndex) frb : null;
 	}
 
 	/**
 	 * This method should be called between object scanning passes to make the page eviction
 	 * optimization work. A pass is a period when the contents of all or most objects are read.
 	 */
-	public void incrementPass() {
+	public synchronized void incrementPass() {
 		pass++;
 	}
 
@@ -333,13 +376,25 @@ public class CachedReadBuffer extends ReadBuffer {
 
 	private void prereadPages(Page[] pagePool) throws IOException {
 		int bytesToRead = (int) Math.min(buffer.length, fileSize); // buffer.length <= fileSize
-		frb.get(0, buffer, bytesToRead);
+		frb.get(0, buffer, 0, bytesToRead);
 		int numPages = pagePool.length; // buffer.length == numPages * PAGE_SIZE
 		for (int i = 0; i < numPages; i++) {
 			Page page = pagePool[i];
 			pageIdxInFileToPage[i] = page;
 			page.startPosInFile = (long) i * PAGE_SIZE;
 			page.pageIdxInFile = i;
+		}
+		linkPages(pagePool);
+	}
+
+	/**
+	 * Links the pages into the LRU list in pool order. Pages that have not been filled yet are
+	 * marked with pageIdxInFile == -1, and are the first ones to be filled.
+	 */
+	private void linkPages(Page[] pagePool) {
+		int numPages = pagePool.length;
+		for (int i = 0; i < numPages; i++) {
+			Page page = pagePool[i];
 			if (i > 0) {
 				page.previous = pagePool[i - 1];
 			}
@@ -378,6 +433,19 @@ public class CachedReadBuffer extends ReadBuffer {
 				+ leastRecentlyUsed + ";  MRU = " + mostRecentlyUsed + '\n' + ", numPagesInPool = " + numPagesInPool;
 	}
 
+	/**
+	 * The data that pages are filled with. Normally it's the heap dump file itself, but it may also be,
+	 * for example, an index that decompresses the data on the fly. Buffers created with
+	 * createThreadBuffer() share the source, so get() may be called from several threads.
+	 */
+	interface PageSource {
+		long length() throws IOException;
+
+		void get(long pos, byte[] buf, int startPosInBuf, int num) throws IOException;
+
+		void close();
+	}
+
 	private class Page {
 		private final int startPosInBuffer;
 		private long startPosInFile;
@@ -389,6 +457,7 @@ public class CachedReadBuffer extends ReadBuffer {
 		Page(int idxInPagePool) {
 			startPosInBuffer = idxInPagePool * PAGE_SIZE;
 			this.idxInPagePool = idxInPagePool;
+			pageIdxInFile = -1;
 		}
 
 		void fill(long startPosInFile, int pageIdxInFile) throws IOException {
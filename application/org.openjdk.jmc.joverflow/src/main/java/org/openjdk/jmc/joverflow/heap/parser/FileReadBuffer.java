@@ -37,9 +37,10 @@ import java.io.RandomAccessFile;
 import java.util.logging.Logger;
 
 /**
- * Implementation of ReadBuffer using a RandomAccessFile
+ * Implementation of ReadBuffer using a RandomAccessFile. Reads are synchronized, since each of them
+ * changes the file pointer.
  */
-class FileReadBuffer extends ReadBuffer {
+class FileReadBuffer extends ReadBuffer implements CachedReadBuffer.PageSource {
 	private final static Logger LOGGER = Logger.getLogger("org.openjdk.jmc.joverflow.heap.parser"); //$NON-NLS-1$
 
 	/** underlying file to read */
@@ -54,7 +55,7 @@ class FileReadBuffer extends ReadBuffer {
 	}
 
 	@Override
-	public void get(long pos, byte[] buf) throws IOException {
+	public synchronized void get(long pos, byte[] buf) throws IOException {
 		seek(pos);
 		int remainingBytes = buf.length;
 		do {
@@ -64,7 +65,7 @@ class FileReadBuffer extends ReadBuffer {
 	}
 
 	@Override
-	public void get(long pos, byte[] buf, int num) throws IOException {
+	public synchronized void get(long pos, byte[] buf, int num) throws IOException {
 		seek(pos);
 		int remainingBytes = num;
 		do {
@@ -73,7 +74,8 @@ class FileReadBuffer extends ReadBuffer {
 		} while (remainingBytes > 0);
 	}
 
-	public void get(long pos, byte[] buf, int startPosInBuf, int num) throws IOException {
+	@Override
+	public synchronized void get(long pos, byte[] buf, int startPosInBuf, int num) throws IOException {
 		seek(pos);
 		int remainingBytes = num;
 		do {
@@ -83,13 +85,18 @@ class FileReadBuffer extends ReadBuffer {
 	}
 
 	@Override
-	public int getInt(long pos) throws IOException {
+	public long length() throws IOException {
+		return file.length();
+	}
+
+	@Override
+	public synchronized int getInt(long pos) throws IOException {
 		seek(pos);
 		return file.readInt();
 	}
 
 	@Override
-	public long getLong(long pos) throws IOException {
+	public synchronized long getLong(long pos) throws IOException {
 		seek(pos);
 		return file.readLong();
 	}
@@ -0,0 +1,484 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.heap.parser;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * A pure Java decoder for gzip files (RFC 1951 and RFC 1952). Unlike java.util.zip.Inflater, it
+ * can start decoding at any DEFLATE block boundary, given the compressed bit offset of that boundary
+ * and the 32KB of uncompressed data that precede it. This is what makes random access to compressed
+ * heap dumps possible; see {@link GzipIndex}. Concatenated gzip members are decoded as one stream.
+ * <p>
+ * The compressed data is read with positional reads from a FileChannel that is not owned by this
+ * stream, so several instances can decode the same file concurrently.
+ */
+class GzipBlockInflater extends InputStream {
+	static final int WINDOW_SIZE = 1 << 15;
+	private static final int WINDOW_MASK = WINDOW_SIZE - 1;
+	private static final int INPUT_BUFFER_SIZE = 1 << 16;
+
+	// Decoding states
+	private static final int BLOCK_HEADER = 0;
+	private static final int STORED_BLOCK = 1;
+	private static final int HUFFMAN_BLOCK = 2;
+	private static final int END_OF_DATA = 3;
+
+	private static final int[] LENGTH_BASE = {3, 4, 5, 6, 7, 8, 9, 10, 11, 13, 15, 17, 19, 23, 27, 31, 35, 43, 51,
+			59, 67, 83, 99, 115, 131, 163, 195, 227, 258};
+	private static final int[] LENGTH_EXTRA = {0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 4,
+			5, 5, 5, 5, 0};
+	private static final int[] DIST_BASE = {1, 2, 3, 4, 5, 7, 9, 13, 17, 25, 33, 49, 65, 97, 129, 193, 257, 385, 513,
+			769, 1025, 1537, 2049, 3073, 4097, 6145, 8193, 12289, 16385, 24577};
+	private static final int[] DIST_EXTRA = {0, 0, 0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6, 7, 7, 8, 8, 9, 9, 10, 10,
+			11, 11, 12, 12, 13, 13};
+	private static final int[] CODE_LENGTH_ORDER = {16, 17, 18, 0, 8, 7, 9, 6, 10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15};
+
+	private static final HuffmanTable FIXED_LITERALS = new HuffmanTable();
+	private static final HuffmanTable FIXED_DISTANCES = new HuffmanTable();
+
+	static {
+		int[] lengths = new int[288 + 30];
+		Arrays.fill(lengths, 0, 144, 8);
+		Arrays.fill(lengths, 144, 256, 9);
+		Arrays.fill(lengths, 256, 280, 7);
+		Arrays.fill(lengths, 280, 288, 8);
+		Arrays.fill(lengths, 288, 288 + 30, 5);
+		try {
+			FIXED_LITERALS.build(lengths, 0, 288);
+			FIXED_DISTANCES.build(lengths, 288, 30);
+		} catch (IOException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final FileChannel channel;
+	private final long channelSize;
+	private final byte[] inBuf = new byte[INPUT_BUFFER_SIZE];
+	private long inBufStart;
+	private int inPos, inLen;
+	private int numPaddingBytes;
+	private long bitBuf;
+	private int bitCnt;
+
+	private final byte[] window = new byte[WINDOW_SIZE];
+	private int windowPos;
+	private long position; // Uncompressed offset of the next byte returned by read()
+	private long memberStart; // Uncompressed offset of the current gzip member, or -1 if unknown
+
+	private int state;
+	private boolean lastBlock;
+	private int storedBytesLeft;
+	private int copyLength, copyDistance;
+	private HuffmanTable literals, distances;
+	private HuffmanTable dynamicLiterals, dynamicDistances, codeLengths;
+	private int[] lengths;
+
+	private final byte[] oneByte = new byte[1];
+
+	/**
+	 * Creates a stream that decodes the gzip file from the beginning.
+	 */
+	GzipBlockInflater(FileChannel channel) throws IOException {
+		this.channel = channel;
+		channelSize = channel.size();
+		if (!readMemberHeader(0)) {
+			throw new IOException("not in gzip format");
+		}
+	}
+
+	/**
+	 * Creates a stream that starts decoding at the DEFLATE block boundary at the given compressed bit
+	 * offset. The window should contain the 32KB of uncompressed data that precede position.
+	 */
+	GzipBlockInflater(FileChannel channel, long bitPosition, long position, byte[] window) throws IOException {
+		this.channel = channel;
+		channelSize = channel.size();
+		this.position = position;
+		System.arraycopy(window, 0, this.window, 0, WINDOW_SIZE);
+		inBufStart = bitPosition >>> 3;
+		getBits((int) (bitPosition & 7));
+		memberStart = -1;
+		state = BLOCK_HEADER;
+	}
+
+	/**
+	 * Called each time a new DEFLATE block is about to be decoded. At this point the state of the
+	 * decoder is fully described by {@link #getBitPosition()}, {@link #getPosition()} and
+	 * {@link #copyWindow(byte[])}.
+	 */
+	void atBlockBoundary() throws IOException {
+	}
+
+	long getPosition() {
+		return position;
+	}
+
+	/** Returns the offset, in bits from the start of the file, of the first undecoded bit. */
+	long getBitPosition() {
+		return (inBufStart + inPos + numPaddingBytes) * 8 - bitCnt;
+	}
+
+	/** Copies the last 32KB of uncompressed data, oldest first, into dest. */
+	void copyWindow(byte[] dest) {
+		System.arraycopy(window, windowPos, dest, 0, WINDOW_SIZE - windowPos);
+		System.arraycopy(window, 0, dest, WINDOW_SIZE - windowPos, windowPos);
+	}
+
+	@Override
+	public int read() throws IOException {
+		return read(oneByte, 0, 1) == 1 ? oneByte[0] & 0xFF : -1;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		long startPosition = position;
+		int produced = 0;
+		while (produced < len) {
+			if (copyLength > 0) {
+				int n = Math.min(copyLength, len - produced);
+				copyLength -= n;
+				for (int i = 0; i < n; i++) {
+					byte v = window[(windowPos - copyDistance) & WINDOW_MASK];
+					window[windowPos] = v;
+					windowPos = (windowPos + 1) & WINDOW_MASK;
+					b[off + produced++] = v;
+				}
+			} else if (state == HUFFMAN_BLOCK) {
+				int symbol = decode(literals);
+				if (symbol < 256) {
+					window[windowPos] = (byte) symbol;
+					windowPos = (windowPos + 1) & WINDOW_MASK;
+					b[off + produced++] = (byte) symbol;
+				} else if (symbol == 256) {
+					state = BLOCK_HEADER;
+				} else {
+					symbol -= 257;
+					if (symbol >= LENGTH_BASE.length) {
+						throw corrupted("invalid literal/length code");
+					}
+					copyLength = LENGTH_BASE[symbol] + getBits(LENGTH_EXTRA[symbol]);
+					symbol = decode(distances);
+					if (symbol >= DIST_BASE.length) {
+						throw corrupted("invalid distance code");
+					}
+					copyDistance = DIST_BASE[symbol] + getBits(DIST_EXTRA[symbol]);
+				}
+			} else if (state == STORED_BLOCK) {
+				int n = Math.min(storedBytesLeft, len - produced);
+				storedBytesLeft -= n;
+				for (int i = 0; i < n; i++) {
+					byte v = (byte) getBits(8);
+					window[windowPos] = v;
+					windowPos = (windowPos + 1) & WINDOW_MASK;
+					b[off + produced++] = v;
+				}
+				if (storedBytesLeft == 0) {
+					state = BLOCK_HEADER;
+				}
+			} else if (state == BLOCK_HEADER) {
+				position = startPosition + produced;
+				if (!lastBlock) {
+					atBlockBoundary();
+					readBlockHeader();
+				} else if (!readMemberTrailerAndNextHeader()) {
+					state = END_OF_DATA;
+				}
+			} else {
+				break;
+			}
+		}
+		position = startPosition + produced;
+		return (produced == 0 && len > 0) ? -1 : produced;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		byte[] buf = new byte[(int) Math.min(n, INPUT_BUFFER_SIZE)];
+		long skipped = 0;
+		while (skipped < n) {
+			int r = read(buf, 0, (int) Math.min(n - skipped, buf.length));
+			if (r < 0) {
+				break;
+			}
+			skipped += r;
+		}
+		return skipped;
+	}
+
+	/** Does nothing, since the channel is owned by the caller. */
+	@Override
+	public void close() {
+	}
+
+	private void readBlockHeader() throws IOException {
+		lastBlock = getBits(1) == 1;
+		int type = getBits(2);
+		if (type == 0) {
+			getBits(bitCnt & 7); // Stored blocks start at a byte boundary
+			int length = getBits(16);
+			if (length != (~getBits(16) & 0xFFFF)) {
+				throw corrupted("invalid stored block length");
+			}
+			storedBytesLeft = length;
+			state = length > 0 ? STORED_BLOCK : BLOCK_HEADER;
+		} else if (type == 1) {
+			literals = FIXED_LITERALS;
+			distances = FIXED_DISTANCES;
+			state = HUFFMAN_BLOCK;
+		} else if (type == 2) {
+			readDynamicTables();
+			state = HUFFMAN_BLOCK;
+		} else {
+			throw corrupted("invalid block type");
+		}
+	}
+
+	private void readDynamicTables() throws IOException {
+		if (dynamicLiterals == null) {
+			dynamicLiterals = new HuffmanTable();
+			dynamicDistances = new HuffmanTable();
+			codeLengths = new HuffmanTable();
+			lengths = new int[288 + 32];
+		}
+		int numLiterals = getBits(5) + 257;
+		int numDistances = getBits(5) + 1;
+		int numCodeLengths = getBits(4) + 4;
+		Arrays.fill(lengths, 0, CODE_LENGTH_ORDER.length, 0);
+		for (int i = 0; i < numCodeLengths; i++) {
+			lengths[CODE_LENGTH_ORDER[i]] = getBits(3);
+		}
+		codeLengths.build(lengths, 0, CODE_LENGTH_ORDER.length);
+
+		int total = numLiterals + numDistances;
+		int i = 0;
+		while (i < total) {
+			int symbol = decode(codeLengths);
+			if (symbol < 16) {
+				lengths[i++] = symbol;
+				continue;
+			}
+			int value = 0;
+			int repeat;
+			if (symbol == 16) {
+				if (i == 0) {
+					throw corrupted("invalid bit length repeat");
+				}
+				value = lengths[i - 1];
+				repeat = 3 + getBits(2);
+			} else if (symbol == 17) {
+				repeat = 3 + getBits(3);
+			} else {
+				repeat = 11 + getBits(7);
+			}
+			if (i + repeat > total) {
+				throw corrupted("invalid bit length repeat");
+			}
+			Arrays.fill(lengths, i, i + repeat, value);
+			i += repeat;
+		}
+		if (lengths[256] == 0) {
+			throw corrupted("missing end-of-block code");
+		}
+		dynamicLiterals.build(lengths, 0, numLiterals);
+		dynamicDistances.build(lengths, numLiterals, numDistances);
+		literals = dynamicLiterals;
+		distances = dynamicDistances;
+	}
+
+	/**
+	 * Reads the trailer of the current gzip member and the header of the next one, if any. Returns
+	 * false if there are no more members.
+	 */
+	private boolean readMemberTrailerAndNextHeader() throws IOException {
+		getBits(bitCnt & 7);
+		getBits(16); // CRC32 is not verified, as it would not help with data read from the middle
+		getBits(16);
+		int size = getBits(16) | (getBits(16) << 16);
+		if (memberStart >= 0 && (int) (position - memberStart) != size) {
+			throw corrupted("uncompressed size mismatch");
+		}
+		return readMemberHeader(position);
+	}
+
+	private boolean readMemberHeader(long memberStart) throws IOException {
+		// Anything other than another gzip member after the first one is ignored, like gzip does
+		if (getBitPosition() >= channelSize * 8 || getBits(16) != 0x8B1F) {
+			return false;
+		}
+		if (getBits(8) != 8) {
+			throw corrupted("unsupported compression method");
+		}
+		int flags = getBits(8);
+		getBits(16); // Modification time
+		getBits(16);
+		getBits(16); // Extra flags and OS
+		if ((flags & 4) != 0) {
+			for (int extraLength = getBits(16); extraLength > 0; extraLength--) {
+				getBits(8);
+			}
+		}
+		if ((flags & 8) != 0) {
+			while (getBits(8) != 0) { // File name
+			}
+		}
+		if ((flags & 16) != 0) {
+			while (getBits(8) != 0) { // Comment
+			}
+		}
+		if ((flags & 2) != 0) {
+			getBits(16); // Header CRC16
+		}
+		this.memberStart = memberStart;
+		lastBlock = false;
+		state = BLOCK_HEADER;
+		return true;
+	}
+
+	private int decode(HuffmanTable table) throws IOException {
+		if (bitCnt < table.maxLength) {
+			refill();
+		}
+		int entry = table.entries[(int) bitBuf & table.mask];
+		int length = entry & 0xF;
+		if (length == 0) {
+			throw corrupted("invalid Huffman code");
+		}
+		bitBuf >>>= length;
+		bitCnt -= length;
+		return entry >>> 4;
+	}
+
+	private int getBits(int n) throws IOException {
+		if (bitCnt < n) {
+			refill();
+		}
+		int value = (int) bitBuf & ((1 << n) - 1);
+		bitBuf >>>= n;
+		bitCnt -= n;
+		return value;
+	}
+
+	private void refill() throws IOException {
+		while (bitCnt <= 56) {
+			if (inPos == inLen) {
+				fillInput();
+			}
+			int b;
+			if (inPos < inLen) {
+				b = inBuf[inPos++] & 0xFF;
+			} else {
+				// Up to 8 zero bytes past the end may be looked at, but never consumed, by decode()
+				if (++numPaddingBytes > 8) {
+					throw new EOFException("Unexpected end of gzip data");
+				}
+				b = 0;
+			}
+			bitBuf |= ((long) b) << bitCnt;
+			bitCnt += 8;
+		}
+	}
+
+	private void fillInput() throws IOException {
+		inBufStart += inLen;
+		inPos = 0;
+		ByteBuffer bb = ByteBuffer.wrap(inBuf);
+		while (bb.hasRemaining()) {
+			if (channel.read(bb, inBufStart + bb.position()) < 0) {
+				break;
+			}
+		}
+		inLen = bb.position();
+	}
+
+	private IOException corrupted(String msg) {
+		return new IOException("Corrupted gzip data at bit offset " + getBitPosition() + ": " + msg);
+	}
+
+	/**
+	 * Lookup table for a canonical Huffman code. It is indexed with the next maxLength bits of input,
+	 * and each entry contains a symbol and its code length.
+	 */
+	private static class HuffmanTable {
+		private static final int MAX_BITS = 15;
+
+		private final int[] entries = new int[1 << MAX_BITS];
+		private final int[] count = new int[MAX_BITS + 1];
+		private final int[] nextCode = new int[MAX_BITS + 1];
+		int maxLength, mask;
+
+		void build(int[] lengths, int offset, int numSymbols) throws IOException {
+			Arrays.fill(count, 0);
+			for (int i = 0; i < numSymbols; i++) {
+				count[lengths[offset + i]]++;
+			}
+			count[0] = 0;
+			maxLength = 1;
+			int left = 1;
+			for (int len = 1; len <= MAX_BITS; len++) {
+				left = (left << 1) - count[len];
+				if (left < 0) {
+					throw new IOException("Corrupted gzip data: over-subscribed Huffman code");
+				}
+				if (count[len] > 0) {
+					maxLength = len;
+				}
+			}
+			mask = (1 << maxLength) - 1;
+			// Incomplete codes are allowed, so entries for unused codes must not be left over
+			Arrays.fill(entries, 0, 1 << maxLength, 0);
+
+			int code = 0;
+			for (int len = 1; len <= MAX_BITS; len++) {
+				code = (code + count[len - 1]) << 1;
+				nextCode[len] = code;
+			}
+			for (int symbol = 0; symbol < numSymbols; symbol++) {
+				int len = lengths[offset + symbol];
+				if (len == 0) {
+					continue;
+				}
+				// Codes are stored most significant bit first, and the input is read LSB first
+				int reversed = Integer.reverse(nextCode[len]++) >>> (32 - len);
+				for (int i = reversed; i <= mask; i += 1 << len) {
+					entries[i] = (symbol << 4) | len;
+				}
+			}
+		}
+	}
+}
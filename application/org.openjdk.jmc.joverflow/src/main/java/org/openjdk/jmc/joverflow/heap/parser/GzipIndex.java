@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.heap.parser;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.openjdk.jmc.common.io.IOToolkit;
+
+/**
+ * Random access index for a gzip-compressed heap dump. It is built in a single pass over the file,
+ * during which a checkpoint is saved at a DEFLATE block boundary about every {@link #SPAN} bytes of
+ * uncompressed data. A checkpoint consists of the compressed bit offset and the uncompressed offset
+ * of the boundary, which are kept in memory, and of the 32KB window of uncompressed data preceding
+ * it. Windows are compressed and written to a temporary file, so that the memory used by the index
+ * remains small even for huge dumps. Reading data at any uncompressed offset then requires decoding
+ * at most SPAN bytes, starting from the nearest preceding checkpoint. The pass that builds the index
+ * can also be the one in which the dump is parsed, so that the file is decompressed only once.
+ * <p>
+ * The index also serves as the page source for a {@link CachedReadBuffer}, which keeps decoded
+ * pages in the JVM heap.
+ */
+class GzipIndex implements CachedReadBuffer.PageSource {
+	private final static Logger LOGGER = Logger.getLogger("org.openjdk.jmc.joverflow.heap.parser"); //$NON-NLS-1$
+
+	static final int SPAN = 1 << 20;
+	// The best compression ratio achievable with DEFLATE, reached for long runs of the same byte
+	private static final int MAX_COMPRESSION_RATIO = 1032;
+
+	private final File file;
+	private final FileChannel channel;
+	private final long compressedSize;
+
+	private int numCheckpoints;
+	private long[] bitPositions = new long[64];
+	private long[] positions = new long[64];
+	// Offsets of compressed windows in windowFile. Window i ends where window i + 1 starts.
+	private long[] windowOffsets = new long[65];
+	private File windowFile;
+	private FileChannel windowChannel;
+	private long uncompressedSize = -1;
+	// The stream returned by startBuilding() and the deflater for its windows, until the index is built
+	private GzipBlockInflater builder;
+	private Deflater deflater;
+
+	private volatile long bytesIndexed;
+	private volatile boolean cancelled;
+
+	// A stream used by a previous call to get(), which is reused if the next call reads further on.
+	// Concurrent calls take it in turn, and all but one of them open a new stream.
+	private final AtomicReference<GzipBlockInflater> lastInflater = new AtomicReference<>();
+
+	/** Returns true if the file starts with the gzip magic number. */
+	static boolean isGzipFile(File file) throws IOException {
+		try (InputStream in = new FileInputStream(file)) {
+			return in.read() == 0x1F && in.read() == 0x8B;
+		}
+	}
+
+	GzipIndex(File file) throws IOException {
+		this.file = file;
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		compressedSize = channel.size();
+	}
+
+	/**
+	 * Decodes the whole file, saving checkpoints and determining its uncompressed size.
+	 */
+	void build() throws IOException, HprofParsingCancelledException {
+		startBuilding();
+		finishBuilding();
+	}
+
+	/**
+	 * Returns a stream of the uncompressed data from the start of the file, which saves
+	 * checkpoints as it is read. This way, the data can be parsed and indexed in the same pass.
+	 * The stream should only be read sequentially, and {@link #finishBuilding()} should be called
+	 * once the caller has read as much of it as it needs.
+	 */
+	InputStream startBuilding() throws IOException {
+		windowFile = File.createTempFile("joverflow", ".gzwindows"); //$NON-NLS-1$ //$NON-NLS-2$
+		windowChannel = FileChannel.open(windowFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.DELETE_ON_CLOSE);
+
+		deflater = new Deflater(Deflater.BEST_SPEED);
+		final byte[] window = new byte[GzipBlockInflater.WINDOW_SIZE];
+		final byte[] compressedWindow = new byte[GzipBlockInflater.WINDOW_SIZE + 1024];
+		builder = new GzipBlockInflater(channel) {
+			@Override
+			void atBlockBoundary() throws IOException {
+				long position = getPosition();
+				bytesIndexed = getBitPosition() >>> 3;
+				if (numCheckpoints > 0 && position - positions[numCheckpoints - 1] < SPAN) {
+					return;
+				}
+				copyWindow(window);
+				deflater.reset();
+				deflater.setInput(window);
+				deflater.finish();
+				long windowEnd = windowOffsets[numCheckpoints];
+				while (!deflater.finished()) {
+					ByteBuffer out = ByteBuffer.wrap(compressedWindow, 0, deflater.deflate(compressedWindow));
+					while (out.hasRemaining()) {
+						windowEnd += windowChannel.write(out, windowEnd);
+					}
+				}
+				addCheckpoint(getBitPosition(), position, windowEnd);
+			}
+		};
+		return builder;
+	}
+
+	/**
+	 * Decodes the rest of the stream returned by {@link #startBuilding()}, which the caller should
+	 * not use anymore, and determines the uncompressed size of the file.
+	 */
+	void finishBuilding() throws IOException, HprofParsingCancelledException {
+		try {
+			byte[] buf = new byte[1 << 16];
+			while (builder.read(buf, 0, buf.length) > 0) {
+				if (cancelled) {
+					throw new HprofParsingCancelledException();
+				}
+			}
+			uncompressedSize = builder.getPosition();
+			bytesIndexed = compressedSize;
+		} finally {
+			endBuilding();
+		}
+		LOGGER.fine("Indexed gzip file " + file + ": " + numCheckpoints + " checkpoints, uncompressed size "
+				+ uncompressedSize);
+	}
+
+	private void endBuilding() {
+		if (deflater != null) {
+			deflater.end();
+			deflater = null;
+		}
+		builder = null;
+	}
+
+	/**
+	 * Returns a rough estimate of the uncompressed size of the file, available before the index is
+	 * built. The gzip trailer records the uncompressed size modulo 2^32, which is exact for files
+	 * under 4GB. For larger ones, we assume that the data is compressed as little as possible.
+	 */
+	long estimateUncompressedSize() throws IOException {
+		ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+		while (trailer.hasRemaining()) {
+			if (channel.read(trailer, compressedSize - 4 + trailer.position()) < 0) {
+				throw new EOFException("Truncated file " + file);
+			}
+		}
+		long sizeModulo = trailer.getInt(0) & 0xFFFFFFFFL;
+		long size = (compressedSize & ~0xFFFFFFFFL) | sizeModulo;
+		return size < compressedSize ? size + (1L << 32) : size;
+	}
+
+	/**
+	 * Returns the largest uncompressed size that a file of this compressed size can have. Object
+	 * offsets up to this size must be representable before the index is built.
+	 */
+	long getMaxUncompressedSize() {
+		return compressedSize * MAX_COMPRESSION_RATIO;
+	}
+
+	private void addCheckpoint(long bitPosition, long position, long windowEnd) {
+		if (numCheckpoints == bitPositions.length) {
+			int newLength = bitPositions.length * 2;
+			bitPositions = Arrays.copyOf(bitPositions, newLength);
+			positions = Arrays.copyOf(positions, newLength);
+			windowOffsets = Arrays.copyOf(windowOffsets, newLength + 1);
+		}
+		bitPositions[numCheckpoints] = bitPosition;
+		positions[numCheckpoints] = position;
+		windowOffsets[++numCheckpoints] = windowEnd;
+	}
+
+	void cancelBuilding() {
+		cancelled = true;
+	}
+
+	int getBuildProgressPercentage() {
+		return (int) (bytesIndexed * 100 / compressedSize);
+	}
+
+	/** Returns the uncompressed size of the file. Valid only after the index has been built. */
+	long getUncompressedSize() {
+		return uncompressedSize;
+	}
+
+	/**
+	 * Returns a stream of the uncompressed data starting at the given position. Can be called from
+	 * multiple threads concurrently.
+	 */
+	InputStream openStream(long position) throws IOException {
+		int idx = Arrays.binarySearch(positions, 0, numCheckpoints, position);
+		if (idx < 0) {
+			idx = -idx - 2;
+		}
+		GzipBlockInflater inflater = new GzipBlockInflater(channel, bitPositions[idx], positions[idx],
+				readWindow(idx));
+		skipTo(inflater, position);
+		return inflater;
+	}
+
+	@Override
+	public long length() {
+		return uncompressedSize;
+	}
+
+	@Override
+	public void get(long pos, byte[] buf, int startPosInBuf, int num) throws IOException {
+		GzipBlockInflater inflater = lastInflater.getAndSet(null);
+		if (inflater == null || pos < inflater.getPosition() || pos - inflater.getPosition() >= SPAN) {
+			inflater = (GzipBlockInflater) openStream(pos);
+		} else {
+			skipTo(inflater, pos);
+		}
+		while (num > 0) {
+			int n = inflater.read(buf, startPosInBuf, num);
+			if (n < 0) {
+				throw new EOFException("Read past the end of " + file);
+			}
+			startPosInBuf += n;
+			num -= n;
+		}
+		lastInflater.set(inflater);
+	}
+
+	@Override
+	public void close() {
+		endBuilding();
+		IOToolkit.closeSilently(channel);
+		// The window file is deleted when its channel is closed
+		IOToolkit.closeSilently(windowChannel);
+	}
+
+	private byte[] readWindow(int idx) throws IOException {
+		byte[] compressed = new byte[(int) (windowOffsets[idx + 1] - windowOffsets[idx])];
+		ByteBuffer bb = ByteBuffer.wrap(compressed);
+		while (bb.hasRemaining()) {
+			if (windowChannel.read(bb, windowOffsets[idx] + bb.position()) < 0) {
+				throw new EOFException("Truncated file " + windowFile);
+			}
+		}
+		byte[] window = new byte[GzipBlockInflater.WINDOW_SIZE];
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			if (inflater.inflate(window) != window.length) {
+				throw new IOException("Corrupted file " + windowFile);
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupted file " + windowFile, e);
+		} finally {
+			inflater.end();
+		}
+		return window;
+	}
+
+	private static void skipTo(GzipBlockInflater inflater, long position) throws IOException {
+		long toSkip = position - inflater.getPosition();
+		if (inflater.skip(toSkip) != toSkip) {
+			throw new EOFException("Position " + position + " is past the end of the gzip data");
+		}
+	}
+}
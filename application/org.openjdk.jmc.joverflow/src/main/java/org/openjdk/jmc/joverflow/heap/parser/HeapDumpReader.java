@@ -32,6 +32,8 @@
  */
 package org.openjdk.jmc.joverflow.heap.parser;
 
+import java.io.File;
+
 import org.openjdk.jmc.joverflow.heap.model.Snapshot;
 import org.openjdk.jmc.joverflow.util.VerboseOutputCollector;
 
@@ -50,6 +52,14 @@ public abstract class HeapDumpReader {
 
 	abstract public void cancelReading();
 
+	/**
+	 * Makes this reader use an index of the dump in the given directory, which should be called
+	 * before {@link #read()}. If a valid index for the dump exists, the snapshot is built from it
+	 * without parsing the dump. Otherwise the dump is parsed, and the index is written for the next
+	 * time. Has no effect for dumps that are not read from a file.
+	 */
+	abstract public void setIndexCacheDirectory(File dir);
+
 	/**
 	 * Create a reader for a heap dump. An instance of ReadBuffer.Factory passed to this method
 	 * defines the source of the dump (e.g. a file vs. a byte array), and any additional information
@@ -58,7 +68,19 @@ public abstract class HeapDumpReader {
 	public static HeapDumpReader createReader(
 		ReadBuffer.Factory bufFactory, int explicitPointerSize, VerboseOutputCollector vc)
 			throws DumpCorruptedException {
-		return new HprofReader(bufFactory, false, explicitPointerSize, vc);
+		return createReader(bufFactory, explicitPointerSize, vc, 1);
+	}
+
+	/**
+	 * Same as {@link #createReader(ReadBuffer.Factory, int, VerboseOutputCollector)}, but if
+	 * numThreads &gt; 1 and the dump is split into segments (which is the case for all dumps
+	 * generated by JDK 6 and newer), up to numThreads segments are parsed concurrently. The
+	 * resulting snapshot is the same as when the dump is read in a single thread.
+	 */
+	public static HeapDumpReader createReader(
+		ReadBuffer.Factory bufFactory, int explicitPointerSize, VerboseOutputCollector vc, int numThreads)
+			throws DumpCorruptedException {
+		return new HprofReader(bufFactory, false, explicitPointerSize, vc, numThreads);
 	}
 
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.heap.parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.openjdk.jmc.joverflow.heap.model.Snapshot;
+import org.openjdk.jmc.joverflow.util.IndexFileInput;
+import org.openjdk.jmc.joverflow.util.IndexFileOutput;
+import org.openjdk.jmc.joverflow.util.VerboseOutputCollector;
+
+/**
+ * An on-disk index of a heap dump, that contains the state of Snapshot.Builder after all records of
+ * the dump have been read: the object table, the object ID to table position map, classes and
+ * roots. When the same dump is read again, the builder is restored from the index, which takes a
+ * small fraction of the time needed to parse the dump.
+ * <p>
+ * The name of an index file includes the dump size, a fingerprint of its contents and the explicitly
+ * specified pointer size, if any, and the file header repeats them along with the last modification
+ * time of the dump. An index is ignored if any of these don't match, or if it was written by a
+ * different version of this class. The warnings reported when the dump was parsed are stored in the
+ * index too, and reported again when the index is loaded.
+ */
+class HprofIndexCache {
+	private static final int MAGIC_NUMBER = 0x4a4f4958; // "JOIX"
+	private static final int FORMAT_VERSION = 3;
+	private static final String INDEX_FILE_SUFFIX = ".jofidx";
+
+	// Size of the blocks at the start and at the end of the dump used to calculate the fingerprint
+	private static final int FINGERPRINT_BLOCK_SIZE = 1 << 20;
+
+	private final File indexFile;
+	private final long dumpSize;
+	private final long dumpLastModified;
+	private final long fingerprint;
+	private final int dumpNumber;
+	private final int explicitPointerSize;
+
+	HprofIndexCache(File cacheDir, File dumpFile, int dumpNumber, int explicitPointerSize) throws IOException {
+		this.dumpSize = dumpFile.length();
+		this.dumpLastModified = dumpFile.lastModified();
+		this.fingerprint = calculateFingerprint(dumpFile, dumpSize);
+		this.dumpNumber = dumpNumber;
+		this.explicitPointerSize = explicitPointerSize;
+		String indexFileName = dumpFile.getName() + '-' + Long.toHexString(dumpSize) + '-'
+				+ Long.toHexString(fingerprint) + (dumpNumber > 1 ? "-" + dumpNumber : "")
+				+ (explicitPointerSize > 0 ? "-p" + explicitPointerSize : "") + INDEX_FILE_SUFFIX;
+		indexFile = new File(cacheDir, indexFileName);
+	}
+
+	/**
+	 * Returns a builder restored from the index, or null if there is no valid index for the dump.
+	 * Mapped byte buffer end offsets stored in the index are added to mappedBBEndOfs, if it's not
+	 * null, and the stored warnings are added to vc.
+	 */
+	Snapshot.Builder load(List<Long> mappedBBEndOfs, VerboseOutputCollector vc) {
+		if (!indexFile.isFile()) {
+			return null;
+		}
+		try (IndexFileInput in = new IndexFileInput(indexFile)) {
+			if (in.readInt() != MAGIC_NUMBER || in.readInt() != FORMAT_VERSION || in.readLong() != dumpSize
+					|| in.readLong() != dumpLastModified || in.readLong() != fingerprint
+					|| in.readInt() != dumpNumber || in.readInt() != explicitPointerSize) {
+				vc.debug("Ignoring stale heap dump index " + indexFile);
+				return null;
+			}
+			int numBBEndOfs = in.readInt();
+			for (int i = 0; i < numBBEndOfs; i++) {
+				long ofs = in.readLong();
+				if (mappedBBEndOfs != null) {
+					mappedBBEndOfs.add(ofs);
+				}
+			}
+			int numWarnings = in.readInt();
+			String[][] warnings = new String[numWarnings][];
+			for (int i = 0; i < numWarnings; i++) {
+				warnings[i] = new String[] {in.readString(), in.readString()};
+			}
+			Snapshot.Builder builder = Snapshot.Builder.readIndex(in, vc);
+			for (String[] warning : warnings) {
+				vc.addWarning(warning[0], warning[1]);
+			}
+			vc.debug("Read heap dump index " + indexFile);
+			return builder;
+		} catch (IOException | RuntimeException ex) {
+			if (mappedBBEndOfs != null) {
+				mappedBBEndOfs.clear();
+			}
+			vc.addWarning("Could not read heap dump index", indexFile + ": " + ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the index for the dump, including the given warnings reported while parsing it. The
+	 * index is first written to a temporary file, so that a partially written index is never picked
+	 * up. Failures are reported as warnings, since the index is only an optimization.
+	 */
+	void store(
+		Snapshot.Builder builder, List<Long> mappedBBEndOfs, List<String[]> warnings, VerboseOutputCollector vc) {
+		File tmpFile = new File(indexFile.getPath() + ".tmp");
+		try {
+			try (IndexFileOutput out = new IndexFileOutput(tmpFile)) {
+				out.writeInt(MAGIC_NUMBER);
+				out.writeInt(FORMAT_VERSION);
+				out.writeLong(dumpSize);
+				out.writeLong(dumpLastModified);
+				out.writeLong(fingerprint);
+				out.writeInt(dumpNumber);
+				out.writeInt(explicitPointerSize);
+				out.writeInt(mappedBBEndOfs != null ? mappedBBEndOfs.size() : 0);
+				if (mappedBBEndOfs != null) {
+					for (long ofs : mappedBBEndOfs) {
+						out.writeLong(ofs);
+					}
+				}
+				out.writeInt(warnings.size());
+				for (String[] warning : warnings) {
+					out.writeString(warning[0]);
+					out.writeString(warning[1]);
+				}
+				builder.writeIndex(out);
+			}
+			Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			vc.debug("Wrote heap dump index " + indexFile);
+		} catch (IOException ex) {
+			tmpFile.delete();
+			vc.addWarning("Could not write heap dump index", indexFile + ": " + ex);
+		}
+	}
+
+	/**
+	 * Calculates a checksum of the blocks at the start and at the end of the dump. Together with
+	 * the dump size, it identifies the dump well enough without reading all of it.
+	 */
+	private static long calculateFingerprint(File dumpFile, long dumpSize) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] block = new byte[(int) Math.min(FINGERPRINT_BLOCK_SIZE, dumpSize)];
+		try (RandomAccessFile raf = new RandomAccessFile(dumpFile, "r")) {
+			raf.readFully(block);
+			crc.update(block);
+			long headCrc = crc.getValue();
+			crc.reset();
+			raf.seek(dumpSize - block.length);
+			raf.readFully(block);
+			crc.update(block);
+			return (headCrc << 32) | crc.getValue();
+		}
+	}
+}
@@ -38,10 +38,16 @@ import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.openjdk.jmc.joverflow.heap.model.ArrayTypeCodes;
 import org.openjdk.jmc.joverflow.heap.model.JavaBoolean;
@@ -61,6 +67,7 @@ import org.openjdk.jmc.joverflow.heap.model.Snapshot;
 import org.openjdk.jmc.joverflow.heap.model.StackFrame;
 import org.openjdk.jmc.joverflow.heap.model.StackTrace;
 import org.openjdk.jmc.joverflow.util.FileUtils;
+import org.openjdk.jmc.joverflow.util.LongArrayList;
 import org.openjdk.jmc.joverflow.util.LongToObjectMap;
 import org.openjdk.jmc.joverflow.util.MiscUtils;
 import org.openjdk.jmc.joverflow.util.VerboseOutputCollector;
@@ -139,8 +146,12 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 
 	private final File hprofFile; // Non-null if we use a real disk file
 	private final byte[] fileImageBytes; // Non-null if we use a byte[] array with file image
+	private final GzipIndex gzipIndex; // Non-null if the file is gzip-compressed
 	private PositionDataInputStream in;
-	private final long fileSize;
+	// For a gzip-compressed file, unknown (Long.MAX_VALUE) until the index is built
+	private long fileSize;
+	// Used to size data structures. For a gzip-compressed file, it's estimated before the index is built.
+	private final long estimatedFileSize;
 
 	private int version; // The version of .hprof being read
 
@@ -187,12 +198,33 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 	// If > 0, use this instead of the value that we half-read/half-guess from the snapshot
 	private final int explicitPointerSize;
 
+	// Number of threads used to parse heap dump segments. If it's greater than 1, segments are only
+	// indexed when they are encountered, and parsed concurrently after all other records are read.
+	private final int numThreads;
+
+	// Start offsets and lengths of indexed, but not yet parsed heap dump segments. Null if segments
+	// are parsed as they are encountered.
+	private final LongArrayList segmentStarts, segmentLengths;
+
+	// Non-null in a reader of a single heap dump segment. Such a reader records the sub-records that
+	// it reads in this shard, rather than adding them to snpBuilder, which it never touches. The
+	// parent reader replays the shards in file order, which guarantees the same result as sequential
+	// parsing.
+	private final SegmentShard shard;
+	private final HprofReader parent;
+	// Pointer size used by a segment reader, taken from snpBuilder before any segment is parsed
+	private final int segmentPointerSize;
+
 	// Diagnostics and progress tracking
 	private final VerboseOutputCollector vc;
 	private volatile boolean cancelled;
+	private volatile long unparsedSegmentBytes;
+
+	// If not null, an index of the dump is read from/written to this directory
+	private File indexCacheDir;
 
-	HprofReader(ReadBuffer.Factory bufFactory, boolean callStack, int explicitPointerSize, VerboseOutputCollector vc)
-			throws DumpCorruptedException {
+	HprofReader(ReadBuffer.Factory bufFactory, boolean callStack, int explicitPointerSize, VerboseOutputCollector vc,
+			int numThreads) throws DumpCorruptedException {
 		this.bufFactory = bufFactory;
 		String fileName = bufFactory.getFileName();
 		int dumpNumber = 1;
@@ -219,19 +251,26 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 				if (fileSize == 0) {
 					throw new DumpCorruptedException("file size is 0");
 				}
+				gzipIndex = GzipIndex.isGzipFile(hprofFile) ? new GzipIndex(hprofFile) : null;
+				if (gzipIndex != null) {
+					fileSize = Long.MAX_VALUE;
+				}
+				estimatedFileSize = gzipIndex != null ? gzipIndex.estimateUncompressedSize() : fileSize;
 			} catch (IOException ex) {
 				throw new DumpCorruptedException(ex.getMessage());
 			}
 		} else { // We have the .hprof file bytes in Java heap - typically in tests
 			hprofFile = null;
+			gzipIndex = null;
 			this.fileSize = fileImageBytes.length;
+			estimatedFileSize = fileSize;
 		}
 
 		this.vc = vc;
 
 		this.dumpsToSkip = dumpNumber - 1;
 		this.explicitPointerSize = explicitPointerSize;
-		names = new LongToObjectMap<>((int) (fileSize / 100000), false);
+		names = new LongToObjectMap<>((int) (estimatedFileSize / 100000), false);
 		threadObjects = new HashMap<>(43);
 		classNameFromObjectID = new LongToObjectMap<>(1000, false);
 		if (callStack) {
@@ -240,13 +279,55 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 			classNameFromSerialNo = new HashMap<>();
 		}
 
-		longFile = fileSize > MAX_BB_SIZE;
+		// A gzip-compressed file is never mapped, so we don't need buffer borders for it
+		longFile = gzipIndex == null && fileSize > MAX_BB_SIZE;
 		if (longFile) {
 			mappedBBEndOfs = new ArrayList<>();
 			currentBBMaxOfs = MAX_BB_SIZE - 1;
 		} else {
 			mappedBBEndOfs = null;
 		}
+
+		this.numThreads = Math.max(1, numThreads);
+		if (this.numThreads > 1) {
+			segmentStarts = new LongArrayList(64);
+			segmentLengths = new LongArrayList(64);
+		} else {
+			segmentStarts = segmentLengths = null;
+		}
+		shard = null;
+		parent = null;
+		segmentPointerSize = 0;
+	}
+
+	/**
+	 * Creates a reader for the heap dump segment that starts at segmentStart. It shares the
+	 * information read from top-level records with the parent, which should not change it anymore,
+	 * and records the sub-records and warnings that it reads in the given shard.
+	 */
+	private HprofReader(HprofReader parent, long segmentStart, int pointerSize, SegmentShard shard)
+			throws IOException {
+		this.parent = parent;
+		bufFactory = parent.bufFactory;
+		hprofFile = parent.hprofFile;
+		fileImageBytes = parent.fileImageBytes;
+		gzipIndex = parent.gzipIndex;
+		fileSize = parent.fileSize;
+		estimatedFileSize = parent.estimatedFileSize;
+		version = parent.version;
+		identifierSize = parent.identifierSize;
+		names = parent.names;
+		classNameFromObjectID = parent.classNameFromObjectID;
+		explicitPointerSize = parent.explicitPointerSize;
+		segmentPointerSize = pointerSize;
+		vc = new ShardOutputCollector(shard, parent.vc);
+		// Mapped buffer borders are determined by the parent when it replays the shard
+		longFile = false;
+		mappedBBEndOfs = null;
+		numThreads = 1;
+		segmentStarts = segmentLengths = null;
+		this.shard = shard;
+		in = openStream(segmentStart);
 	}
 
 	@Override
@@ -254,23 +335,42 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 		String dumpCorruptedExMsg = "";
 		ReadBuffer readBuf = null;
 		try {
-			if (hprofFile != null) {
-				in = new PositionDataInputStream(new BufferedInputStream(new FileInputStream(hprofFile)));
-			} else {
-				in = new PositionDataInputStream(new ByteArrayInputStream(fileImageBytes));
+			HprofIndexCache indexCache = createIndexCache();
+			if (indexCache != null) {
+				snpBuilder = indexCache.load(mappedBBEndOfs, vc);
+				if (snpBuilder != null && gzipIndex != null) {
+					gzipIndex.build();
+					setGzipFileSize(gzipIndex.getUncompressedSize());
+				}
 			}
 
-			doRead();
+			if (snpBuilder == null) {
+				int firstParseWarning = vc.getNumWarnings();
+				// A gzip-compressed file is indexed while it's parsed
+				in = gzipIndex != null ? new PositionDataInputStream(new BufferedInputStream(gzipIndex.startBuilding()))
+						: openStream(0);
+
+				doRead();
+				if (gzipIndex != null) {
+					// Segment readers need checkpoints all over the file
+					gzipIndex.finishBuilding();
+					setGzipFileSize(gzipIndex.getUncompressedSize());
+				}
+				readIndexedSegments();
 
-			// Some very simple/obvious sanity checks
-			if (snpBuilder.getNumAllObjects() == 0) {
-				throw new DumpCorruptedException("did not read any objects");
-			}
-			if (snpBuilder.getNumClasses() == 0) {
-				throw new DumpCorruptedException("did not read any classes");
-			}
+				// Some very simple/obvious sanity checks
+				if (snpBuilder.getNumAllObjects() == 0) {
+					throw new DumpCorruptedException("did not read any objects");
+				}
+				if (snpBuilder.getNumClasses() == 0) {
+					throw new DumpCorruptedException("did not read any classes");
+				}
 
-			snpBuilder.onFinishReadObjects();
+				snpBuilder.onFinishReadObjects();
+				if (indexCache != null) {
+					indexCache.store(snpBuilder, mappedBBEndOfs, vc.getWarningEntries(firstParseWarning), vc);
+				}
+			}
 
 			long[] mappedBBEndOfsArray = null;
 			if (mappedBBEndOfs != null) {
@@ -280,7 +380,10 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 				}
 				mappedBBEndOfsArray[mappedBBEndOfsArray.length - 1] = fileSize - 1;
 			}
-			readBuf = bufFactory.create(mappedBBEndOfsArray);
+			readBuf = gzipIndex != null ? bufFactory.createForGzip(gzipIndex) : bufFactory.create(mappedBBEndOfsArray);
+		} catch (DumpCorruptedException.Runtime ex) {
+			// Thrown by Snapshot.Builder, for example if the dump has too many objects
+			throw ex.getCause();
 		} catch (IOException ex) {
 			dumpCorruptedExMsg = "caught exception " + ex + ". Details:\n";
 			StringWriter exWriterBuf = new StringWriter(200);
@@ -297,6 +400,10 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 					}
 				}
 			}
+			// Otherwise the index is closed together with readBuf
+			if (readBuf == null && gzipIndex != null) {
+				gzipIndex.close();
+			}
 		}
 
 		if (dumpCorruptedExMsg.length() > 0) {
@@ -320,16 +427,68 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 
 	@Override
 	public synchronized int getProgressPercentage() {
-		if (in != null) {
-			return (int) (in.position() * 100 / fileSize);
-		} else {
-			return 0;
+		if (in == null) {
+			return gzipIndex != null ? gzipIndex.getBuildProgressPercentage() : 0;
 		}
+		long parsedBytes = in.position() - unparsedSegmentBytes;
+		if (fileSize == Long.MAX_VALUE) {
+			// The uncompressed size is not known yet, but the data is parsed as it is decompressed
+			long position = in.position();
+			return position == 0 ? 0 : (int) (gzipIndex.getBuildProgressPercentage() * parsedBytes / position);
+		}
+		return (int) (parsedBytes * 100 / fileSize);
+	}
+
+	private synchronized void setGzipFileSize(long size) {
+		fileSize = size;
 	}
 
 	@Override
 	public void cancelReading() {
 		cancelled = true;
+		if (gzipIndex != null) {
+			gzipIndex.cancelBuilding();
+		}
+	}
+
+	@Override
+	public void setIndexCacheDirectory(File dir) {
+		indexCacheDir = dir;
+	}
+
+	/**
+	 * Returns the index cache for the dump, or null if it should not be used. Stack traces are not
+	 * stored in the index, so it's not used when call stacks are tracked.
+	 */
+	private HprofIndexCache createIndexCache() {
+		if (indexCacheDir == null || hprofFile == null || stackTraces != null) {
+			return null;
+		}
+		try {
+			return new HprofIndexCache(indexCacheDir, hprofFile, dumpsToSkip + 1, explicitPointerSize);
+		} catch (IOException ex) {
+			vc.addWarning("Could not use heap dump index", ex.toString());
+			return null;
+		}
+	}
+
+	private PositionDataInputStream openStream(long position) throws IOException {
+		if (gzipIndex != null) {
+			return new PositionDataInputStream(new BufferedInputStream(gzipIndex.openStream(position)), position);
+		} else if (hprofFile != null) {
+			FileInputStream fileIn = new FileInputStream(hprofFile);
+			try {
+				fileIn.getChannel().position(position);
+			} catch (IOException ex) {
+				fileIn.close();
+				throw ex;
+			}
+			return new PositionDataInputStream(new BufferedInputStream(fileIn), position);
+		} else {
+			return new PositionDataInputStream(
+					new ByteArrayInputStream(fileImageBytes, (int) position, fileImageBytes.length - (int) position),
+					position);
+		}
 	}
 
 	private void doRead() throws DumpCorruptedException, IOException, HprofParsingCancelledException {
@@ -345,7 +504,10 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 					+ ". JOverflow supports only size 4 and 8.");
 		}
 
-		snpBuilder = new Snapshot.Builder(fileSize, identifierSize, explicitPointerSize, vc);
+		// Object offsets in a gzip-compressed file must fit, however large it turns out to be
+		long maxFileSize = gzipIndex != null ? gzipIndex.getMaxUncompressedSize() : fileSize;
+		snpBuilder = new Snapshot.Builder(estimatedFileSize, maxFileSize, identifierSize, explicitPointerSize,
+				vc);
 
 		skipBytes(8); // long creationDate = in.readLong();
 //		System.out.println("Dump file created " + (new Date(creationDate)));
@@ -423,7 +585,15 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 
 			case HPROF_HEAP_DUMP_SEGMENT: {
 				if (version >= VERSION_JDK6) {
-					if (dumpsToSkip <= 0) {
+					if (dumpsToSkip <= 0 && segmentStarts != null) {
+						// Only index the segment now, it will be parsed later along with the others
+						long startPos = in.position();
+						segmentStarts.add(startPos);
+						segmentLengths.add(length);
+						unparsedSegmentBytes += length;
+						// If the dump is truncated, EOF is handled when this segment is parsed
+						skipBytesUpToEOF(length);
+					} else if (dumpsToSkip <= 0) {
 						try {
 							vc.debug("Segment of length " + length + " starts at position " + in.position());
 							// read the dump segment
@@ -507,10 +677,11 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 	private void skipBytes(long length) throws IOException, DumpCorruptedException {
 		long remainingBytes = length;
 		do {
-			int skippedBytes = in.skipBytes((int) length);
+			int skippedBytes = in.skipBytes((int) Math.min(remainingBytes, Integer.MAX_VALUE));
 			remainingBytes -= skippedBytes;
 			if (remainingBytes > 0) {
-				if (in.position() >= fileSize) {
+				// A gzip stream can't skip past its end, unlike a file
+				if (skippedBytes == 0 || in.position() >= fileSize) {
 					throw new DumpCorruptedException("Reached end of file while trying to skip " + length + " bytes");
 
 				}
@@ -518,6 +689,146 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 		} while (remainingBytes > 0);
 	}
 
+	/**
+	 * Skips length bytes, or all the remaining bytes if the file is shorter than that.
+	 */
+	private void skipBytesUpToEOF(long length) throws IOException {
+		long remainingBytes = Math.min(length, fileSize - in.position());
+		while (remainingBytes > 0) {
+			int skippedBytes = in.skipBytes((int) Math.min(remainingBytes, Integer.MAX_VALUE));
+			if (skippedBytes == 0) {
+				break;
+			}
+			remainingBytes -= skippedBytes;
+		}
+	}
+
+	/**
+	 * Parses the heap dump segments indexed by doRead(). Up to one segment per thread is parsed at
+	 * any time, including the one whose shard is currently being replayed. Since a reader can only
+	 * get a bounded number of sub-records ahead of the replay, the memory used by the shards is
+	 * bounded too, however large the segments are.
+	 */
+	private void readIndexedSegments() throws DumpCorruptedException, IOException, HprofParsingCancelledException {
+		if (segmentStarts == null || segmentStarts.isEmpty()) {
+			return;
+		}
+		int numSegments = segmentStarts.size();
+		vc.debug("Parsing " + numSegments + " heap dump segments using " + numThreads + " threads");
+		// Segment readers must not touch snpBuilder, which is updated while their shards are replayed
+		int pointerSize = snpBuilder.getPointerSize();
+
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads, r -> {
+			Thread t = new Thread(r, "JOverflow heap dump segment reader"); //$NON-NLS-1$
+			t.setDaemon(true);
+			return t;
+		});
+		ArrayDeque<SegmentShard> inFlight = new ArrayDeque<>();
+		int nextToSubmit = 0;
+		try {
+			for (int i = 0; i < numSegments; i++) {
+				while (nextToSubmit < numSegments && inFlight.size() < numThreads) {
+					long startPos = segmentStarts.get(nextToSubmit);
+					long length = segmentLengths.get(nextToSubmit);
+					nextToSubmit++;
+					SegmentShard s = new SegmentShard();
+					inFlight.add(s);
+					executor.execute(() -> readSegment(startPos, length, pointerSize, s));
+				}
+				vc.debug("Segment of length " + segmentLengths.get(i) + " starts at position " + segmentStarts.get(i));
+				replayShard(inFlight.remove());
+				unparsedSegmentBytes -= segmentLengths.get(i);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void readSegment(long startPos, long length, int pointerSize, SegmentShard s) {
+		Throwable failure = null;
+		try {
+			HprofReader segmentReader = new HprofReader(this, startPos, pointerSize, s);
+			try {
+				segmentReader.readHeapDump(length);
+			} finally {
+				segmentReader.in.close();
+			}
+		} catch (EOFException ex) {
+			s.setEOF(ex);
+		} catch (InterruptedIOException ex) {
+			return; // Parsing has been stopped, nobody will replay this shard anymore
+		} catch (Throwable t) {
+			failure = t;
+		}
+		s.finish(failure);
+	}
+
+	/**
+	 * Adds the sub-records recorded in the given shard, in the order in which they were read, as
+	 * they become available.
+	 */
+	private void replayShard(SegmentShard s)
+			throws DumpCorruptedException, IOException, HprofParsingCancelledException {
+		while (true) {
+			ShardBlock b;
+			try {
+				b = s.take();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new HprofParsingCancelledException();
+			}
+
+			for (String[] warning : b.warnings) {
+				vc.addWarning(warning[0], warning[1]);
+			}
+			int classIdx = 0;
+			for (int i = 0; i < b.size; i++) {
+				switch (b.types[i]) {
+				case HPROF_GC_INSTANCE_DUMP:
+					addJavaObject(b.ids[i], b.classIds[i], b.offsets[i], b.ints2[i]);
+					break;
+				case HPROF_GC_OBJ_ARRAY_DUMP:
+					addJavaObjectArray(b.ids[i], b.classIds[i], b.offsets[i], b.ints1[i], b.ints2[i]);
+					break;
+				case HPROF_GC_PRIM_ARRAY_DUMP:
+					addJavaValueArray(b.ids[i], (char) b.classIds[i], b.offsets[i], b.ints1[i], b.ints2[i]);
+					break;
+				case HPROF_GC_CLASS_DUMP:
+					addClass(b.classes.get(classIdx++));
+					break;
+				default:
+					addRoot(b.types[i], b.ids[i], b.ints1[i], b.ints2[i]);
+				}
+			}
+
+			if (b.last) {
+				if (b.eof != null) {
+					handleEOF(b.eof);
+				}
+				if (b.failure != null) {
+					rethrow(b.failure);
+				}
+				return;
+			}
+		}
+	}
+
+	private static void rethrow(Throwable failure)
+			throws DumpCorruptedException, IOException, HprofParsingCancelledException {
+		if (failure instanceof DumpCorruptedException) {
+			throw (DumpCorruptedException) failure;
+		} else if (failure instanceof IOException) {
+			throw (IOException) failure;
+		} else if (failure instanceof HprofParsingCancelledException) {
+			throw (HprofParsingCancelledException) failure;
+		} else if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		throw new IllegalStateException(failure);
+	}
+
 	private int readVersionHeader() throws IOException, DumpCorruptedException {
 		int candidatesLeft = VERSIONS.length;
 		boolean[] matched = new boolean[VERSIONS.length];
@@ -575,72 +886,33 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 				break;
 			}
 
-			case HPROF_GC_ROOT_UNKNOWN: {
-				id = readID();
-				snpBuilder.addRoot(new Root(id, 0, Root.UNKNOWN, ""));
-				break;
-			}
-			case HPROF_GC_ROOT_THREAD_OBJ: {
+			case HPROF_GC_ROOT_UNKNOWN:
+			case HPROF_GC_ROOT_STICKY_CLASS:
+			case HPROF_GC_ROOT_MONITOR_USED: {
 				id = readID();
-				int threadSeq = in.readInt();
-				int stackSeq = in.readInt();
-				threadObjects.put(threadSeq, new ThreadObject(id, stackSeq));
+				addRoot(recordType, id, 0, 0);
 				break;
 			}
 			case HPROF_GC_ROOT_JNI_GLOBAL: {
 				id = readID();
 				readID(); // long globalRefId, ignored for now
-				snpBuilder.addRoot(new Root(id, 0, Root.JNI_GLOBAL, ""));
-				break;
-			}
-			case HPROF_GC_ROOT_JNI_LOCAL: {
-				id = readID();
-				int threadSeq = in.readInt();
-				int depth = in.readInt();
-				ThreadObject to = getThreadObjectFromSequence(threadSeq);
-				StackTrace st = getStackTraceFromSerial(to.stackSeq);
-				if (st != null) {
-					st = st.traceForDepth(depth + 1);
-				}
-				snpBuilder.addRoot(new Root(id, to.threadId, Root.JNI_LOCAL, "", st));
+				addRoot(recordType, id, 0, 0);
 				break;
 			}
+			case HPROF_GC_ROOT_THREAD_OBJ:
+			case HPROF_GC_ROOT_JNI_LOCAL:
 			case HPROF_GC_ROOT_JAVA_FRAME: {
 				id = readID();
 				int threadSeq = in.readInt();
-				int depth = in.readInt();
-				ThreadObject to = getThreadObjectFromSequence(threadSeq);
-				StackTrace st = getStackTraceFromSerial(to.stackSeq);
-				if (st != null) {
-					st = st.traceForDepth(depth + 1);
-				}
-				snpBuilder.addRoot(new Root(id, to.threadId, Root.JAVA_LOCAL, "", st));
-				break;
-			}
-			case HPROF_GC_ROOT_NATIVE_STACK: {
-				id = readID();
-				int threadSeq = in.readInt();
-				ThreadObject to = getThreadObjectFromSequence(threadSeq);
-				StackTrace st = getStackTraceFromSerial(to.stackSeq);
-				snpBuilder.addRoot(new Root(id, to.threadId, Root.NATIVE_STACK, "", st));
-				break;
-			}
-			case HPROF_GC_ROOT_STICKY_CLASS: {
-				id = readID();
-				snpBuilder.addRoot(new Root(id, 0, Root.SYSTEM_CLASS, ""));
+				int stackSeqOrDepth = in.readInt();
+				addRoot(recordType, id, threadSeq, stackSeqOrDepth);
 				break;
 			}
+			case HPROF_GC_ROOT_NATIVE_STACK:
 			case HPROF_GC_ROOT_THREAD_BLOCK: {
 				id = readID();
 				int threadSeq = in.readInt();
-				ThreadObject to = getThreadObjectFromSequence(threadSeq);
-				StackTrace st = getStackTraceFromSerial(to.stackSeq);
-				snpBuilder.addRoot(new Root(id, to.threadId, Root.THREAD_BLOCK, "", st));
-				break;
-			}
-			case HPROF_GC_ROOT_MONITOR_USED: {
-				id = readID();
-				snpBuilder.addRoot(new Root(id, 0, Root.BUSY_MONITOR, ""));
+				addRoot(recordType, id, threadSeq, 0);
 				break;
 			}
 			case HPROF_GC_CLASS_DUMP: {
@@ -661,6 +933,115 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 		}
 	}
 
+	/**
+	 * Handles a GC root sub-record. Roots that refer to a thread are resolved using the
+	 * HPROF_GC_ROOT_THREAD_OBJ sub-records read before them, so a segment reader only records them
+	 * in its shard. They are resolved when the parent replays the shard.
+	 */
+	private void addRoot(int rootType, long id, int threadSeq, int stackSeqOrDepth)
+			throws DumpCorruptedException, IOException {
+		if (shard != null) {
+			shard.add(rootType, id, 0, 0, threadSeq, stackSeqOrDepth);
+			return;
+		}
+
+		switch (rootType) {
+		case HPROF_GC_ROOT_UNKNOWN: {
+			snpBuilder.addRoot(new Root(id, 0, Root.UNKNOWN, ""));
+			break;
+		}
+		case HPROF_GC_ROOT_THREAD_OBJ: {
+			threadObjects.put(threadSeq, new ThreadObject(id, stackSeqOrDepth));
+			break;
+		}
+		case HPROF_GC_ROOT_JNI_GLOBAL: {
+			snpBuilder.addRoot(new Root(id, 0, Root.JNI_GLOBAL, ""));
+			break;
+		}
+		case HPROF_GC_ROOT_JNI_LOCAL: {
+			ThreadObject to = getThreadObjectFromSequence(threadSeq);
+			StackTrace st = getStackTraceFromSerial(to.stackSeq);
+			if (st != null) {
+				st = st.traceForDepth(stackSeqOrDepth + 1);
+			}
+			snpBuilder.addRoot(new Root(id, to.threadId, Root.JNI_LOCAL, "", st));
+			break;
+		}
+		case HPROF_GC_ROOT_JAVA_FRAME: {
+			ThreadObject to = getThreadObjectFromSequence(threadSeq);
+			StackTrace st = getStackTraceFromSerial(to.stackSeq);
+			if (st != null) {
+				st = st.traceForDepth(stackSeqOrDepth + 1);
+			}
+			snpBuilder.addRoot(new Root(id, to.threadId, Root.JAVA_LOCAL, "", st));
+			break;
+		}
+		case HPROF_GC_ROOT_NATIVE_STACK: {
+			ThreadObject to = getThreadObjectFromSequence(threadSeq);
+			StackTrace st = getStackTraceFromSerial(to.stackSeq);
+			snpBuilder.addRoot(new Root(id, to.threadId, Root.NATIVE_STACK, "", st));
+			break;
+		}
+		case HPROF_GC_ROOT_STICKY_CLASS: {
+			snpBuilder.addRoot(new Root(id, 0, Root.SYSTEM_CLASS, ""));
+			break;
+		}
+		case HPROF_GC_ROOT_THREAD_BLOCK: {
+			ThreadObject to = getThreadObjectFromSequence(threadSeq);
+			StackTrace st = getStackTraceFromSerial(to.stackSeq);
+			snpBuilder.addRoot(new Root(id, to.threadId, Root.THREAD_BLOCK, "", st));
+			break;
+		}
+		case HPROF_GC_ROOT_MONITOR_USED: {
+			snpBuilder.addRoot(new Root(id, 0, Root.BUSY_MONITOR, ""));
+			break;
+		}
+		}
+	}
+
+	private void addClass(JavaClass c) throws IOException {
+		if (shard != null) {
+			shard.add(c);
+		} else {
+			snpBuilder.addClass(c);
+		}
+	}
+
+	private void addJavaObject(long id, long classID, long objOfsInFile, int objDataSize) throws IOException {
+		if (shard != null) {
+			shard.add(HPROF_GC_INSTANCE_DUMP, id, classID, objOfsInFile, 0, objDataSize);
+			return;
+		}
+		snpBuilder.addJavaObject(id, classID, objOfsInFile, objDataSize);
+		if (longFile) {
+			handlePossibleBBBorder(objOfsInFile);
+		}
+	}
+
+	private void addJavaObjectArray(long id, long classID, long objOfsInFile, int length, int objDataSize)
+			throws IOException {
+		if (shard != null) {
+			shard.add(HPROF_GC_OBJ_ARRAY_DUMP, id, classID, objOfsInFile, length, objDataSize);
+			return;
+		}
+		snpBuilder.addJavaObjectArray(id, classID, objOfsInFile, length, objDataSize);
+		if (longFile) {
+			handlePossibleBBBorder(objOfsInFile);
+		}
+	}
+
+	private void addJavaValueArray(long id, char primitiveSignature, long objOfsInFile, int length, int objDataSize)
+			throws IOException {
+		if (shard != null) {
+			shard.add(HPROF_GC_PRIM_ARRAY_DUMP, id, primitiveSignature, objOfsInFile, length, objDataSize);
+			return;
+		}
+		snpBuilder.addJavaValueArray(id, primitiveSignature, objOfsInFile, length, objDataSize);
+		if (longFile) {
+			handlePossibleBBBorder(objOfsInFile);
+		}
+	}
+
 	private long readID() throws IOException {
 		return (identifierSize == 4) ? (Snapshot.SMALL_ID_MASK & in.readInt()) : in.readLong();
 	}
@@ -827,7 +1208,7 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 				if (version >= VERSION_JDK12BETA4) {
 					type = signatureFromTypeId(type);
 				}
-				staticFields[i] = JavaField.newInstance(fieldName, (char) type, snpBuilder.getPointerSize());
+				staticFields[i] = JavaField.newInstance(fieldName, (char) type, getPointerSize());
 				staticValues[i] = valueBin[0];
 			}
 		}
@@ -847,7 +1228,7 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 			if (version >= VERSION_JDK12BETA4) {
 				type = signatureFromTypeId(type);
 			}
-			fields[i] = JavaField.newInstance(fieldName, (char) type, snpBuilder.getPointerSize());
+			fields[i] = JavaField.newInstance(fieldName, (char) type, getPointerSize());
 		}
 
 		String name = classNameFromObjectID.get(id);
@@ -856,13 +1237,19 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 			name = "unknown-name@" + toHex(id);
 		}
 
+		// In a segment reader, the instance size is set when the shard is replayed
+		int instanceSize = shard == null ? snpBuilder.getInMemoryInstanceSize(fieldsSize) : 0;
 		JavaClass c = new JavaClass(id, name, superId, classLoaderId, signersId, protDomainId, fields, staticFields,
-				staticValues, fieldsSize, snpBuilder.getInMemoryInstanceSize(fieldsSize));
-		snpBuilder.addClass(c);
+				staticValues, fieldsSize, instanceSize);
+		addClass(c);
 
 		return bytesRead;
 	}
 
+	private int getPointerSize() {
+		return shard == null ? snpBuilder.getPointerSize() : segmentPointerSize;
+	}
+
 	private String toHex(long addr) {
 		return MiscUtils.toHex(addr);
 	}
@@ -878,10 +1265,7 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 		int objDataSize = in.readInt();
 		int bytesRead = (2 * identifierSize) + 8 + objDataSize;
 		skipBytes(objDataSize);
-		snpBuilder.addJavaObject(id, classID, objOfsInFile, objDataSize);
-		if (longFile) {
-			handlePossibleBBBorder(objOfsInFile);
-		}
+		addJavaObject(id, classID, objOfsInFile, objDataSize);
 		return bytesRead;
 	}
 
@@ -964,12 +1348,9 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 		skipBytes(dataSize);
 
 		if (isPrimitive) {
-			snpBuilder.addJavaValueArray(id, primitiveSignature, objOfsInFile, num, dataSize);
+			addJavaValueArray(id, primitiveSignature, objOfsInFile, num, dataSize);
 		} else {
-			snpBuilder.addJavaObjectArray(id, arrayClassID, objOfsInFile, num, dataSize);
-		}
-		if (longFile) {
-			handlePossibleBBBorder(objOfsInFile);
+			addJavaObjectArray(id, arrayClassID, objOfsInFile, num, dataSize);
 		}
 
 		return bytesRead;
@@ -1021,11 +1402,132 @@ class HprofReader extends HeapDumpReader /* imports */ implements ArrayTypeCodes
 	}
 
 	private void checkForCancellation() throws HprofParsingCancelledException {
-		if (cancelled) {
+		if (cancelled || (parent != null && parent.cancelled)) {
 			throw new HprofParsingCancelledException();
 		}
 	}
 
+	/**
+	 * Sub-records of a single heap dump segment, in the order in which they were read. They are
+	 * passed from the segment reader to the parent in blocks of limited size through a queue of
+	 * limited capacity, so the reader waits if it gets too far ahead of the parent.
+	 */
+	private static class SegmentShard {
+		private static final int MAX_QUEUED_BLOCKS = 4;
+
+		private final BlockingQueue<ShardBlock> blocks = new ArrayBlockingQueue<>(MAX_QUEUED_BLOCKS);
+		private ShardBlock current = new ShardBlock();
+
+		void add(int type, long id, long classId, long offset, int int1, int int2) throws InterruptedIOException {
+			if (current.size == ShardBlock.CAPACITY) {
+				put(current);
+				current = new ShardBlock();
+			}
+			current.add(type, id, classId, offset, int1, int2);
+		}
+
+		void add(JavaClass clazz) throws InterruptedIOException {
+			add(HPROF_GC_CLASS_DUMP, 0, 0, 0, 0, 0);
+			current.classes.add(clazz);
+		}
+
+		void addWarning(String warningKind, String msg) {
+			current.warnings.add(new String[] {warningKind, msg});
+		}
+
+		void setEOF(EOFException eof) {
+			current.eof = eof;
+		}
+
+		/**
+		 * Called by the segment reader when it's done, successfully or not.
+		 */
+		void finish(Throwable failure) {
+			current.last = true;
+			current.failure = failure;
+			try {
+				put(current);
+			} catch (InterruptedIOException ex) {
+				// Parsing has been stopped, nobody will replay this shard anymore
+			}
+		}
+
+		ShardBlock take() throws InterruptedException {
+			return blocks.take();
+		}
+
+		private void put(ShardBlock block) throws InterruptedIOException {
+			try {
+				blocks.put(block);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+		}
+	}
+
+	/**
+	 * A block of sub-records in a {@link SegmentShard}. Object and root sub-records are kept in
+	 * parallel primitive arrays to keep the memory overhead low, and class sub-records are kept as
+	 * JavaClass instances in a separate list.
+	 */
+	private static class ShardBlock {
+		static final int CAPACITY = 16 * 1024;
+
+		int size;
+		final int[] types = new int[CAPACITY];
+		final long[] ids = new long[CAPACITY];
+		// Class ID for objects and object arrays, element signature for primitive arrays
+		final long[] classIds = new long[CAPACITY];
+		final long[] offsets = new long[CAPACITY];
+		// Array length for arrays, thread sequence number for roots
+		final int[] ints1 = new int[CAPACITY];
+		// Data size for objects, stack sequence number or frame depth for roots
+		final int[] ints2 = new int[CAPACITY];
+		final ArrayList<JavaClass> classes = new ArrayList<>();
+		// Warnings reported while reading the sub-records in this block
+		final ArrayList<String[]> warnings = new ArrayList<>();
+
+		// Set in the last block of a shard
+		boolean last;
+		EOFException eof;
+		Throwable failure;
+
+		void add(int type, long id, long classId, long offset, int int1, int int2) {
+			types[size] = type;
+			ids[size] = id;
+			classIds[size] = classId;
+			offsets[size] = offset;
+			ints1[size] = int1;
+			ints2[size] = int2;
+			size++;
+		}
+	}
+
+	/**
+	 * Used by a segment reader to record warnings in its shard, so that the parent reports them in
+	 * the same order as when the dump is read in a single thread.
+	 */
+	private static class ShardOutputCollector extends VerboseOutputCollector {
+		private final SegmentShard shard;
+		private final VerboseOutputCollector parentVc;
+
+		ShardOutputCollector(SegmentShard shard, VerboseOutputCollector parentVc) {
+			this.shard = shard;
+			this.parentVc = parentVc;
+		}
+
+		@Override
+		public void addWarning(String warningKind, String msg) {
+			shard.addWarning(warningKind, msg);
+		}
+
+		@Override
+		public void debug(String msg) {
+			parentVc.debug(msg);
+		}
+	}
+
 	/**
 	 * A trivial data-holder class for HPROF_GC_ROOT_THREAD_OBJ.
 	 */
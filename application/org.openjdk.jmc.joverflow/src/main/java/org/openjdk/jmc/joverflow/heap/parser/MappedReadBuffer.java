@@ -46,33 +46,32 @@ class MappedReadBuffer extends ReadBuffer {
 		this.buf = buf;
 	}
 
+	// Only absolute get methods are used, so that the buffer position is never changed and reads
+	// from multiple threads do not interfere with each other
+
 	@Override
-	public synchronized void get(long pos, byte[] res) throws IOException {
-		seek(pos);
-		buf.get(res);
+	public void get(long pos, byte[] res) throws IOException {
+		buf.get(index(pos), res);
 	}
 
 	@Override
-	public synchronized void get(long pos, byte[] res, int num) throws IOException {
-		seek(pos);
-		buf.get(res, 0, num);
+	public void get(long pos, byte[] res, int num) throws IOException {
+		buf.get(index(pos), res, 0, num);
 	}
 
 	@Override
-	public synchronized int getInt(long pos) throws IOException {
-		seek(pos);
-		return buf.getInt();
+	public int getInt(long pos) throws IOException {
+		return buf.getInt(index(pos));
 	}
 
 	@Override
-	public synchronized long getLong(long pos) throws IOException {
-		seek(pos);
-		return buf.getLong();
+	public long getLong(long pos) throws IOException {
+		return buf.getLong(index(pos));
 	}
 
-	private void seek(long pos) throws IOException {
+	private static int index(long pos) {
 		assert pos <= Integer.MAX_VALUE : "position overflow";
-		buf.position((int) pos);
+		return (int) pos;
 	}
 
 	@Override
@@ -51,42 +51,42 @@ class MappedReadMultiBuffer extends ReadBuffer {
 		this.maxBufSize = maxBufSize;
 	}
 
-	private MappedByteBuffer seek(long pos) throws IOException {
+	private int bufferIndex(long pos) {
 		int bufIdx = (int) (pos / maxBufSize);
 		while (pos > mappedBBEndOfs[bufIdx]) {
 			bufIdx++;
 		}
-		MappedByteBuffer buf = bufs[bufIdx];
-		if (bufIdx > 0) {
-			buf.position((int) (pos - mappedBBEndOfs[bufIdx - 1] - 1));
-		} else {
-			buf.position((int) pos);
-		}
-		return buf;
+		return bufIdx;
+	}
+
+	private static int positionInBuffer(long pos, int bufIdx, long[] mappedBBEndOfs) {
+		return bufIdx > 0 ? (int) (pos - mappedBBEndOfs[bufIdx - 1] - 1) : (int) pos;
 	}
 
+	// Only absolute get methods are used, so that the buffer positions are never changed and reads
+	// from multiple threads do not interfere with each other
+
 	@Override
 	public void get(long pos, byte[] res) throws IOException {
-		MappedByteBuffer buf = seek(pos);
-		buf.get(res);
+		get(pos, res, res.length);
 	}
 
 	@Override
 	public void get(long pos, byte[] res, int num) throws IOException {
-		MappedByteBuffer buf = seek(pos);
-		buf.get(res, 0, num);
+		int bufIdx = bufferIndex(pos);
+		bufs[bufIdx].get(positionInBuffer(pos, bufIdx, mappedBBEndOfs), res, 0, num);
 	}
 
 	@Override
 	public int getInt(long pos) throws IOException {
-		MappedByteBuffer buf = seek(pos);
-		return buf.getInt();
+		int bufIdx = bufferIndex(pos);
+		return bufs[bufIdx].getInt(positionInBuffer(pos, bufIdx, mappedBBEndOfs));
 	}
 
 	@Override
 	public long getLong(long pos) throws IOException {
-		MappedByteBuffer buf = seek(pos);
-		return buf.getLong();
+		int bufIdx = bufferIndex(pos);
+		return bufs[bufIdx].getLong(positionInBuffer(pos, bufIdx, mappedBBEndOfs));
 	}
 
 	@Override
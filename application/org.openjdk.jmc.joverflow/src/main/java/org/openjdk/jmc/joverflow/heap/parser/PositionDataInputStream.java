@@ -44,6 +44,14 @@ public class PositionDataInputStream extends DataInputStream {
 		super(in instanceof PositionInputStream ? in : new PositionInputStream(in));
 	}
 
+	/**
+	 * Creates a stream that reports positions starting from startPosition, for an underlying stream
+	 * that has already been positioned at that offset.
+	 */
+	public PositionDataInputStream(InputStream in, long startPosition) {
+		super(new PositionInputStream(in, startPosition));
+	}
+
 	public long position() {
 		return ((PositionInputStream) in).position();
 	}
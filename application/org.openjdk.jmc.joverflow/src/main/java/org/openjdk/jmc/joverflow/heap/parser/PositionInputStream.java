@@ -41,10 +41,19 @@ import java.io.InputStream;
  * stream.
  */
 public class PositionInputStream extends FilterInputStream {
-	private long position = 0L;
+	private long position;
 
 	public PositionInputStream(InputStream in) {
+		this(in, 0L);
+	}
+
+	/**
+	 * Creates a stream that reports positions starting from startPosition, for an underlying stream
+	 * that has already been positioned at that offset.
+	 */
+	public PositionInputStream(InputStream in, long startPosition) {
 		super(in);
+		this.position = startPosition;
 	}
 
 	@Override
@@ -41,7 +41,8 @@ import org.openjdk.jmc.common.io.IOToolkit;
 
 /**
  * Abstract superclass for positionable read only buffer classes. A concrete implementation may use
- * a mmapped file, a random-access file, a backing array in JVM memory, etc.
+ * a mmapped file, a random-access file, a backing array in JVM memory, etc. All implementations can
+ * be read from multiple threads concurrently.
  */
 public abstract class ReadBuffer {
 
@@ -70,6 +71,24 @@ public abstract class ReadBuffer {
 		 * subclasses.
 		 */
 		abstract public ReadBuffer create(Object supplementalInfo) throws IOException;
+
+		/**
+		 * Called by HprofReader instead of create() when the heap dump file is gzip-compressed. Such
+		 * a file can only be read randomly by decompressing parts of it, so by default this method
+		 * returns a CachedReadBuffer, whatever the type of this factory.
+		 */
+		ReadBuffer createForGzip(GzipIndex index) throws IOException {
+			return CachedReadBuffer.createInstance(index, 0);
+		}
+
+		/**
+		 * Called by Snapshot.resetReadBuffer() to create a buffer that replaces oldBuf. If the heap
+		 * dump file is gzip-compressed, the new buffer reads it through the index that oldBuf uses.
+		 */
+		public ReadBuffer createReplacement(ReadBuffer oldBuf) throws IOException {
+			GzipIndex index = oldBuf instanceof CachedReadBuffer ? ((CachedReadBuffer) oldBuf).getGzipIndex() : null;
+			return index != null ? createForGzip(index) : create(null);
+		}
 	}
 
 	/**
@@ -110,6 +129,11 @@ public abstract class ReadBuffer {
 				throw e;
 			}
 		}
+
+		@Override
+		ReadBuffer createForGzip(GzipIndex index) throws IOException {
+			return CachedReadBuffer.createInstance(index, preferredCacheSize);
+		}
 	}
 
 	/**
@@ -210,5 +234,16 @@ public abstract class ReadBuffer {
 
 	public abstract long getLong(long pos) throws IOException;
 
+	/**
+	 * Returns a new buffer for reading the same data from one other thread, for implementations
+	 * where concurrent reads would otherwise wait for each other. The returned buffer should be
+	 * closed separately; closing it does not affect this buffer.
+	 *
+	 * @return a new buffer, or null if this buffer can be shared by several threads as is
+	 */
+	public ReadBuffer createThreadBuffer() throws IOException {
+		return null;
+	}
+
 	public abstract void close();
 }
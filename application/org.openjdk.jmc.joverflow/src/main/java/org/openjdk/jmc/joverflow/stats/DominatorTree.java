@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.stats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.openjdk.jmc.joverflow.heap.model.JavaHeapObject;
+import org.openjdk.jmc.joverflow.heap.model.Snapshot;
+import org.openjdk.jmc.joverflow.util.IntArrayList;
+import org.openjdk.jmc.joverflow.util.IntToIntMap;
+
+/**
+ * Dominator tree of a heap snapshot, and retained sizes of all objects in it. Object A dominates
+ * object B if every path from GC roots to B goes through A. The retained size of A is the total
+ * shallow size of A and all objects that it dominates, i.e. the amount of memory that would be
+ * freed if A became unreachable.
+ * <p>
+ * Objects and classes are identified by their global object index (see
+ * {@link JavaHeapObject#getGlobalObjectIndex()}). Internally, they are mapped to dense node
+ * numbers, so that all data is kept in a few primitive arrays. Node 0 is a virtual root that refers
+ * to all GC roots. Objects that are not reachable from GC roots are treated as if they were
+ * referenced directly by the virtual root.
+ * <p>
+ * Instances of this class are created by {@link DominatorTreeCalculator}.
+ */
+public class DominatorTree {
+
+	/** Dense node number of the virtual root */
+	static final int ROOT_NODE = 0;
+
+	private final Snapshot snapshot;
+	private final int numClasses;
+
+	// Global indices of all objects (but not classes), in increasing order. Object with dense
+	// index i corresponds to node (1 + numClasses + i).
+	private final int[] objGlobalIndices;
+
+	// For each node, the node of its immediate dominator. -1 for the virtual root.
+	private final int[] idom;
+
+	// For each node, its retained size
+	private final long[] retainedSizes;
+
+	DominatorTree(Snapshot snapshot, int[] objGlobalIndices, int[] idom, long[] retainedSizes) {
+		this.snapshot = snapshot;
+		this.numClasses = snapshot.getNumClasses();
+		this.objGlobalIndices = objGlobalIndices;
+		this.idom = idom;
+		this.retainedSizes = retainedSizes;
+	}
+
+	/**
+	 * Returns the total size of all objects in the snapshot, which is the retained size of the
+	 * virtual root.
+	 */
+	public long getTotalSize() {
+		return retainedSizes[ROOT_NODE];
+	}
+
+	/**
+	 * Returns the retained size of the object with the given global index.
+	 */
+	public long getRetainedSize(int globalObjectIndex) {
+		return retainedSizes[toNode(globalObjectIndex)];
+	}
+
+	public long getRetainedSize(JavaHeapObject obj) {
+		return getRetainedSize(obj.getGlobalObjectIndex());
+	}
+
+	/**
+	 * Returns the retained size of a set of objects, i.e. the amount of memory that would be freed
+	 * if all of them became unreachable. Objects dominated by other objects in the set are counted
+	 * only once. Duplicate indices are ignored.
+	 */
+	public long getRetainedSize(int[] globalObjectIndices) {
+		int[] nodes = new int[globalObjectIndices.length];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = toNode(globalObjectIndices[i]);
+		}
+		Arrays.sort(nodes);
+
+		// For nodes visited while walking up the tree: 1 if the node is in the set or dominated by
+		// a node in the set, 0 otherwise
+		IntToIntMap covered = new IntToIntMap(nodes.length * 2 + 16);
+		int numUniqueNodes = 0;
+		for (int i = 0; i < nodes.length; i++) {
+			if (i == 0 || nodes[i] != nodes[i - 1]) {
+				nodes[numUniqueNodes++] = nodes[i];
+				covered.put(nodes[i], 1);
+			}
+		}
+
+		long result = 0;
+		IntArrayList path = new IntArrayList(16);
+		for (int i = 0; i < numUniqueNodes; i++) {
+			int node = nodes[i];
+			int status = 0;
+			for (int d = idom[node]; d != -1; d = idom[d]) {
+				int known = covered.get(d);
+				if (known != -1) {
+					status = known;
+					break;
+				}
+				path.add(d);
+			}
+			for (int j = 0; j < path.size(); j++) {
+				covered.put(path.get(j), status);
+			}
+			path.clear();
+			if (status == 0) {
+				result += retainedSizes[node];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the immediate dominator of the given object, or null if it's dominated only by the
+	 * virtual root (that is, it's a GC root, is referenced from several GC roots, or is
+	 * unreachable).
+	 */
+	public JavaHeapObject getImmediateDominator(JavaHeapObject obj) {
+		int dominator = idom[toNode(obj.getGlobalObjectIndex())];
+		return dominator == ROOT_NODE ? null : toObject(dominator);
+	}
+
+	/**
+	 * Returns up to maxNum objects with the biggest retained size, sorted by retained size in
+	 * descending order. Only objects immediately dominated by the virtual root are considered, so
+	 * that none of the returned objects retains another.
+	 */
+	public List<JavaHeapObject> getTopRetainers(int maxNum) {
+		PriorityQueue<Integer> top = new PriorityQueue<>(maxNum + 1,
+				(n1, n2) -> Long.compare(retainedSizes[n1], retainedSizes[n2]));
+		for (int node = 1; node < idom.length; node++) {
+			if (idom[node] != ROOT_NODE) {
+				continue;
+			}
+			if (top.size() < maxNum) {
+				top.add(node);
+			} else if (maxNum > 0 && retainedSizes[node] > retainedSizes[top.peek()]) {
+				top.poll();
+				top.add(node);
+			}
+		}
+
+		ArrayList<JavaHeapObject> result = new ArrayList<>(top.size());
+		while (!top.isEmpty()) {
+			result.add(toObject(top.poll()));
+		}
+		Collections.reverse(result);
+		return result;
+	}
+
+	private int toNode(int globalObjectIndex) {
+		if (globalObjectIndex > 0) {
+			int idx = Arrays.binarySearch(objGlobalIndices, globalObjectIndex);
+			if (idx < 0) {
+				throw new IllegalArgumentException("No object with global index " + globalObjectIndex); //$NON-NLS-1$
+			}
+			return 1 + numClasses + idx;
+		} else {
+			return 1 - globalObjectIndex;
+		}
+	}
+
+	private JavaHeapObject toObject(int node) {
+		if (node <= numClasses) {
+			return snapshot.getObjectAtGlobalIndex(1 - node);
+		} else {
+			return snapshot.getObjectAtGlobalIndex(objGlobalIndices[node - 1 - numClasses]);
+		}
+	}
+}
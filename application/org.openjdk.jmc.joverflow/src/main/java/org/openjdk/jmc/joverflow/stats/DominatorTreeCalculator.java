@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.stats;
+
+import java.util.Arrays;
+
+import org.openjdk.jmc.joverflow.heap.model.JavaClass;
+import org.openjdk.jmc.joverflow.heap.model.JavaField;
+import org.openjdk.jmc.joverflow.heap.model.JavaHeapObject;
+import org.openjdk.jmc.joverflow.heap.model.JavaHeapObjectVisitor;
+import org.openjdk.jmc.joverflow.heap.model.JavaLazyReadObject;
+import org.openjdk.jmc.joverflow.heap.model.JavaObject;
+import org.openjdk.jmc.joverflow.heap.model.JavaObjectArray;
+import org.openjdk.jmc.joverflow.heap.model.JavaThing;
+import org.openjdk.jmc.joverflow.heap.model.Root;
+import org.openjdk.jmc.joverflow.heap.model.Snapshot;
+import org.openjdk.jmc.joverflow.heap.parser.HprofParsingCancelledException;
+import org.openjdk.jmc.joverflow.util.IntArrayList;
+
+/**
+ * Calculates the {@link DominatorTree} for a snapshot, using the Semi-NCA algorithm (a variant of
+ * Lengauer-Tarjan that computes immediate dominators from semidominators with a simple nearest
+ * common ancestor walk).
+ * <p>
+ * The heap graph contains all objects and classes, with edges for all references between them,
+ * including those from instances to their classes. The referent field of java.lang.ref.Reference
+ * is ignored, since it does not keep its target alive. The graph is read from the dump once and
+ * kept in compressed sparse row form; all other data is kept in int arrays indexed by dense node
+ * number. So the memory needed is about 44 bytes per object plus 8 bytes per reference, and no
+ * per-object Java objects are retained.
+ */
+public class DominatorTreeCalculator {
+
+	private static final int ROOT_NODE = DominatorTree.ROOT_NODE;
+
+	private final Snapshot snapshot;
+	private final int numClasses;
+
+	// Progress reporting: building the graph is by far the longest phase
+	private volatile int numProcessedObjs;
+	private volatile boolean graphBuilt;
+	private volatile boolean cancelled;
+
+	public DominatorTreeCalculator(Snapshot snapshot) {
+		this.snapshot = snapshot;
+		this.numClasses = snapshot.getNumClasses();
+	}
+
+	public DominatorTree calculate() throws HprofParsingCancelledException {
+		int numObjs = snapshot.getNumObjects();
+		int numNodes = 1 + numClasses + numObjs;
+
+		// Global indices of objects are increasing in the object table iteration order, so this
+		// array is sorted and can be used to map global indices to dense ones via binary search
+		int[] objGlobalIndices = new int[numObjs];
+		int objIdx = 0;
+		for (JavaLazyReadObject obj : snapshot.getObjects()) {
+			objGlobalIndices[objIdx++] = obj.getGlobalObjectIndex();
+		}
+
+		long[] sizes = new long[numNodes];
+		int[] succStart = new int[numNodes + 1];
+		IntArrayList succ = new IntArrayList(numNodes * 2);
+		buildGraph(objGlobalIndices, sizes, succStart, succ);
+		graphBuilt = true;
+
+		int[] idom = calculateDominators(numNodes, succStart, succ.internalArray(), succ.size(), sizes);
+		return new DominatorTree(snapshot, objGlobalIndices, idom, sizes);
+	}
+
+	/** Used for progress reporting */
+	public int getProgressPercentage() {
+		if (graphBuilt) {
+			return 90;
+		}
+		return (int) (((long) numProcessedObjs) * 90 / Math.max(1, snapshot.getNumObjects()));
+	}
+
+	public void cancelCalculation() {
+		cancelled = true;
+	}
+
+	/**
+	 * Calculates immediate dominators for a graph with the given number of nodes, where node 0 is
+	 * the root, and successors of node i are succ[succStart[i]] .. succ[succStart[i + 1] - 1]. Nodes
+	 * not reachable from the root are treated as if the root referenced them directly.
+	 *
+	 * @param sizes
+	 *            shallow sizes of nodes on input; replaced with retained sizes on output
+	 * @return immediate dominator for each node, or -1 for the root
+	 */
+	static int[] calculateDominators(int numNodes, int[] succStart, int[] succ, int numEdges, long[] sizes) {
+		// Depth-first numbering. dfn maps nodes to DFS numbers, vertex maps DFS numbers to nodes,
+		// parent is in terms of DFS numbers.
+		int[] dfn = new int[numNodes];
+		int[] vertex = new int[numNodes];
+		int[] parent = new int[numNodes];
+		int[] stack = new int[numNodes];
+		int[] cursor = new int[numNodes];
+		Arrays.fill(dfn, -1);
+		int n = depthFirstNumber(ROOT_NODE, ROOT_NODE, 0, succStart, succ, dfn, vertex, parent, stack, cursor);
+		// Nodes not reachable from the root are attached to it
+		for (int node = 1; node < numNodes; node++) {
+			if (dfn[node] == -1) {
+				n = depthFirstNumber(node, 0, n, succStart, succ, dfn, vertex, parent, stack, cursor);
+			}
+		}
+
+		// Predecessor lists in terms of DFS numbers. Reuses the cursor array for counts.
+		int[] predStart = cursor;
+		Arrays.fill(predStart, 0);
+		int[] pred = new int[numEdges];
+		for (int e = 0; e < numEdges; e++) {
+			predStart[dfn[succ[e]]]++;
+		}
+		int sum = 0;
+		for (int w = 0; w < numNodes; w++) {
+			int count = predStart[w];
+			predStart[w] = sum;
+			sum += count;
+		}
+		int[] predPos = stack;
+		System.arraycopy(predStart, 0, predPos, 0, numNodes);
+		for (int node = 0; node < numNodes; node++) {
+			int v = dfn[node];
+			for (int e = succStart[node]; e < succStart[node + 1]; e++) {
+				pred[predPos[dfn[succ[e]]]++] = v;
+			}
+		}
+
+		// Semidominators. ancestor and label form the path-compressed forest used by eval().
+		int[] semi = new int[numNodes];
+		int[] label = new int[numNodes];
+		int[] ancestor = dfn;
+		for (int w = 0; w < numNodes; w++) {
+			semi[w] = w;
+			label[w] = w;
+			ancestor[w] = -1;
+		}
+		int[] compressStack = stack;
+		for (int w = numNodes - 1; w > 0; w--) {
+			if (parent[w] == ROOT_NODE) {
+				// The root is a predecessor of w, possibly via a virtual edge
+				semi[w] = ROOT_NODE;
+			} else {
+				int predEnd = w + 1 < numNodes ? predStart[w + 1] : numEdges;
+				for (int e = predStart[w]; e < predEnd; e++) {
+					int u = eval(pred[e], ancestor, label, semi, compressStack);
+					if (semi[u] < semi[w]) {
+						semi[w] = semi[u];
+					}
+				}
+			}
+			ancestor[w] = parent[w];
+		}
+
+		// Immediate dominators, computed in place of parents
+		int[] idom = parent;
+		for (int w = 1; w < numNodes; w++) {
+			int d = idom[w];
+			while (d > semi[w]) {
+				d = idom[d];
+			}
+			idom[w] = d;
+		}
+
+		// Retained sizes: children always have greater DFS numbers than their dominators
+		for (int w = numNodes - 1; w > 0; w--) {
+			sizes[vertex[idom[w]]] += sizes[vertex[w]];
+		}
+
+		// Convert dominators to node numbers
+		int[] idomByNode = semi;
+		idomByNode[ROOT_NODE] = -1;
+		for (int w = 1; w < numNodes; w++) {
+			idomByNode[vertex[w]] = vertex[idom[w]];
+		}
+
+		return idomByNode;
+	}
+
+	/**
+	 * Reads all references from the dump and records them in succStart/succ, in node order.
+	 * Shallow sizes of all nodes are recorded in sizes.
+	 */
+	private void buildGraph(int[] objGlobalIndices, long[] sizes, int[] succStart, IntArrayList succ)
+			throws HprofParsingCancelledException {
+		EdgeCollector edges = new EdgeCollector(objGlobalIndices, succ);
+
+		// Virtual root
+		succStart[ROOT_NODE] = 0;
+		for (Root root : snapshot.getRoots()) {
+			edges.visit(snapshot.getObjectForId(root.getId()));
+		}
+
+		JavaClass[] classes = snapshot.getClasses();
+		for (int i = 0; i < classes.length; i++) {
+			succStart[1 + i] = succ.size();
+			sizes[1 + i] = classes[i].getSize();
+			classes[i].visitReferencedObjects(edges);
+		}
+
+		JavaClass referenceClass = snapshot.getClassForName("java.lang.ref.Reference"); //$NON-NLS-1$
+		int referentIdx = referenceClass != null ? referenceClass.getInstanceFieldIndexOrMinusOne("referent") //$NON-NLS-1$
+				: -1;
+
+		int node = 1 + numClasses;
+		for (JavaLazyReadObject obj : snapshot.getObjects()) {
+			succStart[node] = succ.size();
+			sizes[node] = obj.getSize();
+			JavaClass clazz = obj.getClazz();
+			edges.visit(clazz);
+			if (obj instanceof JavaObject) {
+				JavaThing[] fields = ((JavaObject) obj).getFields(false);
+				boolean isReference = referentIdx != -1 && referenceClass.isAssignableFrom(clazz);
+				for (int i = 0; i < fields.length; i++) {
+					if (fields[i] instanceof JavaHeapObject && !(isReference && i == referentIdx)) {
+						edges.visit((JavaHeapObject) fields[i]);
+					}
+				}
+			} else if (obj instanceof JavaObjectArray) {
+				for (JavaHeapObject element : ((JavaObjectArray) obj).getElements()) {
+					edges.visit(element);
+				}
+			}
+
+			node++;
+			int nProcessed = node - 1 - numClasses;
+			if ((nProcessed & 0xFFFF) == 0) {
+				numProcessedObjs = nProcessed;
+				checkCancelled();
+			}
+		}
+		succStart[node] = succ.size();
+	}
+
+	/**
+	 * Numbers nodes reachable from start, that have not been numbered yet, in depth-first order.
+	 * Returns the next unused DFS number.
+	 */
+	private static int depthFirstNumber(
+		int start, int startParent, int n, int[] succStart, int[] succ, int[] dfn, int[] vertex, int[] parent,
+		int[] stack, int[] cursor) {
+		int sp = 0;
+		dfn[start] = n;
+		vertex[n] = start;
+		parent[n] = startParent;
+		n++;
+		stack[sp++] = start;
+		cursor[start] = succStart[start];
+		while (sp > 0) {
+			int node = stack[sp - 1];
+			if (cursor[node] < succStart[node + 1]) {
+				int next = succ[cursor[node]++];
+				if (dfn[next] == -1) {
+					dfn[next] = n;
+					vertex[n] = next;
+					parent[n] = dfn[node];
+					n++;
+					stack[sp++] = next;
+					cursor[next] = succStart[next];
+				}
+			} else {
+				sp--;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Returns the node with the minimal semidominator on the path from v to the root of its tree in
+	 * the forest, compressing the path along the way. Iterative, so that long reference chains
+	 * don't cause StackOverflowError.
+	 */
+	private static int eval(int v, int[] ancestor, int[] label, int[] semi, int[] stack) {
+		if (ancestor[v] == -1) {
+			return v;
+		}
+		int sp = 0;
+		int x = v;
+		while (ancestor[ancestor[x]] != -1) {
+			stack[sp++] = x;
+			x = ancestor[x];
+		}
+		while (sp > 0) {
+			x = stack[--sp];
+			int a = ancestor[x];
+			if (semi[label[a]] < semi[label[x]]) {
+				label[x] = label[a];
+			}
+			ancestor[x] = ancestor[a];
+		}
+		return label[v];
+	}
+
+	private void checkCancelled() throws HprofParsingCancelledException {
+		if (cancelled) {
+			throw new HprofParsingCancelledException();
+		}
+	}
+
+	/**
+	 * Maps referenced objects to node numbers and adds them as successors of the current node.
+	 */
+	private class EdgeCollector implements JavaHeapObjectVisitor {
+		private final int[] objGlobalIndices;
+		private final IntArrayList succ;
+
+		EdgeCollector(int[] objGlobalIndices, IntArrayList succ) {
+			this.objGlobalIndices = objGlobalIndices;
+			this.succ = succ;
+		}
+
+		@Override
+		public void visit(JavaHeapObject obj) {
+			if (obj == null) {
+				return;
+			}
+			int globalIndex = obj.getGlobalObjectIndex();
+			if (globalIndex > 0) {
+				int idx = Arrays.binarySearch(objGlobalIndices, globalIndex);
+				if (idx >= 0) {
+					succ.add(1 + numClasses + idx);
+				}
+			} else if (-globalIndex < numClasses) {
+				succ.add(1 - globalIndex);
+			}
+		}
+
+		@Override
+		public boolean exclude(JavaClass clazz, JavaField f) {
+			return false;
+		}
+
+		@Override
+		public boolean mightExclude() {
+			return false;
+		}
+	}
+}
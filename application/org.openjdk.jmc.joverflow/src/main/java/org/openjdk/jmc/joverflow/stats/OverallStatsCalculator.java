@@ -32,8 +32,17 @@
  */
 package org.openjdk.jmc.joverflow.stats;
 
-import java.util.Collection;
-
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.openjdk.jmc.joverflow.heap.model.HeapStringReader;
 import org.openjdk.jmc.joverflow.heap.model.JavaClass;
 import org.openjdk.jmc.joverflow.heap.model.JavaLazyReadObject;
 import org.openjdk.jmc.joverflow.heap.model.JavaObject;
@@ -51,17 +60,34 @@ import org.openjdk.jmc.joverflow.util.ObjectToIntMap;
 
 /**
  * Functionality for calculating overall, generally high-level stats about objects in the heap.
+ * <p>
+ * Objects are scanned partition by partition (see {@link Snapshot#getObjectPartitions()}). Reading
+ * objects from the dump, which is the expensive part, can be done for several partitions in
+ * parallel. The results of each partition are then merged on the calling thread strictly in the
+ * partition order, so that the final stats, including the ids assigned to unique strings and arrays,
+ * are exactly the same as with a sequential scan.
  */
 class OverallStatsCalculator implements Constants {
 	private final Snapshot snapshot;
 	private final int ptrSize;
+	private final int numThreads;
 
 	private int nObjs, nObjs2ndPass;
 	private volatile boolean cancelled;
 
 	public OverallStatsCalculator(Snapshot snapshot) {
+		this(snapshot, 1);
+	}
+
+	/**
+	 * @param numThreads
+	 *            number of threads used to read objects from the heap dump. If it's 1, all work is
+	 *            done on the calling thread.
+	 */
+	public OverallStatsCalculator(Snapshot snapshot, int numThreads) {
 		this.snapshot = snapshot;
 		ptrSize = snapshot.getPointerSize();
+		this.numThreads = Math.max(1, numThreads);
 	}
 
 	/**
@@ -77,7 +103,7 @@ class OverallStatsCalculator implements Constants {
 		StringStatsCollector stringStatsCollector = new StringStatsCollector(snapshot);
 		PrimitiveArrayDuplicationMap arrayDupMap = new PrimitiveArrayDuplicationMap(snapshot);
 
-		Collection<JavaLazyReadObject> allObjects = snapshot.getObjects();
+		List<Iterable<JavaLazyReadObject>> partitions = snapshot.getObjectPartitions();
 
 		nObjs = 0;
 		int nInstances = 0, nObjectArrays = 0;
@@ -90,75 +116,204 @@ class OverallStatsCalculator implements Constants {
 		int nBoxedNumbers = 0;
 		long ovhdBoxedNumbers = 0;
 
-		int curChunk = 0;
-
 		ObjectToIntMap<String> unmodifiableClassInstanceCount = new ObjectToIntMap<>(15);
 		ObjectToIntMap<String> synchronizedClassInstanceCount = new ObjectToIntMap<>(15);
 
-		for (JavaLazyReadObject obj : allObjects) {
-			nObjs++;
+		JavaClass[] classes = snapshot.getClasses();
+
+		ExecutorService executor = numThreads > 1 ? Executors.newFixedThreadPool(numThreads, r -> {
+			Thread t = new Thread(() -> runWithOwnReadBuffer(r), "JOverflow overall stats scanner"); //$NON-NLS-1$
+			t.setDaemon(true);
+			return t;
+		}) : null;
+
+		try {
+			PartitionScanner<FirstPassResult> firstPass = new PartitionScanner<>(executor, partitions,
+					this::scanFirstPass);
+			for (int i = 0; i < partitions.size(); i++) {
+				FirstPassResult r = firstPass.next();
+
+				nObjs += r.nObjs;
+				nInstances += r.nInstances;
+				nObjectArrays += r.nObjectArrays;
+				totalObjectSize += r.totalObjectSize;
+				totalInstSize += r.totalInstSize;
+				totalObjArraySize += r.totalObjArraySize;
+				nEntryInstances += r.nEntryInstances;
+				entryClassSize += r.entryClassSize;
+				n0LenObjArrays += r.n0LenObjArrays;
+				n1ObjArrays += r.n1ObjArrays;
+				n4ObjArrays += r.n4ObjArrays;
+				n8ObjArrays += r.n8ObjArrays;
+				n0LenValArrays += r.n0LenValArrays;
+				n1LenValArrays += r.n1LenValArrays;
+				n4LenValArrays += r.n4LenValArrays;
+				n8LenValArrays += r.n8LenValArrays;
+				if (lenZeroObjArraySize == 0) {
+					lenZeroObjArraySize = r.lenZeroObjArraySize;
+				}
+				if (lenOneObjArraySize == 0) {
+					lenOneObjArraySize = r.lenOneObjArraySize;
+				}
+				nBoxedNumbers += r.nBoxedNumbers;
+				ovhdBoxedNumbers += r.ovhdBoxedNumbers;
+
+				for (ObjectToIntMap.Entry<String> e : r.unmodifiableClassInstanceCount.getEntries()) {
+					unmodifiableClassInstanceCount.putOrIncrementBy(e.key, e.value);
+				}
+				for (ObjectToIntMap.Entry<String> e : r.synchronizedClassInstanceCount.getEntries()) {
+					synchronizedClassInstanceCount.putOrIncrementBy(e.key, e.value);
+				}
+
+				r.classStats.mergeInto(classes);
+
+				for (StringRecord sr : r.strings) {
+					stringStatsCollector.add(sr.strObj, sr.strVal, sr.backingArray);
+				}
+				mergeArrays(r.arrays, arrayDupMap);
+			}
+		} catch (HprofParsingCancelledException | RuntimeException | Error ex) {
+			shutdown(executor);
+			throw ex;
+		}
+
+		long ovhdObjectHeaders = nObjs * objHeaderSize;
+
+		ObjectToIntMap.Entry<String>[] unmodifiableClasses = unmodifiableClassInstanceCount
+				.getEntriesSortedByValueThenKey();
+		ObjectToIntMap.Entry<String>[] synchronizedClasses = synchronizedClassInstanceCount
+				.getEntriesSortedByValueThenKey();
+
+		// Do one more pass, this time to uncover duplicated primitive arrays.
+		// We could not do it on the previous pass, because there we generally
+		// unable to distinguish standalone char[] arrays from those that are
+		// backing Strings.
+		try {
+			PartitionScanner<SecondPassResult> secondPass = new PartitionScanner<>(executor, partitions,
+					this::scanSecondPass);
+			for (int i = 0; i < partitions.size(); i++) {
+				SecondPassResult r = secondPass.next();
+				nObjs2ndPass += r.nObjs; // This is pure progress tracking
+				mergeArrays(r.arrays, arrayDupMap);
+			}
+		} finally {
+			shutdown(executor);
+		}
+
+		arrayDupMap.calculateFinalStats();
+		DupArrayStats dupArrayStats = new DupArrayStats(arrayDupMap.getNumArrays(), arrayDupMap.getNumUniqueArrays(),
+				arrayDupMap.getNumDifferentDupArrayValues(), arrayDupMap.getDupArrays(),
+				arrayDupMap.getDupArraysOverhead());
+
+		// IMPORTANT: should do this for optimizations in CachedReadBuffer to work!
+		ReadBuffer readBuf = snapshot.getReadBuffer();
+		if (readBuf instanceof CachedReadBuffer) {
+			((CachedReadBuffer) readBuf).incrementPass();
+		}
+
+		ClassloaderStats clStats = new ClassloaderStats(snapshot);
+
+		return new HeapStats()
+				.setGeneralStats(ptrSize, objHeaderSize, snapshot.getObjectAlignment(), snapshot.usingNarrowPointers(),
+						snapshot.getNumClasses(), nObjs, nInstances, nObjectArrays, totalObjectSize, totalInstSize,
+						totalObjArraySize)
+				.setObjOverheadStats(ovhdObjectHeaders, nEntryInstances, entryClassSize).setClassloaderStats(clStats)
+				.setShortObjArrayStats(new ShortArrayStats(n0LenObjArrays, lenZeroObjArraySize * n0LenObjArrays,
+						n1ObjArrays, lenOneObjArraySize * n1ObjArrays, n4ObjArrays, arrHeaderSize * n4ObjArrays,
+						n8ObjArrays, arrHeaderSize * n8ObjArrays))
+				// TODO: need a better way to calculate overhead for short primitive arrays, at least of size 0 and 1
+				// Currently it's likely inconsistent with what is reported by detailed analysis
+				.setShortPrimitiveArrayStats(new ShortArrayStats(n0LenValArrays, arrHeaderSize * n0LenValArrays,
+						n1LenValArrays, arrHeaderSize * n1LenValArrays, n4LenValArrays, arrHeaderSize * n4LenValArrays,
+						n8LenValArrays, arrHeaderSize * n8LenValArrays))
+				.setShortStringStats(stringStatsCollector.getShortStringStats())
+				.setBoxedNumberStats(nBoxedNumbers, ovhdBoxedNumbers)
+				.setWrappedCollectionStats(unmodifiableClasses, synchronizedClasses)
+				.setDupStringStats(stringStatsCollector.getDuplicationStats())
+				.setCompressibleStringStats(stringStatsCollector.getCompressibleStringStats())
+				.setNumberEncodingStringStats(stringStatsCollector.getNumberEncodingStringStats())
+				.setStringLengthHistogram(stringStatsCollector.getLengthHistogram()).setDupArrayStats(dupArrayStats);
+	}
+
+	/**
+	 * Scans a partition of objects, reading everything that the first pass needs from the dump, but
+	 * without touching any state shared with other partitions. May be called from any thread.
+	 */
+	private FirstPassResult scanFirstPass(Iterable<JavaLazyReadObject> partition)
+			throws HprofParsingCancelledException {
+		FirstPassResult r = new FirstPassResult();
+		HeapStringReader stringReader = null;
+
+		for (JavaLazyReadObject obj : partition) {
+			r.nObjs++;
 
 			JavaClass clazz = obj.getClazz();
-			clazz.incNumInstances();
+			int classSlot = r.classStats.slotFor(-clazz.getGlobalObjectIndex());
+			r.classStats.numInstances[classSlot]++;
 			String clazzName = clazz.getName();
 			int objSize = obj.getSize();
-			totalObjectSize += objSize;
+			r.totalObjectSize += objSize;
 
 			if (obj instanceof JavaObject) {
-				nInstances++;
-				totalInstSize += objSize;
+				r.nInstances++;
+				r.totalInstSize += objSize;
 
 				int primitiveNumSize;
 
-				if (clazzName.endsWith("$Entry")) {
-					nEntryInstances++;
-					entryClassSize += objSize;
-				} else if (clazzName.startsWith("java.util.Collections$Unmodifiable")) {
-					unmodifiableClassInstanceCount.putOneOrIncrement(clazzName);
-				} else if (clazzName.startsWith("java.util.Collections$Synchronized")) {
-					synchronizedClassInstanceCount.putOneOrIncrement(clazzName);
+				if (clazzName.endsWith("$Entry")) { //$NON-NLS-1$
+					r.nEntryInstances++;
+					r.entryClassSize += objSize;
+				} else if (clazzName.startsWith("java.util.Collections$Unmodifiable")) { //$NON-NLS-1$
+					r.unmodifiableClassInstanceCount.putOneOrIncrement(clazzName);
+				} else if (clazzName.startsWith("java.util.Collections$Synchronized")) { //$NON-NLS-1$
+					r.synchronizedClassInstanceCount.putOneOrIncrement(clazzName);
 				} else if (clazz.isString()) {
-					stringStatsCollector.add((JavaObject) obj);
+					if (stringReader == null) {
+						stringReader = numThreads > 1 ? snapshot.createStringReader() : snapshot.getStringReader();
+					}
+					JavaObject strObj = (JavaObject) obj;
+					String strVal = stringReader.readString(strObj);
+					r.strings.add(new StringRecord(strObj, strVal,
+							strVal != null ? stringReader.getLastReadBackingArray() : null));
 				} else if ((primitiveNumSize = clazz.getBoxedNumberSize()) != 0) {
-					nBoxedNumbers++;
-					ovhdBoxedNumbers += objSize - primitiveNumSize + ptrSize;
+					r.nBoxedNumbers++;
+					r.ovhdBoxedNumbers += objSize - primitiveNumSize + ptrSize;
 				}
 
 			} else if (obj instanceof JavaObjectArray) {
-				nObjectArrays++;
-				totalObjArraySize += objSize;
-				clazz.updateShallowInstanceSize(objSize);
+				r.nObjectArrays++;
+				r.totalObjArraySize += objSize;
+				r.classStats.shallowInstanceSize[classSlot] += objSize;
 				JavaObjectArray objArray = (JavaObjectArray) obj;
 				int length = objArray.getLength();
 
 				if (length == 0) {
-					n0LenObjArrays++;
-					if (lenZeroObjArraySize == 0) {
-						lenZeroObjArraySize = objArray.getSize();
+					r.n0LenObjArrays++;
+					if (r.lenZeroObjArraySize == 0) {
+						r.lenZeroObjArraySize = objArray.getSize();
 					}
 				} else if (length == 1) {
-					n1ObjArrays++;
-					if (lenOneObjArraySize == 0) {
-						lenOneObjArraySize = objArray.getSize();
+					r.n1ObjArrays++;
+					if (r.lenOneObjArraySize == 0) {
+						r.lenOneObjArraySize = objArray.getSize();
 					}
 				} else if (length <= 4) {
-					n4ObjArrays++;
+					r.n4ObjArrays++;
 				} else if (length <= 8) {
-					n8ObjArrays++;
+					r.n8ObjArrays++;
 				}
 			} else if (obj instanceof JavaValueArray) {
-				clazz.updateShallowInstanceSize(objSize);
+				r.classStats.shallowInstanceSize[classSlot] += objSize;
 				JavaValueArray valArray = (JavaValueArray) obj;
 				int length = valArray.getLength();
 				if (length == 0) {
-//					System.out.println("Zero-length val array: " + obj + "   , size = " + objSize);
-					n0LenValArrays++;
+					r.n0LenValArrays++;
 				} else if (length == 1) {
-					n1LenValArrays++;
+					r.n1LenValArrays++;
 				} else if (length <= 4) {
-					n4LenValArrays++;
+					r.n4LenValArrays++;
 				} else if (length <= 8) {
-					n8LenValArrays++;
+					r.n8LenValArrays++;
 				}
 
 				// Performance optimization: scan as many primitive arrays as possible on
@@ -166,36 +321,27 @@ class OverallStatsCalculator implements Constants {
 				// reading more objects from disk now improves cache locality.
 				if (!(clazz.isCharArray() || clazz.isByteArray())) {
 					// This array, because of its type, is guaranteed to not belong to a String
-					arrayDupMap.add(valArray);
+					r.addArray(valArray);
 				}
 			}
 
-//			System.out.println(obj + "   , size = " + objSize);
-
-			int newCurChunk = nObjs >> 17; // Check every 128K objects
-			if (newCurChunk > curChunk) {
-				curChunk = newCurChunk;
-				if (cancelled) {
-					throw new HprofParsingCancelledException();
-				}
-			}
+			checkCancelled(r.nObjs);
 		}
 
-		long ovhdObjectHeaders = nObjs * objHeaderSize;
-
-		ObjectToIntMap.Entry<String>[] unmodifiableClasses = unmodifiableClassInstanceCount
-				.getEntriesSortedByValueThenKey();
-		ObjectToIntMap.Entry<String>[] synchronizedClasses = synchronizedClassInstanceCount
-				.getEntriesSortedByValueThenKey();
+		return r;
+	}
 
-		// Do one more pass, this time to uncover duplicated primitive arrays.
-		// We could not do it on the previous pass, because there we generally
-		// unable to distinguish standalone char[] arrays from those that are
-		// backing Strings.
-		curChunk = 0;
+	/**
+	 * Scans a partition of objects for char[] and byte[] arrays that don't back any String. Should
+	 * only be called after the results of the first pass have been merged, since that's when the
+	 * arrays backing Strings are marked.
+	 */
+	private SecondPassResult scanSecondPass(Iterable<JavaLazyReadObject> partition)
+			throws HprofParsingCancelledException {
+		SecondPassResult r = new SecondPassResult();
 
-		for (JavaLazyReadObject obj : allObjects) {
-			nObjs2ndPass++; // This is pure progress tracking
+		for (JavaLazyReadObject obj : partition) {
+			r.nObjs++;
 			if (!(obj instanceof JavaValueArray)) {
 				continue;
 			}
@@ -209,51 +355,51 @@ class OverallStatsCalculator implements Constants {
 				continue;
 			}
 
-			JavaValueArray valArray = (JavaValueArray) obj;
-			arrayDupMap.add(valArray);
-
-			int newCurChunk = nObjs2ndPass >> 17; // Check every 128K objects
-			if (newCurChunk > curChunk) {
-				curChunk = newCurChunk;
-				if (cancelled) {
-					throw new HprofParsingCancelledException();
-				}
-			}
+			r.addArray((JavaValueArray) obj);
+			checkCancelled(r.nObjs);
 		}
 
-		arrayDupMap.calculateFinalStats();
-		DupArrayStats dupArrayStats = new DupArrayStats(arrayDupMap.getNumArrays(), arrayDupMap.getNumUniqueArrays(),
-				arrayDupMap.getNumDifferentDupArrayValues(), arrayDupMap.getDupArrays(),
-				arrayDupMap.getDupArraysOverhead());
+		return r;
+	}
 
-		// IMPORTANT: should do this for optimizations in CachedReadBuffer to work!
-		ReadBuffer readBuf = snapshot.getReadBuffer();
-		if (readBuf instanceof CachedReadBuffer) {
-			((CachedReadBuffer) readBuf).incrementPass();
+	private void checkCancelled(int nScannedObjs) throws HprofParsingCancelledException {
+		if ((nScannedObjs & 0x1FFFF) == 0 && cancelled) { // Check every 128K objects
+			throw new HprofParsingCancelledException();
 		}
+	}
 
-		ClassloaderStats clStats = new ClassloaderStats(snapshot);
+	private static void mergeArrays(ArrayList<ArrayRecord> arrays, PrimitiveArrayDuplicationMap arrayDupMap) {
+		for (ArrayRecord ar : arrays) {
+			arrayDupMap.add(ar.array, ar.checksum);
+		}
+	}
 
-		return new HeapStats()
-				.setGeneralStats(ptrSize, objHeaderSize, snapshot.getObjectAlignment(), snapshot.usingNarrowPointers(),
-						snapshot.getNumClasses(), nObjs, nInstances, nObjectArrays, totalObjectSize, totalInstSize,
-						totalObjArraySize)
-				.setObjOverheadStats(ovhdObjectHeaders, nEntryInstances, entryClassSize).setClassloaderStats(clStats)
-				.setShortObjArrayStats(new ShortArrayStats(n0LenObjArrays, lenZeroObjArraySize * n0LenObjArrays,
-						n1ObjArrays, lenOneObjArraySize * n1ObjArrays, n4ObjArrays, arrHeaderSize * n4ObjArrays,
-						n8ObjArrays, arrHeaderSize * n8ObjArrays))
-				// TODO: need a better way to calculate overhead for short primitive arrays, at least of size 0 and 1
-				// Currently it's likely inconsistent with what is reported by detailed analysis
-				.setShortPrimitiveArrayStats(new ShortArrayStats(n0LenValArrays, arrHeaderSize * n0LenValArrays,
-						n1LenValArrays, arrHeaderSize * n1LenValArrays, n4LenValArrays, arrHeaderSize * n4LenValArrays,
-						n8LenValArrays, arrHeaderSize * n8LenValArrays))
-				.setShortStringStats(stringStatsCollector.getShortStringStats())
-				.setBoxedNumberStats(nBoxedNumbers, ovhdBoxedNumbers)
-				.setWrappedCollectionStats(unmodifiableClasses, synchronizedClasses)
-				.setDupStringStats(stringStatsCollector.getDuplicationStats())
-				.setCompressibleStringStats(stringStatsCollector.getCompressibleStringStats())
-				.setNumberEncodingStringStats(stringStatsCollector.getNumberEncodingStringStats())
-				.setStringLengthHistogram(stringStatsCollector.getLengthHistogram()).setDupArrayStats(dupArrayStats);
+	/**
+	 * Runs a scanner thread. Reads from a CachedReadBuffer are synchronized, so each scanner reads
+	 * the dump through its own buffer if the shared one provides it.
+	 */
+	private void runWithOwnReadBuffer(Runnable r) {
+		ReadBuffer readBuf = null;
+		try {
+			readBuf = snapshot.getReadBuffer().createThreadBuffer();
+		} catch (IOException ex) {
+			// Read through the shared buffer
+		}
+		snapshot.setThreadReadBuffer(readBuf);
+		try {
+			r.run();
+		} finally {
+			snapshot.setThreadReadBuffer(null);
+			if (readBuf != null) {
+				readBuf.close();
+			}
+		}
+	}
+
+	private static void shutdown(ExecutorService executor) {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
 	}
 
 	/** Used for progress reporting */
@@ -264,4 +410,182 @@ class OverallStatsCalculator implements Constants {
 	public void cancelCalculation() {
 		cancelled = true;
 	}
+
+	private interface PartitionTask<T> {
+		T scan(Iterable<JavaLazyReadObject> partition) throws HprofParsingCancelledException;
+	}
+
+	/**
+	 * Returns the results of scanning partitions in partition order. If an executor is given, at
+	 * most one partition per thread is scanned or waiting to be merged at any time, including the one
+	 * whose result is requested, which bounds the memory taken by the results that are not merged
+	 * yet. Otherwise each partition is scanned on the calling thread when its result is requested.
+	 */
+	private class PartitionScanner<T> {
+		private final ExecutorService executor;
+		private final List<Iterable<JavaLazyReadObject>> partitions;
+		private final PartitionTask<T> task;
+		private final ArrayDeque<Future<T>> inFlight = new ArrayDeque<>();
+		private int nextToSubmit, nextToReturn;
+
+		PartitionScanner(ExecutorService executor, List<Iterable<JavaLazyReadObject>> partitions,
+				PartitionTask<T> task) {
+			this.executor = executor;
+			this.partitions = partitions;
+			this.task = task;
+		}
+
+		T next() throws HprofParsingCancelledException {
+			if (executor == null) {
+				return task.scan(partitions.get(nextToReturn++));
+			}
+
+			while (nextToSubmit < partitions.size() && inFlight.size() < numThreads) {
+				Iterable<JavaLazyReadObject> partition = partitions.get(nextToSubmit++);
+				inFlight.add(executor.submit(() -> task.scan(partition)));
+			}
+			nextToReturn++;
+			try {
+				return inFlight.remove().get();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new HprofParsingCancelledException();
+			} catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof HprofParsingCancelledException) {
+					throw (HprofParsingCancelledException) cause;
+				} else if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
+	private static class StringRecord {
+		final JavaObject strObj;
+		final String strVal;
+		final JavaValueArray backingArray;
+
+		StringRecord(JavaObject strObj, String strVal, JavaValueArray backingArray) {
+			this.strObj = strObj;
+			this.strVal = strVal;
+			this.backingArray = backingArray;
+		}
+	}
+
+	private static class ArrayRecord {
+		final JavaValueArray array;
+		final int checksum;
+
+		ArrayRecord(JavaValueArray array, int checksum) {
+			this.array = array;
+			this.checksum = checksum;
+		}
+	}
+
+	private static class SecondPassResult {
+		final ArrayList<ArrayRecord> arrays = new ArrayList<>();
+		int nObjs;
+
+		void addArray(JavaValueArray array) {
+			arrays.add(new ArrayRecord(array, PrimitiveArrayDuplicationMap.checksum(array.getValue())));
+		}
+	}
+
+	/**
+	 * Numbers of instances and shallow sizes by class for one partition. A partition usually
+	 * contains objects of only a small part of all classes, so they are kept in an open addressing
+	 * hash table keyed by class index rather than in arrays that cover all classes.
+	 */
+	private static class ClassStats {
+		private static final int FREE = -1;
+
+		int[] classIdxs;
+		int[] numInstances;
+		long[] shallowInstanceSize;
+		private int size;
+
+		ClassStats() {
+			allocate(64);
+		}
+
+		/**
+		 * Returns the slot for the class in numInstances and shallowInstanceSize, adding it if
+		 * needed. The slot is valid until the next call of this method.
+		 */
+		int slotFor(int classIdx) {
+			int mask = classIdxs.length - 1;
+			int h = classIdx * 0x9E3779B9;
+			int slot = (h ^ (h >>> 16)) & mask;
+			while (classIdxs[slot] != classIdx) {
+				if (classIdxs[slot] == FREE) {
+					if (++size * 2 > classIdxs.length) {
+						grow();
+						return slotFor(classIdx);
+					}
+					classIdxs[slot] = classIdx;
+					return slot;
+				}
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		void mergeInto(JavaClass[] classes) {
+			for (int slot = 0; slot < classIdxs.length; slot++) {
+				if (classIdxs[slot] == FREE) {
+					continue;
+				}
+				JavaClass clazz = classes[classIdxs[slot]];
+				if (numInstances[slot] != 0) {
+					clazz.incNumInstances(numInstances[slot]);
+				}
+				if (shallowInstanceSize[slot] != 0) {
+					clazz.updateShallowInstanceSize(shallowInstanceSize[slot]);
+				}
+			}
+		}
+
+		private void allocate(int capacity) {
+			classIdxs = new int[capacity];
+			Arrays.fill(classIdxs, FREE);
+			numInstances = new int[capacity];
+			shallowInstanceSize = new long[capacity];
+		}
+
+		private void grow() {
+			int[] oldClassIdxs = classIdxs;
+			int[] oldNumInstances = numInstances;
+			long[] oldShallowInstanceSize = shallowInstanceSize;
+			allocate(oldClassIdxs.length * 2);
+			size = 0;
+			for (int i = 0; i < oldClassIdxs.length; i++) {
+				if (oldClassIdxs[i] != FREE) {
+					int slot = slotFor(oldClassIdxs[i]);
+					numInstances[slot] = oldNumInstances[i];
+					shallowInstanceSize[slot] = oldShallowInstanceSize[i];
+				}
+			}
+		}
+	}
+
+	private static class FirstPassResult extends SecondPassResult {
+		final ClassStats classStats = new ClassStats();
+		final ObjectToIntMap<String> unmodifiableClassInstanceCount = new ObjectToIntMap<>(15);
+		final ObjectToIntMap<String> synchronizedClassInstanceCount = new ObjectToIntMap<>(15);
+		final ArrayList<StringRecord> strings = new ArrayList<>();
+
+		int nInstances, nObjectArrays;
+		long totalObjectSize, totalInstSize, totalObjArraySize;
+		int nEntryInstances;
+		long entryClassSize;
+		int n0LenObjArrays, n1ObjArrays, n4ObjArrays, n8ObjArrays;
+		int n0LenValArrays, n1LenValArrays, n4LenValArrays, n8LenValArrays;
+		int lenZeroObjArraySize, lenOneObjArraySize;
+		int nBoxedNumbers;
+		long ovhdBoxedNumbers;
+	}
 }
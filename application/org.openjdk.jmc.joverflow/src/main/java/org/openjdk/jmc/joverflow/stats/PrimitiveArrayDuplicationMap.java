@@ -67,16 +67,30 @@ class PrimitiveArrayDuplicationMap {
 	}
 
 	void add(JavaValueArray array) {
-		nTotalArrays++;
-
 		byte[] bytes = array.getValue();
-		int checksum = checksum(bytes);
+		add(array, bytes, checksum(bytes));
+	}
+
+	/**
+	 * Same as {@link #add(JavaValueArray)}, but for an array whose checksum has already been
+	 * calculated, possibly in another thread. The array contents are then read again only if there
+	 * is an entry with the same checksum.
+	 */
+	void add(JavaValueArray array, int checksum) {
+		add(array, null, checksum);
+	}
+
+	private void add(JavaValueArray array, byte[] bytes, int checksum) {
+		nTotalArrays++;
 
 		InternalEntry entry = table.get(checksum);
 		if (entry == null) { // No possible entry for this array
 			entry = new InternalEntry(checksum, array, currentId++);
 			table.put(entry);
 		} else { // There is an entry, but it may or may not match
+			if (bytes == null) {
+				bytes = array.getValue();
+			}
 			InternalEntry prevEntry = null;
 			while (entry != null) {
 				if (entry.firstArray.getClazz() == array.getClazz() && entry.firstArray.getLength() == array.getLength()
@@ -154,7 +168,7 @@ class PrimitiveArrayDuplicationMap {
 		return dupArrays;
 	}
 
-	private static int checksum(byte[] bytes) {
+	static int checksum(byte[] bytes) {
 		if (bytes.length == 0) {
 			return 0;
 		}
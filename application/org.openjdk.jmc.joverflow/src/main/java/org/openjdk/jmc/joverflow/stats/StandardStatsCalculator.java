@@ -47,21 +47,33 @@ public class StandardStatsCalculator {
 	private final Snapshot snapshot;
 	private final ProblemRecorder problemRecorder;
 	private final boolean useBreadthFirst;
+	private final int numThreads;
 
 	private OverallStatsCalculator osc;
 	private DetailedStatsCalculator dsc;
 	private volatile int stage;
 
 	public StandardStatsCalculator(Snapshot snapshot, ProblemRecorder problemRecorder, boolean useBreadthFirst) {
+		this(snapshot, problemRecorder, useBreadthFirst, 1);
+	}
+
+	/**
+	 * @param numThreads
+	 *            number of threads used to read objects when calculating overall stats. The results
+	 *            don't depend on it. Detailed stats are always calculated in a single thread.
+	 */
+	public StandardStatsCalculator(Snapshot snapshot, ProblemRecorder problemRecorder, boolean useBreadthFirst,
+			int numThreads) {
 		this.snapshot = snapshot;
 		this.problemRecorder = problemRecorder;
 		this.useBreadthFirst = useBreadthFirst;
+		this.numThreads = numThreads;
 	}
 
 	public HeapStats calculate() throws DumpCorruptedException, HprofParsingCancelledException {
 		snapshot.setCalculatingStats(true);
 		try {
-			osc = new OverallStatsCalculator(snapshot);
+			osc = new OverallStatsCalculator(snapshot, numThreads);
 
 			stage = 1;
 			HeapStats hs = osc.calculate();
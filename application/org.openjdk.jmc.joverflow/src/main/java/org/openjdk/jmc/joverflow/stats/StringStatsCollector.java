@@ -100,12 +100,21 @@ class StringStatsCollector {
 	 * to the value of the analyzed string object.
 	 */
 	String add(JavaObject strObj) {
+		String strVal = stringReader.readString(strObj);
+		return add(strObj, strVal, strVal != null ? stringReader.getLastReadBackingArray() : null);
+	}
+
+	/**
+	 * Same as {@link #add(JavaObject)}, but for a string object whose value and backing array have
+	 * already been read, possibly in another thread. Strings should be added in the same order as
+	 * with {@link #add(JavaObject)}, since the ids assigned to unique values depend on it.
+	 */
+	String add(JavaObject strObj, String strVal, JavaValueArray backingArray) {
 		nTotalStrings++;
 		if (stringInstShallowSize == 0) {
 			stringInstShallowSize = strObj.getSize();
 		}
 
-		String strVal = stringReader.readString(strObj);
 		if (strVal == null) {
 			return null;
 		}
@@ -120,7 +129,6 @@ class StringStatsCollector {
 		entry.nStringInst++;
 
 		// Check if its backing array has been seen before
-		JavaValueArray backingArray = stringReader.getLastReadBackingArray();
 		boolean arrayNotSeenBefore = !backingArray.isVisitedAsCollectionImpl();
 		int backingArraySize = 0; // Will remain zero if backing array already seen
 		if (arrayNotSeenBefore) {
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.util;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads binary index files written by {@link IndexFileOutput}. The file is memory-mapped in windows
+ * of limited size, so that arrays are copied straight from the page cache, and files larger than
+ * 2GB are supported.
+ */
+public class IndexFileInput implements Closeable {
+	private static final int WINDOW_SIZE = 64 << 20;
+
+	private final FileChannel channel;
+	private final long fileSize;
+	private MappedByteBuffer window;
+	private long windowStart;
+
+	public IndexFileInput(File file) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		fileSize = channel.size();
+		mapWindow(0);
+	}
+
+	public int readInt() throws IOException {
+		ensureRemaining(4);
+		return window.getInt();
+	}
+
+	public long readLong() throws IOException {
+		ensureRemaining(8);
+		return window.getLong();
+	}
+
+	public boolean readBoolean() throws IOException {
+		ensureRemaining(1);
+		return window.get() != 0;
+	}
+
+	/** Reads a string written by {@link IndexFileOutput#writeString(String)}. */
+	public String readString() throws IOException {
+		int length = readInt();
+		if (length == -1) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		int pos = 0;
+		while (pos < length) {
+			ensureRemaining(1);
+			int n = Math.min(window.remaining(), length - pos);
+			window.get(bytes, pos, n);
+			pos += n;
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public void readInts(int[] array, int offset, int length) throws IOException {
+		int end = offset + length;
+		while (offset < end) {
+			ensureRemaining(4);
+			int n = Math.min(window.remaining() / 4, end - offset);
+			window.asIntBuffer().get(array, offset, n);
+			window.position(window.position() + n * 4);
+			offset += n;
+		}
+	}
+
+	public void readLongs(long[] array, int offset, int length) throws IOException {
+		int end = offset + length;
+		while (offset < end) {
+			ensureRemaining(8);
+			int n = Math.min(window.remaining() / 8, end - offset);
+			window.asLongBuffer().get(array, offset, n);
+			window.position(window.position() + n * 8);
+			offset += n;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		channel.close();
+	}
+
+	private void ensureRemaining(int numBytes) throws IOException {
+		if (window.remaining() < numBytes) {
+			long pos = windowStart + window.position();
+			if (pos + numBytes > fileSize) {
+				throw new EOFException("Unexpected end of index file at position " + pos);
+			}
+			mapWindow(pos);
+		}
+	}
+
+	private void mapWindow(long start) throws IOException {
+		windowStart = start;
+		window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, fileSize - start));
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes binary index files, that are read back with {@link IndexFileInput}. Arrays are written in
+ * bulk through a direct buffer, so that even very large tables are written at disk speed.
+ */
+public class IndexFileOutput implements Closeable {
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private final FileChannel channel;
+	private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+	public IndexFileOutput(File file) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	public void writeInt(int v) throws IOException {
+		ensureRemaining(4);
+		buf.putInt(v);
+	}
+
+	public void writeLong(long v) throws IOException {
+		ensureRemaining(8);
+		buf.putLong(v);
+	}
+
+	public void writeBoolean(boolean v) throws IOException {
+		ensureRemaining(1);
+		buf.put(v ? (byte) 1 : (byte) 0);
+	}
+
+	/** Writes a string that may be null. */
+	public void writeString(String s) throws IOException {
+		if (s == null) {
+			writeInt(-1);
+			return;
+		}
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		writeInt(bytes.length);
+		int pos = 0;
+		while (pos < bytes.length) {
+			ensureRemaining(1);
+			int n = Math.min(buf.remaining(), bytes.length - pos);
+			buf.put(bytes, pos, n);
+			pos += n;
+		}
+	}
+
+	public void writeInts(int[] array, int offset, int length) throws IOException {
+		int end = offset + length;
+		while (offset < end) {
+			ensureRemaining(4);
+			int n = Math.min(buf.remaining() / 4, end - offset);
+			buf.asIntBuffer().put(array, offset, n);
+			buf.position(buf.position() + n * 4);
+			offset += n;
+		}
+	}
+
+	public void writeLongs(long[] array, int offset, int length) throws IOException {
+		int end = offset + length;
+		while (offset < end) {
+			ensureRemaining(8);
+			int n = Math.min(buf.remaining() / 8, end - offset);
+			buf.asLongBuffer().put(array, offset, n);
+			buf.position(buf.position() + n * 8);
+			offset += n;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void ensureRemaining(int numBytes) throws IOException {
+		if (buf.remaining() < numBytes) {
+			flush();
+		}
+	}
+
+	private void flush() throws IOException {
+		buf.flip();
+		while (buf.hasRemaining()) {
+			channel.write(buf);
+		}
+		buf.clear();
+	}
+}
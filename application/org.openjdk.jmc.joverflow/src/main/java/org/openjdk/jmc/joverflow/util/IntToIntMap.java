@@ -32,6 +32,8 @@
  */
 package org.openjdk.jmc.joverflow.util;
 
+import java.io.IOException;
+
 /**
  * A simple, low-memory-overhead hash map whose main usage is mapping object IDs to int numbers. The
  * map does not support negative values, and returns -1 to signal that the value for the given key
@@ -147,4 +149,15 @@ public class IntToIntMap extends NumberToIntMap {
 		throw new RuntimeException("Collision for intKey = " + Integer.toHexString(intKey)
 				+ ". Verify that IDs have 32 meaningful bits and/or that useOnlyLowWord was " + "set correctly.");
 	}
+
+	@Override
+	protected void writeKeys(IndexFileOutput out) throws IOException {
+		out.writeInts(keys, 0, capacity);
+	}
+
+	@Override
+	protected void readKeys(IndexFileInput in) throws IOException {
+		keys = new int[capacity];
+		in.readInts(keys, 0, capacity);
+	}
 }
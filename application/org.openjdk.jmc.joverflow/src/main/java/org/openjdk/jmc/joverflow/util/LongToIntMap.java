@@ -32,6 +32,8 @@
  */
 package org.openjdk.jmc.joverflow.util;
 
+import java.io.IOException;
+
 /**
  * A simple, low-memory-overhead hash map that maps a long number to an int number. Does not support
  * negative values, and returns -1 result to signal that the value for the given key does not exist.
@@ -110,4 +112,14 @@ public class LongToIntMap extends NumberToIntMap {
 		}
 	}
 
+	@Override
+	protected void writeKeys(IndexFileOutput out) throws IOException {
+		out.writeLongs(keys, 0, capacity);
+	}
+
+	@Override
+	protected void readKeys(IndexFileInput in) throws IOException {
+		keys = new long[capacity];
+		in.readLongs(keys, 0, capacity);
+	}
 }
@@ -32,6 +32,8 @@
  */
 package org.openjdk.jmc.joverflow.util;
 
+import java.io.IOException;
+
 /**
  * Superclass for IntToIntMap and LongToIntMap, with their common functionality.
  * <p>
@@ -48,6 +50,9 @@ public abstract class NumberToIntMap {
 
 	protected int[] values;
 
+	// Largest array size that JVMs generally support
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
 	protected int size, capacity, threshold;
 
 	protected long rehashTime; // Debugging
@@ -56,7 +61,7 @@ public abstract class NumberToIntMap {
 		if (expectedMaxSize < 11) {
 			expectedMaxSize = 11; // Protect ourselves from stupidly small capacity
 		}
-		capacity = (4 * expectedMaxSize) / 3;
+		capacity = (int) Math.min((4L * expectedMaxSize) / 3, MAX_CAPACITY);
 		createTable();
 	}
 
@@ -78,8 +83,8 @@ public abstract class NumberToIntMap {
 	 * 10% larger or smaller than size * 4 / 3. If not, capacity is adjusted and table is rehashed.
 	 */
 	public void adjustCapacityIfNeeded() {
-		int optimalCapacity = (4 * size / 3 + 10) | 1;
-		int avgCapacityValue = (optimalCapacity + capacity) / 2;
+		int optimalCapacity = (int) Math.min(4L * size / 3 + 10, MAX_CAPACITY) | 1;
+		long avgCapacityValue = ((long) optimalCapacity + capacity) / 2;
 		if (((double) Math.abs(optimalCapacity - capacity)) / avgCapacityValue > 0.1) {
 			rehash(optimalCapacity);
 		}
@@ -88,7 +93,11 @@ public abstract class NumberToIntMap {
 	protected void finishPut() {
 		size++;
 		if (size > threshold) {
-			rehash((capacity * 3 / 2) | 1);
+			if (capacity < MAX_CAPACITY) {
+				rehash((int) Math.min(capacity * 3L / 2, MAX_CAPACITY) | 1);
+			} else if (size >= capacity - 1) { // get() relies on at least one free slot
+				throw new IllegalStateException("Too many elements: " + size);
+			}
 		}
 	}
 
@@ -99,10 +108,40 @@ public abstract class NumberToIntMap {
 		return (nextIdx < capacity ? nextIdx : 0);
 	}
 
+	/**
+	 * Writes the internal table of this map, so that it can be restored later with
+	 * {@link #readFrom(IndexFileInput)} without rehashing any keys.
+	 */
+	public void writeTo(IndexFileOutput out) throws IOException {
+		out.writeInt(capacity);
+		out.writeInt(size);
+		out.writeInt(threshold);
+		out.writeInts(values, 0, capacity);
+		writeKeys(out);
+	}
+
+	/**
+	 * Replaces the contents of this map with a table written by {@link #writeTo(IndexFileOutput)}
+	 * of a map of the same class.
+	 */
+	public void readFrom(IndexFileInput in) throws IOException {
+		capacity = in.readInt();
+		size = in.readInt();
+		threshold = in.readInt();
+		values = new int[capacity];
+		in.readInts(values, 0, capacity);
+		readKeys(in);
+	}
+
 	protected abstract void rehash(int newCapacity);
 
 	protected abstract void createTable();
 
+	protected abstract void writeKeys(IndexFileOutput out) throws IOException;
+
+	/** Reads the keys written by writeKeys(). The capacity is already set at this point. */
+	protected abstract void readKeys(IndexFileInput in) throws IOException;
+
 	public long getRehashTimeMillis() {
 		return rehashTime;
 	}
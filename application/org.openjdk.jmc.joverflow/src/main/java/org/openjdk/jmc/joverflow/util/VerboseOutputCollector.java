@@ -44,20 +44,24 @@ import java.util.List;
 public class VerboseOutputCollector {
 	private final HashSet<String> warningKinds;
 	private final ArrayList<String> warnings;
+	// Kind and message of each warning in warnings
+	private final ArrayList<String[]> warningEntries;
 	private final ArrayList<String> debug;
 
 	public VerboseOutputCollector() {
 		warningKinds = new HashSet<>();
 		warnings = new ArrayList<>();
+		warningEntries = new ArrayList<>();
 		debug = new ArrayList<>();
 	}
 
-	public void addWarning(String warningKind, String msg) {
+	public synchronized void addWarning(String warningKind, String msg) {
 		warnings.add("WARNING: " + warningKind + ' ' + msg);
+		warningEntries.add(new String[] {warningKind, msg});
 		warningKinds.add(warningKind);
 	}
 
-	public void debug(String msg) {
+	public synchronized void debug(String msg) {
 		debug.add(msg);
 	}
 
@@ -65,7 +69,19 @@ public class VerboseOutputCollector {
 		return warnings;
 	}
 
-	public List<String> getWarningKinds() {
+	public synchronized int getNumWarnings() {
+		return warnings.size();
+	}
+
+	/**
+	 * Returns the kind and the message of each warning added after the first fromIdx warnings, so
+	 * that they can be added again later with {@link #addWarning(String, String)}.
+	 */
+	public synchronized List<String[]> getWarningEntries(int fromIdx) {
+		return new ArrayList<>(warningEntries.subList(fromIdx, warningEntries.size()));
+	}
+
+	public synchronized List<String> getWarningKinds() {
 		return new ArrayList<>(warningKinds);
 	}
 
@@ -92,7 +92,7 @@ for (IServer server : model.elements()) {
  * <li>{@link org.openjdk.jmc.rjmx.servermodel.IServer} represents the entry point to a single
  * server in the model.</li>
  * </ul>
- * Notice that the subscription thread is a daemon thread - if trying the example above in a main,
- * add a {@code Thread.sleep(10000)} before the disconnect.
+ * Notice that the subscription scheduler uses daemon threads - if trying the example above in a
+ * main, add a {@code Thread.sleep(10000)} before the disconnect.
  */
 package org.openjdk.jmc.rjmx;
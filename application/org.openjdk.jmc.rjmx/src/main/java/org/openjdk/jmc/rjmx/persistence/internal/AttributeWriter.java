@@ -42,6 +42,7 @@ import java.util.logging.Level;
 
 import org.openjdk.jmc.common.io.IOToolkit;
 import org.openjdk.jmc.common.util.StringToolkit;
+import org.openjdk.jmc.common.xydata.TimestampedDataRollup;
 import org.openjdk.jmc.rjmx.RJMXPlugin;
 import org.openjdk.jmc.rjmx.common.subscription.IMRIValueListener;
 import org.openjdk.jmc.rjmx.common.subscription.MRI;
@@ -58,6 +59,15 @@ class AttributeWriter implements IMRIValueListener {
 	private boolean isEnabled;
 	private Boolean isRunning;
 	private long maxFileSize;
+	// Only the open buckets are needed here, closed buckets are written to the rollup files directly
+	private final TimestampedDataRollup rollup = new TimestampedDataRollup(0,
+			TimestampedDataRollup.DEFAULT_BUCKET_WIDTHS) {
+		@Override
+		protected void bucketClosed(int level, long start, double min, double max, double sum, long count) {
+			writeRollupBucket(level, start, min, max, sum, count);
+		}
+	};
+	private final DataOutputStream[] rollupStreams = new DataOutputStream[rollup.getLevelCount()];
 
 	AttributeWriter(MRI mri, File persistenceDir, long maxFileSize) {
 		this.mri = mri;
@@ -73,6 +83,10 @@ class AttributeWriter implements IMRIValueListener {
 		persistenceDir = new File(persistenceDir, StringToolkit.encodeFilename(mri.getQualifiedName()));
 		if (!persistenceDir.equals(dir)) {
 			// Directory changed
+			if (dir != null) {
+				rollup.closeBuckets();
+			}
+			closeRollupStreams();
 			dir = persistenceDir;
 			IOToolkit.closeSilently(currentFileStream);
 			currentFileStream = null;
@@ -118,6 +132,8 @@ class AttributeWriter implements IMRIValueListener {
 
 	synchronized void stop() {
 		isRunning = false;
+		rollup.closeBuckets();
+		closeRollupStreams();
 		IOToolkit.closeSilently(currentFileStream);
 		currentFileStream = null;
 	}
@@ -137,6 +153,7 @@ class AttributeWriter implements IMRIValueListener {
 		if (isEnabled && !Boolean.FALSE.equals(isRunning)) {
 			if (isRunning == null) {
 				if (dir.isDirectory() || dir.mkdirs()) {
+					rollup.closeBuckets();
 					writeSeriesStart(timestamp);
 					isRunning = true;
 				} else {
@@ -148,10 +165,12 @@ class AttributeWriter implements IMRIValueListener {
 			try {
 				ensureWriter();
 				doWrite(timestamp, value);
+				rollup.add(timestamp, value);
 			} catch (IOException e) {
 				try {
 					createNewWriter();
 					doWrite(timestamp, value);
+					rollup.add(timestamp, value);
 				} catch (IOException e1) {
 					IOToolkit.closeSilently(currentFileStream);
 					currentFileStream = null;
@@ -175,6 +194,30 @@ class AttributeWriter implements IMRIValueListener {
 		}
 	}
 
+	private void writeRollupBucket(int level, long start, double min, double max, double sum, long count) {
+		try {
+			if (rollupStreams[level] == null) {
+				rollupStreams[level] = new DataOutputStream(new BufferedOutputStream(
+						new FileOutputStream(PersistenceRollupFile.getFile(dir, rollup.getBucketWidth(level)), true)));
+			}
+			PersistenceRollupFile.writeBucket(rollupStreams[level], start, min, max, sum, count);
+			// Buckets are closed at most once per bucket width, so flush each one to keep the file
+			// usable if the writer is not stopped cleanly
+			rollupStreams[level].flush();
+		} catch (IOException e) {
+			IOToolkit.closeSilently(rollupStreams[level]);
+			rollupStreams[level] = null;
+			RJMXPlugin.getDefault().getLogger().log(Level.WARNING, "Failed to write rollup bucket", e); //$NON-NLS-1$
+		}
+	}
+
+	private void closeRollupStreams() {
+		for (int i = 0; i < rollupStreams.length; i++) {
+			IOToolkit.closeSilently(rollupStreams[i]);
+			rollupStreams[i] = null;
+		}
+	}
+
 	private void doWrite(long timestamp, double value) throws IOException {
 		currentFileStream.writeLong(timestamp);
 		currentFileStream.writeDouble(value);
@@ -52,6 +52,8 @@ import java.util.logging.Level;
 import org.openjdk.jmc.common.io.IOToolkit;
 import org.openjdk.jmc.common.util.StringToolkit;
 import org.openjdk.jmc.common.xydata.ITimestampedData;
+import org.openjdk.jmc.common.xydata.MultiResolutionDataSeries;
+import org.openjdk.jmc.common.xydata.TimestampedDataRollup;
 import org.openjdk.jmc.rjmx.RJMXPlugin;
 import org.openjdk.jmc.rjmx.common.services.IAttributeStorage;
 import org.openjdk.jmc.rjmx.common.services.MRIDataSeries;
@@ -151,14 +153,85 @@ public class PersistenceReader implements IMRIService, IAttributeStorageService
 		}
 	}
 
-	private static class PersistentMRIDataSeries implements MRIDataSeries {
+	/**
+	 * Lazily loaded rollups for an attribute. If the rollup files do not cover all persisted data,
+	 * for example if the data was persisted by an older version, then the rollups are calculated
+	 * from the persisted data instead.
+	 */
+	private static class PersistentRollup {
+		final File dir;
+		final List<PersistenceFile> files;
+		final List<Long> seriesStart;
+		TimestampedDataRollup rollup;
+
+		PersistentRollup(File dir, List<PersistenceFile> files, List<Long> seriesStart) {
+			this.dir = dir;
+			this.files = files;
+			this.seriesStart = seriesStart;
+		}
+
+		synchronized TimestampedDataRollup getRollup() {
+			if (rollup == null) {
+				rollup = PersistenceRollupFile.read(dir);
+				if (!isComplete(rollup)) {
+					rollup = calculateRollup();
+				}
+			}
+			return rollup;
+		}
+
+		private boolean isComplete(TimestampedDataRollup rollup) {
+			long dataStart = Long.MAX_VALUE;
+			long dataEnd = Long.MIN_VALUE;
+			for (PersistenceFile file : files) {
+				if (file.eventCount > 0) {
+					dataStart = Math.min(dataStart, file.start);
+					dataEnd = Math.max(dataEnd, file.end);
+				}
+			}
+			if (dataStart > dataEnd) {
+				return true;
+			}
+			// The last buckets are missing if the writer did not stop cleanly
+			for (int level = 0; level < rollup.getLevelCount(); level++) {
+				if (rollup.getDataStart(level) > dataStart || rollup.getDataEnd(level) <= dataEnd) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private TimestampedDataRollup calculateRollup() {
+			TimestampedDataRollup rollup = new TimestampedDataRollup(Long.MAX_VALUE,
+					TimestampedDataRollup.DEFAULT_BUCKET_WIDTHS);
+			int nextSeries = 0;
+			Iterator<ITimestampedData> it = new FileIterator(files.iterator(), Long.MIN_VALUE, Long.MAX_VALUE);
+			while (it.hasNext()) {
+				ITimestampedData data = it.next();
+				// Do not aggregate values from different series into the same bucket
+				if (nextSeries < seriesStart.size() && data.getX() >= seriesStart.get(nextSeries)) {
+					rollup.closeBuckets();
+					while (nextSeries < seriesStart.size() && data.getX() >= seriesStart.get(nextSeries)) {
+						nextSeries++;
+					}
+				}
+				rollup.add(data.getX(), data.getY().doubleValue());
+			}
+			rollup.closeBuckets();
+			return rollup;
+		}
+	}
+
+	private static class PersistentMRIDataSeries implements MRIDataSeries, MultiResolutionDataSeries<ITimestampedData> {
 		List<PersistenceFile> files;
+		PersistentRollup rollup;
 		MRI mri;
 		long min;
 		long max;
 
-		PersistentMRIDataSeries(MRI mri, List<PersistenceFile> files, long min, long max) {
+		PersistentMRIDataSeries(MRI mri, List<PersistenceFile> files, PersistentRollup rollup, long min, long max) {
 			this.files = files;
+			this.rollup = rollup;
 			this.mri = mri;
 			this.min = min;
 			this.max = max;
@@ -173,6 +246,29 @@ public class PersistenceReader implements IMRIService, IAttributeStorageService
 			}
 		}
 
+		@Override
+		public Iterator<ITimestampedData> createIterator(long min, long max, int resolution) {
+			if (this.min <= max && this.max >= min) {
+				long start = Math.max(min, this.min);
+				long end = Math.min(max, this.max);
+				TimestampedDataRollup levels = rollup.getRollup();
+				int level = levels.selectLevel(start, end, resolution);
+				if (level >= 0) {
+					// Only include buckets belonging to this series
+					List<ITimestampedData> buckets = new ArrayList<>();
+					Iterator<ITimestampedData> it = levels.createIterator(level, start, end);
+					while (it.hasNext()) {
+						ITimestampedData bucket = it.next();
+						if (bucket.getX() >= this.min && bucket.getX() < this.max) {
+							buckets.add(bucket);
+						}
+					}
+					return buckets.iterator();
+				}
+			}
+			return createIterator(min, max);
+		}
+
 		@Override
 		public MRI getAttribute() {
 			return mri;
@@ -291,12 +387,13 @@ public class PersistenceReader implements IMRIService, IAttributeStorageService
 			IOToolkit.closeSilently(seriesFileStream);
 		}
 		PersistenceStorage storage = new PersistenceStorage();
+		PersistentRollup rollup = new PersistentRollup(attributeDir, files, seriesStart);
 		if (seriesStart.isEmpty()) {
-			storage.series.add(new PersistentMRIDataSeries(mri, files, Long.MIN_VALUE, Long.MAX_VALUE));
+			storage.series.add(new PersistentMRIDataSeries(mri, files, rollup, Long.MIN_VALUE, Long.MAX_VALUE));
 		} else {
 			for (int i = 0; i < seriesStart.size(); i++) {
 				long seriesEnd = i + 1 < seriesStart.size() ? seriesStart.get(i + 1) : Long.MAX_VALUE;
-				storage.series.add(new PersistentMRIDataSeries(mri, files, seriesStart.get(i), seriesEnd));
+				storage.series.add(new PersistentMRIDataSeries(mri, files, rollup, seriesStart.get(i), seriesEnd));
 			}
 		}
 		storages.put(mri, storage);
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.persistence.internal;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.logging.Level;
+
+import org.openjdk.jmc.common.io.IOToolkit;
+import org.openjdk.jmc.common.xydata.TimestampedDataRollup;
+import org.openjdk.jmc.rjmx.RJMXPlugin;
+
+/**
+ * Rollup files are stored next to the persistence files of an attribute, one file per rollup level.
+ * Each file contains the closed buckets of the level in timestamp order.
+ */
+class PersistenceRollupFile {
+
+	static final String FILE_PREFIX = "rollup_"; //$NON-NLS-1$
+	static final String FILE_EXT = ".persisted_jmx_rollup"; //$NON-NLS-1$
+	static final int BUCKET_SIZE = 8 + 8 + 8 + 8 + 8;
+
+	static File getFile(File dir, long bucketWidth) {
+		return new File(dir, FILE_PREFIX + bucketWidth + FILE_EXT);
+	}
+
+	static void writeBucket(DataOutputStream out, long start, double min, double max, double sum, long count)
+			throws IOException {
+		out.writeLong(start);
+		out.writeDouble(min);
+		out.writeDouble(max);
+		out.writeDouble(sum);
+		out.writeLong(count);
+	}
+
+	/**
+	 * Read all rollup files in a directory. Levels that have no file will be empty.
+	 *
+	 * @param dir
+	 *            the attribute directory
+	 * @return a rollup with the default bucket widths
+	 */
+	static TimestampedDataRollup read(File dir) {
+		TimestampedDataRollup rollup = new TimestampedDataRollup(Long.MAX_VALUE,
+				TimestampedDataRollup.DEFAULT_BUCKET_WIDTHS);
+		for (int level = 0; level < rollup.getLevelCount(); level++) {
+			File file = getFile(dir, rollup.getBucketWidth(level));
+			if (file.isFile()) {
+				long bucketCount = file.length() / BUCKET_SIZE;
+				DataInputStream in = null;
+				try {
+					in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+					for (long i = 0; i < bucketCount; i++) {
+						rollup.addBucket(level, in.readLong(), in.readDouble(), in.readDouble(), in.readDouble(),
+								in.readLong());
+					}
+				} catch (IOException e) {
+					RJMXPlugin.getDefault().getLogger().log(Level.WARNING,
+							"Error while reading rollup data from file " + file.getPath(), e); //$NON-NLS-1$
+				} finally {
+					IOToolkit.closeSilently(in);
+				}
+			}
+		}
+		return rollup;
+	}
+}
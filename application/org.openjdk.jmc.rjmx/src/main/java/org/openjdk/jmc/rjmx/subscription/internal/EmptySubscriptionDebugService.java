@@ -37,6 +37,7 @@ import java.util.Collections;
 
 import org.openjdk.jmc.rjmx.common.subscription.internal.IMRISubscriptionDebugInformation;
 import org.openjdk.jmc.rjmx.common.subscription.internal.ISubscriptionDebugService;
+import org.openjdk.jmc.rjmx.common.subscription.internal.PollLatencyStatistics;
 
 public class EmptySubscriptionDebugService implements ISubscriptionDebugService {
 
@@ -52,4 +53,9 @@ public class EmptySubscriptionDebugService implements ISubscriptionDebugService
 	public Collection<IMRISubscriptionDebugInformation> getDebugInformation() {
 		return Collections.emptyList();
 	}
+
+	@Override
+	public PollLatencyStatistics getPollLatencyStatistics() {
+		return new PollLatencyStatistics();
+	}
 }
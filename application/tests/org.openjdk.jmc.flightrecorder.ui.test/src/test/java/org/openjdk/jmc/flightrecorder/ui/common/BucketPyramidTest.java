@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.ui.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.openjdk.jmc.common.item.Aggregators;
+import org.openjdk.jmc.common.item.IAggregator;
+import org.openjdk.jmc.common.item.IAttribute;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemConsumer;
+import org.openjdk.jmc.common.item.ItemCollectionToolkit;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.test.mock.item.MockAttributes;
+import org.openjdk.jmc.test.mock.item.MockCollections;
+import org.openjdk.jmc.ui.charts.SubdividedQuantityRange;
+
+@SuppressWarnings("nls")
+public class BucketPyramidTest {
+	private static final IItemCollection ITEMS = ItemCollectionToolkit.merge(
+			() -> Stream.of(MockCollections.getNumberCollection(MockCollections.generateNumberArray(10000, 1000)),
+					MockCollections.getNumberCollection(MockCollections.generateNumberArray(3000, 500))));
+
+	@Test
+	public void testUnsortedX() {
+		testAggregators(MockAttributes.DOUBLE_VALUE);
+	}
+
+	@Test
+	public void testSortedX() {
+		testAggregators(MockAttributes.INDEX_VALUE);
+	}
+
+	@Test
+	public void testEmpty() {
+		IItemCollection empty = MockCollections.getNumberCollection(new Number[0]);
+		SubdividedQuantityRange range = createRange(10, 0, 1000);
+		assertSameBuckets(empty, Aggregators.count(), MockAttributes.DOUBLE_VALUE, range);
+		assertSameBuckets(empty, Aggregators.avg(MockAttributes.DOUBLE_VALUE), MockAttributes.DOUBLE_VALUE, range);
+	}
+
+	private static void testAggregators(IAttribute<IQuantity> xAttribute) {
+		int[] bucketCounts = {1, 7, 1000};
+		for (int bucketCount : bucketCounts) {
+			for (SubdividedQuantityRange range : new SubdividedQuantityRange[] {createRange(bucketCount, 0, 1000),
+					createRange(bucketCount, 123.4, 876.5), createRange(bucketCount, -100, 10000)}) {
+				assertSameBuckets(ITEMS, Aggregators.count(), xAttribute, range);
+				assertSameBuckets(ITEMS, Aggregators.sum(MockAttributes.DOUBLE_VALUE), xAttribute, range);
+				assertSameBuckets(ITEMS, Aggregators.min(MockAttributes.DOUBLE_VALUE), xAttribute, range);
+				assertSameBuckets(ITEMS, Aggregators.max(MockAttributes.DOUBLE_VALUE), xAttribute, range);
+				assertSameBuckets(ITEMS, Aggregators.avg(MockAttributes.DOUBLE_VALUE), xAttribute, range);
+				assertSameBuckets(ITEMS, Aggregators.stddev(MockAttributes.DOUBLE_VALUE), xAttribute, range);
+			}
+		}
+	}
+
+	private static SubdividedQuantityRange createRange(int bucketCount, double start, double end) {
+		return new SubdividedQuantityRange(bucketCount, UnitLookup.NUMBER_UNITY.quantity(start),
+				UnitLookup.NUMBER_UNITY.quantity(end), 1000);
+	}
+
+	private static <C extends IItemConsumer<C>> void assertSameBuckets(
+		IItemCollection items, IAggregator<IQuantity, C> aggregator, IAttribute<IQuantity> xAttribute,
+		SubdividedQuantityRange range) {
+		int bucketCount = range.getNumSubdividers();
+		IQuantity[] expected = new BucketBuilder<>(bucketCount, xAttribute, aggregator, range).buildBuckets(items);
+		BucketPyramid<C> pyramid = BucketPyramid.build(items, aggregator, xAttribute);
+		assertNotNull(aggregator.getName(), pyramid);
+		IQuantity[] actual = pyramid.buildBuckets(range);
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			String message = aggregator.getName() + " bucket " + i + " of " + bucketCount;
+			if (expected[i] == null) {
+				assertNull(message, actual[i]);
+			} else {
+				assertNotNull(message, actual[i]);
+				double value = expected[i].doubleValue();
+				assertEquals(message, value, actual[i].doubleValueIn(expected[i].getUnit()),
+						Math.abs(value) * 1e-9);
+			}
+		}
+	}
+}
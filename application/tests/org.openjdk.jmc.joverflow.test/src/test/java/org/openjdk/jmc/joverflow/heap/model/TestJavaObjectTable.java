@@ -32,8 +32,13 @@
  */
 package org.openjdk.jmc.joverflow.heap.model;
 
+import java.io.File;
+
 import org.junit.Assert;
 import org.junit.Test;
+import org.openjdk.jmc.joverflow.heap.parser.DumpCorruptedException;
+import org.openjdk.jmc.joverflow.util.IndexFileInput;
+import org.openjdk.jmc.joverflow.util.IndexFileOutput;
 
 /**
  */
@@ -203,4 +208,89 @@ public class TestJavaObjectTable {
 		}
 		Assert.assertEquals(numUnvisitedObjs, i);
 	}
+
+	@Test
+	public void testWriteAndReadBack() throws Exception {
+		int numObjects = 700000; // Spans several chunks
+		JavaObjectTable.Builder builder = new JavaObjectTable.Builder(100L * numObjects);
+
+		JavaClass[] classes = new JavaClass[2];
+		classes[0] = new JavaClass("FooClass", 0, 0, 0, 0, JavaClass.NO_FIELDS, JavaClass.NO_FIELDS,
+				JavaClass.NO_VALUES, 0, 0);
+		classes[1] = new JavaClass("[BarClass", 0, 0, 0, 0, JavaClass.NO_FIELDS, JavaClass.NO_FIELDS,
+				JavaClass.NO_VALUES, 0, 0);
+
+		int[] objIdx = new int[numObjects];
+		for (int i = 0; i < numObjects; i++) {
+			// Irregular pattern of instances and arrays
+			if (Integer.bitCount(i) % 3 == 0) {
+				objIdx[i] = builder.addJavaArray(1, i * 100L, i);
+			} else {
+				objIdx[i] = builder.addJavaObject(0, i * 100L);
+			}
+			// Global indexes are object ordinals
+			Assert.assertEquals(i + 1, objIdx[i]);
+		}
+
+		File file = File.createTempFile("TestJavaObjectTable", ".idx");
+		try {
+			try (IndexFileOutput out = new IndexFileOutput(file)) {
+				builder.writeTo(out);
+			}
+			try (IndexFileInput in = new IndexFileInput(file)) {
+				builder = JavaObjectTable.Builder.readFrom(in);
+			}
+		} finally {
+			file.delete();
+		}
+
+		JavaObjectTable table = builder.buildJavaObjectTable(classes);
+		Assert.assertEquals(numObjects, table.size());
+		for (int i = numObjects - 1; i >= 0; i--) {
+			JavaLazyReadObject obj = table.getObject(objIdx[i]);
+			Assert.assertEquals(i * 100L, obj.getObjOfsInFile());
+			Assert.assertEquals(objIdx[i], obj.getGlobalObjectIndex());
+			if (Integer.bitCount(i) % 3 == 0) {
+				Assert.assertEquals(i, ((JavaObjectArray) obj).getLength());
+			} else {
+				Assert.assertTrue(obj instanceof JavaObject);
+			}
+		}
+		int i = 0;
+		for (Iterable<JavaLazyReadObject> partition : table.getObjectPartitions()) {
+			for (JavaLazyReadObject obj : partition) {
+				Assert.assertEquals(objIdx[i++], obj.getGlobalObjectIndex());
+			}
+		}
+		Assert.assertEquals(numObjects, i);
+	}
+
+	@Test
+	public void testTooManyObjects() {
+		JavaObjectTable.Builder builder = new JavaObjectTable.Builder(100000);
+		builder.setMaxNumObjects(1000);
+		for (int i = 0; i < 1000; i++) {
+			builder.addJavaObject(0, i * 16);
+		}
+		try {
+			builder.addJavaArray(0, 16000, 1);
+			Assert.fail("Expected the object to be rejected");
+		} catch (DumpCorruptedException.Runtime ex) {
+			Assert.assertTrue(ex.getCause().getMessage(), ex.getCause().getMessage().contains("1000 objects"));
+		}
+	}
+
+	@Test
+	public void testTooManyClasses() {
+		// For a 2^50 bytes dump, the high word of an object holds 19 bits of its offset and the
+		// array bit, which leaves 12 bits for its class index
+		JavaObjectTable.Builder builder = new JavaObjectTable.Builder(1L << 50);
+		builder.addJavaObject((1 << 12) - 1, 1L << 49);
+		try {
+			builder.addJavaObject(1 << 12, 1L << 49);
+			Assert.fail("Expected the object to be rejected");
+		} catch (DumpCorruptedException.Runtime ex) {
+			Assert.assertTrue(ex.getCause().getMessage(), ex.getCause().getMessage().contains("4096 classes"));
+		}
+	}
 }
@@ -0,0 +1,401 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.heap.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmc.joverflow.heap.model.ArrayTypeCodes;
+import org.openjdk.jmc.joverflow.heap.model.JavaClass;
+import org.openjdk.jmc.joverflow.heap.model.JavaField;
+import org.openjdk.jmc.joverflow.heap.model.JavaHeapObject;
+import org.openjdk.jmc.joverflow.heap.model.JavaObject;
+import org.openjdk.jmc.joverflow.heap.model.JavaThing;
+import org.openjdk.jmc.joverflow.heap.model.Root;
+import org.openjdk.jmc.joverflow.heap.model.Snapshot;
+
+/**
+ * Generates small, but valid HPROF 1.0.2 heap dumps for tests. The dump contains chains of
+ * test.Node instances, each referring to a String (backed by a byte[] array, as in JDK 9+) and to
+ * some other data: a boxed Integer, a primitive array or an object array. String values and array
+ * contents are taken from small pools, so that there are plenty of duplicates. The same arguments
+ * always produce the same dump.
+ */
+public class SyntheticHeapDump implements ArrayTypeCodes {
+
+	private static final int T_OBJECT = 2;
+
+	private final int idSize;
+	private final int maxSegmentSize;
+	private final Random random = new Random(42);
+
+	private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	private final DataOutputStream out = new DataOutputStream(bytes);
+	private final ByteArrayOutputStream segmentBytes = new ByteArrayOutputStream();
+	private final DataOutputStream segment = new DataOutputStream(segmentBytes);
+
+	private long nextId = 0x1000;
+	private int nextClassSerial = 1;
+	private int numObjects;
+
+	private long objectClassId, nodeClassId, stringClassId, integerClassId, entryClassId, objArrayClassId;
+
+	/**
+	 * Returns the image of a dump with the given number of test.Node instances. The heap dump is
+	 * split into segments of about maxSegmentSize bytes.
+	 */
+	public static byte[] create(int idSize, int numNodes, int maxSegmentSize) throws IOException {
+		SyntheticHeapDump dump = new SyntheticHeapDump(idSize, maxSegmentSize);
+		dump.writeDump(numNodes);
+		return dump.bytes.toByteArray();
+	}
+
+	/**
+	 * Writes a dump created by {@link #create(int, int, int)} to a temporary file, gzip-compressed if
+	 * requested. The caller should delete the file.
+	 */
+	public static File createFile(int idSize, int numNodes, int maxSegmentSize, boolean gzip) throws IOException {
+		byte[] image = create(idSize, numNodes, maxSegmentSize);
+		File file = File.createTempFile("SyntheticHeapDump", gzip ? ".hprof.gz" : ".hprof");
+		try (OutputStream fileOut = new FileOutputStream(file)) {
+			if (gzip) {
+				try (GZIPOutputStream gzipOut = new GZIPOutputStream(fileOut)) {
+					gzipOut.write(image);
+				}
+			} else {
+				fileOut.write(image);
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Returns the number of objects (instances and arrays, but not classes) in a dump created with
+	 * the given number of nodes.
+	 */
+	public static int getNumObjects(int idSize, int numNodes) throws IOException {
+		SyntheticHeapDump dump = new SyntheticHeapDump(idSize, Integer.MAX_VALUE);
+		dump.writeDump(numNodes);
+		return dump.numObjects;
+	}
+
+	/**
+	 * Returns a description of everything in the given snapshot: classes, roots, and the ids, sizes
+	 * and contents of all objects, read from the dump. Two snapshots of the same dump should have
+	 * the same description, however they were read.
+	 */
+	public static String describe(Snapshot snapshot) {
+		StringBuilder result = new StringBuilder();
+		result.append("Pointer size: ").append(snapshot.getPointerSize()).append(", object header size: ")
+				.append(snapshot.getObjectHeaderSize()).append('\n');
+		for (JavaClass clazz : snapshot.getClasses()) {
+			result.append(clazz.getName()).append(" @").append(clazz.readId()).append(", instance size ")
+					.append(clazz.getInstanceSize()).append(':');
+			for (JavaField field : clazz.getFieldsForInstance()) {
+				result.append(' ').append(field.getName()).append(' ').append(field.getTypeId());
+			}
+			result.append('\n');
+		}
+		for (Root root : snapshot.getRoots()) {
+			result.append(root).append('\n');
+		}
+		JavaThing[] fields = null;
+		for (JavaHeapObject obj : snapshot.getObjects()) {
+			result.append(obj.readId()).append(' ').append(obj.getClazz().getName()).append(' ').append(obj.getSize())
+					.append(' ').append(obj.valueAsString());
+			if (obj instanceof JavaObject) {
+				fields = ((JavaObject) obj).getFields(fields);
+				for (JavaThing field : fields) {
+					result.append(' ').append(field != null ? field.valueAsString() : null);
+				}
+			}
+			result.append('\n');
+		}
+		return result.toString();
+	}
+
+	private SyntheticHeapDump(int idSize, int maxSegmentSize) {
+		this.idSize = idSize;
+		this.maxSegmentSize = maxSegmentSize;
+	}
+
+	private void writeDump(int numNodes) throws IOException {
+		out.write("JAVA PROFILE 1.0.2\0".getBytes(StandardCharsets.US_ASCII));
+		out.writeInt(idSize);
+		out.writeLong(0);
+
+		objectClassId = writeClass("java/lang/Object", 0);
+		writeClass("java/lang/Class", objectClassId);
+		writeClass("java/lang/ClassLoader", objectClassId);
+		writeClass("java/lang/ref/Reference", objectClassId, "referent", T_OBJECT);
+		stringClassId = writeClass("java/lang/String", objectClassId, "value", T_OBJECT, "coder", T_BYTE, "hash",
+				T_INT);
+		integerClassId = writeClass("java/lang/Integer", objectClassId, "value", T_INT);
+		objArrayClassId = writeClass("[Ljava/lang/Object;", objectClassId);
+		// Classes that the detailed stats calculation expects to find in any dump
+		long hashMapClassId = writeClass("java/util/HashMap", objectClassId, "table", T_OBJECT, "size", T_INT);
+		writeClass("java/util/LinkedHashMap", hashMapClassId, "head", T_OBJECT, "tail", T_OBJECT, "accessOrder",
+				T_BOOLEAN);
+		writeClass("java/lang/System", objectClassId);
+		nodeClassId = writeClass("test/Node", objectClassId, "next", T_OBJECT, "name", T_OBJECT, "data", T_OBJECT,
+				"count", T_INT);
+		entryClassId = writeClass("test/Node$Entry", objectClassId, "key", T_OBJECT, "value", T_OBJECT);
+
+		long next = 0;
+		for (int i = 0; i < numNodes; i++) {
+			long name = writeString("name-" + random.nextInt(500));
+			long data = writeData(i);
+			long node = nextId();
+			startSubRecord(HprofReader.HPROF_GC_INSTANCE_DUMP);
+			writeId(node);
+			segment.writeInt(0);
+			writeId(nodeClassId);
+			segment.writeInt(3 * idSize + 4);
+			writeId(next);
+			writeId(name);
+			writeId(data);
+			segment.writeInt(i);
+			numObjects++;
+
+			if (i % 50 == 49 || i == numNodes - 1) {
+				// The end of a chain
+				startSubRecord(HprofReader.HPROF_GC_ROOT_UNKNOWN);
+				writeId(node);
+				next = 0;
+			} else {
+				next = node;
+			}
+		}
+		flushSegment();
+
+		out.writeByte(HprofReader.HPROF_HEAP_DUMP_END);
+		out.writeInt(0);
+		out.writeInt(0);
+		out.flush();
+	}
+
+	private long writeData(int nodeIdx) throws IOException {
+		switch (nodeIdx % 5) {
+		case 0: {
+			long id = nextId();
+			startSubRecord(HprofReader.HPROF_GC_INSTANCE_DUMP);
+			writeId(id);
+			segment.writeInt(0);
+			writeId(integerClassId);
+			segment.writeInt(4);
+			segment.writeInt(random.nextInt(1000));
+			numObjects++;
+			return id;
+		}
+		case 1: {
+			byte[] data = new byte[4 * random.nextInt(10)];
+			for (int i = 0; i < data.length; i++) {
+				data[i] = (byte) random.nextInt(3);
+			}
+			return writePrimitiveArray(T_INT, data);
+		}
+		case 2: {
+			long[] elements = new long[random.nextInt(10)];
+			for (int i = 0; i < elements.length; i++) {
+				elements[i] = random.nextBoolean() ? writeString("element-" + random.nextInt(50)) : 0;
+			}
+			long id = nextId();
+			startSubRecord(HprofReader.HPROF_GC_OBJ_ARRAY_DUMP);
+			writeId(id);
+			segment.writeInt(0);
+			segment.writeInt(elements.length);
+			writeId(objArrayClassId);
+			for (long element : elements) {
+				writeId(element);
+			}
+			numObjects++;
+			return id;
+		}
+		case 3: {
+			long key = writeString("key-" + random.nextInt(100));
+			long id = nextId();
+			startSubRecord(HprofReader.HPROF_GC_INSTANCE_DUMP);
+			writeId(id);
+			segment.writeInt(0);
+			writeId(entryClassId);
+			segment.writeInt(2 * idSize);
+			writeId(key);
+			writeId(0);
+			numObjects++;
+			return id;
+		}
+		default: {
+			char[] chars = new char[random.nextInt(20)];
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = (char) ('a' + random.nextInt(3));
+			}
+			byte[] data = new byte[chars.length * 2];
+			for (int i = 0; i < chars.length; i++) {
+				data[2 * i] = (byte) (chars[i] >> 8);
+				data[2 * i + 1] = (byte) chars[i];
+			}
+			return writePrimitiveArray(T_CHAR, data);
+		}
+		}
+	}
+
+	private long writeString(String value) throws IOException {
+		long valueId = writePrimitiveArray(T_BYTE, value.getBytes(StandardCharsets.ISO_8859_1));
+		long id = nextId();
+		startSubRecord(HprofReader.HPROF_GC_INSTANCE_DUMP);
+		writeId(id);
+		segment.writeInt(0);
+		writeId(stringClassId);
+		segment.writeInt(idSize + 1 + 4);
+		writeId(valueId);
+		segment.writeByte(0);
+		segment.writeInt(0);
+		numObjects++;
+		return id;
+	}
+
+	private long writePrimitiveArray(int type, byte[] data) throws IOException {
+		int elementSize = type == T_BYTE ? 1 : type == T_CHAR ? 2 : 4;
+		long id = nextId();
+		startSubRecord(HprofReader.HPROF_GC_PRIM_ARRAY_DUMP);
+		writeId(id);
+		segment.writeInt(0);
+		segment.writeInt(data.length / elementSize);
+		segment.writeByte(type);
+		segment.write(data);
+		numObjects++;
+		return id;
+	}
+
+	/**
+	 * Writes the UTF8 and LOAD_CLASS records for a class, and the class dump itself. Fields are given
+	 * as pairs of name and type code.
+	 */
+	private long writeClass(String name, long superId, Object ... fields) throws IOException {
+		long id = nextId();
+		long nameId = writeUtf8(name);
+		out.writeByte(HprofReader.HPROF_LOAD_CLASS);
+		out.writeInt(0);
+		out.writeInt(4 + idSize + 4 + idSize);
+		out.writeInt(nextClassSerial++);
+		writeId(out, id);
+		out.writeInt(0);
+		writeId(out, nameId);
+
+		long[] fieldNameIds = new long[fields.length / 2];
+		int instanceSize = 0;
+		for (int i = 0; i < fieldNameIds.length; i++) {
+			fieldNameIds[i] = writeUtf8((String) fields[2 * i]);
+			int type = (Integer) fields[2 * i + 1];
+			instanceSize += type == T_OBJECT ? idSize : type == T_BYTE || type == T_BOOLEAN ? 1 : 4;
+		}
+
+		startSubRecord(HprofReader.HPROF_GC_CLASS_DUMP);
+		writeId(id);
+		segment.writeInt(0);
+		writeId(superId);
+		for (int i = 0; i < 5; i++) {
+			writeId(0); // Class loader, signers, protection domain, reserved
+		}
+		segment.writeInt(instanceSize);
+		segment.writeShort(0); // Constant pool
+		segment.writeShort(0); // Static fields
+		segment.writeShort(fieldNameIds.length);
+		for (int i = 0; i < fieldNameIds.length; i++) {
+			writeId(fieldNameIds[i]);
+			segment.writeByte((Integer) fields[2 * i + 1]);
+		}
+		startSubRecord(HprofReader.HPROF_GC_ROOT_STICKY_CLASS);
+		writeId(id);
+		return id;
+	}
+
+	private long writeUtf8(String s) throws IOException {
+		long id = nextId();
+		byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+		out.writeByte(HprofReader.HPROF_UTF8);
+		out.writeInt(0);
+		out.writeInt(idSize + utf8.length);
+		writeId(out, id);
+		out.write(utf8);
+		return id;
+	}
+
+	/**
+	 * Called before each heap dump sub-record. Starts a new segment if the current one is full.
+	 */
+	private void startSubRecord(int type) throws IOException {
+		if (segmentBytes.size() >= maxSegmentSize) {
+			flushSegment();
+		}
+		segment.writeByte(type);
+	}
+
+	private void flushSegment() throws IOException {
+		segment.flush();
+		if (segmentBytes.size() == 0) {
+			return;
+		}
+		out.writeByte(HprofReader.HPROF_HEAP_DUMP_SEGMENT);
+		out.writeInt(0);
+		out.writeInt(segmentBytes.size());
+		segmentBytes.writeTo(out);
+		segmentBytes.reset();
+	}
+
+	private long nextId() {
+		// Keep objects far apart, so that their sizes are never guessed from their addresses
+		long id = nextId;
+		nextId += 0x100;
+		return id;
+	}
+
+	private void writeId(long id) throws IOException {
+		writeId(segment, id);
+	}
+
+	private void writeId(DataOutputStream stream, long id) throws IOException {
+		if (idSize == 4) {
+			stream.writeInt((int) id);
+		} else {
+			stream.writeLong(id);
+		}
+	}
+}
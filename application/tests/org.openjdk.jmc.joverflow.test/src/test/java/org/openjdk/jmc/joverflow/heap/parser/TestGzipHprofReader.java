@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.heap.parser;
+
+import java.io.File;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openjdk.jmc.joverflow.heap.model.Snapshot;
+import org.openjdk.jmc.joverflow.util.VerboseOutputCollector;
+
+public class TestGzipHprofReader {
+	private static File dumpFile;
+	private static File gzipFile;
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		// Large enough for the gzip index to have several checkpoints
+		dumpFile = SyntheticHeapDump.createFile(8, 30000, 64 * 1024, false);
+		gzipFile = SyntheticHeapDump.createFile(8, 30000, 64 * 1024, true);
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		dumpFile.delete();
+		gzipFile.delete();
+	}
+
+	@Test
+	public void testSequential() throws Exception {
+		checkSameAsUncompressed(1);
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		checkSameAsUncompressed(4);
+	}
+
+	private static void checkSameAsUncompressed(int numThreads) throws Exception {
+		String expected = describe(dumpFile, numThreads);
+
+		VerboseOutputCollector vc = new VerboseOutputCollector();
+		HeapDumpReader reader = HeapDumpReader.createReader(
+				new ReadBuffer.CachedReadBufferFactory(gzipFile.getPath(), 0), 0, vc, numThreads);
+		Snapshot snapshot = reader.read();
+		try {
+			Assert.assertEquals(100, reader.getProgressPercentage());
+			Assert.assertEquals(expected, SyntheticHeapDump.describe(snapshot));
+			// Objects must still be read from the uncompressed data, through the same index
+			snapshot.resetReadBuffer(new ReadBuffer.CachedReadBufferFactory(gzipFile.getPath(), 1024 * 1024));
+			Assert.assertEquals(expected, SyntheticHeapDump.describe(snapshot));
+		} finally {
+			snapshot.discard();
+		}
+	}
+
+	private static String describe(File file, int numThreads) throws Exception {
+		Snapshot snapshot = HeapDumpReader.createReader(new ReadBuffer.CachedReadBufferFactory(file.getPath(), 0), 0,
+				new VerboseOutputCollector(), numThreads).read();
+		try {
+			return SyntheticHeapDump.describe(snapshot);
+		} finally {
+			snapshot.discard();
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.heap.parser;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestGzipIndex {
+
+	@Test
+	public void testRandomAccess() throws Exception {
+		Random random = new Random(42);
+		byte[] data = new byte[5 * GzipIndex.SPAN + 12345];
+		// Somewhat compressible data, so that all kinds of codes are used
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (i > 100 && random.nextInt(4) == 0) ? data[i - 1 - random.nextInt(100)]
+					: (byte) ('a' + random.nextInt(20));
+		}
+
+		File file = File.createTempFile("TestGzipIndex", ".hprof.gz");
+		try {
+			// Several members, one of which has only stored blocks
+			int split1 = data.length / 3, split2 = split1 + 100000;
+			try (OutputStream out = new FileOutputStream(file)) {
+				writeMember(out, data, 0, split1, Deflater.DEFAULT_COMPRESSION);
+				writeMember(out, data, split1, split2, Deflater.NO_COMPRESSION);
+				writeMember(out, data, split2, data.length, Deflater.BEST_COMPRESSION);
+			}
+			Assert.assertTrue(GzipIndex.isGzipFile(file));
+
+			GzipIndex index = new GzipIndex(file);
+			try {
+				index.build();
+				Assert.assertEquals(data.length, index.getUncompressedSize());
+				Assert.assertEquals(100, index.getBuildProgressPercentage());
+
+				byte[] buf = new byte[10000];
+				for (int i = 0; i < 200; i++) {
+					int pos = random.nextInt(data.length - buf.length);
+					int len = 1 + random.nextInt(buf.length);
+					index.get(pos, buf, 0, len);
+					Assert.assertArrayEquals(Arrays.copyOfRange(data, pos, pos + len), Arrays.copyOf(buf, len));
+				}
+
+				int pos = data.length - 3 * GzipIndex.SPAN / 2;
+				try (InputStream in = index.openStream(pos)) {
+					for (int i = pos; i < data.length; i++) {
+						Assert.assertEquals(data[i] & 0xFF, in.read());
+					}
+					Assert.assertEquals(-1, in.read());
+				}
+			} finally {
+				index.close();
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static void writeMember(OutputStream out, byte[] data, int from, int to, final int level)
+			throws IOException {
+		GZIPOutputStream gzipOut = new GZIPOutputStream(out) {
+			{
+				def.setLevel(level);
+			}
+
+			@Override
+			public void close() throws IOException {
+				finish();
+			}
+		};
+		gzipOut.write(data, from, to - from);
+		gzipOut.close();
+	}
+}
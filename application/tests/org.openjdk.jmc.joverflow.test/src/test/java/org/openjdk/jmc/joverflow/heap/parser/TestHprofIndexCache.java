@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.heap.parser;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openjdk.jmc.joverflow.heap.model.Snapshot;
+import org.openjdk.jmc.joverflow.util.VerboseOutputCollector;
+
+public class TestHprofIndexCache {
+	private File dumpFile;
+	private File cacheDir;
+
+	@Before
+	public void setUp() throws IOException {
+		byte[] image = SyntheticHeapDump.create(8, 10000, 64 * 1024);
+		dumpFile = File.createTempFile("TestHprofIndexCache", ".hprof");
+		try (OutputStream out = new FileOutputStream(dumpFile)) {
+			// Insert a record of unknown type right after the file header. It results in a warning
+			// when the dump is parsed
+			int headerSize = "JAVA PROFILE 1.0.2\0".length() + 4 + 8;
+			out.write(image, 0, headerSize);
+			out.write(new byte[] {0x55, 0, 0, 0, 0, 0, 0, 0, 0});
+			out.write(image, headerSize, image.length - headerSize);
+		}
+		cacheDir = Files.createTempDirectory("TestHprofIndexCache").toFile();
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : cacheDir.listFiles()) {
+			file.delete();
+		}
+		cacheDir.delete();
+		dumpFile.delete();
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		VerboseOutputCollector parseVc = new VerboseOutputCollector();
+		String parsed = read(0, parseVc);
+		Assert.assertFalse(usedIndex(parseVc));
+		Assert.assertEquals(1, cacheDir.listFiles().length);
+		Assert.assertEquals(1, parseVc.getWarnings().size());
+
+		VerboseOutputCollector loadVc = new VerboseOutputCollector();
+		String loaded = read(0, loadVc);
+		Assert.assertTrue(usedIndex(loadVc));
+		Assert.assertEquals(parsed, loaded);
+		Assert.assertEquals(parseVc.getWarnings(), loadVc.getWarnings());
+		Assert.assertEquals(parseVc.getWarningKinds(), loadVc.getWarningKinds());
+	}
+
+	@Test
+	public void testExplicitPointerSize() throws Exception {
+		VerboseOutputCollector vc = new VerboseOutputCollector();
+		String defaultPointerSize = read(0, vc);
+		Assert.assertTrue(defaultPointerSize.startsWith("Pointer size: 4,"));
+
+		// The index written for the default pointer size should not be used
+		vc = new VerboseOutputCollector();
+		String explicitPointerSize = read(8, vc);
+		Assert.assertFalse(usedIndex(vc));
+		Assert.assertTrue(explicitPointerSize.startsWith("Pointer size: 8,"));
+		Assert.assertEquals(2, cacheDir.listFiles().length);
+
+		vc = new VerboseOutputCollector();
+		Assert.assertEquals(explicitPointerSize, read(8, vc));
+		Assert.assertTrue(usedIndex(vc));
+		vc = new VerboseOutputCollector();
+		Assert.assertEquals(defaultPointerSize, read(0, vc));
+		Assert.assertTrue(usedIndex(vc));
+	}
+
+	private String read(int explicitPointerSize, VerboseOutputCollector vc) throws Exception {
+		HeapDumpReader reader = HeapDumpReader.createReader(
+				new ReadBuffer.CachedReadBufferFactory(dumpFile.getPath(), 0), explicitPointerSize, vc);
+		reader.setIndexCacheDirectory(cacheDir);
+		Snapshot snapshot = reader.read();
+		try {
+			return SyntheticHeapDump.describe(snapshot);
+		} finally {
+			snapshot.discard();
+		}
+	}
+
+	private static boolean usedIndex(VerboseOutputCollector vc) {
+		return vc.getDebugInfo().stream().anyMatch(s -> s.startsWith("Read heap dump index"));
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.heap.parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmc.joverflow.heap.model.Snapshot;
+import org.openjdk.jmc.joverflow.util.VerboseOutputCollector;
+
+public class TestParallelHprofReader {
+
+	@Test
+	public void testManySmallSegments() throws Exception {
+		checkSameAsSequential(SyntheticHeapDump.create(8, 20000, 16 * 1024));
+	}
+
+	@Test
+	public void testSegmentsLargerThanShardBlock() throws Exception {
+		// Each segment has several times more sub-records than fit in a shard block
+		checkSameAsSequential(SyntheticHeapDump.create(4, 100000, 4 * 1024 * 1024));
+	}
+
+	private static void checkSameAsSequential(byte[] image) throws Exception {
+		VerboseOutputCollector sequentialVc = new VerboseOutputCollector();
+		String sequential = read(image, 1, sequentialVc);
+		for (int numThreads : new int[] {2, 4}) {
+			VerboseOutputCollector parallelVc = new VerboseOutputCollector();
+			Assert.assertEquals(sequential, read(image, numThreads, parallelVc));
+			Assert.assertEquals(sequentialVc.getWarnings(), parallelVc.getWarnings());
+			Assert.assertTrue(parallelVc.getDebugInfo().stream().anyMatch(s -> s.startsWith("Parsing ")));
+		}
+	}
+
+	private static String read(byte[] image, int numThreads, VerboseOutputCollector vc) throws Exception {
+		Snapshot snapshot = HeapDumpReader
+				.createReader(new ReadBuffer.ByteArrayBufferFactory(image), 0, vc, numThreads).read();
+		try {
+			return SyntheticHeapDump.describe(snapshot);
+		} finally {
+			snapshot.discard();
+		}
+	}
+}
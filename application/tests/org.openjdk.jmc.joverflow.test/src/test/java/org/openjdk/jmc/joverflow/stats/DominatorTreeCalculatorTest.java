@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.stats;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class DominatorTreeCalculatorTest {
+
+	/**
+	 * Builds successor arrays from adjacency lists and calculates dominators. Retained sizes are
+	 * written to sizes.
+	 */
+	private static int[] calculate(int[][] adj, long[] sizes) {
+		int[] succStart = new int[adj.length + 1];
+		int numEdges = 0;
+		for (int i = 0; i < adj.length; i++) {
+			succStart[i] = numEdges;
+			numEdges += adj[i].length;
+		}
+		succStart[adj.length] = numEdges;
+		int[] succ = new int[numEdges];
+		for (int i = 0; i < adj.length; i++) {
+			System.arraycopy(adj[i], 0, succ, succStart[i], adj[i].length);
+		}
+		return DominatorTreeCalculator.calculateDominators(adj.length, succStart, succ, numEdges, sizes);
+	}
+
+	@Test
+	public void testDiamond() {
+		// 0 -> 1 -> {2, 3} -> 4
+		int[][] adj = {{1}, {2, 3}, {4}, {4}, {}};
+		long[] sizes = {0, 10, 20, 30, 40};
+		int[] idom = calculate(adj, sizes);
+		assertArrayEquals(new int[] {-1, 0, 1, 1, 1}, idom);
+		assertArrayEquals(new long[] {100, 100, 20, 30, 40}, sizes);
+	}
+
+	@Test
+	public void testLongChain() {
+		// A chain long enough to overflow the stack if any part of the algorithm were recursive
+		int n = 1_000_000;
+		int[][] adj = new int[n][];
+		long[] sizes = new long[n];
+		for (int i = 0; i < n - 1; i++) {
+			adj[i] = new int[] {i + 1};
+			sizes[i] = 1;
+		}
+		adj[n - 1] = new int[] {1};
+		sizes[n - 1] = 1;
+		int[] idom = calculate(adj, sizes);
+		assertEquals(n - 2, idom[n - 1]);
+		assertEquals(n, sizes[0]);
+		assertEquals(n - 1, sizes[1]);
+	}
+
+	@Test
+	public void testCrossEdgeBypassesDominator() {
+		// 0 -> 1 -> 2 -> 3, and 0 -> 4 -> 3: only the root dominates 3
+		int[][] adj = {{1, 4}, {2}, {3}, {}, {3}};
+		long[] sizes = {0, 1, 2, 4, 8};
+		int[] idom = calculate(adj, sizes);
+		assertArrayEquals(new int[] {-1, 0, 1, 0, 0}, idom);
+		assertArrayEquals(new long[] {15, 3, 2, 4, 8}, sizes);
+	}
+
+	@Test
+	public void testUnreachableNodesAttachedToRoot() {
+		// 2 is not reachable from the root, and is the only referrer of 3. 1 is referenced by both
+		// the root and 2.
+		int[][] adj = {{1}, {}, {1, 3}, {}};
+		long[] sizes = {0, 1, 2, 4};
+		int[] idom = calculate(adj, sizes);
+		assertArrayEquals(new int[] {-1, 0, 0, 2}, idom);
+		assertArrayEquals(new long[] {7, 1, 6, 4}, sizes);
+	}
+}
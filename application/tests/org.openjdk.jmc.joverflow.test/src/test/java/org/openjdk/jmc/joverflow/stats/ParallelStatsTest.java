@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.stats;
+
+import java.io.File;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.util.Collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmc.joverflow.heap.model.JavaClass;
+import org.openjdk.jmc.joverflow.heap.model.JavaHeapObject;
+import org.openjdk.jmc.joverflow.heap.model.Snapshot;
+import org.openjdk.jmc.joverflow.heap.parser.HeapDumpReader;
+import org.openjdk.jmc.joverflow.heap.parser.ReadBuffer;
+import org.openjdk.jmc.joverflow.heap.parser.SyntheticHeapDump;
+import org.openjdk.jmc.joverflow.support.HeapStats;
+import org.openjdk.jmc.joverflow.util.ObjectToIntMap;
+import org.openjdk.jmc.joverflow.util.VerboseOutputCollector;
+
+/**
+ * Checks that the overall stats calculated using several threads are exactly the same as the stats
+ * calculated in a single thread, including the ids assigned to duplicate strings and arrays.
+ */
+public class ParallelStatsTest {
+
+	@Test
+	public void testParallelStatsSameAsSequential() throws Exception {
+		// Enough objects for several partitions
+		byte[] image = SyntheticHeapDump.create(4, 150000, 1 << 20);
+
+		String sequentialStats = calculateStats(image, 1);
+		Assert.assertEquals(sequentialStats, calculateStats(image, 2));
+		Assert.assertEquals(sequentialStats, calculateStats(image, 4));
+	}
+
+	@Test
+	public void testParallelStatsFromCachedFile() throws Exception {
+		byte[] image = SyntheticHeapDump.create(4, 150000, 1 << 20);
+		File file = File.createTempFile("ParallelStatsTest", ".hprof");
+		try {
+			Files.write(file.toPath(), image);
+			// A small shared cache, while each scanner thread reads through a cache of its own
+			ReadBuffer.Factory cached = new ReadBuffer.CachedReadBufferFactory(file.getPath(), 1024 * 1024);
+			Assert.assertEquals(calculateStats(new ReadBuffer.ByteArrayBufferFactory(image), 1),
+					calculateStats(cached, 4));
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static String calculateStats(byte[] image, int numThreads) throws Exception {
+		return calculateStats(new ReadBuffer.ByteArrayBufferFactory(image), numThreads);
+	}
+
+	private static String calculateStats(ReadBuffer.Factory bufFactory, int numThreads) throws Exception {
+		Snapshot snapshot = HeapDumpReader.createReader(bufFactory, 0, new VerboseOutputCollector()).read();
+		try {
+			Assert.assertTrue(snapshot.getObjectPartitions().size() > 1);
+
+			HeapStats hs = new OverallStatsCalculator(snapshot, numThreads).calculate();
+			Assert.assertTrue(hs.dupStringStats.nUniqueDupStringValues > 0);
+			Assert.assertTrue(hs.dupArrayStats.nDifferentDupArrayValues > 0);
+
+			StringBuilder result = new StringBuilder();
+			// Classloader stats are calculated after the scan, and contain maps keyed by objects
+			describe(hs, "classloaderStats", result);
+			for (JavaClass clazz : snapshot.getClasses()) {
+				result.append(clazz.getName()).append(": ").append(clazz.getNumInstances()).append(", ")
+						.append(clazz.getTotalShallowInstanceSize()).append('\n');
+			}
+			return result.toString();
+		} finally {
+			snapshot.discard();
+		}
+	}
+
+	/**
+	 * Appends the values of all fields of the given stats object to the result, except for the one
+	 * with the given name. Objects in the heap dump are described by their global index.
+	 */
+	private static void describe(Object obj, String skippedField, StringBuilder result) throws Exception {
+		if (obj == null || obj instanceof Number || obj instanceof Boolean || obj instanceof String) {
+			result.append(obj);
+		} else if (obj instanceof JavaHeapObject) {
+			result.append('#').append(((JavaHeapObject) obj).getGlobalObjectIndex());
+		} else if (obj.getClass().isArray()) {
+			result.append('[');
+			for (int i = 0; i < Array.getLength(obj); i++) {
+				describe(Array.get(obj, i), null, result);
+				result.append(", ");
+			}
+			result.append(']');
+		} else if (obj instanceof Collection) {
+			result.append('[');
+			for (Object element : (Collection<?>) obj) {
+				describe(element, null, result);
+				result.append(", ");
+			}
+			result.append(']');
+		} else if (obj instanceof ObjectToIntMap.Entry || obj.getClass().getPackage() == HeapStats.class.getPackage()
+				|| obj.getClass().getPackage() == LengthHistogram.class.getPackage()) {
+			result.append('{');
+			for (Class<?> c = obj.getClass(); c != Object.class; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (Modifier.isStatic(field.getModifiers()) || field.getName().equals(skippedField)) {
+						continue;
+					}
+					field.setAccessible(true);
+					result.append(field.getName()).append('=');
+					describe(field.get(obj), null, result);
+					result.append("; ");
+				}
+			}
+			result.append("}\n");
+		} else {
+			Assert.fail("Don't know how to describe " + obj.getClass());
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.joverflow.util;
+
+import java.io.File;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ */
+public class TestIndexFile {
+
+	@Test
+	public void testMapsRoundTrip() throws Exception {
+		Random random = new Random(123);
+		int size = 100000;
+		long[] keys = new long[size];
+		IntToIntMap intMap = new IntToIntMap(1000);
+		LongToIntMap longMap = new LongToIntMap(1000);
+		for (int i = 0; i < size; i++) {
+			keys[i] = ((long) i) << 3;
+			intMap.put(keys[i], i);
+			longMap.put(random.nextLong(), i);
+		}
+
+		File file = File.createTempFile("TestIndexFile", ".idx");
+		try {
+			try (IndexFileOutput out = new IndexFileOutput(file)) {
+				out.writeString("maps");
+				intMap.writeTo(out);
+				longMap.writeTo(out);
+				out.writeString(null);
+			}
+
+			IntToIntMap restoredIntMap = new IntToIntMap(0);
+			LongToIntMap restoredLongMap = new LongToIntMap(0);
+			try (IndexFileInput in = new IndexFileInput(file)) {
+				Assert.assertEquals("maps", in.readString());
+				restoredIntMap.readFrom(in);
+				restoredLongMap.readFrom(in);
+				Assert.assertNull(in.readString());
+			}
+
+			Assert.assertEquals(size, restoredIntMap.size());
+			Assert.assertEquals(size, restoredLongMap.size());
+			for (int i = 0; i < size; i++) {
+				Assert.assertEquals(i, restoredIntMap.get(keys[i]));
+			}
+			random = new Random(123);
+			for (int i = 0; i < size; i++) {
+				Assert.assertEquals(i, restoredLongMap.get(random.nextLong()));
+			}
+			Assert.assertEquals(-1, restoredIntMap.get(((long) size) << 3));
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -32,6 +32,7 @@
  */
 package org.openjdk.jmc.rjmx.test.subscription;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -41,12 +42,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
 import org.openjdk.jmc.rjmx.common.IConnectionHandle;
 import org.openjdk.jmc.rjmx.common.subscription.MRI;
 import org.openjdk.jmc.rjmx.common.subscription.MRI.Type;
 import org.openjdk.jmc.rjmx.common.subscription.internal.AttributeValueToolkit;
+import org.openjdk.jmc.rjmx.common.subscription.internal.ConcurrentAttributeFetcher;
 import org.openjdk.jmc.rjmx.test.RjmxTestCase;
 import org.openjdk.jmc.rjmx.test.internal.RJMXConnectionTest;
 
@@ -100,6 +104,26 @@ public class AttributeValueTest extends RjmxTestCase {
 		}
 	}
 
+	@Test
+	public void testGetAttributesConcurrently() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<MRI> fetchList = new ArrayList<>(createCommonAttributesList(m_connectionHandle));
+			fetchList.add(new MRI(Type.ATTRIBUTE, "java.lang:type=Threading", "ThreadCount"));
+			fetchList.add(new MRI(Type.ATTRIBUTE, "java.lang:type=ClassLoading", "LoadedClassCount"));
+			Map<MRI, Object> sequentialResults = AttributeValueToolkit.getAttributes(getMBeanServerConnection(),
+					fetchList);
+			Map<MRI, Object> concurrentResults = new ConcurrentAttributeFetcher(getMBeanServerConnection(), executor,
+					10000).getAttributes(fetchList);
+			assertEquals(sequentialResults.keySet(), concurrentResults.keySet());
+			assertEquals(fetchList.size(), concurrentResults.size());
+		} catch (Exception e) {
+			fail(e.getMessage());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 	/**
 	 * Creates a fetchMap for getting a few attributes (CLASS_LOADING and OS)
 	 *
@@ -79,6 +79,12 @@ public final class IOToolkit {
 	 */
 	private static final int MAGIC_LZ4[] = new int[] {4, 34, 77, 24};
 
+	/**
+	 * Buffer size used when decompressing GZip data. The default size of 512 bytes makes the
+	 * inflater spend a lot of time on small reads.
+	 */
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
 	private IOToolkit() {
 		throw new Error("Don't"); //$NON-NLS-1$
 	}
@@ -115,7 +121,7 @@ public final class IOToolkit {
 		try {
 			InputStream in = new BufferedInputStream(fin);
 			if (hasMagic(file, MAGIC_GZ)) {
-				return new GZIPInputStream(in);
+				return new GZIPInputStream(in, GZIP_BUFFER_SIZE);
 			} else if (hasMagic(file, MAGIC_ZIP)) {
 				ZipInputStream zin = new ZipInputStream(in);
 				zin.getNextEntry();
@@ -151,7 +157,7 @@ public final class IOToolkit {
 		in.mark(MAGIC_GZ.length + 1);
 		if (hasMagic(in, MAGIC_GZ)) {
 			in.reset();
-			return new GZIPInputStream(in);
+			return new GZIPInputStream(in, GZIP_BUFFER_SIZE);
 		}
 		in.reset();
 		in.mark(MAGIC_ZIP.length + 1);
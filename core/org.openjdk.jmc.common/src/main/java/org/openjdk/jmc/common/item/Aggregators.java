@@ -165,14 +165,14 @@ public class Aggregators {
 
 		@Override
 		public SumConsumer merge(SumConsumer other) {
-			// FIXME: Should we create a new instance, or is it OK to modify consumers like this?
-			if (unit != null) {
-				if (other.unit != null) {
-					sum += other.unit.valueTransformTo(unit).targetValue(other.sum);
-				}
-				return this;
+			// Always merge into this consumer, so that other can still be used and merged elsewhere
+			if (unit == null) {
+				unit = other.unit;
+				sum = other.sum;
+			} else if (other.unit != null) {
+				sum += other.unit.valueTransformTo(unit).targetValue(other.sum);
 			}
-			return other;
+			return this;
 		}
 
 	}
@@ -307,9 +307,10 @@ public class Aggregators {
 					M2 = otherM2 + M2 + deltaMean * deltaMean * (other.n * n / (double) (n + other.n));
 					n += other.n;
 				}
-				return this;
+			} else {
+				n += other.n;
 			}
-			return other;
+			return this;
 		}
 	}
 
@@ -348,9 +349,10 @@ public class Aggregators {
 					sum += other.unit.valueTransformTo(unit).targetValue(other.sum);
 					count += other.count;
 				}
-				return this;
+			} else {
+				count += other.count;
 			}
-			return other;
+			return this;
 		}
 
 	}
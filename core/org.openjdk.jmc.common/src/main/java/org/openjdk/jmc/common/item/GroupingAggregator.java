@@ -35,8 +35,11 @@ package org.openjdk.jmc.common.item;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 
 import org.openjdk.jmc.common.collection.EntryHashMap;
@@ -53,6 +56,25 @@ public class GroupingAggregator {
 		G getConsumer();
 	}
 
+	/**
+	 * A group from an aggregator built with
+	 * {@link GroupingAggregator#buildTopN(String, String, IAccessorFactory, IItemConsumerFactory, Predicate, int, IGroupsFinisher)
+	 * buildTopN}. The count is an estimate that may be too high, but never by more than the max
+	 * error. The consumer has only seen the items of the group that were counted after the group
+	 * last entered the set of tracked groups.
+	 */
+	public interface CountedGroupEntry<K, G> extends GroupEntry<K, G> {
+		/**
+		 * @return the estimated number of items in the group
+		 */
+		long getCount();
+
+		/**
+		 * @return the maximum number of items that may have been wrongly counted for this group
+		 */
+		long getMaxError();
+	}
+
 	public interface IGroupsFinisher<V, K, G> {
 		IType<? super V> getValueType();
 
@@ -131,6 +153,240 @@ public class GroupingAggregator {
 		}
 	}
 
+	private static class TopNEntry<K, G> implements CountedGroupEntry<K, G> {
+		private K key;
+		private G consumer;
+		private long count;
+		private long error;
+		private int heapIndex;
+
+		TopNEntry(K key, G consumer, long count, long error) {
+			this.key = key;
+			this.consumer = consumer;
+			this.count = count;
+			this.error = error;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public G getConsumer() {
+			return consumer;
+		}
+
+		@Override
+		public long getCount() {
+			return count;
+		}
+
+		@Override
+		public long getMaxError() {
+			return error;
+		}
+	}
+
+	/**
+	 * Keeps track of the approximately most common keys using the Space-Saving algorithm. At most
+	 * {@code maxGroups} groups are kept. When a key that is not tracked shows up and all groups are
+	 * taken, the group with the lowest count is replaced by a group for the new key, inheriting the
+	 * count as its max error. Any key that occurs more than {@code n / maxGroups} times out of
+	 * {@code n} items is guaranteed to be tracked.
+	 */
+	private static class TopNGroupingConsumer<K, G extends IItemConsumer<G>>
+			implements IItemConsumer<TopNGroupingConsumer<K, G>> {
+
+		private final Map<K, TopNEntry<K, G>> map = new HashMap<>();
+		// Min heap on count
+		private final TopNEntry<K, G>[] heap;
+		private int size;
+		private final IMemberAccessor<? extends K, IItem> keyAccessor;
+		private final IItemConsumerFactory<G> groupAggregator;
+		private IType<IItem> type;
+
+		@SuppressWarnings("unchecked")
+		private TopNGroupingConsumer(IMemberAccessor<? extends K, IItem> keyAccessor,
+				IItemConsumerFactory<G> groupAggregator, int maxGroups) {
+			this.keyAccessor = keyAccessor;
+			this.groupAggregator = groupAggregator;
+			heap = new TopNEntry[maxGroups];
+		}
+
+		@Override
+		public void consume(IItem item) {
+			K key = keyAccessor.getMember(item);
+			if (key == null) {
+				return;
+			}
+			TopNEntry<K, G> entry = map.get(key);
+			if (entry != null) {
+				entry.count++;
+				siftDown(entry.heapIndex);
+			} else {
+				if (type == null) {
+					type = ItemToolkit.getItemType(item);
+				}
+				if (size < heap.length) {
+					entry = new TopNEntry<>(key, groupAggregator.newItemConsumer(type), 1, 0);
+					entry.heapIndex = size;
+					heap[size++] = entry;
+					siftUp(entry.heapIndex);
+				} else {
+					entry = heap[0];
+					map.remove(entry.key);
+					entry.key = key;
+					entry.consumer = groupAggregator.newItemConsumer(type);
+					entry.error = entry.count;
+					entry.count++;
+					siftDown(0);
+				}
+				map.put(key, entry);
+			}
+			entry.consumer.consume(item);
+		}
+
+		private long getMinCount() {
+			return size < heap.length ? 0 : heap[0].count;
+		}
+
+		@Override
+		public TopNGroupingConsumer<K, G> merge(TopNGroupingConsumer<K, G> other) {
+			if (other == null || other.size == 0) {
+				return this;
+			} else if (size == 0) {
+				return other;
+			}
+			/*
+			 * A key missing from one of the summaries may have been counted up to the min count of
+			 * that summary before being replaced, so that is added to both its count and max error.
+			 */
+			long minCount = getMinCount();
+			long otherMinCount = other.getMinCount();
+			List<TopNEntry<K, G>> entries = new ArrayList<>(size + other.size);
+			for (int i = 0; i < size; i++) {
+				TopNEntry<K, G> entry = heap[i];
+				TopNEntry<K, G> otherEntry = other.map.get(entry.key);
+				if (otherEntry != null) {
+					entry.count += otherEntry.count;
+					entry.error += otherEntry.error;
+					entry.consumer = entry.consumer.merge(otherEntry.consumer);
+				} else {
+					entry.count += otherMinCount;
+					entry.error += otherMinCount;
+				}
+				entries.add(entry);
+			}
+			for (int i = 0; i < other.size; i++) {
+				TopNEntry<K, G> otherEntry = other.heap[i];
+				if (!map.containsKey(otherEntry.key)) {
+					otherEntry.count += minCount;
+					otherEntry.error += minCount;
+					entries.add(otherEntry);
+				}
+			}
+			entries.sort(Comparator.comparingLong((TopNEntry<K, G> e) -> e.count).reversed());
+			map.clear();
+			size = Math.min(entries.size(), heap.length);
+			for (int i = 0; i < size; i++) {
+				TopNEntry<K, G> entry = entries.get(size - 1 - i);
+				entry.heapIndex = i;
+				heap[i] = entry;
+				map.put(entry.key, entry);
+			}
+			if (type == null) {
+				type = other.type;
+			}
+			return this;
+		}
+
+		private void siftUp(int index) {
+			TopNEntry<K, G> entry = heap[index];
+			while (index > 0) {
+				int parent = (index - 1) >>> 1;
+				if (heap[parent].count <= entry.count) {
+					break;
+				}
+				place(heap[parent], index);
+				index = parent;
+			}
+			place(entry, index);
+		}
+
+		private void siftDown(int index) {
+			TopNEntry<K, G> entry = heap[index];
+			while (true) {
+				int child = 2 * index + 1;
+				if (child >= size) {
+					break;
+				}
+				if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+					child++;
+				}
+				if (entry.count <= heap[child].count) {
+					break;
+				}
+				place(heap[child], index);
+				index = child;
+			}
+			place(entry, index);
+		}
+
+		private void place(TopNEntry<K, G> entry, int index) {
+			heap[index] = entry;
+			entry.heapIndex = index;
+		}
+
+		/**
+		 * @return the groups, with the highest count first
+		 */
+		List<TopNEntry<K, G>> getGroups() {
+			List<TopNEntry<K, G>> groups = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				groups.add(heap[i]);
+			}
+			groups.sort(Comparator.comparingLong((TopNEntry<K, G> e) -> e.count).reversed());
+			return groups;
+		}
+	}
+
+	private static class TopNGroupingAggregatorImpl<V, K, G extends IItemConsumer<G>>
+			extends MergingAggregator<V, TopNGroupingConsumer<K, G>> {
+
+		private final IGroupsFinisher<V, K, G> groupsFinisher;
+		private final IAccessorFactory<K> keyField;
+		private final IItemConsumerFactory<G> consumerFactory;
+		private final Predicate<IType<IItem>> acceptType;
+		private final int maxGroups;
+
+		TopNGroupingAggregatorImpl(String name, String description, IAccessorFactory<K> keyField,
+				IItemConsumerFactory<G> consumerFactory, Predicate<IType<IItem>> acceptType, int maxGroups,
+				IGroupsFinisher<V, K, G> groupsFinisher) {
+			super(name, description, groupsFinisher.getValueType());
+			this.consumerFactory = consumerFactory;
+			this.acceptType = acceptType;
+			this.keyField = keyField;
+			this.maxGroups = maxGroups;
+			this.groupsFinisher = groupsFinisher;
+		}
+
+		@Override
+		public boolean acceptType(IType<IItem> type) {
+			return keyField.getAccessor(type) != null && acceptType.test(type);
+		}
+
+		@Override
+		public TopNGroupingConsumer<K, G> newItemConsumer(IType<IItem> type) {
+			return new TopNGroupingConsumer<>(keyField.getAccessor(type), consumerFactory, maxGroups);
+		}
+
+		@Override
+		public V getValue(TopNGroupingConsumer<K, G> consumer) {
+			return groupsFinisher.getValue(consumer.getGroups());
+		}
+	}
+
 	private static class GroupingAggregatorImpl<V, K, G extends IItemConsumer<G>>
 			extends MergingAggregator<V, GroupingConsumer<K, G>> {
 
@@ -236,6 +492,56 @@ public class GroupingAggregator {
 		});
 	}
 
+	/**
+	 * Build an aggregator that groups items by key like
+	 * {@link #build(String, String, IAccessorFactory, IItemConsumerFactory, Predicate, IGroupsFinisher)},
+	 * but only keeps track of the approximately {@code maxGroups} most common keys. Memory use is
+	 * bounded no matter how many distinct keys there are. The groups passed to the finisher are
+	 * {@link CountedGroupEntry} instances, sorted with the highest count first.
+	 * <p>
+	 * The most common keys are found reliably if {@code maxGroups} is a few times larger than the
+	 * number of keys that are of interest. The larger {@code maxGroups} is, the smaller the errors
+	 * in the counts are.
+	 *
+	 * @param maxGroups
+	 *            the maximum number of groups to keep track of
+	 */
+	public static <V, K, C extends IItemConsumer<C>> IAggregator<V, ?> buildTopN(
+		String name, String description, IAccessorFactory<K> keyField, IItemConsumerFactory<C> groupAggregator,
+		Predicate<IType<IItem>> acceptType, int maxGroups, IGroupsFinisher<V, K, C> finisher) {
+		if (maxGroups < 1) {
+			throw new IllegalArgumentException("maxGroups must be positive"); //$NON-NLS-1$
+		}
+		return new TopNGroupingAggregatorImpl<>(name, description, keyField, groupAggregator, acceptType, maxGroups,
+				finisher);
+	}
+
+	/**
+	 * Build an aggregator that returns approximately the {@code maxGroups} most common groups, as
+	 * {@link CountedGroupEntry} instances with the highest count first.
+	 *
+	 * @see #buildTopN(String, String, IAccessorFactory, IItemConsumerFactory, Predicate, int,
+	 *      IGroupsFinisher)
+	 */
+	public static <K, C extends IItemConsumer<C>> IAggregator<Iterable<? extends GroupEntry<K, C>>, ?> buildTopN(
+		String name, String description, IAccessorFactory<K> keyField, IItemConsumerFactory<C> groupAggregator,
+		Predicate<IType<IItem>> acceptType, int maxGroups) {
+		return buildTopN(name, description, keyField, groupAggregator, acceptType, maxGroups,
+				new IGroupsFinisher<Iterable<? extends GroupEntry<K, C>>, K, C>() {
+
+					@Override
+					public IType<Object> getValueType() {
+						return UnitLookup.UNKNOWN;
+					}
+
+					@Override
+					public Iterable<? extends GroupEntry<K, C>> getValue(Iterable<? extends GroupEntry<K, C>> groups) {
+						return groups;
+					}
+
+				});
+	}
+
 	public static <V, C extends IItemConsumer<C>> IAggregator<IQuantity, ?> buildMax(
 		String name, String description, IAccessorFactory<?> keyField, final IAggregator<IQuantity, C> aggregate) {
 		IQuantityListFinisher<IQuantity> gf = new IQuantityListFinisher<IQuantity>() {
@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.common.item;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IUnit;
+
+/**
+ * Item counts binned on one or two quantity attributes, typically time and some value. This is a
+ * compact summary of an item collection that can be used to render heatmaps without having to
+ * transfer every item to the renderer.
+ * <p>
+ * The first (x) dimension uses fixed size buckets starting at a multiple of the bucket size. The
+ * second (y) dimension, if any, divides the range between the smallest and largest value into a
+ * fixed number of buckets.
+ */
+public final class ItemCountMatrix {
+
+	/**
+	 * The maximum number of cells in a matrix. If needed, the x bucket size is increased by a whole
+	 * factor to stay within this limit.
+	 */
+	public static final int MAX_CELLS = 1 << 22;
+
+	private final IQuantity xStart;
+	private final IQuantity xBucketSize;
+	private final int xBucketCount;
+	private final IQuantity yStart;
+	private final IQuantity yBucketSize;
+	private final int yBucketCount;
+	private final long[] counts;
+
+	private ItemCountMatrix(IQuantity xStart, IQuantity xBucketSize, int xBucketCount, IQuantity yStart,
+			IQuantity yBucketSize, int yBucketCount, long[] counts) {
+		this.xStart = xStart;
+		this.xBucketSize = xBucketSize;
+		this.xBucketCount = xBucketCount;
+		this.yStart = yStart;
+		this.yBucketSize = yBucketSize;
+		this.yBucketCount = yBucketCount;
+		this.counts = counts;
+	}
+
+	/**
+	 * Count items in buckets along a single attribute.
+	 *
+	 * @param items
+	 *            the items to count
+	 * @param xAttribute
+	 *            the attribute to bin on, typically a timestamp
+	 * @param xBucketSize
+	 *            the preferred size of the buckets, must be positive
+	 * @param stopFlag
+	 *            checked while counting, the calculation is aborted if it returns {@code true}
+	 * @return the counts, or {@code null} if aborted
+	 */
+	public static ItemCountMatrix build(
+		IItemCollection items, IAttribute<IQuantity> xAttribute, IQuantity xBucketSize, BooleanSupplier stopFlag) {
+		return build(items, xAttribute, xBucketSize, null, 1, stopFlag);
+	}
+
+	/**
+	 * Count items in a grid of buckets along two attributes. Items that do not have a value for
+	 * both attributes are not counted.
+	 *
+	 * @param items
+	 *            the items to count
+	 * @param xAttribute
+	 *            the attribute for the first dimension, typically a timestamp
+	 * @param xBucketSize
+	 *            the preferred size of the buckets in the first dimension, must be positive
+	 * @param yAttribute
+	 *            the attribute for the second dimension, or {@code null} to only count on the first
+	 * @param yBucketCount
+	 *            the number of buckets in the second dimension
+	 * @param stopFlag
+	 *            checked while counting, the calculation is aborted if it returns {@code true}
+	 * @return the counts, or {@code null} if aborted
+	 */
+	public static ItemCountMatrix build(
+		IItemCollection items, IAttribute<IQuantity> xAttribute, IQuantity xBucketSize,
+		IAttribute<IQuantity> yAttribute, int yBucketCount, BooleanSupplier stopFlag) {
+		if (yAttribute == null) {
+			yBucketCount = 1;
+		}
+		if (yBucketCount < 1) {
+			throw new IllegalArgumentException("There must be at least one y bucket"); //$NON-NLS-1$
+		}
+		IQuantity xMin = items.getAggregate(Aggregators.min(xAttribute));
+		IQuantity xMax = items.getAggregate(Aggregators.max(xAttribute));
+		IQuantity yMin = null;
+		IQuantity yMax = null;
+		if (yAttribute != null) {
+			yMin = items.getAggregate(Aggregators.min(yAttribute));
+			yMax = items.getAggregate(Aggregators.max(yAttribute));
+		}
+		if (stopFlag.getAsBoolean()) {
+			return null;
+		}
+		if (xMin == null || (yAttribute != null && yMin == null)) {
+			return new ItemCountMatrix(null, xBucketSize, 0, null, null, yBucketCount, new long[0]);
+		}
+
+		IUnit xUnit = xMin.getUnit();
+		long bucketSize = Math.max(1, xBucketSize.clampedLongValueIn(xUnit.getDeltaUnit()));
+		long origin = Math.floorDiv(xMin.clampedFloorIn(xUnit), bucketSize) * bucketSize;
+		long extent = xMax.clampedFloorIn(xUnit) - origin;
+		int maxXBuckets = MAX_CELLS / yBucketCount;
+		if (extent / bucketSize >= maxXBuckets) {
+			bucketSize *= extent / bucketSize / maxXBuckets + 1;
+			origin = Math.floorDiv(xMin.clampedFloorIn(xUnit), bucketSize) * bucketSize;
+			extent = xMax.clampedFloorIn(xUnit) - origin;
+		}
+		int xBucketCount = (int) (extent / bucketSize) + 1;
+
+		IUnit yUnit = yMin != null ? yMin.getUnit() : null;
+		double yOrigin = yMin != null ? yMin.doubleValue() : 0;
+		double ySize = yMin != null ? (yMax.doubleValueIn(yUnit) - yOrigin) / yBucketCount : 0;
+
+		Binner binner = new Binner(xAttribute, xUnit, origin, bucketSize, yAttribute, yUnit, yOrigin, ySize,
+				yBucketCount, stopFlag);
+		CellCounts cellCounts = items.parallelStream().filter(binner::accepts).map(binner::count)
+				.collect(CellCounts::new, CellCounts::addAll, CellCounts::addAll);
+		long[] counts = new long[xBucketCount * yBucketCount];
+		cellCounts.addTo(counts);
+		if (stopFlag.getAsBoolean()) {
+			return null;
+		}
+		return new ItemCountMatrix(xUnit.quantity(origin), xUnit.getDeltaUnit().quantity(bucketSize), xBucketCount,
+				yMin, yUnit != null ? yUnit.getDeltaUnit().quantity(ySize) : null, yBucketCount, counts);
+	}
+
+	private static class Binner {
+		private final IAttribute<IQuantity> xAttribute;
+		private final IUnit xUnit;
+		private final long xOrigin;
+		private final long xSize;
+		private final IAttribute<IQuantity> yAttribute;
+		private final IUnit yUnit;
+		private final double yOrigin;
+		private final double ySize;
+		private final int yBucketCount;
+		private final BooleanSupplier stopFlag;
+
+		Binner(IAttribute<IQuantity> xAttribute, IUnit xUnit, long xOrigin, long xSize,
+				IAttribute<IQuantity> yAttribute, IUnit yUnit, double yOrigin, double ySize, int yBucketCount,
+				BooleanSupplier stopFlag) {
+			this.xAttribute = xAttribute;
+			this.xUnit = xUnit;
+			this.xOrigin = xOrigin;
+			this.xSize = xSize;
+			this.yAttribute = yAttribute;
+			this.yUnit = yUnit;
+			this.yOrigin = yOrigin;
+			this.ySize = ySize;
+			this.yBucketCount = yBucketCount;
+			this.stopFlag = stopFlag;
+		}
+
+		boolean accepts(IItemIterable iterable) {
+			return iterable.hasItems() && xAttribute.getAccessor(iterable.getType()) != null
+					&& (yAttribute == null || yAttribute.getAccessor(iterable.getType()) != null);
+		}
+
+		CellCounts count(IItemIterable iterable) {
+			IMemberAccessor<IQuantity, IItem> xAccessor = xAttribute.getAccessor(iterable.getType());
+			IMemberAccessor<IQuantity, IItem> yAccessor = yAttribute != null
+					? yAttribute.getAccessor(iterable.getType()) : null;
+			return iterable.parallelStream().collect(CellCounts::new, (counts, item) -> {
+				if (!stopFlag.getAsBoolean()) {
+					int cell = getCell(item, xAccessor, yAccessor);
+					if (cell >= 0) {
+						counts.add(cell, 1);
+					}
+				}
+			}, CellCounts::addAll);
+		}
+
+		private int getCell(
+			IItem item, IMemberAccessor<IQuantity, IItem> xAccessor, IMemberAccessor<IQuantity, IItem> yAccessor) {
+			IQuantity x = xAccessor.getMember(item);
+			if (x == null) {
+				return -1;
+			}
+			int xIndex = (int) ((x.clampedFloorIn(xUnit) - xOrigin) / xSize);
+			if (yAccessor == null) {
+				return xIndex;
+			}
+			IQuantity y = yAccessor.getMember(item);
+			if (y == null) {
+				return -1;
+			}
+			int yIndex = ySize > 0 ? (int) ((y.doubleValueIn(yUnit) - yOrigin) / ySize) : 0;
+			return xIndex * yBucketCount + Math.min(yIndex, yBucketCount - 1);
+		}
+	}
+
+	/**
+	 * Counts for the cells that items have been counted in. Each part of a parallel count uses its
+	 * own instance, so the memory used grows with the number of cells actually hit rather than with
+	 * the size of the matrix.
+	 */
+	private static final class CellCounts {
+		private static final int FREE = -1;
+
+		// open addressing with linear probing, the capacity is a power of two
+		private int[] cells = newCells(16);
+		private long[] counts = new long[16];
+		private int size;
+
+		private static int[] newCells(int capacity) {
+			int[] cells = new int[capacity];
+			Arrays.fill(cells, FREE);
+			return cells;
+		}
+
+		void add(int cell, long count) {
+			int mask = cells.length - 1;
+			int i = hash(cell) & mask;
+			while (cells[i] != cell) {
+				if (cells[i] == FREE) {
+					cells[i] = cell;
+					counts[i] = count;
+					if (++size * 2 > cells.length) {
+						grow();
+					}
+					return;
+				}
+				i = (i + 1) & mask;
+			}
+			counts[i] += count;
+		}
+
+		void addAll(CellCounts other) {
+			for (int i = 0; i < other.cells.length; i++) {
+				if (other.cells[i] != FREE) {
+					add(other.cells[i], other.counts[i]);
+				}
+			}
+		}
+
+		void addTo(long[] dense) {
+			for (int i = 0; i < cells.length; i++) {
+				if (cells[i] != FREE) {
+					dense[cells[i]] += counts[i];
+				}
+			}
+		}
+
+		private void grow() {
+			int[] oldCells = cells;
+			long[] oldCounts = counts;
+			cells = newCells(oldCells.length * 2);
+			counts = new long[oldCells.length * 2];
+			size = 0;
+			for (int i = 0; i < oldCells.length; i++) {
+				if (oldCells[i] != FREE) {
+					add(oldCells[i], oldCounts[i]);
+				}
+			}
+		}
+
+		private static int hash(int cell) {
+			int h = cell * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+	}
+
+	/**
+	 * @return the lower bound of the first x bucket, or {@code null} if no items were counted
+	 */
+	public IQuantity getXStart() {
+		return xStart;
+	}
+
+	/**
+	 * @return the size of the x buckets, which may be larger than the requested size
+	 */
+	public IQuantity getXBucketSize() {
+		return xBucketSize;
+	}
+
+	public int getXBucketCount() {
+		return xBucketCount;
+	}
+
+	/**
+	 * @return the lower bound of the first y bucket, or {@code null} if there is no y attribute
+	 */
+	public IQuantity getYStart() {
+		return yStart;
+	}
+
+	/**
+	 * @return the size of the y buckets, or {@code null} if there is no y attribute
+	 */
+	public IQuantity getYBucketSize() {
+		return yBucketSize;
+	}
+
+	public int getYBucketCount() {
+		return yBucketCount;
+	}
+
+	/**
+	 * @return the number of items in a bucket
+	 */
+	public long getCount(int xBucket, int yBucket) {
+		return counts[xBucket * yBucketCount + yBucket];
+	}
+
+	/**
+	 * @return the number of items in all y buckets of an x bucket
+	 */
+	public long getCount(int xBucket) {
+		long count = 0;
+		for (int y = 0; y < yBucketCount; y++) {
+			count += counts[xBucket * yBucketCount + y];
+		}
+		return count;
+	}
+
+	/**
+	 * @return the total number of counted items
+	 */
+	public long getTotalCount() {
+		long count = 0;
+		for (long c : counts) {
+			count += c;
+		}
+		return count;
+	}
+}
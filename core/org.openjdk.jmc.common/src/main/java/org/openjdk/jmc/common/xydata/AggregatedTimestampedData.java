@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.common.xydata;
+
+/**
+ * An {@link ITimestampedData} that represents a number of aggregated data points. The Y value is
+ * the average of the aggregated values.
+ */
+public class AggregatedTimestampedData extends DefaultXYData<Long, Number> implements ITimestampedData {
+
+	private final double min;
+	private final double max;
+	private final long count;
+
+	/**
+	 * @param x
+	 *            a timestamp in epoch ns
+	 * @param average
+	 *            the average of the aggregated values
+	 * @param min
+	 *            the smallest of the aggregated values
+	 * @param max
+	 *            the largest of the aggregated values
+	 * @param count
+	 *            the number of aggregated values
+	 */
+	public AggregatedTimestampedData(long x, double average, double min, double max, long count) {
+		super(x, average);
+		this.min = min;
+		this.max = max;
+		this.count = count;
+	}
+
+	/**
+	 * @return the smallest of the aggregated values
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * @return the largest of the aggregated values
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * @return the number of aggregated values
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	@Override
+	public String toString() {
+		return "Time: " + getX() + " Y: " + getY() + " [" + min + ", " + max + "] Count: " + count; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+	}
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.common.xydata;
+
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Bounded ring buffer of timestamped data points, stored in primitive arrays. If more data points
+ * are added than the max size, then the oldest data points are dropped. The arrays are grown on
+ * demand, so a buffer with a large max size only uses as much memory as the number of retained data
+ * points requires.
+ * <p>
+ * The buffer supports a single writer and any number of concurrent readers without locking. Only
+ * one thread at a time may call {@link #add(long, double)} and {@link #setMaxSize(int)}. Readers
+ * may call the other methods from any thread. Iterators are created from a snapshot of the buffer
+ * and are not affected by data added later. Data points that are overwritten by the writer while an
+ * iterator is in use are skipped rather than returned in an inconsistent state.
+ */
+public class TimestampedDataRingBuffer implements Iterable<ITimestampedData> {
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * The storage of the ring buffer. The data point with the absolute index {@code i} is stored at
+	 * {@code i % capacity}. The capacity is kept larger than the number of retained data points, so
+	 * that the slot being written is never one that readers may use. A storage is never written to
+	 * after it has been replaced by a larger or smaller one, so readers that still use it will
+	 * continue to see consistent data.
+	 */
+	private static final class Storage {
+		final long[] timestamps;
+		final double[] values;
+		final int maxSize;
+		// Absolute index of the first data point in this storage
+		final long start;
+		// Absolute index after the last data point, published by the writer after each add
+		volatile long end;
+
+		Storage(int capacity, int maxSize, long start) {
+			timestamps = new long[capacity];
+			values = new double[capacity];
+			this.maxSize = maxSize;
+			this.start = start;
+			end = start;
+		}
+
+		int capacity() {
+			return timestamps.length;
+		}
+
+		long first(long end) {
+			return Math.max(start, end - maxSize);
+		}
+
+		int slot(long index) {
+			return (int) (index % timestamps.length);
+		}
+
+		/**
+		 * Checks if the data point at the index has been read without being overwritten by the
+		 * writer. Must be called after reading the arrays.
+		 */
+		boolean isValid(long index) {
+			// Order the array reads before the read of end
+			VarHandle.acquireFence();
+			return end - index < timestamps.length;
+		}
+	}
+
+	private static class SnapshotIterator implements Iterator<ITimestampedData> {
+		private final Storage storage;
+		private final long end;
+		private long index;
+		private ITimestampedData next;
+
+		SnapshotIterator(Storage storage) {
+			this.storage = storage;
+			end = storage.end;
+			index = storage.first(end);
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next == null && index < end) {
+				int slot = storage.slot(index);
+				long x = storage.timestamps[slot];
+				double y = storage.values[slot];
+				if (storage.isValid(index)) {
+					next = new DefaultTimestampedData(x, y);
+					index++;
+				} else {
+					// The writer has lapped the iterator, continue with the oldest retained data point
+					index = Math.max(index + 1, storage.first(storage.end));
+				}
+			}
+			return next != null;
+		}
+
+		@Override
+		public ITimestampedData next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			ITimestampedData value = next;
+			next = null;
+			return value;
+		}
+	}
+
+	private volatile Storage storage;
+
+	/**
+	 * Create a new ring buffer.
+	 *
+	 * @param maxSize
+	 *            maximum number of data points to keep
+	 */
+	public TimestampedDataRingBuffer(int maxSize) {
+		checkMaxSize(maxSize);
+		storage = new Storage(initialCapacity(maxSize), maxSize, 0);
+	}
+
+	/**
+	 * Adds a data point to the buffer. If the buffer is at max size then the oldest data point will
+	 * be dropped. Must only be called by the writer.
+	 *
+	 * @param x
+	 *            the timestamp
+	 * @param y
+	 *            the value
+	 */
+	public void add(long x, double y) {
+		Storage s = storage;
+		long end = s.end;
+		if (end + 1 - s.start >= s.capacity() && s.capacity() <= s.maxSize) {
+			s = copy(s, end, (int) Math.min(s.capacity() * 2L, s.maxSize + 1L), s.maxSize);
+		}
+		int slot = s.slot(end);
+		s.timestamps[slot] = x;
+		s.values[slot] = y;
+		s.end = end + 1;
+	}
+
+	/**
+	 * Sets the maximum number of data points to keep. If the buffer contains more data points than
+	 * the new max size, then the oldest data points are dropped. Must only be called by the writer.
+	 *
+	 * @param maxSize
+	 *            maximum number of data points to keep
+	 */
+	public void setMaxSize(int maxSize) {
+		checkMaxSize(maxSize);
+		Storage s = storage;
+		if (maxSize != s.maxSize) {
+			long end = s.end;
+			int size = (int) (end - s.first(end));
+			copy(s, end, Math.max(Math.min(size, maxSize) + 1, initialCapacity(maxSize)), maxSize);
+		}
+	}
+
+	private Storage copy(Storage from, long end, int capacity, int maxSize) {
+		long first = Math.max(from.first(end), end - maxSize);
+		Storage to = new Storage(capacity, maxSize, first);
+		for (long i = first; i < end; i++) {
+			to.timestamps[to.slot(i)] = from.timestamps[from.slot(i)];
+			to.values[to.slot(i)] = from.values[from.slot(i)];
+		}
+		to.end = end;
+		storage = to;
+		return to;
+	}
+
+	private static int initialCapacity(int maxSize) {
+		return (int) Math.min(INITIAL_CAPACITY, maxSize + 1L);
+	}
+
+	private static void checkMaxSize(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Max size must be positive"); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * @return the maximum number of data points to keep
+	 */
+	public int getMaxSize() {
+		return storage.maxSize;
+	}
+
+	/**
+	 * @return the number of data points currently in the buffer
+	 */
+	public int getSize() {
+		Storage s = storage;
+		long end = s.end;
+		return (int) (end - s.first(end));
+	}
+
+	/**
+	 * @return the oldest data point in the buffer, or {@code null} if the buffer is empty
+	 */
+	public ITimestampedData getFirst() {
+		Iterator<ITimestampedData> it = iterator();
+		return it.hasNext() ? it.next() : null;
+	}
+
+	/**
+	 * @return the most recently added data point, or {@code null} if the buffer is empty
+	 */
+	public ITimestampedData getLast() {
+		Storage s = storage;
+		while (true) {
+			long end = s.end;
+			if (end == s.first(end)) {
+				return null;
+			}
+			int slot = s.slot(end - 1);
+			long x = s.timestamps[slot];
+			double y = s.values[slot];
+			if (s.isValid(end - 1)) {
+				return new DefaultTimestampedData(x, y);
+			}
+		}
+	}
+
+	/**
+	 * Creates an iterator over a snapshot of the data points in the buffer, from oldest to newest.
+	 */
+	@Override
+	public Iterator<ITimestampedData> iterator() {
+		return new SnapshotIterator(storage);
+	}
+}
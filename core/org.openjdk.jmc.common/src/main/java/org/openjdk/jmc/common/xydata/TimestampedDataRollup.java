@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.common.xydata;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Incrementally maintained min/max/average rollups of a timestamped data series. The rollup has a
+ * number of levels, each with a fixed bucket width. Data points are added in timestamp order and
+ * are aggregated into the current (open) bucket of each level. When a data point falls outside the
+ * open bucket, the bucket is closed and retained until it falls outside of the retention time.
+ * <p>
+ * The rollup is intended to be kept next to the full resolution data so that rendering of long time
+ * ranges can be done using a few thousand buckets rather than every data point. Use
+ * {@link #selectLevel(long, long, int)} to find the coarsest level that is still detailed enough,
+ * and {@link #createIterator(int, long, long)} to get the buckets of that level.
+ * <p>
+ * All methods are thread safe. Iterators are created from a snapshot of the buckets and are not
+ * affected by data added later.
+ */
+public class TimestampedDataRollup {
+
+	private static final long NANOS_PER_SECOND = 1000L * 1000L * 1000L;
+
+	/**
+	 * Default bucket widths in ns: ten seconds, one minute and one hour. Attributes are usually
+	 * sampled about once per second, so a one second level would not reduce the amount of data.
+	 */
+	public static final long[] DEFAULT_BUCKET_WIDTHS = {10 * NANOS_PER_SECOND, 60 * NANOS_PER_SECOND,
+			3600 * NANOS_PER_SECOND};
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * A single rollup level. The closed buckets are stored in a ring buffer of primitive arrays
+	 * that grows on demand up to the max capacity.
+	 */
+	private static class Level {
+		final long width;
+		final int maxCapacity;
+		long[] starts = new long[0];
+		double[] mins = new double[0];
+		double[] maxs = new double[0];
+		double[] sums = new double[0];
+		long[] counts = new long[0];
+		int head;
+		int size;
+
+		long openStart = Long.MIN_VALUE;
+		double openMin;
+		double openMax;
+		double openSum;
+		long openCount;
+
+		Level(long width, int maxCapacity) {
+			this.width = width;
+			this.maxCapacity = maxCapacity;
+		}
+
+		/**
+		 * @return true if a bucket was closed by adding the value
+		 */
+		boolean add(long x, double y) {
+			long bucketStart = Math.floorDiv(x, width) * width;
+			boolean closed = false;
+			if (openCount == 0 || bucketStart > openStart) {
+				closed = close();
+				openStart = bucketStart;
+				openMin = y;
+				openMax = y;
+				openSum = y;
+				openCount = 1;
+			} else {
+				// Out of order values are aggregated into the open bucket
+				openMin = Math.min(openMin, y);
+				openMax = Math.max(openMax, y);
+				openSum += y;
+				openCount++;
+			}
+			return closed;
+		}
+
+		boolean close() {
+			if (openCount > 0) {
+				append(openStart, openMin, openMax, openSum, openCount);
+				openCount = 0;
+				return true;
+			}
+			return false;
+		}
+
+		void append(long start, double min, double max, double sum, long count) {
+			if (size > 0 && start <= getStart(size - 1)) {
+				return;
+			}
+			if (size == starts.length) {
+				if (size < maxCapacity) {
+					grow(Math.min(maxCapacity, Math.max(INITIAL_CAPACITY, size * 2)));
+				} else {
+					// Drop the oldest bucket
+					head = (head + 1) % starts.length;
+					size--;
+				}
+			}
+			int index = (head + size) % starts.length;
+			starts[index] = start;
+			mins[index] = min;
+			maxs[index] = max;
+			sums[index] = sum;
+			counts[index] = count;
+			size++;
+		}
+
+		private void grow(int capacity) {
+			long[] newStarts = new long[capacity];
+			double[] newMins = new double[capacity];
+			double[] newMaxs = new double[capacity];
+			double[] newSums = new double[capacity];
+			long[] newCounts = new long[capacity];
+			for (int i = 0; i < size; i++) {
+				int index = (head + i) % starts.length;
+				newStarts[i] = starts[index];
+				newMins[i] = mins[index];
+				newMaxs[i] = maxs[index];
+				newSums[i] = sums[index];
+				newCounts[i] = counts[index];
+			}
+			starts = newStarts;
+			mins = newMins;
+			maxs = newMaxs;
+			sums = newSums;
+			counts = newCounts;
+			head = 0;
+		}
+
+		long getStart(int logicalIndex) {
+			return starts[(head + logicalIndex) % starts.length];
+		}
+
+		long getDataStart() {
+			return size > 0 ? getStart(0) : (openCount > 0 ? openStart : Long.MAX_VALUE);
+		}
+
+		long getDataEnd() {
+			return openCount > 0 ? openStart + width : (size > 0 ? getStart(size - 1) + width : Long.MIN_VALUE);
+		}
+
+		/**
+		 * @return the logical index of the first bucket that ends after x
+		 */
+		int findFirst(long x) {
+			int low = 0;
+			int high = size - 1;
+			while (low <= high) {
+				int middle = (low + high) >>> 1;
+				if (getStart(middle) + width <= x) {
+					low = middle + 1;
+				} else {
+					high = middle - 1;
+				}
+			}
+			return low;
+		}
+
+		ITimestampedData createData(long start, double min, double max, double sum, long count) {
+			return new AggregatedTimestampedData(start + width / 2, sum / count, min, max, count);
+		}
+
+		List<ITimestampedData> snapshot(long min, long max) {
+			List<ITimestampedData> result = new ArrayList<>();
+			// Include one bucket on each side of the interval to allow for interpolation at the edges
+			int i = Math.max(0, findFirst(min) - 1);
+			for (; i < size; i++) {
+				int index = (head + i) % starts.length;
+				result.add(createData(starts[index], mins[index], maxs[index], sums[index], counts[index]));
+				if (starts[index] > max) {
+					return result;
+				}
+			}
+			if (openCount > 0 && (openStart + width > min || result.isEmpty())) {
+				result.add(createData(openStart, openMin, openMax, openSum, openCount));
+			}
+			return result;
+		}
+	}
+
+	private final Level[] levels;
+
+	/**
+	 * Create a new rollup.
+	 *
+	 * @param retentionTime
+	 *            the time in ns to keep closed buckets for, counted from the last bucket of each
+	 *            level. At least one closed bucket is kept per level.
+	 * @param bucketWidths
+	 *            the bucket widths in ns of the levels, in increasing order
+	 */
+	public TimestampedDataRollup(long retentionTime, long ... bucketWidths) {
+		levels = new Level[bucketWidths.length];
+		for (int i = 0; i < bucketWidths.length; i++) {
+			if (bucketWidths[i] <= 0 || (i > 0 && bucketWidths[i] <= bucketWidths[i - 1])) {
+				throw new IllegalArgumentException("Bucket widths must be positive and increasing"); //$NON-NLS-1$
+			}
+			long capacity = Math.max(1, retentionTime / bucketWidths[i]);
+			levels[i] = new Level(bucketWidths[i], (int) Math.min(Integer.MAX_VALUE - 8, capacity));
+		}
+	}
+
+	/**
+	 * @return the number of levels in this rollup
+	 */
+	public int getLevelCount() {
+		return levels.length;
+	}
+
+	/**
+	 * @param level
+	 *            the level index
+	 * @return the bucket width in ns of the level
+	 */
+	public long getBucketWidth(int level) {
+		return levels[level].width;
+	}
+
+	/**
+	 * @param level
+	 *            the level index
+	 * @return the start time in ns of the first bucket of the level, or {@link Long#MAX_VALUE} if
+	 *         the level has no data
+	 */
+	public synchronized long getDataStart(int level) {
+		return levels[level].getDataStart();
+	}
+
+	/**
+	 * @param level
+	 *            the level index
+	 * @return the end time in ns of the last bucket of the level, or {@link Long#MIN_VALUE} if the
+	 *         level has no data
+	 */
+	public synchronized long getDataEnd(int level) {
+		return levels[level].getDataEnd();
+	}
+
+	/**
+	 * Add a data point to all levels. Data points should be added in timestamp order.
+	 *
+	 * @param x
+	 *            a timestamp in epoch ns
+	 * @param y
+	 *            the value
+	 */
+	public synchronized void add(long x, double y) {
+		for (int i = 0; i < levels.length; i++) {
+			Level level = levels[i];
+			long openStart = level.openStart;
+			double openMin = level.openMin;
+			double openMax = level.openMax;
+			double openSum = level.openSum;
+			long openCount = level.openCount;
+			if (level.add(x, y)) {
+				bucketClosed(i, openStart, openMin, openMax, openSum, openCount);
+			}
+		}
+	}
+
+	/**
+	 * Close the open bucket of all levels. This should be done when there is a gap in the data, for
+	 * example when a new data series is started, so that values on both sides of the gap are not
+	 * aggregated into the same bucket.
+	 */
+	public synchronized void closeBuckets() {
+		for (int i = 0; i < levels.length; i++) {
+			Level level = levels[i];
+			long openStart = level.openStart;
+			double openMin = level.openMin;
+			double openMax = level.openMax;
+			double openSum = level.openSum;
+			long openCount = level.openCount;
+			if (level.close()) {
+				bucketClosed(i, openStart, openMin, openMax, openSum, openCount);
+			}
+		}
+	}
+
+	/**
+	 * Add a closed bucket to a level, for example when restoring a persisted rollup. Buckets must
+	 * be added in timestamp order. Buckets that are not after the last bucket of the level are
+	 * ignored.
+	 *
+	 * @param level
+	 *            the level index
+	 * @param start
+	 *            the start time in ns of the bucket
+	 * @param min
+	 *            the smallest value in the bucket
+	 * @param max
+	 *            the largest value in the bucket
+	 * @param sum
+	 *            the sum of the values in the bucket
+	 * @param count
+	 *            the number of values in the bucket
+	 */
+	public synchronized void addBucket(int level, long start, double min, double max, double sum, long count) {
+		if (count > 0) {
+			levels[level].append(start, min, max, sum, count);
+		}
+	}
+
+	/**
+	 * Find the coarsest level that has at least {@code resolution} buckets in an interval. The
+	 * interval is limited to the time range that the level has data for.
+	 *
+	 * @param min
+	 *            the start of the interval in epoch ns
+	 * @param max
+	 *            the end of the interval in epoch ns
+	 * @param resolution
+	 *            the minimum number of buckets needed
+	 * @return the level index, or -1 if no level is detailed enough and the full resolution data
+	 *         should be used instead
+	 */
+	public synchronized int selectLevel(long min, long max, int resolution) {
+		for (int i = levels.length - 1; i >= 0; i--) {
+			Level level = levels[i];
+			long start = Math.max(min, level.getDataStart());
+			long end = Math.min(max, level.getDataEnd());
+			if (end > start && (end - start) / level.width >= resolution) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Create an iterator over the buckets of a level that overlap an interval. Each bucket is
+	 * represented by an {@link AggregatedTimestampedData} positioned in the middle of the bucket.
+	 * The iterator may also include one bucket on each side of the interval.
+	 *
+	 * @param level
+	 *            the level index
+	 * @param min
+	 *            the start of the interval in epoch ns
+	 * @param max
+	 *            the end of the interval in epoch ns
+	 * @return an iterator of aggregated data points, in timestamp order
+	 */
+	public synchronized Iterator<ITimestampedData> createIterator(int level, long min, long max) {
+		return levels[level].snapshot(min, max).iterator();
+	}
+
+	/**
+	 * Called when a bucket has been closed by {@link #add(long, double)} or
+	 * {@link #closeBuckets()}. Override this method to, for example, persist the closed buckets.
+	 * The method is called while holding the lock of the rollup.
+	 *
+	 * @param level
+	 *            the level index
+	 * @param start
+	 *            the start time in ns of the bucket
+	 * @param min
+	 *            the smallest value in the bucket
+	 * @param max
+	 *            the largest value in the bucket
+	 * @param sum
+	 *            the sum of the values in the bucket
+	 * @param count
+	 *            the number of values in the bucket
+	 */
+	protected void bucketClosed(int level, long start, double min, double max, double sum, long count) {
+		// Nothing by default
+	}
+}
@@ -39,6 +39,14 @@ public class Combiner {
 
 	/**
 	 * Combine an array of {@link Combinable} objects.
+	 * <p>
+	 * Objects are combined in passes. Each pass walks the objects from the start, replacing each
+	 * pair of neighbours that can be combined with the combined object, until a pass finds nothing
+	 * more to combine. As {@link Combinable#combineWith(Object)} is expected to always give the
+	 * same answer for the same objects, a pair that could not be combined in one pass will not be
+	 * combined in later passes either. Only the neighbours of objects combined in the previous pass
+	 * are therefore checked, which makes the total work linear in the number of objects instead of
+	 * linear in each pass.
 	 *
 	 * @param objects
 	 *            The objects to combine. This array will contain the combined objects on return.
@@ -47,28 +55,90 @@ public class Combiner {
 	 * @return the number of objects in the input array {@code objects} that are valid after return
 	 */
 	public static <T extends Combinable<T>> int combine(T[] objects) {
-		int lastIndex = objects.length - 1;
-		while (lastIndex > 0) {
-			int lastKeepIndex = 0;
-			for (int i = 0; i < lastIndex; i++) {
-				int secondIndex = i + 1;
-				if (secondIndex == lastIndex) {
-					objects[lastKeepIndex] = objects[i];
-				} else {
-					T combined = objects[i].combineWith(objects[secondIndex]);
-					if (combined != null) {
-						objects[lastKeepIndex] = combined;
-						i++;
-					} else {
-						objects[lastKeepIndex] = objects[i];
+		int length = objects.length;
+		if (length < 3) {
+			// The last object is never combined, so there is nothing to do
+			return length;
+		}
+		// The objects currently alive form a linked list over the original indices. A combined
+		// object takes the index of its left part and the index of the right part is unlinked.
+		int[] next = new int[length];
+		int[] prev = new int[length];
+		for (int i = 0; i < length; i++) {
+			next[i] = i + 1;
+			prev[i] = i - 1;
+		}
+		int last = length - 1;
+		int lastIndex = last;
+		int[] changed = new int[length / 2];
+		int changedCount = 0;
+		int[] combinedIndices = new int[length / 2];
+		@SuppressWarnings("unchecked")
+		T[] combinedObjects = (T[]) new Combinable[length / 2];
+		boolean firstPass = true;
+		while (true) {
+			int combinedCount = 0;
+			int current = 0;
+			int changedPos = 0;
+			while (true) {
+				if (!firstPass) {
+					// Skip ahead to the first pair containing an object changed in the last pass
+					while (changedPos < changedCount && changed[changedPos] < current) {
+						changedPos++;
 					}
+					if (changedPos == changedCount) {
+						break;
+					}
+					int changedIndex = changed[changedPos];
+					if (changedIndex > current) {
+						current = prev[changedIndex];
+					}
+				}
+				int second = next[current];
+				if (current == last || second == last) {
+					break;
+				}
+				T combined = objects[current].combineWith(objects[second]);
+				if (combined != null) {
+					combinedIndices[combinedCount] = current;
+					combinedObjects[combinedCount] = combined;
+					combinedCount++;
+					current = next[second];
+				} else {
+					current = second;
 				}
-				lastKeepIndex++;
 			}
-			if (lastKeepIndex == lastIndex) {
+			if (combinedCount == 0) {
 				break;
 			}
-			lastIndex = lastKeepIndex;
+			/*
+			 * A pass never combines anything with the last object, and leaves the object previously
+			 * found at the new last index in its place. It is looked up before the list is
+			 * modified.
+			 */
+			int stale = last;
+			for (int i = 0; i < combinedCount; i++) {
+				stale = prev[stale];
+			}
+			T staleObject = objects[stale];
+			for (int i = 0; i < combinedCount; i++) {
+				int index = combinedIndices[i];
+				int removed = next[index];
+				objects[index] = combinedObjects[i];
+				combinedObjects[i] = null;
+				next[index] = next[removed];
+				prev[next[removed]] = index;
+			}
+			objects[last] = staleObject;
+			lastIndex -= combinedCount;
+			int[] tmp = changed;
+			changed = combinedIndices;
+			combinedIndices = tmp;
+			changedCount = combinedCount;
+			firstPass = false;
+		}
+		for (int i = 0, index = 0; i <= lastIndex; i++, index = next[index]) {
+			objects[i] = objects[index];
 		}
 		return lastIndex + 1;
 	}
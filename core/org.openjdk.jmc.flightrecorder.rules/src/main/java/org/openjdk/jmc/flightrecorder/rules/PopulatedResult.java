@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.rules;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.util.TypedPreference;
+import org.owasp.encoder.Encode;
+
+/**
+ * A result where the messages have already been populated with the result values, both as plain
+ * text and as HTML. Apart from the score, the result values themselves are not kept, so a populated
+ * result can be stored as text and restored without the recording it was calculated from.
+ * <p>
+ * The summary, explanation and solution of a populated result are the plain text messages. The HTML
+ * versions correspond to what {@link ResultToolkit#populateMessage(IResult, String, boolean)} gives
+ * for the HTML encoded messages of the original result.
+ */
+public final class PopulatedResult implements IResult {
+
+	private final IRule rule;
+	private final Severity severity;
+	private final IQuantity score;
+	private final String summary;
+	private final String explanation;
+	private final String solution;
+	private final String htmlSummary;
+	private final String htmlExplanation;
+	private final String htmlSolution;
+
+	public PopulatedResult(IRule rule, Severity severity, IQuantity score, String summary, String explanation,
+			String solution, String htmlSummary, String htmlExplanation, String htmlSolution) {
+		this.rule = rule;
+		this.severity = severity;
+		this.score = score;
+		this.summary = summary;
+		this.explanation = explanation;
+		this.solution = solution;
+		this.htmlSummary = htmlSummary;
+		this.htmlExplanation = htmlExplanation;
+		this.htmlSolution = htmlSolution;
+	}
+
+	/**
+	 * Create a populated result from a result.
+	 *
+	 * @param result
+	 *            the result to populate the messages from
+	 * @return a populated result
+	 */
+	public static PopulatedResult create(IResult result) {
+		if (result instanceof PopulatedResult) {
+			return (PopulatedResult) result;
+		}
+		return new PopulatedResult(result.getRule(), result.getSeverity(), result.getResult(TypedResult.SCORE),
+				populate(result, result.getSummary()), populate(result, result.getExplanation()),
+				populate(result, result.getSolution()), populateHtml(result, result.getSummary()),
+				populateHtml(result, result.getExplanation()), populateHtml(result, result.getSolution()));
+	}
+
+	private static String populate(IResult result, String message) {
+		return ResultToolkit.populateMessage(result, message, false);
+	}
+
+	private static String populateHtml(IResult result, String message) {
+		return message == null ? null : ResultToolkit.populateMessage(result, Encode.forHtml(message), true);
+	}
+
+	@Override
+	public Severity getSeverity() {
+		return severity;
+	}
+
+	@Override
+	public IRule getRule() {
+		return rule;
+	}
+
+	@Override
+	public String getSummary() {
+		return summary;
+	}
+
+	@Override
+	public String getExplanation() {
+		return explanation;
+	}
+
+	@Override
+	public String getSolution() {
+		return solution;
+	}
+
+	/**
+	 * @return the summary populated and encoded as HTML
+	 */
+	public String getHtmlSummary() {
+		return htmlSummary;
+	}
+
+	/**
+	 * @return the explanation populated and encoded as HTML
+	 */
+	public String getHtmlExplanation() {
+		return htmlExplanation;
+	}
+
+	/**
+	 * @return the solution populated and encoded as HTML
+	 */
+	public String getHtmlSolution() {
+		return htmlSolution;
+	}
+
+	@Override
+	public Collection<IRecordingSetting> suggestRecordingSettings() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public <T> Collection<T> getResult(TypedCollectionResult<T> result) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public <T> T getPreference(TypedPreference<T> preference) {
+		return null;
+	}
+
+	@Override
+	public <T> T getResult(TypedResult<T> result) {
+		if (TypedResult.SCORE.equals(result) && score != null) {
+			return result.getResultClass().cast(score);
+		}
+		return null;
+	}
+}
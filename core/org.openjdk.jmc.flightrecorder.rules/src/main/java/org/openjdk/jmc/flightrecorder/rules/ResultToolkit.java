@@ -62,7 +62,8 @@ public class ResultToolkit {
 	 * @return a message populated with the formatted result values
 	 */
 	public static String populateMessage(IResult result, String string, boolean withHtml) {
-		if (string == null) {
+		if (string == null || result instanceof PopulatedResult) {
+			// The messages of a populated result have no placeholders left
 			return string;
 		}
 		String s = string;
@@ -117,12 +117,18 @@ public class JfrRulesReport {
 			System.out.println(" -override"); //$NON-NLS-1$
 			System.out.println(
 					"    Allows overriding the default templates by looking for resources in the context loader."); //$NON-NLS-1$
+			System.out.println();
+			System.out.println(" -cache <directory>"); //$NON-NLS-1$
+			System.out
+					.println("    Stores rule results in a directory, and reuses them for recordings analyzed before."); //$NON-NLS-1$
+			System.out.println("    Not used for verbose output."); //$NON-NLS-1$
 			return;
 		}
 		boolean verbose = false;
 		boolean override = false;
 		String formatName = "xml"; //$NON-NLS-1$
 		Severity minSeverity = Severity.OK;
+		RuleResultCache cache = null;
 		List<String> fileNames = new ArrayList<>();
 		for (int i = 0; i < args.length; i++) {
 			if (args[i].equals("-format")) { //$NON-NLS-1$
@@ -154,11 +160,17 @@ public class JfrRulesReport {
 				verbose = true;
 			} else if (args[i].equalsIgnoreCase("-override")) { //$NON-NLS-1$
 				override = true;
+			} else if (args[i].equalsIgnoreCase("-cache")) { //$NON-NLS-1$
+				if (i >= args.length - 1) {
+					System.out.println("-cache requires a directory argument"); //$NON-NLS-1$
+					return;
+				}
+				cache = new RuleResultCache(new File(args[++i]));
 			} else {
 				fileNames.add(args[i]);
 			}
 		}
-		printReport(formatName, minSeverity, verbose, override, fileNames.toArray(new String[fileNames.size()]));
+		printReport(formatName, minSeverity, verbose, override, cache, fileNames.toArray(new String[fileNames.size()]));
 	}
 
 	/**
@@ -183,6 +195,34 @@ public class JfrRulesReport {
 	public static void printReport(
 		String formatName, Severity minSeverity, boolean verbose, boolean override, String ... fileNames)
 			throws ParserConfigurationException, TransformerException {
+		printReport(formatName, minSeverity, verbose, override, null, fileNames);
+	}
+
+	/**
+	 * Prints an automated analysis report for the JFR files with the specified fileNames, using
+	 * cached rule results where available.
+	 *
+	 * @param formatName
+	 *            the format of the report, e.g. xml, html or text.
+	 * @param minSeverity
+	 *            the minimum severity to report.
+	 * @param verbose
+	 *            true for a more verbose report. The cache is not used for verbose reports.
+	 * @param override
+	 *            true to allow overriding the xslt for the transform via the context classloader
+	 *            (text = org/openjdk/jmc/flightrecorder/rules/report/text.xslt, html =
+	 *            org/openjdk/jmc/flightrecorder/rules/report/html.xslt).
+	 * @param cache
+	 *            the rule result cache to use, or {@code null} to always evaluate the rules.
+	 * @param fileNames
+	 *            the file names of the recordings to analyze.
+	 * @throws SecurityException
+	 *             if a security manager exists, the caller does not have
+	 *             JfrReportPermission("override"), and override was enabled.
+	 */
+	public static void printReport(
+		String formatName, Severity minSeverity, boolean verbose, boolean override, RuleResultCache cache,
+		String ... fileNames) throws ParserConfigurationException, TransformerException {
 		InputStream xsltResourceStream = null;
 		try {
 			if (formatName != null && !formatName.equals("xml")) { //$NON-NLS-1$
@@ -209,7 +249,7 @@ public class JfrRulesReport {
 			doc.appendChild(rootElement);
 
 			for (String fileName : fileNames) {
-				addReport(fileName, minSeverity, verbose, rootElement);
+				addReport(fileName, minSeverity, verbose, cache, rootElement);
 			}
 
 			TransformerFactory transformerFactory = XmlToolkit.createTransformerFactory();
@@ -230,6 +270,11 @@ public class JfrRulesReport {
 	}
 
 	public static void addReport(String fileName, Severity minSeverity, boolean verbose, Element parent) {
+		addReport(fileName, minSeverity, verbose, null, parent);
+	}
+
+	public static void addReport(
+		String fileName, Severity minSeverity, boolean verbose, RuleResultCache cache, Element parent) {
 		try {
 			File file = new File(fileName);
 			Element reportNode = parent.getOwnerDocument().createElement("report"); //$NON-NLS-1$
@@ -238,16 +283,20 @@ public class JfrRulesReport {
 			reportNode.appendChild(createValueNode(parent.getOwnerDocument(), "file", fileName)); //$NON-NLS-1$
 
 			IItemCollection events = null;
+			Map<IRule, Future<IResult>> resultFutures;
 			try {
-				events = JfrLoaderToolkit.loadEvents(file);
+				// TODO: Provide configuration
+				if (cache != null && !verbose) {
+					// Cached results have no item sets, so they are only used when those are not reported
+					resultFutures = cache.evaluate(file, RuleRegistry.getRules(), null);
+				} else {
+					events = JfrLoaderToolkit.loadEvents(file);
+					resultFutures = RulesToolkit.evaluateParallel(RuleRegistry.getRules(), events, null, 0);
+				}
 			} catch (IOException | CouldNotLoadRecordingException e) {
 				addError(parent, reportNode, e);
 				return;
 			}
-
-			// TODO: Provide configuration
-			Map<IRule, Future<IResult>> resultFutures = RulesToolkit.evaluateParallel(RuleRegistry.getRules(), events,
-					null, 0);
 			List<Map.Entry<IRule, Future<IResult>>> resultFutureList = new ArrayList<>(resultFutures.entrySet());
 			resultFutureList.sort(new Comparator<Map.Entry<IRule, ?>>() {
 				@Override
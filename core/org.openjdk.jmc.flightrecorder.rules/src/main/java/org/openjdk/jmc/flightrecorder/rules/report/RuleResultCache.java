@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.rules.report;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.unit.IPersister;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.QuantityConversionException;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.common.util.IPreferenceValueProvider;
+import org.openjdk.jmc.common.util.TypedPreference;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrLoaderToolkit;
+import org.openjdk.jmc.flightrecorder.rules.DependsOn;
+import org.openjdk.jmc.flightrecorder.rules.IResult;
+import org.openjdk.jmc.flightrecorder.rules.IRule;
+import org.openjdk.jmc.flightrecorder.rules.PopulatedResult;
+import org.openjdk.jmc.flightrecorder.rules.Severity;
+import org.openjdk.jmc.flightrecorder.rules.TypedResult;
+import org.openjdk.jmc.flightrecorder.rules.util.RulesToolkit;
+
+/**
+ * A cache of rule results on disk. Generating a report again for a recording that has already been
+ * analyzed then neither has to load the recording nor evaluate the rules.
+ * <p>
+ * The results for a recording are stored in one file in the cache directory, named after a hash of
+ * the recording path, size and modification time. Each result is stored together with a key
+ * calculated from the rule id, the code of the rule, the default locale and the preference values
+ * used for the rule. If any of these change, the rule is evaluated again. Rules that fail are not
+ * cached.
+ * <p>
+ * Results are stored as {@link PopulatedResult populated results}. This means that only the
+ * severity, the score and the populated messages of a result are available from the cache.
+ */
+public class RuleResultCache {
+
+	private static final String FORMAT_VERSION = "2"; //$NON-NLS-1$
+	private static final String CACHE_FILE_SUFFIX = ".results"; //$NON-NLS-1$
+	private static final String KEY = ".key"; //$NON-NLS-1$
+	private static final String NO_RESULT = ".noresult"; //$NON-NLS-1$
+	private static final String SEVERITY = ".severity"; //$NON-NLS-1$
+	private static final String SCORE = ".score"; //$NON-NLS-1$
+	private static final String SUMMARY = ".summary"; //$NON-NLS-1$
+	private static final String EXPLANATION = ".explanation"; //$NON-NLS-1$
+	private static final String SOLUTION = ".solution"; //$NON-NLS-1$
+	private static final String HTML_SUMMARY = ".html.summary"; //$NON-NLS-1$
+	private static final String HTML_EXPLANATION = ".html.explanation"; //$NON-NLS-1$
+	private static final String HTML_SOLUTION = ".html.solution"; //$NON-NLS-1$
+
+	private static final Map<Class<?>, String> CODE_VERSIONS = new ConcurrentHashMap<>();
+
+	private final File directory;
+
+	/**
+	 * @param directory
+	 *            the directory to store cached results in, created if it does not exist
+	 */
+	public RuleResultCache(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Get the results of evaluating a set of rules on a recording. If there are cached results for
+	 * all the rules, these are returned without loading the recording. Otherwise the recording is
+	 * loaded, the rules without cached results are evaluated as with
+	 * {@link RulesToolkit#evaluateParallel(Collection, IItemCollection, IPreferenceValueProvider, int)},
+	 * and their results are stored in the cache.
+	 *
+	 * @param recording
+	 *            the recording file
+	 * @param rules
+	 *            the rules to evaluate
+	 * @param preferences
+	 *            a preference value provider, or {@code null} to use default values
+	 * @return a map from rules to result futures
+	 * @throws IOException
+	 *             if the recording could not be read
+	 * @throws CouldNotLoadRecordingException
+	 *             if the recording could not be loaded
+	 */
+	public Map<IRule, Future<IResult>> evaluate(
+		File recording, Collection<IRule> rules, IPreferenceValueProvider preferences)
+			throws IOException, CouldNotLoadRecordingException {
+		if (preferences == null) {
+			preferences = IPreferenceValueProvider.DEFAULT_VALUES;
+		}
+		File cacheFile = new File(directory, getRecordingKey(recording) + CACHE_FILE_SUFFIX);
+		Map<IRule, String> keys = new HashMap<>();
+		for (IRule rule : rules) {
+			keys.put(rule, calculateKey(rule, preferences));
+		}
+		Properties cached = load(cacheFile);
+		Map<IRule, Future<IResult>> resultFutures = new HashMap<>();
+		Set<IRule> missedRules = new HashSet<>();
+		for (IRule rule : rules) {
+			Future<IResult> result = read(cached, rule, keys.get(rule));
+			if (result == null) {
+				missedRules.add(rule);
+			} else {
+				resultFutures.put(rule, result);
+			}
+		}
+		if (missedRules.isEmpty()) {
+			return resultFutures;
+		}
+		addDependencies(missedRules, rules);
+
+		IItemCollection events = JfrLoaderToolkit.loadEvents(recording);
+		Map<IRule, Future<IResult>> evaluated = RulesToolkit.evaluateParallel(missedRules, events, preferences, 0);
+		resultFutures.putAll(evaluated);
+		// Keep the results of rules that were not evaluated this time
+		Properties properties = new Properties();
+		properties.putAll(cached);
+		try {
+			for (Map.Entry<IRule, Future<IResult>> entry : evaluated.entrySet()) {
+				write(properties, entry.getKey(), keys.get(entry.getKey()), entry.getValue());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return resultFutures;
+		}
+		store(properties, cacheFile);
+		return resultFutures;
+	}
+
+	/**
+	 * Add the dependencies of the rules to evaluate. A dependent rule reads the typed results of
+	 * its dependency, which are not available from the cache.
+	 */
+	private static void addDependencies(Set<IRule> missedRules, Collection<IRule> rules) {
+		Deque<IRule> toCheck = new ArrayDeque<>(missedRules);
+		while (!toCheck.isEmpty()) {
+			DependsOn dependency = toCheck.pop().getClass().getAnnotation(DependsOn.class);
+			if (dependency != null) {
+				String dependencyName = dependency.value().getSimpleName();
+				for (IRule rule : rules) {
+					if (rule.getId().equals(dependencyName) && missedRules.add(rule)) {
+						toCheck.push(rule);
+					}
+				}
+			}
+		}
+	}
+
+	private static Future<IResult> read(Properties properties, IRule rule, String key) {
+		String prefix = rule.getId();
+		if (!key.equals(properties.getProperty(prefix + KEY))) {
+			return null;
+		}
+		if (properties.getProperty(prefix + NO_RESULT) != null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		try {
+			Severity severity = Severity.valueOf(properties.getProperty(prefix + SEVERITY));
+			String scoreString = properties.getProperty(prefix + SCORE);
+			IQuantity score = scoreString == null ? null : UnitLookup.NUMBER.parsePersisted(scoreString);
+			return CompletableFuture.completedFuture(new PopulatedResult(rule, severity, score,
+					properties.getProperty(prefix + SUMMARY), properties.getProperty(prefix + EXPLANATION),
+					properties.getProperty(prefix + SOLUTION), properties.getProperty(prefix + HTML_SUMMARY),
+					properties.getProperty(prefix + HTML_EXPLANATION), properties.getProperty(prefix + HTML_SOLUTION)));
+		} catch (IllegalArgumentException | NullPointerException | QuantityConversionException e) {
+			// Treat a broken entry as missing
+			return null;
+		}
+	}
+
+	private static void write(Properties properties, IRule rule, String key, Future<IResult> future)
+			throws InterruptedException {
+		String prefix = rule.getId();
+		for (String suffix : new String[] {KEY, NO_RESULT, SEVERITY, SCORE, SUMMARY, EXPLANATION, SOLUTION,
+				HTML_SUMMARY, HTML_EXPLANATION, HTML_SOLUTION}) {
+			properties.remove(prefix + suffix);
+		}
+		IResult result;
+		try {
+			result = future.get();
+		} catch (ExecutionException e) {
+			// Do not cache failures, they may be caused by the environment rather than the recording
+			return;
+		}
+		properties.setProperty(prefix + KEY, key);
+		if (result == null) {
+			properties.setProperty(prefix + NO_RESULT, Boolean.TRUE.toString());
+			return;
+		}
+		PopulatedResult populated = PopulatedResult.create(result);
+		properties.setProperty(prefix + SEVERITY, populated.getSeverity().name());
+		IQuantity score = populated.getResult(TypedResult.SCORE);
+		if (score != null) {
+			setProperty(properties, prefix + SCORE, score.persistableString());
+		}
+		setProperty(properties, prefix + SUMMARY, populated.getSummary());
+		setProperty(properties, prefix + EXPLANATION, populated.getExplanation());
+		setProperty(properties, prefix + SOLUTION, populated.getSolution());
+		setProperty(properties, prefix + HTML_SUMMARY, populated.getHtmlSummary());
+		setProperty(properties, prefix + HTML_EXPLANATION, populated.getHtmlExplanation());
+		setProperty(properties, prefix + HTML_SOLUTION, populated.getHtmlSolution());
+	}
+
+	private static void setProperty(Properties properties, String key, String value) {
+		if (value != null) {
+			properties.setProperty(key, value);
+		}
+	}
+
+	private static Properties load(File cacheFile) {
+		Properties properties = new Properties();
+		if (cacheFile.isFile()) {
+			try (InputStream in = new FileInputStream(cacheFile)) {
+				properties.load(in);
+			} catch (IOException | IllegalArgumentException e) {
+				// Start over with an empty cache for this recording
+				properties.clear();
+			}
+		}
+		return properties;
+	}
+
+	private void store(Properties properties, File cacheFile) throws IOException {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create cache directory " + directory); //$NON-NLS-1$
+		}
+		// Write to a temporary file first, so that concurrent readers never see a partial file
+		File tempFile = File.createTempFile(cacheFile.getName(), ".tmp", directory); //$NON-NLS-1$
+		try {
+			try (OutputStream out = new FileOutputStream(tempFile)) {
+				properties.store(out, null);
+			}
+			Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			tempFile.delete();
+		}
+	}
+
+	/**
+	 * Get a key for the recording from its path, size and modification time. This avoids reading
+	 * the whole recording just to find out that the results are already cached.
+	 */
+	private static String getRecordingKey(File recording) throws IOException {
+		if (!recording.isFile()) {
+			throw new FileNotFoundException(recording.getPath());
+		}
+		MessageDigest digest = createDigest();
+		update(digest, recording.getCanonicalPath());
+		update(digest, Long.toString(recording.length()));
+		update(digest, Long.toString(recording.lastModified()));
+		return toHex(digest.digest());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static String calculateKey(IRule rule, IPreferenceValueProvider preferences) {
+		MessageDigest digest = createDigest();
+		update(digest, FORMAT_VERSION);
+		update(digest, rule.getId());
+		update(digest, rule.getClass().getName());
+		update(digest, getCodeVersion(rule.getClass()));
+		update(digest, getCodeVersion(RulesToolkit.class));
+		update(digest, Locale.getDefault().toString());
+		for (TypedPreference<?> preference : rule.getConfigurationAttributes()) {
+			Object value = preferences.getPreferenceValue(preference);
+			IPersister<Object> persister = (IPersister<Object>) preference.getPersister();
+			String persisted = null;
+			if (persister != null && value != null) {
+				try {
+					persisted = persister.persistableString(value);
+				} catch (RuntimeException e) {
+					// Fall back to the string value
+				}
+			}
+			update(digest, preference.getIdentifier());
+			update(digest, persisted != null ? persisted : String.valueOf(value));
+		}
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * Get a string that changes when the code of a class is updated. For classes loaded from a jar
+	 * file, this is based on the jar file size and modification time. Otherwise the class file
+	 * contents are hashed.
+	 */
+	private static String getCodeVersion(Class<?> clazz) {
+		return CODE_VERSIONS.computeIfAbsent(clazz, c -> {
+			try {
+				CodeSource codeSource = c.getProtectionDomain().getCodeSource();
+				if (codeSource != null && codeSource.getLocation() != null) {
+					File location = new File(codeSource.getLocation().toURI());
+					if (location.isFile()) {
+						return location.getName() + ':' + location.length() + ':' + location.lastModified();
+					}
+				}
+			} catch (URISyntaxException | IllegalArgumentException | SecurityException e) {
+				// Fall back to hashing the class file
+			}
+			String className = c.getName();
+			String resource = className.substring(className.lastIndexOf('.') + 1) + ".class"; //$NON-NLS-1$
+			try (InputStream in = c.getResourceAsStream(resource)) {
+				if (in != null) {
+					MessageDigest digest = createDigest();
+					byte[] buffer = new byte[8 * 1024];
+					int read;
+					while ((read = in.read(buffer)) > 0) {
+						digest.update(buffer, 0, read);
+					}
+					return toHex(digest.digest());
+				}
+			} catch (IOException e) {
+				// Use the class name only
+			}
+			return className;
+		});
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder builder = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return builder.toString();
+	}
+}
@@ -56,6 +56,7 @@ import org.openjdk.jmc.flightrecorder.JfrLoaderToolkit;
 import org.openjdk.jmc.flightrecorder.rules.IResult;
 import org.openjdk.jmc.flightrecorder.rules.IRule;
 import org.openjdk.jmc.flightrecorder.rules.RuleRegistry;
+import org.openjdk.jmc.flightrecorder.rules.report.RuleResultCache;
 import org.openjdk.jmc.flightrecorder.rules.report.html.internal.HtmlResultGroup;
 import org.openjdk.jmc.flightrecorder.rules.report.html.internal.HtmlResultProvider;
 import org.openjdk.jmc.flightrecorder.rules.report.html.internal.RulesHtmlToolkit;
@@ -69,15 +70,17 @@ import org.xml.sax.SAXException;
 public class JfrHtmlRulesReport {
 	public static void main(String[] args) {
 		if (args.length == 0) {
-			System.err.println("Enter one or two arguments to this program:"); //$NON-NLS-1$
+			System.err.println("Enter one to three arguments to this program:"); //$NON-NLS-1$
 			System.err.println("The first argument must be a JFR file."); //$NON-NLS-1$
 			System.err.println("The second optional argument is the output file."); //$NON-NLS-1$
 			System.err.println("If an output file is not specified, then the output will be written to stdout."); //$NON-NLS-1$
+			System.err.println("The third optional argument is a directory for caching rule results."); //$NON-NLS-1$
 			System.exit(1);
 		}
 
 		try {
-			String report = createReport(new File(args[0]));
+			String report = args.length > 2 ? createReport(new File(args[0]), new RuleResultCache(new File(args[2])))
+					: createReport(new File(args[0]));
 			if (args.length > 1) {
 				PrintStream out = null;
 				try {
@@ -118,6 +121,26 @@ public class JfrHtmlRulesReport {
 		return createReport(JfrLoaderToolkit.loadEvents(jfrFile));
 	}
 
+	/**
+	 * Create an HTML report for a JFR file, using cached rule results where available. The JFR file
+	 * is only read if some rule results are not in the cache.
+	 *
+	 * @param jfrFile
+	 *            JFR file to read
+	 * @param cache
+	 *            the cache to get rule results from and store them in
+	 * @return a string with HTML
+	 * @throws CouldNotLoadRecordingException
+	 *             if the JFR file is invalid
+	 * @throws IOException
+	 *             if the JFR file can't be read
+	 */
+	public static String createReport(File jfrFile, RuleResultCache cache)
+			throws IOException, CouldNotLoadRecordingException {
+		// TODO: Provide configuration
+		return createReport(cache.evaluate(jfrFile, RuleRegistry.getRules(), null));
+	}
+
 	/**
 	 * Read JFR data and create an HTML report
 	 *
@@ -142,8 +165,10 @@ public class JfrHtmlRulesReport {
 	 */
 	public static String createReport(IItemCollection events) {
 		// TODO: Provide configuration
-		Map<IRule, Future<IResult>> resultFutures = RulesToolkit.evaluateParallel(RuleRegistry.getRules(), events, null,
-				0);
+		return createReport(RulesToolkit.evaluateParallel(RuleRegistry.getRules(), events, null, 0));
+	}
+
+	private static String createReport(Map<IRule, Future<IResult>> resultFutures) {
 		Collection<IResult> results = new HashSet<>();
 		for (Map.Entry<IRule, Future<IResult>> resultEntry : resultFutures.entrySet()) {
 			try {
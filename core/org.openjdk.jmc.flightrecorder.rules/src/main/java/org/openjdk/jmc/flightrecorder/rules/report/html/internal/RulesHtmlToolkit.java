@@ -51,6 +51,7 @@ import org.openjdk.jmc.common.io.IOToolkit;
 import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.flightrecorder.rules.IResult;
+import org.openjdk.jmc.flightrecorder.rules.PopulatedResult;
 import org.openjdk.jmc.flightrecorder.rules.ResultToolkit;
 import org.openjdk.jmc.flightrecorder.rules.Severity;
 import org.openjdk.jmc.flightrecorder.rules.TypedResult;
@@ -242,12 +243,22 @@ public class RulesHtmlToolkit {
 
 	// FIXME: Make private and instead add a method for creating javascript updates
 	public static String getDescription(IResult result) {
-		String summary = result.getSummary() == null ? "" : Encode.forHtml(result.getSummary()); //$NON-NLS-1$
-		String explanation = result.getExplanation() == null ? "" : Encode.forHtml(result.getExplanation()); //$NON-NLS-1$
-		String solution = result.getSolution() == null ? "" : Encode.forHtml(result.getSolution()); //$NON-NLS-1$
-		summary = ResultToolkit.populateMessage(result, summary, true);
-		explanation = ResultToolkit.populateMessage(result, explanation, true);
-		solution = ResultToolkit.populateMessage(result, solution, true);
+		String summary;
+		String explanation;
+		String solution;
+		if (result instanceof PopulatedResult) {
+			PopulatedResult populated = (PopulatedResult) result;
+			summary = populated.getHtmlSummary() == null ? "" : populated.getHtmlSummary(); //$NON-NLS-1$
+			explanation = populated.getHtmlExplanation() == null ? "" : populated.getHtmlExplanation(); //$NON-NLS-1$
+			solution = populated.getHtmlSolution() == null ? "" : populated.getHtmlSolution(); //$NON-NLS-1$
+		} else {
+			summary = result.getSummary() == null ? "" : Encode.forHtml(result.getSummary()); //$NON-NLS-1$
+			explanation = result.getExplanation() == null ? "" : Encode.forHtml(result.getExplanation()); //$NON-NLS-1$
+			solution = result.getSolution() == null ? "" : Encode.forHtml(result.getSolution()); //$NON-NLS-1$
+			summary = ResultToolkit.populateMessage(result, summary, true);
+			explanation = ResultToolkit.populateMessage(result, explanation, true);
+			solution = ResultToolkit.populateMessage(result, solution, true);
+		}
 		String description = "<div class=\"longDescription\">" + summary + "</div>"; //$NON-NLS-1$ //$NON-NLS-2$
 		description += (explanation != null) ? "<div class=\"longDescription\">" + explanation + "</div>" : ""; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		description += (solution != null) ? "<div class=\"longDescription\">" + solution + "</div>" : ""; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.serializers.json;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.openjdk.jmc.common.item.ItemCountMatrix;
+import org.openjdk.jmc.common.unit.IQuantity;
+
+/**
+ * Converts an {@link ItemCountMatrix} to a JSON object. The counts are written as an array with one
+ * array of y bucket counts per x bucket. Bucket bounds are written as numbers in the unit of the
+ * first bucket.
+ */
+public class ItemCountMatrixJsonSerializer extends JsonWriter {
+	private final static Logger LOGGER = Logger.getLogger("org.openjdk.jmc.flightrecorder.json");
+
+	public static String toJsonString(ItemCountMatrix matrix) {
+		StringWriter sw = new StringWriter();
+		ItemCountMatrixJsonSerializer marshaller = new ItemCountMatrixJsonSerializer(sw);
+		try {
+			marshaller.writeMatrix(matrix);
+		} catch (IOException e) {
+			LOGGER.log(Level.SEVERE, "Failed to serialize item count matrix to JSON", e);
+		}
+		return sw.getBuffer().toString();
+	}
+
+	private ItemCountMatrixJsonSerializer(Writer w) {
+		super(w);
+	}
+
+	private void writeMatrix(ItemCountMatrix matrix) throws IOException {
+		writeObjectBegin();
+		writeBounds(true, "x", matrix.getXStart(), matrix.getXBucketSize());
+		writeBounds(false, "y", matrix.getYStart(), matrix.getYBucketSize());
+		writeField(false, "total", matrix.getTotalCount());
+		nextField(false, "counts");
+		writeArrayBegin();
+		for (int x = 0; x < matrix.getXBucketCount(); x++) {
+			nextElement(x == 0);
+			writeArrayBegin();
+			for (int y = 0; y < matrix.getYBucketCount(); y++) {
+				nextElement(y == 0);
+				write(Long.toString(matrix.getCount(x, y)));
+			}
+			writeArrayEnd();
+		}
+		writeArrayEnd();
+		writeObjectEnd();
+		flush();
+	}
+
+	private void writeBounds(boolean first, String axis, IQuantity start, IQuantity bucketSize) {
+		writeField(first, axis + "Start", start);
+		writeField(false, axis + "Unit", start != null ? start.getUnit().getIdentifier() : null);
+		writeField(false, axis + "BucketSize", start != null ? bucketSize : null);
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.serializers.json;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.openjdk.jmc.flightrecorder.stacktrace.PackageDependencies;
+
+/**
+ * Converts {@link PackageDependencies} to a JSON object with the packages and the edges between
+ * them, sorted by decreasing count.
+ */
+public class PackageDependenciesJsonSerializer extends JsonWriter {
+	private final static Logger LOGGER = Logger.getLogger("org.openjdk.jmc.flightrecorder.json");
+
+	public static String toJsonString(PackageDependencies dependencies) {
+		StringWriter sw = new StringWriter();
+		PackageDependenciesJsonSerializer marshaller = new PackageDependenciesJsonSerializer(sw);
+		try {
+			marshaller.writeDependencies(dependencies);
+		} catch (IOException e) {
+			LOGGER.log(Level.SEVERE, "Failed to serialize package dependencies to JSON", e);
+		}
+		return sw.getBuffer().toString();
+	}
+
+	private PackageDependenciesJsonSerializer(Writer w) {
+		super(w);
+	}
+
+	private void writeDependencies(PackageDependencies dependencies) throws IOException {
+		writeObjectBegin();
+		writeField(true, "items", dependencies.getItemCount());
+		nextField(false, "packages");
+		writeArrayBegin();
+		boolean first = true;
+		for (String name : dependencies.getPackages()) {
+			nextElement(first);
+			writeStringValue(name);
+			first = false;
+		}
+		writeArrayEnd();
+		nextField(false, "edges");
+		writeArrayBegin();
+		first = true;
+		for (PackageDependencies.Edge edge : dependencies.getEdges()) {
+			nextElement(first);
+			write("{\"source\": ");
+			writeStringValue(edge.getSource());
+			write(", \"target\": ");
+			writeStringValue(edge.getTarget());
+			write(", \"value\": ");
+			write(Long.toString(edge.getCount()));
+			write("}");
+			first = false;
+		}
+		writeArrayEnd();
+		writeObjectEnd();
+		flush();
+	}
+}
@@ -76,47 +76,31 @@ abstract class AbstractLEB128Writer implements LEB128Writer {
 	}
 
 	@Override
-	public final long writeLong(long offset, long data) {
-		if ((data & LEB128Writer.COMPRESSED_INT_MASK) == 0) {
-			return writeByte(offset, (byte) (data & 0xff));
+	public long writeLong(long offset, long data) {
+		int len = getPackedIntLen(data);
+		for (int i = 1; i < len; i++) {
+			offset = writeByte(offset, (byte) (data | EXT_BIT));
+			data >>>= 7;
 		}
-		offset = writeByte(offset, (byte) (data | LEB128Writer.EXT_BIT));
-		data >>= 7;
-		if ((data & LEB128Writer.COMPRESSED_INT_MASK) == 0) {
-			return writeByte(offset, (byte) data);
-		}
-		offset = writeByte(offset, (byte) (data | LEB128Writer.EXT_BIT));
-		data >>= 7;
-		if ((data & LEB128Writer.COMPRESSED_INT_MASK) == 0) {
-			return writeByte(offset, (byte) data);
-		}
-		offset = writeByte(offset, (byte) (data | LEB128Writer.EXT_BIT));
-		data >>= 7;
-		if ((data & LEB128Writer.COMPRESSED_INT_MASK) == 0) {
-			return writeByte(offset, (byte) data);
-		}
-		offset = writeByte(offset, (byte) (data | LEB128Writer.EXT_BIT));
-		data >>= 7;
-		if ((data & LEB128Writer.COMPRESSED_INT_MASK) == 0) {
-			return writeByte(offset, (byte) data);
-		}
-		offset = writeByte(offset, (byte) (data | LEB128Writer.EXT_BIT));
-		data >>= 7;
-		if ((data & LEB128Writer.COMPRESSED_INT_MASK) == 0) {
-			return writeByte(offset, (byte) data);
-		}
-		offset = writeByte(offset, (byte) (data | LEB128Writer.EXT_BIT));
-		data >>= 7;
-		if ((data & LEB128Writer.COMPRESSED_INT_MASK) == 0) {
-			return writeByte(offset, (byte) data);
-		}
-		offset = writeByte(offset, (byte) (data | LEB128Writer.EXT_BIT));
-		data >>= 7;
-		if ((data & LEB128Writer.COMPRESSED_INT_MASK) == 0) {
-			return writeByte(offset, (byte) data);
+		// the last byte holds the remaining 7 bits, or all 8 bits when the value takes 9 bytes
+		return writeByte(offset, (byte) data);
+	}
+
+	@Override
+	public final LEB128Writer writeIntPadded(int data) {
+		writeIntPadded(position(), data);
+		return this;
+	}
+
+	@Override
+	public final long writeIntPadded(long offset, int data) {
+		if ((data & 0xf0000000) != 0) {
+			throw new IllegalArgumentException("Value does not fit in " + PADDED_INT_LEN + " bytes: " + data);
 		}
-		offset = writeByte(offset, (byte) (data | LEB128Writer.EXT_BIT));
-		return writeByte(offset, (byte) (data >> 7));
+		offset = writeByte(offset, (byte) (data | EXT_BIT));
+		offset = writeByte(offset, (byte) ((data >> 7) | EXT_BIT));
+		offset = writeByte(offset, (byte) ((data >> 14) | EXT_BIT));
+		return writeByte(offset, (byte) (data >> 21));
 	}
 
 	@Override
@@ -243,38 +227,14 @@ abstract class AbstractLEB128Writer implements LEB128Writer {
 		return length + extraLen;
 	}
 
+	/**
+	 * @param data
+	 *            the data
+	 * @return the number of bytes needed to LEB128 encode the data, between 1 and 9
+	 */
 	static int getPackedIntLen(long data) {
-		if ((data & COMPRESSED_INT_MASK) == 0) {
-			return 1;
-		}
-		data >>= 7;
-		if ((data & COMPRESSED_INT_MASK) == 0) {
-			return 2;
-		}
-		data >>= 7;
-		if ((data & COMPRESSED_INT_MASK) == 0) {
-			return 3;
-		}
-		data >>= 7;
-		if ((data & COMPRESSED_INT_MASK) == 0) {
-			return 4;
-		}
-		data >>= 7;
-		if ((data & COMPRESSED_INT_MASK) == 0) {
-			return 5;
-		}
-		data >>= 7;
-		if ((data & COMPRESSED_INT_MASK) == 0) {
-			return 6;
-		}
-		data >>= 7;
-		if ((data & COMPRESSED_INT_MASK) == 0) {
-			return 7;
-		}
-		data >>= 7;
-		if ((data & COMPRESSED_INT_MASK) == 0) {
-			return 8;
-		}
-		return 9;
+		// negative values use all 64 bits and so always take 9 bytes
+		int bits = Long.SIZE - Long.numberOfLeadingZeros(data | 1);
+		return bits > 56 ? 9 : (bits + 6) / 7;
 	}
 }
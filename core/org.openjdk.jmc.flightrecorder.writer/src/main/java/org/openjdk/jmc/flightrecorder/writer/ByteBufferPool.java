@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of equally sized direct {@linkplain ByteBuffer} segments. Segments that are
+ * released when the pool is full are left to the garbage collector.
+ */
+final class ByteBufferPool {
+	private final int segmentSize;
+	private final int maxPooled;
+	private final Queue<ByteBuffer> segments = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pooled = new AtomicInteger();
+
+	/**
+	 * @param segmentSize
+	 *            the size of each segment, must be a power of two
+	 * @param maxPooled
+	 *            the maximum number of released segments to keep for reuse
+	 */
+	ByteBufferPool(int segmentSize, int maxPooled) {
+		if (Integer.bitCount(segmentSize) != 1) {
+			throw new IllegalArgumentException("Segment size must be a power of two: " + segmentSize);
+		}
+		this.segmentSize = segmentSize;
+		this.maxPooled = maxPooled;
+	}
+
+	/** @return the size of each segment */
+	int segmentSize() {
+		return segmentSize;
+	}
+
+	/** @return a cleared segment, either reused or newly allocated */
+	ByteBuffer acquire() {
+		ByteBuffer segment = segments.poll();
+		if (segment == null) {
+			return ByteBuffer.allocateDirect(segmentSize);
+		}
+		pooled.decrementAndGet();
+		return segment;
+	}
+
+	/**
+	 * Return a segment to the pool. The segment must not be used after it has been released.
+	 *
+	 * @param segment
+	 *            a segment acquired from this pool
+	 */
+	void release(ByteBuffer segment) {
+		if (pooled.incrementAndGet() <= maxPooled) {
+			segment.clear();
+			segments.offer(segment);
+		} else {
+			pooled.decrementAndGet();
+		}
+	}
+}
@@ -39,11 +39,20 @@ import org.openjdk.jmc.flightrecorder.writer.api.Types;
 
 /** A representation of JFR chunk - self contained set of JFR data. */
 final class Chunk {
-	private final LEB128Writer writer = LEB128Writer.getInstance();
+	private final LEB128Writer writer;
 	private final long startTicks;
 	private final long startNanos;
 
 	Chunk() {
+		this(LEB128Writer.getInstance());
+	}
+
+	/**
+	 * @param writer
+	 *            the writer to collect the chunk data in
+	 */
+	Chunk(LEB128Writer writer) {
+		this.writer = writer;
 		this.startTicks = System.nanoTime();
 		this.startNanos = System.currentTimeMillis() * 1_000_000L;
 	}
@@ -152,14 +161,43 @@ final class Chunk {
 			throw new IllegalArgumentException();
 		}
 
-		LEB128Writer eventWriter = LEB128Writer.getInstance();
-		eventWriter.writeLong(event.getType().getId());
+		int start = beginEvent(event.getType());
 		for (TypedFieldValueImpl fieldValue : event.getFieldValues()) {
-			writeTypedValue(eventWriter, fieldValue.getValue());
+			writeTypedValue(writer, fieldValue.getValue());
 		}
+		endEvent(start);
+	}
 
-		writer.writeInt(eventWriter.length()) // write event size
-				.writeBytes(eventWriter.export());
+	/**
+	 * Start writing an event directly to the chunk. The event size is written as a padded
+	 * placeholder which is filled in by {@link #endEvent(int)}.
+	 *
+	 * @param eventType
+	 *            the event type
+	 * @return the offset of the event in the chunk
+	 */
+	int beginEvent(TypeImpl eventType) {
+		int start = writer.position();
+		writer.writeIntPadded(0).writeLong(eventType.getId());
+		return start;
+	}
+
+	/**
+	 * @return the writer to write the fields of an event started by {@link #beginEvent(TypeImpl)}
+	 *         to
+	 */
+	LEB128Writer eventWriter() {
+		return writer;
+	}
+
+	/**
+	 * Finish writing an event started by {@link #beginEvent(TypeImpl)}.
+	 *
+	 * @param start
+	 *            the offset of the event in the chunk
+	 */
+	void endEvent(int start) {
+		writer.writeIntPadded(start, writer.position() - start);
 	}
 
 	@Override
@@ -36,18 +36,46 @@ package org.openjdk.jmc.flightrecorder.writer;
 import org.openjdk.jmc.flightrecorder.writer.api.Type;
 import org.openjdk.jmc.flightrecorder.writer.api.TypedField;
 import org.openjdk.jmc.flightrecorder.writer.api.TypedValue;
+import org.openjdk.jmc.flightrecorder.writer.api.Types;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-/** An in-memory map of distinct values of a certain {@linkplain Type} */
+/**
+ * An in-memory map of distinct values of a certain {@linkplain Type}. Values may be added
+ * concurrently from several threads.
+ * <p>
+ * The recording is written as a single chunk with its constant pools at the end, so every value
+ * that has been referenced must be kept until the recording is closed. Only strings can also be
+ * written inline, so the number of pooled strings is limited and further distinct strings are not
+ * pooled.
+ */
 final class ConstantPool {
+	/**
+	 * The default maximum number of distinct strings in a string constant pool.
+	 */
+	static final int DEFAULT_MAX_STRINGS = 64 * 1024;
+
 	private final TypeImpl type;
-	private final Map<Object, TypedValueImpl> constantMap = new HashMap<>();
-	private final Map<Long, TypedValueImpl> reverseMap = new HashMap<>();
+	private final int maxStrings;
+	private final boolean isStringPool;
+	private final Map<Object, TypedValueImpl> constantMap = new ConcurrentHashMap<>();
+	private final Map<Long, TypedValueImpl> reverseMap = new ConcurrentHashMap<>();
+	private final AtomicLong lastIndex = new AtomicLong(); // index 0 is reserved for NULL encoding
+	private final AtomicInteger pooledStrings = new AtomicInteger();
 
 	ConstantPool(TypeImpl type) {
+		this(type, DEFAULT_MAX_STRINGS);
+	}
+
+	ConstantPool(TypeImpl type, int maxStrings) {
 		this.type = type;
+		this.maxStrings = maxStrings;
+		this.isStringPool = Types.Builtin.ofType(type) == Types.Builtin.STRING;
 	}
 
 	/**
@@ -61,17 +89,52 @@ final class ConstantPool {
 		if (value == null) {
 			return type.nullValue();
 		}
-		return constantMap.computeIfAbsent(value, v -> {
-			long index = constantMap.size() + 1; // index 0 is reserved for NULL encoding
-			TypedValueImpl tValue;
-			if (v instanceof TypedValue) {
-				tValue = new TypedValueImpl((TypedValueImpl) v, index);
-			} else {
-				tValue = new TypedValueImpl(type, v, index);
-			}
-			reverseMap.put(index, tValue);
-			return tValue;
+		TypedValueImpl pooled = constantMap.get(value);
+		if (pooled != null) {
+			return pooled;
+		}
+		if (!isStringPool) {
+			return constantMap.computeIfAbsent(value, this::createConstant);
+		}
+		// Reserve a place in the pool before adding, so that concurrent adds cannot exceed the limit
+		if (!reserveString()) {
+			pooled = constantMap.get(value);
+			// written inline instead of as a constant pool reference
+			return pooled != null ? pooled : new TypedValueImpl(type, value);
+		}
+		boolean[] added = new boolean[1];
+		pooled = constantMap.computeIfAbsent(value, v -> {
+			added[0] = true;
+			return createConstant(v);
 		});
+		if (!added[0]) {
+			// another thread added the same string first
+			pooledStrings.decrementAndGet();
+		}
+		return pooled;
+	}
+
+	private boolean reserveString() {
+		int count;
+		do {
+			count = pooledStrings.get();
+			if (count >= maxStrings) {
+				return false;
+			}
+		} while (!pooledStrings.compareAndSet(count, count + 1));
+		return true;
+	}
+
+	private TypedValueImpl createConstant(Object value) {
+		long index = lastIndex.incrementAndGet();
+		TypedValueImpl tValue;
+		if (value instanceof TypedValue) {
+			tValue = new TypedValueImpl((TypedValueImpl) value, index);
+		} else {
+			tValue = new TypedValueImpl(type, value, index);
+		}
+		reverseMap.put(index, tValue);
+		return tValue;
 	}
 
 	/**
@@ -86,12 +149,13 @@ final class ConstantPool {
 	}
 
 	void writeTo(LEB128Writer writer) {
+		List<Map.Entry<Long, TypedValueImpl>> constants = new ArrayList<>(reverseMap.entrySet());
 		writer.writeLong(type.getId()); // CP type ID
-		writer.writeInt(constantMap.size()); // number of constants
-		reverseMap.forEach((k, v) -> {
-			writer.writeLong(k); // constant index
-			writeValueType(writer, v, false);
-		});
+		writer.writeInt(constants.size()); // number of constants
+		for (Map.Entry<Long, TypedValueImpl> constant : constants) {
+			writer.writeLong(constant.getKey()); // constant index
+			writeValueType(writer, constant.getValue(), false);
+		}
 	}
 
 	void writeValueType(LEB128Writer writer, TypedValueImpl typedValue, boolean useConstantPoolReferences) {
@@ -146,9 +210,11 @@ final class ConstantPool {
 					writer.writeByte((byte) 0); // skip CP for NULL
 				} else if (((String) typedValue.getValue()).isEmpty()) {
 					writer.writeByte((byte) 1); // skip CP for empty string
-				} else {
+				} else if (typedValue.getConstantPoolIndex() > Long.MIN_VALUE) {
 					writer.writeByte((byte) 2) // set constant-pool encoding
 							.writeLong(typedValue.getConstantPoolIndex());
+				} else {
+					writer.writeCompactUTF((String) value); // not pooled
 				}
 			} else {
 				writer.writeCompactUTF((String) value);
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmc.flightrecorder.writer.api.EventWriter;
+import org.openjdk.jmc.flightrecorder.writer.api.TypedValue;
+import org.openjdk.jmc.flightrecorder.writer.api.Types;
+
+/** An {@linkplain EventWriter} writing the fields of an event directly to the thread's chunk */
+final class EventWriterImpl implements EventWriter {
+	private final RecordingImpl recording;
+	private final TypeImpl type;
+	private final TypedFieldImpl[] fields;
+	// the built-in type of each non-array field or {@literal null}
+	private final Types.Builtin[] builtins;
+	private final boolean[] timestamps;
+	private final TypeImpl stringType;
+	// the last string put into each field and its pooled value
+	private final String[] lastStrings;
+	private final TypedValueImpl[] lastStringValues;
+
+	// the field values of the event being written
+	private final boolean[] set;
+	private final long[] primitiveValues;
+	private final Object[] values;
+
+	EventWriterImpl(RecordingImpl recording, TypeImpl type) {
+		if (!"jdk.jfr.Event".equals(type.getSupertype())) {
+			throw new IllegalArgumentException();
+		}
+		this.recording = recording;
+		this.type = type;
+		List<TypedFieldImpl> typeFields = type.getFields();
+		fields = typeFields.toArray(new TypedFieldImpl[0]);
+		builtins = new Types.Builtin[fields.length];
+		timestamps = new boolean[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			if (!fields[i].isArray()) {
+				builtins[i] = Types.Builtin.ofType(fields[i].getType());
+			}
+			timestamps[i] = builtins[i] == Types.Builtin.LONG && TypedValueImpl.hasTimestampAnnotation(fields[i]);
+		}
+		stringType = type.getTypes().getType(Types.Builtin.STRING);
+		lastStrings = new String[fields.length];
+		lastStringValues = new TypedValueImpl[fields.length];
+		set = new boolean[fields.length];
+		primitiveValues = new long[fields.length];
+		values = new Object[fields.length];
+	}
+
+	@Override
+	public TypeImpl getType() {
+		return type;
+	}
+
+	@Override
+	public int getFieldIndex(String name) {
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i].getName().equals(name)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Event type " + type.getTypeName() + " has no field " + name);
+	}
+
+	@Override
+	public EventWriter putField(int index, byte value) {
+		return putPrimitive(index, Types.Builtin.BYTE, value);
+	}
+
+	@Override
+	public EventWriter putField(int index, char value) {
+		return putPrimitive(index, Types.Builtin.CHAR, value);
+	}
+
+	@Override
+	public EventWriter putField(int index, short value) {
+		return putPrimitive(index, Types.Builtin.SHORT, value);
+	}
+
+	@Override
+	public EventWriter putField(int index, int value) {
+		return putPrimitive(index, Types.Builtin.INT, value);
+	}
+
+	@Override
+	public EventWriter putField(int index, long value) {
+		return putPrimitive(index, Types.Builtin.LONG, value);
+	}
+
+	@Override
+	public EventWriter putField(int index, float value) {
+		return putPrimitive(index, Types.Builtin.FLOAT, Float.floatToRawIntBits(value));
+	}
+
+	@Override
+	public EventWriter putField(int index, double value) {
+		return putPrimitive(index, Types.Builtin.DOUBLE, Double.doubleToRawLongBits(value));
+	}
+
+	@Override
+	public EventWriter putField(int index, boolean value) {
+		return putPrimitive(index, Types.Builtin.BOOLEAN, value ? 1 : 0);
+	}
+
+	@Override
+	public EventWriter putField(int index, String value) {
+		checkBuiltin(index, Types.Builtin.STRING);
+		// strings are written as constant pool references, so the encoded string is kept only once;
+		// repeating the previous string of the field skips the constant pool lookup
+		if (value == null) {
+			values[index] = stringType.nullValue();
+		} else if (value.equals(lastStrings[index])) {
+			values[index] = lastStringValues[index];
+		} else {
+			TypedValueImpl stringValue = stringType.asValue(value);
+			lastStrings[index] = value;
+			lastStringValues[index] = stringValue;
+			values[index] = stringValue;
+		}
+		set[index] = true;
+		return this;
+	}
+
+	@Override
+	public EventWriter putField(int index, TypedValue value) {
+		TypedFieldImpl field = fields[index];
+		if (field.isArray()) {
+			throw new IllegalArgumentException("Field " + field.getName() + " is an array field");
+		}
+		values[index] = checkValue(field, value);
+		set[index] = true;
+		return this;
+	}
+
+	@Override
+	public EventWriter putField(int index, TypedValue[] values) {
+		TypedFieldImpl field = fields[index];
+		if (!field.isArray()) {
+			throw new IllegalArgumentException("Field " + field.getName() + " is not an array field");
+		}
+		if (values != null) {
+			for (TypedValue value : values) {
+				if (value != null && !field.getType().canAccept(value)) {
+					throw new IllegalArgumentException(
+							"Field " + field.getName() + " can not hold a value of type " + value.getType());
+				}
+			}
+		}
+		this.values[index] = values;
+		set[index] = true;
+		return this;
+	}
+
+	private EventWriter putPrimitive(int index, Types.Builtin builtin, long value) {
+		checkBuiltin(index, builtin);
+		primitiveValues[index] = value;
+		values[index] = null;
+		set[index] = true;
+		return this;
+	}
+
+	private void checkBuiltin(int index, Types.Builtin builtin) {
+		if (builtins[index] != builtin) {
+			throw new IllegalArgumentException("Field " + fields[index].getName() + " is not of type "
+					+ builtin.getTypeName() + " but " + fields[index].getType().getTypeName());
+		}
+	}
+
+	private static TypedValueImpl checkValue(TypedFieldImpl field, TypedValue value) {
+		TypeImpl fieldType = field.getType();
+		if (value == null) {
+			return fieldType.nullValue();
+		}
+		TypedValueImpl typedValue = (TypedValueImpl) value;
+		if (fieldType.isSimple()) {
+			typedValue = TypedValueImpl.wrapSimpleValueField(fieldType, typedValue);
+		}
+		if (!fieldType.canAccept(typedValue)) {
+			throw new IllegalArgumentException(
+					"Field " + field.getName() + " can not hold a value of type " + value.getType());
+		}
+		return typedValue;
+	}
+
+	@Override
+	public void commit() {
+		Chunk chunk = recording.getChunk();
+		int start = chunk.beginEvent(type);
+		LEB128Writer writer = chunk.eventWriter();
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i].isArray()) {
+				writeArray(chunk, writer, (TypedValueImpl[]) values[i]);
+			} else if (values[i] != null) {
+				chunk.writeTypedValue(writer, (TypedValueImpl) values[i]);
+			} else if (builtins[i] != null) {
+				long value = set[i] ? primitiveValues[i] : timestamps[i] ? System.nanoTime() : 0;
+				writePrimitive(writer, builtins[i], value);
+			} else {
+				chunk.writeTypedValue(writer, fields[i].getType().nullValue());
+			}
+		}
+		chunk.endEvent(start);
+
+		Arrays.fill(set, false);
+		Arrays.fill(primitiveValues, 0);
+		Arrays.fill(values, null);
+	}
+
+	private static void writeArray(Chunk chunk, LEB128Writer writer, TypedValueImpl[] array) {
+		if (array == null) {
+			writer.writeInt(0);
+			return;
+		}
+		writer.writeInt(array.length);
+		for (TypedValueImpl value : array) {
+			chunk.writeTypedValue(writer, value);
+		}
+	}
+
+	private static void writePrimitive(LEB128Writer writer, Types.Builtin builtin, long value) {
+		switch (builtin) {
+		case BYTE:
+			writer.writeByte((byte) value);
+			break;
+		case CHAR:
+			writer.writeChar((char) value);
+			break;
+		case SHORT:
+			writer.writeShort((short) value);
+			break;
+		case INT:
+			writer.writeInt((int) value);
+			break;
+		case LONG:
+			writer.writeLong(value);
+			break;
+		case FLOAT:
+			writer.writeFloat(Float.intBitsToFloat((int) value));
+			break;
+		case DOUBLE:
+			writer.writeDouble(Double.longBitsToDouble(value));
+			break;
+		case BOOLEAN:
+			writer.writeBoolean(value != 0);
+			break;
+		case STRING:
+			// a string field that has not been set
+			writer.writeByte((byte) 0);
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported built-in type " + builtin.getTypeName());
+		}
+	}
+}
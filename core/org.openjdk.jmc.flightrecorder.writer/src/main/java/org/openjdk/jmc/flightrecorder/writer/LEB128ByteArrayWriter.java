@@ -62,12 +62,25 @@ final class LEB128ByteArrayWriter extends AbstractLEB128Writer {
 		return writeLongRaw(offset, Double.doubleToLongBits(data));
 	}
 
+	@Override
+	public long writeLong(long offset, long data) {
+		int len = getPackedIntLen(data);
+		int pos = (int) offset;
+		int newOffset = pos + len;
+		ensureCapacity(newOffset);
+		for (int i = 1; i < len; i++) {
+			array[pos++] = (byte) (data | EXT_BIT);
+			data >>>= 7;
+		}
+		array[pos] = (byte) data;
+		pointer = Math.max(newOffset, pointer);
+		return newOffset;
+	}
+
 	@Override
 	public long writeByte(long offset, byte data) {
 		int newOffset = (int) (offset + 1);
-		if (newOffset >= array.length) {
-			array = Arrays.copyOf(array, newOffset * 2);
-		}
+		ensureCapacity(newOffset);
 		array[(int) offset] = data;
 		pointer = Math.max(newOffset, pointer);
 		return newOffset;
@@ -79,9 +92,7 @@ final class LEB128ByteArrayWriter extends AbstractLEB128Writer {
 			return offset;
 		}
 		int newOffset = (int) (offset + data.length);
-		if (newOffset >= array.length) {
-			array = Arrays.copyOf(array, newOffset * 2);
-		}
+		ensureCapacity(newOffset);
 		System.arraycopy(data, 0, array, (int) offset, data.length);
 		pointer = Math.max(newOffset, pointer);
 		return newOffset;
@@ -89,20 +100,35 @@ final class LEB128ByteArrayWriter extends AbstractLEB128Writer {
 
 	@Override
 	public long writeShortRaw(long offset, short data) {
-		return writeBytes(offset, (byte) ((data >> 8) & 0xff), (byte) (data & 0xff));
+		return writeRaw(offset, data, 2);
 	}
 
 	@Override
 	public long writeIntRaw(long offset, int data) {
-		return writeBytes(offset, (byte) ((data >> 24) & 0xff), (byte) ((data >> 16) & 0xff),
-				(byte) ((data >> 8) & 0xff), (byte) (data & 0xff));
+		return writeRaw(offset, data, 4);
 	}
 
 	@Override
 	public long writeLongRaw(long offset, long data) {
-		return writeBytes(offset, (byte) ((data >> 56) & 0xff), (byte) ((data >> 48) & 0xff),
-				(byte) ((data >> 40) & 0xff), (byte) ((data >> 32) & 0xff), (byte) ((data >> 24) & 0xff),
-				(byte) ((data >> 16) & 0xff), (byte) ((data >> 8) & 0xff), (byte) (data & 0xff));
+		return writeRaw(offset, data, 8);
+	}
+
+	/** Write the lowest {@code bytes} bytes of the data in big-endian order */
+	private long writeRaw(long offset, long data, int bytes) {
+		int newOffset = (int) (offset + bytes);
+		ensureCapacity(newOffset);
+		for (int i = newOffset - 1; i >= offset; i--) {
+			array[i] = (byte) (data & 0xff);
+			data >>= 8;
+		}
+		pointer = Math.max(newOffset, pointer);
+		return newOffset;
+	}
+
+	private void ensureCapacity(int newOffset) {
+		if (newOffset >= array.length) {
+			array = Arrays.copyOf(array, newOffset * 2);
+		}
 	}
 
 	@Override
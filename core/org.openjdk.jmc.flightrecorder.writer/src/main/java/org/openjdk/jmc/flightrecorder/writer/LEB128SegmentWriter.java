@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writer with default support for LEB128 encoded integer types, backed by direct
+ * {@linkplain ByteBuffer} segments from a {@linkplain ByteBufferPool}. The writer grows by adding
+ * segments, so written data is never copied. The segments are returned to the pool when the writer
+ * is reset.
+ */
+final class LEB128SegmentWriter extends AbstractLEB128Writer {
+	private final ByteBufferPool pool;
+	private final int segmentShift;
+	private final int segmentMask;
+	private final List<ByteBuffer> segments = new ArrayList<>();
+	private int pointer = 0;
+
+	LEB128SegmentWriter(ByteBufferPool pool) {
+		this.pool = pool;
+		this.segmentShift = Integer.numberOfTrailingZeros(pool.segmentSize());
+		this.segmentMask = pool.segmentSize() - 1;
+	}
+
+	@Override
+	public void reset() {
+		for (ByteBuffer segment : segments) {
+			pool.release(segment);
+		}
+		segments.clear();
+		pointer = 0;
+	}
+
+	private ByteBuffer segmentAt(long offset) {
+		int index = (int) (offset >>> segmentShift);
+		while (segments.size() <= index) {
+			segments.add(pool.acquire());
+		}
+		return segments.get(index);
+	}
+
+	private long advanceTo(long newOffset) {
+		pointer = Math.max((int) newOffset, pointer);
+		return newOffset;
+	}
+
+	@Override
+	public long writeLong(long offset, long data) {
+		int len = getPackedIntLen(data);
+		int index = (int) offset & segmentMask;
+		if (index + len > segmentMask + 1) {
+			// the value spans two segments
+			return super.writeLong(offset, data);
+		}
+		ByteBuffer segment = segmentAt(offset);
+		for (int i = 1; i < len; i++) {
+			segment.put(index++, (byte) (data | EXT_BIT));
+			data >>>= 7;
+		}
+		segment.put(index, (byte) data);
+		return advanceTo(offset + len);
+	}
+
+	@Override
+	public long writeFloat(long offset, float data) {
+		return writeIntRaw(offset, Float.floatToIntBits(data));
+	}
+
+	@Override
+	public long writeDouble(long offset, double data) {
+		return writeLongRaw(offset, Double.doubleToLongBits(data));
+	}
+
+	@Override
+	public long writeByte(long offset, byte data) {
+		segmentAt(offset).put((int) offset & segmentMask, data);
+		return advanceTo(offset + 1);
+	}
+
+	@Override
+	public long writeBytes(long offset, byte ... data) {
+		if (data == null) {
+			return offset;
+		}
+		int written = 0;
+		while (written < data.length) {
+			int index = (int) offset & segmentMask;
+			int len = Math.min(data.length - written, segmentMask + 1 - index);
+			segmentAt(offset).put(index, data, written, len);
+			written += len;
+			offset += len;
+		}
+		return advanceTo(offset);
+	}
+
+	@Override
+	public long writeShortRaw(long offset, short data) {
+		int index = (int) offset & segmentMask;
+		if (index + Short.BYTES > segmentMask + 1) {
+			return writeRawBytes(offset, data, Short.BYTES);
+		}
+		segmentAt(offset).putShort(index, data);
+		return advanceTo(offset + Short.BYTES);
+	}
+
+	@Override
+	public long writeIntRaw(long offset, int data) {
+		int index = (int) offset & segmentMask;
+		if (index + Integer.BYTES > segmentMask + 1) {
+			return writeRawBytes(offset, data, Integer.BYTES);
+		}
+		segmentAt(offset).putInt(index, data);
+		return advanceTo(offset + Integer.BYTES);
+	}
+
+	@Override
+	public long writeLongRaw(long offset, long data) {
+		int index = (int) offset & segmentMask;
+		if (index + Long.BYTES > segmentMask + 1) {
+			return writeRawBytes(offset, data, Long.BYTES);
+		}
+		segmentAt(offset).putLong(index, data);
+		return advanceTo(offset + Long.BYTES);
+	}
+
+	/** Write the lowest {@code bytes} bytes of the data in big-endian order, byte by byte */
+	private long writeRawBytes(long offset, long data, int bytes) {
+		for (int shift = (bytes - 1) * Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+			offset = writeByte(offset, (byte) (data >> shift));
+		}
+		return offset;
+	}
+
+	@Override
+	public void export(Consumer<ByteBuffer> consumer) {
+		// a single buffer is expected here, so the segments have to be copied
+		ByteBuffer buffer = ByteBuffer.allocate(pointer);
+		exportSegments(buffer::put);
+		consumer.accept(buffer);
+	}
+
+	@Override
+	public void exportSegments(Consumer<ByteBuffer> consumer) {
+		int remaining = pointer;
+		for (ByteBuffer segment : segments) {
+			if (remaining == 0) {
+				break;
+			}
+			int len = Math.min(remaining, segment.capacity());
+			consumer.accept(segment.duplicate().clear().limit(len));
+			remaining -= len;
+		}
+	}
+
+	@Override
+	public int position() {
+		return pointer;
+	}
+
+	@Override
+	public int capacity() {
+		return segments.size() << segmentShift;
+	}
+}
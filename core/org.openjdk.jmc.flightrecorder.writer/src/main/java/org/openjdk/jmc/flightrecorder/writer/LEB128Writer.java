@@ -39,6 +39,7 @@ import java.util.function.Consumer;
 public interface LEB128Writer {
 	int EXT_BIT = 0x80;
 	long COMPRESSED_INT_MASK = -EXT_BIT;
+	int PADDED_INT_LEN = 4;
 
 	/**
 	 * Get a default {@linkplain LEB128Writer} instance
@@ -132,6 +133,28 @@ public interface LEB128Writer {
 	 */
 	long writeLong(long offset, long data);
 
+	/**
+	 * Write {@linkplain Integer} data in LEB128 encoding padded to exactly {@value #PADDED_INT_LEN}
+	 * bytes. This allows writing a placeholder and filling in the value later.
+	 *
+	 * @param data
+	 *            the data, must fit in 28 bits
+	 * @return the writer instance for chaining
+	 */
+	LEB128Writer writeIntPadded(int data);
+
+	/**
+	 * Write {@linkplain Integer} data in LEB128 encoding padded to exactly {@value #PADDED_INT_LEN}
+	 * bytes at the given offset
+	 *
+	 * @param offset
+	 *            the offset from which to start writing the data
+	 * @param data
+	 *            the data, must fit in 28 bits
+	 * @return the writer position after the data has been written
+	 */
+	long writeIntPadded(long offset, int data);
+
 	/**
 	 * Write {@linkplain Float} data in default Java encoding
 	 *
@@ -422,6 +445,22 @@ public interface LEB128Writer {
 	 */
 	void export(Consumer<ByteBuffer> consumer);
 
+	/**
+	 * Transfer the written data as a sequence of {@linkplain ByteBuffer} instances without copying
+	 * it. Each buffer is ready to be read from its position to its limit and is only valid until
+	 * the writer is modified or reset.
+	 *
+	 * @param consumer
+	 *            a {@linkplain ByteBuffer} callback, called for each buffer in order
+	 */
+	default void exportSegments(Consumer<ByteBuffer> consumer) {
+		export(buffer -> {
+			ByteBuffer segment = buffer.duplicate();
+			segment.flip();
+			consumer.accept(segment);
+		});
+	}
+
 	/** @return current writer position */
 	int position();
 
@@ -35,28 +35,30 @@ package org.openjdk.jmc.flightrecorder.writer;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 import org.openjdk.jmc.flightrecorder.writer.api.Annotation;
+import org.openjdk.jmc.flightrecorder.writer.api.EventWriter;
 import org.openjdk.jmc.flightrecorder.writer.api.Recording;
 import org.openjdk.jmc.flightrecorder.writer.api.RecordingSettings;
 import org.openjdk.jmc.flightrecorder.writer.api.Type;
@@ -65,6 +67,7 @@ import org.openjdk.jmc.flightrecorder.writer.api.TypedFieldBuilder;
 import org.openjdk.jmc.flightrecorder.writer.api.TypedValue;
 import org.openjdk.jmc.flightrecorder.writer.api.TypedValueBuilder;
 import org.openjdk.jmc.flightrecorder.writer.api.Types;
+import org.openjdk.jmc.flightrecorder.writer.util.BoundedCache;
 
 import jdk.jfr.Event;
 import jdk.jfr.Name;
@@ -74,6 +77,12 @@ import jdk.jfr.Timestamp;
 /**
  * The main entry point to JFR recording functionality. Allows to define custom types and initiate
  * {@link Chunk chunks} for writing user events.
+ * <p>
+ * Chunk data is collected in direct buffer segments shared by all recordings. The segment size
+ * defaults to 16 KiB and can be set with the
+ * {@code org.openjdk.jmc.flightrecorder.writer.segmentSize} system property. Up to 64 MiB of
+ * released segments are kept for reuse, which can be changed with the
+ * {@code org.openjdk.jmc.flightrecorder.writer.maxPooledMemory} system property.
  */
 public final class RecordingImpl extends Recording {
 	private static final Logger LOGGER = Logger.getLogger(RecordingImpl.class.getName());
@@ -87,12 +96,23 @@ public final class RecordingImpl extends Recording {
 	private static final long METADATA_OFFSET_OFFSET = 24;
 	private static final long DURATION_NANOS_OFFSET = 40;
 
+	private static final int CACHE_STRIPES = 32;
+
+	/*
+	 * Chunk data is collected in pooled direct buffer segments that are written out by reference.
+	 * The segment size is the least memory a writing thread holds on to. Released segments are kept
+	 * for reuse up to the maximum pooled memory, the rest is left to the garbage collector.
+	 */
+	private static final String SEGMENT_SIZE_PROPERTY = "org.openjdk.jmc.flightrecorder.writer.segmentSize";
+	private static final String MAX_POOLED_MEMORY_PROPERTY = "org.openjdk.jmc.flightrecorder.writer.maxPooledMemory";
+	private static final ByteBufferPool SEGMENT_POOL = createSegmentPool();
+
 	private final Set<Chunk> activeChunks = new CopyOnWriteArraySet<>();
-	private final LEB128Writer globalWriter = LEB128Writer.getInstance();
+	private final LEB128Writer headerWriter = LEB128Writer.getInstance();
 	private final InheritableThreadLocal<WeakReference<Chunk>> threadChunk = new InheritableThreadLocal<WeakReference<Chunk>>() {
 		@Override
 		protected WeakReference<Chunk> initialValue() {
-			Chunk chunk = new Chunk();
+			Chunk chunk = new Chunk(new LEB128SegmentWriter(SEGMENT_POOL));
 			activeChunks.add(chunk);
 			/*
 			 * Use weak reference to minimize the damage caused by thread-local leaks. The chunk
@@ -107,23 +127,35 @@ public final class RecordingImpl extends Recording {
 	private final long startNanos;
 	private final long duration;
 
+	/*
+	 * Exactly one of the output stream and the file channel is set. Finished chunks are written to
+	 * the file channel right away and the header is rewritten on close. Data for an output stream
+	 * has to follow the header, so finished chunks are copied to the heap until the recording is
+	 * closed. Either way their direct buffer segments go back to the pool.
+	 */
 	private final OutputStream outputStream;
+	private final FileChannel fileChannel;
+	private final long headerPosition;
+	private final List<ByteBuffer> finishedChunkData = new ArrayList<>();
+	// the size of the finished chunk data
+	private long finishedChunkSize;
 
 	private final AtomicBoolean closed = new AtomicBoolean();
 
-	private final BlockingDeque<LEB128Writer> chunkDataQueue = new LinkedBlockingDeque<>();
-	private final ExecutorService chunkDataMergingService = Executors.newSingleThreadExecutor();
-
 	private final ConstantPools constantPools = new ConstantPools();
 	private final MetadataImpl metadata = new MetadataImpl(constantPools);
 	private final TypesImpl types;
 
+	/*
+	 * The caches are used from all threads writing events. Evicted values are simply recomputed;
+	 * equal values resolve to the same constant pool entry.
+	 */
 	// a cache to hold already computed stack frames
-	private final Map<StackTraceElement, TypedValue> frameCache = new HashMap<>(16000);
+	private final BoundedCache<StackTraceElement, TypedValue> frameCache = new BoundedCache<>(16384, CACHE_STRIPES);
 	// a cache to hold already resolved class loaders
-	private final Map<String, TypedValue> classLoaderCache = new HashMap<>(128);
+	private final BoundedCache<String, TypedValue> classLoaderCache = new BoundedCache<>(128, CACHE_STRIPES);
 	// a cache to hold already resolved modules
-	private final Map<String, TypedValue> moduleCache = new HashMap<>(4096);
+	private final BoundedCache<String, TypedValue> moduleCache = new BoundedCache<>(4096, CACHE_STRIPES);
 
 	public RecordingImpl(OutputStream output, RecordingSettings settings) {
 		this.startTicks = settings.getStartTicks() != -1 ? settings.getStartTicks() : System.nanoTime();
@@ -131,90 +163,174 @@ public final class RecordingImpl extends Recording {
 				: System.currentTimeMillis() * 1_000_000L;
 		this.duration = settings.getDuration();
 		this.outputStream = output;
+		this.fileChannel = null;
+		this.headerPosition = 0;
 		this.types = new TypesImpl(metadata, settings.shouldInitializeJDKTypes());
 		writeFileHeader();
-
-		chunkDataMergingService.submit(() -> {
-			try {
-				while (!chunkDataMergingService.isShutdown()) {
-					processChunkDataQueue(500, TimeUnit.MILLISECONDS);
-				}
-				// process any outstanding elements in the queue
-				processChunkDataQueue(1, TimeUnit.NANOSECONDS);
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-			}
-		});
 	}
 
-	private void processChunkDataQueue(long pollTimeout, TimeUnit timeUnit) throws InterruptedException {
-		LEB128Writer writer = chunkDataQueue.poll(pollTimeout, timeUnit);
-		if (writer != null) {
-			List<LEB128Writer> writers = new ArrayList<>();
-			writers.add(writer);
-			chunkDataQueue.drainTo(writers);
-
-			for (LEB128Writer w : writers) {
-				globalWriter.writeBytes(w.export());
-			}
+	/**
+	 * Create a recording stored in the given file. Any existing file content is replaced.
+	 *
+	 * @param path
+	 *            the path to the recording file
+	 * @param settings
+	 *            the recording settings
+	 * @throws IOException
+	 *             if the file can not be opened or written
+	 */
+	public RecordingImpl(Path path, RecordingSettings settings) throws IOException {
+		this.startTicks = settings.getStartTicks() != -1 ? settings.getStartTicks() : System.nanoTime();
+		this.startNanos = settings.getStartTimestamp() != -1 ? settings.getStartTimestamp()
+				: System.currentTimeMillis() * 1_000_000L;
+		this.duration = settings.getDuration();
+		this.outputStream = null;
+		this.fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			this.headerPosition = fileChannel.position();
+			this.types = new TypesImpl(metadata, settings.shouldInitializeJDKTypes());
+			writeFileHeader();
+			// the header placeholder, rewritten on close
+			writeFully(fileChannel, exportSegments(headerWriter));
+		} catch (IOException | RuntimeException e) {
+			fileChannel.close();
+			throw e;
 		}
 	}
 
+	private static ByteBufferPool createSegmentPool() {
+		// rounded down to a power of two
+		int segmentSize = Integer.highestOneBit(Math.max(1024, Integer.getInteger(SEGMENT_SIZE_PROPERTY, 16 * 1024)));
+		long maxPooledMemory = Long.getLong(MAX_POOLED_MEMORY_PROPERTY, 64L * 1024 * 1024);
+		return new ByteBufferPool(segmentSize, (int) Math.min(Integer.MAX_VALUE, maxPooledMemory / segmentSize));
+	}
+
 	@Override
 	public RecordingImpl rotateChunk() {
 		Chunk chunk = getChunk();
 		activeChunks.remove(chunk);
 		threadChunk.remove();
 
-		chunk.finish(writer -> {
+		chunk.finish(this::spill);
+		return this;
+	}
+
+	/**
+	 * Move the data of a finished chunk out of its direct buffer segments and release them to the
+	 * pool.
+	 */
+	private void spill(LEB128Writer writer) {
+		synchronized (finishedChunkData) {
 			try {
-				chunkDataQueue.put(writer);
-			} catch (InterruptedException ignored) {
-				Thread.currentThread().interrupt();
+				if (fileChannel != null) {
+					writeFully(fileChannel, exportSegments(writer));
+				} else {
+					ByteBuffer copy = ByteBuffer.allocate(writer.position());
+					writer.exportSegments(copy::put);
+					copy.flip();
+					finishedChunkData.add(copy);
+				}
+				finishedChunkSize += writer.position();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} finally {
+				writer.reset();
 			}
-		});
-		return this;
+		}
 	}
 
 	@Override
 	public void close() throws IOException {
 		if (closed.compareAndSet(false, true)) {
+			List<LEB128Writer> chunkData = new ArrayList<>();
 			try {
 				/*
 				 * All active chunks are stable here - no new data will be added there so we can get
 				 * away with slightly racy code ....
 				 */
 				for (Chunk chunk : activeChunks) {
-					chunk.finish(writer -> {
-						try {
-							chunkDataQueue.put(writer);
-						} catch (InterruptedException ignored) {
-							Thread.currentThread().interrupt();
-						}
-					});
+					chunk.finish(chunkData::add);
 				}
 				activeChunks.clear();
 
-				chunkDataMergingService.shutdown();
-				boolean flushed = false;
-				try {
-					flushed = chunkDataMergingService.awaitTermination(5, TimeUnit.SECONDS);
-				} catch (InterruptedException e) {
-					Thread.currentThread().interrupt();
+				synchronized (finishedChunkData) {
+					LEB128Writer trailerWriter = finalizeRecording(chunkData);
+
+					List<ByteBuffer> buffers = new ArrayList<>();
+					if (fileChannel == null) {
+						headerWriter.exportSegments(buffers::add);
+						buffers.addAll(finishedChunkData);
+					}
+					for (LEB128Writer writer : chunkData) {
+						writer.exportSegments(buffers::add);
+					}
+					trailerWriter.exportSegments(buffers::add);
+					if (fileChannel != null) {
+						writeFully(fileChannel, buffers.toArray(new ByteBuffer[0]));
+						long position = headerPosition;
+						for (ByteBuffer buffer : exportSegments(headerWriter)) {
+							while (buffer.hasRemaining()) {
+								position += fileChannel.write(buffer, position);
+							}
+						}
+					} else {
+						writeBuffers(buffers.toArray(new ByteBuffer[0]));
+					}
+					finishedChunkData.clear();
 				}
-				if (!flushed) {
-					throw new RuntimeException("Unable to flush dangling JFR chunks");
+			} finally {
+				for (LEB128Writer writer : chunkData) {
+					writer.reset();
 				}
-				finalizeRecording();
+				if (fileChannel != null) {
+					fileChannel.close();
+				} else {
+					outputStream.close();
+				}
+			}
+		}
+	}
 
-				outputStream.write(globalWriter.export());
-			} finally {
-				outputStream.close();
+	private static ByteBuffer[] exportSegments(LEB128Writer writer) {
+		List<ByteBuffer> buffers = new ArrayList<>();
+		writer.exportSegments(buffers::add);
+		return buffers.toArray(new ByteBuffer[0]);
+	}
+
+	private static void writeFully(GatheringByteChannel channel, ByteBuffer[] buffers) throws IOException {
+		long remaining = 0;
+		for (ByteBuffer buffer : buffers) {
+			remaining += buffer.remaining();
+		}
+		while (remaining > 0) {
+			remaining -= channel.write(buffers);
+		}
+	}
+
+	/**
+	 * Write the buffers to the output stream. File output streams are written with a single
+	 * gathering write, so that the buffers do not have to be copied.
+	 */
+	private void writeBuffers(ByteBuffer[] buffers) throws IOException {
+		// not closed here, the output stream is closed by the caller
+		WritableByteChannel channel = Channels.newChannel(outputStream);
+		if (channel instanceof GatheringByteChannel) {
+			writeFully((GatheringByteChannel) channel, buffers);
+		} else {
+			for (ByteBuffer buffer : buffers) {
+				if (buffer.hasArray()) {
+					outputStream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+				} else {
+					while (buffer.hasRemaining()) {
+						channel.write(buffer);
+					}
+				}
 			}
 		}
 	}
 
-	private Chunk getChunk() {
+	Chunk getChunk() {
 		if (closed.get()) {
 			throw new IllegalStateException("Recording is already closed. Can not add more data.");
 		}
@@ -227,6 +343,14 @@ public final class RecordingImpl extends Recording {
 		return this;
 	}
 
+	@Override
+	public EventWriter newEventWriter(Type eventType) {
+		if (eventType == null) {
+			throw new IllegalArgumentException();
+		}
+		return new EventWriterImpl(this, (TypeImpl) eventType);
+	}
+
 	@Override
 	public TypeImpl registerEventType(String name) {
 		return registerEventType(name, builder -> {
@@ -648,7 +772,7 @@ public final class RecordingImpl extends Recording {
 	}
 
 	private void writeFileHeader() {
-		globalWriter.writeBytes(MAGIC).writeShortRaw(MAJOR_VERSION).writeShortRaw(MINOR_VERSION).writeLongRaw(0L) // size placeholder
+		headerWriter.writeBytes(MAGIC).writeShortRaw(MAJOR_VERSION).writeShortRaw(MINOR_VERSION).writeLongRaw(0L) // size placeholder
 				.writeLongRaw(0L) // CP event offset
 				.writeLongRaw(0L) // meta event offset
 				.writeLongRaw(startNanos) // start time in nanoseconds
@@ -658,22 +782,34 @@ public final class RecordingImpl extends Recording {
 				.writeIntRaw(1); // use compressed integers
 	}
 
-	private void finalizeRecording() {
+	/**
+	 * Write the checkpoint and metadata events and fill in the file header.
+	 *
+	 * @return the writer holding the checkpoint and metadata events, to be written after all chunk
+	 *         data
+	 */
+	private LEB128Writer finalizeRecording(List<LEB128Writer> chunkData) {
 		long recDuration = duration > 0 ? duration : System.nanoTime() - startTicks;
 		types.resolveAll();
 
-		long checkpointOffset = globalWriter.position();
-		writeCheckpointEvent(recDuration);
-		long metadataOffset = globalWriter.position();
-		writeMetadataEvent(recDuration);
+		long dataSize = headerWriter.position() + finishedChunkSize;
+		for (LEB128Writer writer : chunkData) {
+			dataSize += writer.position();
+		}
+		LEB128Writer trailerWriter = LEB128Writer.getInstance();
+		long checkpointOffset = dataSize;
+		writeCheckpointEvent(trailerWriter, recDuration);
+		long metadataOffset = dataSize + trailerWriter.position();
+		writeMetadataEvent(trailerWriter, recDuration);
 
-		globalWriter.writeLongRaw(DURATION_NANOS_OFFSET, recDuration);
-		globalWriter.writeLongRaw(SIZE_OFFSET, globalWriter.position());
-		globalWriter.writeLongRaw(CONSTANT_OFFSET_OFFSET, checkpointOffset);
-		globalWriter.writeLongRaw(METADATA_OFFSET_OFFSET, metadataOffset);
+		headerWriter.writeLongRaw(DURATION_NANOS_OFFSET, recDuration);
+		headerWriter.writeLongRaw(SIZE_OFFSET, dataSize + trailerWriter.position());
+		headerWriter.writeLongRaw(CONSTANT_OFFSET_OFFSET, checkpointOffset);
+		headerWriter.writeLongRaw(METADATA_OFFSET_OFFSET, metadataOffset);
+		return trailerWriter;
 	}
 
-	private void writeCheckpointEvent(long duration) {
+	private void writeCheckpointEvent(LEB128Writer writer, long duration) {
 		LEB128Writer cpWriter = LEB128Writer.getInstance();
 
 		cpWriter.writeLong(1L) // checkpoint event ID
@@ -687,11 +823,11 @@ public final class RecordingImpl extends Recording {
 			cp.writeTo(cpWriter);
 		}
 
-		globalWriter.writeInt(cpWriter.length()); // write event size
-		globalWriter.writeBytes(cpWriter.export());
+		writer.writeInt(cpWriter.length()); // write event size
+		writer.writeBytes(cpWriter.export());
 	}
 
-	private void writeMetadataEvent(long duration) {
-		metadata.writeMetaEvent(globalWriter, startTicks, duration);
+	private void writeMetadataEvent(LEB128Writer writer, long duration) {
+		metadata.writeMetaEvent(writer, startTicks, duration);
 	}
 }
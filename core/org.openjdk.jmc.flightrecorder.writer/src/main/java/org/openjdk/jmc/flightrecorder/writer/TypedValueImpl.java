@@ -196,7 +196,7 @@ public final class TypedValueImpl implements TypedValue {
 	 *            the field to check
 	 * @return true if the field is annotated with @Timestamp
 	 */
-	private boolean hasTimestampAnnotation(TypedFieldImpl field) {
+	static boolean hasTimestampAnnotation(TypedFieldImpl field) {
 		for (Annotation annotation : field.getAnnotations()) {
 			if ("jdk.jfr.Timestamp".equals(annotation.getType().getTypeName())) {
 				return true;
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer.api;
+
+/**
+ * A low-level writer for events of a single type. The field layout of the event type is resolved
+ * once, when the writer is created. Field values are then set by field index and written directly
+ * to the chunk of the calling thread on {@link #commit()}, without creating intermediate
+ * {@linkplain TypedValue} instances for the event or its primitive fields.
+ * <p>
+ * An event writer holds the field values of the event being written and is not thread-safe. Each
+ * writing thread should use its own instance.
+ * <p>
+ * Fields that have not been set when the event is committed are written with their default value.
+ * That is the current time for fields annotated with {@code @Timestamp} and {@literal null} or zero
+ * for all other fields.
+ * <p>
+ * <strong>Example:</strong>
+ *
+ * <pre>
+ * {
+ * 	&#64;code
+ * 	EventWriter writer = recording.newEventWriter(eventType);
+ * 	int startTime = writer.getFieldIndex("startTime");
+ * 	int count = writer.getFieldIndex("count");
+ * 	for (int i = 0; i &lt; 1000; i++) {
+ * 		writer.putField(startTime, System.nanoTime()).putField(count, i).commit();
+ * 	}
+ * }
+ * </pre>
+ */
+public interface EventWriter {
+	/** @return the event type */
+	Type getType();
+
+	/**
+	 * @param name
+	 *            the field name
+	 * @return the index of the field to use with the {@code putField} methods
+	 * @throws IllegalArgumentException
+	 *             if the event type has no field of the given name
+	 */
+	int getFieldIndex(String name);
+
+	/**
+	 * Put a {@linkplain Byte} field value
+	 *
+	 * @param index
+	 *            the field index
+	 * @param value
+	 *            the value
+	 * @return {@literal this} for chaining
+	 * @throws IllegalArgumentException
+	 *             if the field is not a byte field
+	 */
+	EventWriter putField(int index, byte value);
+
+	/**
+	 * Put a {@linkplain Character} field value
+	 *
+	 * @param index
+	 *            the field index
+	 * @param value
+	 *            the value
+	 * @return {@literal this} for chaining
+	 * @throws IllegalArgumentException
+	 *             if the field is not a char field
+	 */
+	EventWriter putField(int index, char value);
+
+	/**
+	 * Put a {@linkplain Short} field value
+	 *
+	 * @param index
+	 *            the field index
+	 * @param value
+	 *            the value
+	 * @return {@literal this} for chaining
+	 * @throws IllegalArgumentException
+	 *             if the field is not a short field
+	 */
+	EventWriter putField(int index, short value);
+
+	/**
+	 * Put an {@linkplain Integer} field value
+	 *
+	 * @param index
+	 *            the field index
+	 * @param value
+	 *            the value
+	 * @return {@literal this} for chaining
+	 * @throws IllegalArgumentException
+	 *             if the field is not an int field
+	 */
+	EventWriter putField(int index, int value);
+
+	/**
+	 * Put a {@linkplain Long} field value
+	 *
+	 * @param index
+	 *            the field index
+	 * @param value
+	 *            the value
+	 * @return {@literal this} for chaining
+	 * @throws IllegalArgumentException
+	 *             if the field is not a long field
+	 */
+	EventWriter putField(int index, long value);
+
+	/**
+	 * Put a {@linkplain Float} field value
+	 *
+	 * @param index
+	 *            the field index
+	 * @param value
+	 *            the value
+	 * @return {@literal this} for chaining
+	 * @throws IllegalArgumentException
+	 *             if the field is not a float field
+	 */
+	EventWriter putField(int index, float value);
+
+	/**
+	 * Put a {@linkplain Double} field value
+	 *
+	 * @param index
+	 *            the field index
+	 * @param value
+	 *            the value
+	 * @return {@literal this} for chaining
+	 * @throws IllegalArgumentException
+	 *             if the field is not a double field
+	 */
+	EventWriter putField(int index, double value);
+
+	/**
+	 * Put a {@linkplain Boolean} field value
+	 *
+	 * @param index
+	 *            the field index
+	 * @param value
+	 *            the value
+	 * @return {@literal this} for chaining
+	 * @throws IllegalArgumentException
+	 *             if the field is not a boolean field
+	 */
+	EventWriter putField(int index, boolean value);
+
+	/**
+	 * Put a {@linkplain String} field value. The string is written as a reference to the string
+	 * constant pool.
+	 *
+	 * @param index
+	 *            the field index
+	 * @param value
+	 *            the value, may be {@literal null}
+	 * @return {@literal this} for chaining
+	 * @throws IllegalArgumentException
+	 *             if the field is not a string field
+	 */
+	EventWriter putField(int index, String value);
+
+	/**
+	 * Put a field value of any non-array type. Values of types with a constant pool, e.g. threads
+	 * or stack traces, are written as constant pool references. Such values can be created once and
+	 * reused for any number of events.
+	 *
+	 * @param index
+	 *            the field index
+	 * @param value
+	 *            the value, may be {@literal null}
+	 * @return {@literal this} for chaining
+	 * @throws IllegalArgumentException
+	 *             if the field is an array field or the value type does not match the field type
+	 */
+	EventWriter putField(int index, TypedValue value);
+
+	/**
+	 * Put an array field value
+	 *
+	 * @param index
+	 *            the field index
+	 * @param values
+	 *            the values, may be {@literal null}
+	 * @return {@literal this} for chaining
+	 * @throws IllegalArgumentException
+	 *             if the field is not an array field or the value types do not match the field type
+	 */
+	EventWriter putField(int index, TypedValue[] values);
+
+	/**
+	 * Write the event to the chunk of the calling thread and reset all fields to their default
+	 * values.
+	 */
+	void commit();
+}
@@ -65,6 +65,25 @@ public abstract class Recording implements AutoCloseable {
 	 */
 	public abstract RecordingImpl writeEvent(Event event);
 
+	/**
+	 * Create a low-level writer for events of the given type. The writer is not thread-safe, so
+	 * each writing thread should create its own.
+	 * <p>
+	 * The default implementation builds each event as a {@linkplain TypedValue} and writes it with
+	 * {@link #writeEvent(TypedValue)}. Recordings that can encode events directly should override
+	 * it.
+	 *
+	 * @param eventType
+	 *            the event type
+	 * @return a new event writer
+	 * @throws IllegalArgumentException
+	 *             if 'eventType' is {@literal null} or has not got 'jdk.jfr.Event' as its super
+	 *             type
+	 */
+	public EventWriter newEventWriter(Type eventType) {
+		return new TypedValueEventWriter(this, eventType);
+	}
+
 	/**
 	 * Try registering a user event type with no additional attributes. If a same-named event
 	 * already exists it will be returned.
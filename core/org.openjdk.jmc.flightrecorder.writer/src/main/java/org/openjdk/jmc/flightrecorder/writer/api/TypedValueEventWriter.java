@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer.api;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An {@linkplain EventWriter} building each event as a {@linkplain TypedValue} and writing it with
+ * {@link Recording#writeEvent(TypedValue)}. Used by recordings that do not provide a direct event
+ * writer. Values of the wrong type are only reported when the event is committed.
+ */
+final class TypedValueEventWriter implements EventWriter {
+	private final Recording recording;
+	private final Type type;
+	private final String[] fieldNames;
+	private final Consumer<TypedValueBuilder>[] fieldValues;
+
+	@SuppressWarnings("unchecked")
+	TypedValueEventWriter(Recording recording, Type type) {
+		if (type == null || !"jdk.jfr.Event".equals(type.getSupertype())) {
+			throw new IllegalArgumentException();
+		}
+		this.recording = recording;
+		this.type = type;
+		List<? extends TypedField> fields = type.getFields();
+		fieldNames = new String[fields.size()];
+		for (int i = 0; i < fieldNames.length; i++) {
+			fieldNames[i] = fields.get(i).getName();
+		}
+		fieldValues = new Consumer[fieldNames.length];
+	}
+
+	@Override
+	public Type getType() {
+		return type;
+	}
+
+	@Override
+	public int getFieldIndex(String name) {
+		for (int i = 0; i < fieldNames.length; i++) {
+			if (fieldNames[i].equals(name)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Event type " + type.getTypeName() + " has no field " + name);
+	}
+
+	@Override
+	public EventWriter putField(int index, byte value) {
+		return put(index, builder -> builder.putField(fieldNames[index], value));
+	}
+
+	@Override
+	public EventWriter putField(int index, char value) {
+		return put(index, builder -> builder.putField(fieldNames[index], value));
+	}
+
+	@Override
+	public EventWriter putField(int index, short value) {
+		return put(index, builder -> builder.putField(fieldNames[index], value));
+	}
+
+	@Override
+	public EventWriter putField(int index, int value) {
+		return put(index, builder -> builder.putField(fieldNames[index], value));
+	}
+
+	@Override
+	public EventWriter putField(int index, long value) {
+		return put(index, builder -> builder.putField(fieldNames[index], value));
+	}
+
+	@Override
+	public EventWriter putField(int index, float value) {
+		return put(index, builder -> builder.putField(fieldNames[index], value));
+	}
+
+	@Override
+	public EventWriter putField(int index, double value) {
+		return put(index, builder -> builder.putField(fieldNames[index], value));
+	}
+
+	@Override
+	public EventWriter putField(int index, boolean value) {
+		return put(index, builder -> builder.putField(fieldNames[index], value));
+	}
+
+	@Override
+	public EventWriter putField(int index, String value) {
+		return put(index, builder -> builder.putField(fieldNames[index], value));
+	}
+
+	@Override
+	public EventWriter putField(int index, TypedValue value) {
+		return put(index, builder -> builder.putField(fieldNames[index], value));
+	}
+
+	@Override
+	public EventWriter putField(int index, TypedValue[] values) {
+		return put(index, builder -> builder.putField(fieldNames[index], values));
+	}
+
+	private EventWriter put(int index, Consumer<TypedValueBuilder> fieldValue) {
+		fieldValues[index] = fieldValue;
+		return this;
+	}
+
+	@Override
+	public void commit() {
+		try {
+			recording.writeEvent(type.asValue(builder -> {
+				for (Consumer<TypedValueBuilder> fieldValue : fieldValues) {
+					if (fieldValue != null) {
+						fieldValue.accept(builder);
+					}
+				}
+			}));
+		} finally {
+			Arrays.fill(fieldValues, null);
+		}
+	}
+}
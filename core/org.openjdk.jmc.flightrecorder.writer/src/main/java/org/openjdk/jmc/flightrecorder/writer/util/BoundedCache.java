@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache with a bounded size. The cache is split into a number of stripes, each
+ * guarded by its own lock and evicting its least recently used entries when full. {@code null} is
+ * allowed as a key but not as a value.
+ *
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ */
+public final class BoundedCache<K, V> {
+	private static final Object NULL_KEY = new Object();
+
+	private final Stripe<V>[] stripes;
+
+	private static final class Stripe<V> extends LinkedHashMap<Object, V> {
+		private static final long serialVersionUID = 1L;
+		private final int capacity;
+
+		Stripe(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, V> eldest) {
+			return size() > capacity;
+		}
+	}
+
+	/**
+	 * @param capacity
+	 *            the maximum number of entries in the cache
+	 * @param stripeCount
+	 *            the number of independently locked stripes, rounded up to a power of two
+	 */
+	@SuppressWarnings("unchecked")
+	public BoundedCache(int capacity, int stripeCount) {
+		if (capacity <= 0 || stripeCount <= 0) {
+			throw new IllegalArgumentException();
+		}
+		int count = 1;
+		while (count < stripeCount && count * 2 <= capacity) {
+			count *= 2;
+		}
+		stripes = new Stripe[count];
+		int stripeCapacity = capacity / count;
+		for (int i = 0; i < count; i++) {
+			stripes[i] = new Stripe<>(stripeCapacity);
+		}
+	}
+
+	/**
+	 * Get the value cached for a key, computing and caching it if absent. The value is computed
+	 * without holding any lock, so the mapping function may itself use this or other caches. If
+	 * several threads compute a value for the same key at the same time, then all of them will get
+	 * the value that was cached first.
+	 *
+	 * @param key
+	 *            the key, may be {@literal null}
+	 * @param mappingFunction
+	 *            the function computing a value for the key, must not return {@literal null}
+	 * @return the cached value
+	 */
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		Object cacheKey = key == null ? NULL_KEY : key;
+		Stripe<V> stripe = stripeFor(cacheKey);
+		V value;
+		synchronized (stripe) {
+			value = stripe.get(cacheKey);
+		}
+		if (value != null) {
+			return value;
+		}
+		V newValue = mappingFunction.apply(key);
+		synchronized (stripe) {
+			value = stripe.putIfAbsent(cacheKey, newValue);
+		}
+		return value != null ? value : newValue;
+	}
+
+	/** @return the number of cached entries */
+	public int size() {
+		int size = 0;
+		for (Stripe<V> stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.size();
+			}
+		}
+		return size;
+	}
+
+	private Stripe<V> stripeFor(Object key) {
+		int hash = key.hashCode();
+		hash ^= hash >>> 16;
+		return stripes[hash & (stripes.length - 1)];
+	}
+}
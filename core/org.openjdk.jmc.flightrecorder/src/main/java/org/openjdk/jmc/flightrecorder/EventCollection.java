@@ -38,18 +38,24 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
+import org.openjdk.jmc.common.IMCThread;
 import org.openjdk.jmc.common.collection.IteratorToolkit;
 import org.openjdk.jmc.common.item.IAggregator;
+import org.openjdk.jmc.common.item.IAttribute;
+import org.openjdk.jmc.common.item.ICanonicalAccessorFactory;
 import org.openjdk.jmc.common.item.IItem;
 import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.common.item.IItemConsumer;
 import org.openjdk.jmc.common.item.IItemFilter;
 import org.openjdk.jmc.common.item.IItemIterable;
 import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.common.item.PersistableItemFilter.Kind;
 import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.IRange;
 import org.openjdk.jmc.common.util.PredicateToolkit;
@@ -66,17 +72,21 @@ class EventCollection implements IItemCollection, IParserStats {
 	private static class EventTypeEntry implements IItemIterable {
 
 		EventTypeEntry(EventArray events) {
-			this.events = events;
-			predicate = PredicateToolkit.truePredicate();
+			this(events, PredicateToolkit.truePredicate(), null);
 		}
 
-		EventTypeEntry(EventArray events, Predicate<IItem> predicate) {
+		EventTypeEntry(EventArray events, Predicate<IItem> predicate, int[] positions) {
 			this.events = events;
 			this.predicate = predicate;
+			this.positions = positions;
 		}
 
 		final EventArray events;
 		final Predicate<IItem> predicate;
+		/**
+		 * The positions of the events that can match the predicate, or null for all events.
+		 */
+		final int[] positions;
 
 		@Override
 		public IType<IItem> getType() {
@@ -85,7 +95,7 @@ class EventCollection implements IItemCollection, IParserStats {
 
 		@Override
 		public Iterator<IItem> iterator() {
-			return buildIterator(events.getEvents(), predicate);
+			return buildIterator(events.getEvents(), positions, predicate);
 		}
 
 		@Override
@@ -104,13 +114,43 @@ class EventCollection implements IItemCollection, IParserStats {
 				}
 				return c;
 			}
-			return events.getEvents().length;
+			return positions != null ? positions.length : events.getEvents().length;
 		}
 
 		@Override
 		public EventTypeEntry apply(Predicate<IItem> filter) {
 			Predicate<IItem> newPredicate = PredicateToolkit.and(Arrays.asList(filter, predicate));
-			return new EventTypeEntry(events, newPredicate);
+			return new EventTypeEntry(events, newPredicate, positions);
+		}
+
+		/**
+		 * Only consider events in any of the specified threads, using the thread index of the event
+		 * array.
+		 */
+		EventTypeEntry selectThreads(Set<IMCThread> threads) {
+			Map<IMCThread, int[]> threadIndex = events.getThreadIndex();
+			int[] selected;
+			if (threads.size() == 1) {
+				selected = threadIndex.get(threads.iterator().next());
+			} else {
+				int size = 0;
+				for (IMCThread thread : threads) {
+					int[] threadPositions = threadIndex.get(thread);
+					size += threadPositions != null ? threadPositions.length : 0;
+				}
+				selected = new int[size];
+				int offset = 0;
+				for (IMCThread thread : threads) {
+					int[] threadPositions = threadIndex.get(thread);
+					if (threadPositions != null) {
+						System.arraycopy(threadPositions, 0, selected, offset, threadPositions.length);
+						offset += threadPositions.length;
+					}
+				}
+				// Keep the events in the order of the array
+				Arrays.sort(selected);
+			}
+			return new EventTypeEntry(events, predicate, selected != null ? selected : new int[0]);
 		}
 
 	}
@@ -141,23 +181,96 @@ class EventCollection implements IItemCollection, IParserStats {
 
 	@Override
 	public EventCollection apply(IItemFilter filter) {
+		// Filters on the event thread only need to look at the events of the selected threads
+		Set<IMCThread> threads = getSelectedThreads(filter);
 		ArrayList<EventTypeEntry> newEntries = new ArrayList<>();
 		for (EventTypeEntry e : items) {
 			EventTypeEntry newEntry = e.apply(filter.getPredicate(e.events.getType()));
 			if (PredicateToolkit.isTrueGuaranteed(newEntry.predicate)) {
 				newEntries.add(e);
 			} else if (!PredicateToolkit.isFalseGuaranteed(newEntry.predicate)) {
+				if (threads != null && newEntry.positions == null) {
+					newEntry = newEntry.selectThreads(threads);
+				}
 				newEntries.add(newEntry);
 			}
 		}
 		return new EventCollection(newEntries, chunkRanges, parserStats);
 	}
 
-	private static Iterator<IItem> buildIterator(IItem[] array, Predicate<? super IItem> filter) {
+	/**
+	 * Get the threads that a filter limits events to, if the filter only accepts events where the
+	 * event thread is one of a set of threads.
+	 *
+	 * @return the set of threads, or null if the filter does not limit the event thread
+	 */
+	private static Set<IMCThread> getSelectedThreads(IItemFilter filter) {
+		if (filter instanceof ItemFilters.AttributeValue) {
+			ItemFilters.AttributeValue<?> attributeFilter = (ItemFilters.AttributeValue<?>) filter;
+			if (attributeFilter.getKind() == Kind.EQUALS && isEventThread(attributeFilter.getAttribute())
+					&& attributeFilter.getValue() instanceof IMCThread) {
+				return Collections.singleton((IMCThread) attributeFilter.getValue());
+			}
+		} else if (filter instanceof ItemFilters.Composite) {
+			ItemFilters.Composite composite = (ItemFilters.Composite) filter;
+			if (composite.isUnion()) {
+				// Any of the threads, e.g. from ItemFilters.memberOf
+				Set<IMCThread> threads = new HashSet<>();
+				for (IItemFilter f : composite.getFilters()) {
+					Set<IMCThread> selected = getSelectedThreads(f);
+					if (selected == null) {
+						return null;
+					}
+					threads.addAll(selected);
+				}
+				return threads;
+			}
+			for (IItemFilter f : composite.getFilters()) {
+				Set<IMCThread> selected = getSelectedThreads(f);
+				if (selected != null) {
+					return selected;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean isEventThread(ICanonicalAccessorFactory<?> attribute) {
+		return attribute instanceof IAttribute
+				&& JfrAttributes.EVENT_THREAD.getKey().equals(((IAttribute<?>) attribute).getKey());
+	}
+
+	private static Iterator<IItem> buildIterator(IItem[] array, int[] positions, Predicate<? super IItem> filter) {
+		Iterator<IItem> iterator = positions != null ? new PositionIterator(array, positions)
+				: IteratorToolkit.of(array);
 		if (isFiltered(filter)) {
-			return IteratorToolkit.filter(IteratorToolkit.of(array), filter);
+			return IteratorToolkit.filter(iterator, filter);
 		} else {
-			return IteratorToolkit.of(array);
+			return iterator;
+		}
+	}
+
+	private static class PositionIterator implements Iterator<IItem> {
+		private final IItem[] array;
+		private final int[] positions;
+		private int index;
+
+		PositionIterator(IItem[] array, int[] positions) {
+			this.array = array;
+			this.positions = positions;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return index < positions.length;
+		}
+
+		@Override
+		public IItem next() {
+			if (index >= positions.length) {
+				throw new NoSuchElementException();
+			}
+			return array[positions[index++]];
 		}
 	}
 
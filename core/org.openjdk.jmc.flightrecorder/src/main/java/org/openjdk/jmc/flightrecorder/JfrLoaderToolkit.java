@@ -249,6 +249,32 @@ public class JfrLoaderToolkit {
 				hideExperimentals, ignoreTruncatedChunk, frameFilter);
 	}
 
+	/**
+	 * Loads a potentially compressed stream with optional hidden frame filtering, reporting
+	 * progress after each loaded chunk. The stream is decompressed on a separate thread while the
+	 * chunks are parsed.
+	 *
+	 * @param monitor
+	 *            the monitor to call after each loaded chunk
+	 * @param stream
+	 *            the input stream to read the recording from
+	 * @param hideExperimentals
+	 *            if {@code true}, then events of types marked as experimental will be ignored when
+	 *            reading the data
+	 * @param ignoreTruncatedChunk
+	 *            if {@code true}, then truncated chunks will be ignored when reading the data
+	 * @param showHiddenFrames
+	 *            if false, hidden frames will be filtered out during parsing
+	 * @return an array of EventArrays (one event type per EventArray)
+	 */
+	public static EventArrays loadStream(
+		Runnable monitor, InputStream stream, boolean hideExperimentals, boolean ignoreTruncatedChunk,
+		boolean showHiddenFrames) throws CouldNotLoadRecordingException, IOException {
+		FrameFilter frameFilter = showHiddenFrames ? null : FrameFilter.EXCLUDE_HIDDEN;
+		return FlightRecordingLoader.loadStream(monitor, stream, ParserExtensionRegistry.getParserExtensions(),
+				hideExperimentals, ignoreTruncatedChunk, frameFilter);
+	}
+
 	/**
 	 * Reads chunks with optional hidden frame filtering
 	 *
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IRange;
+import org.openjdk.jmc.common.unit.QuantityRange;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.internal.parser.EventTypeRegistry;
+import org.openjdk.jmc.flightrecorder.internal.parser.LoaderContext;
+import org.openjdk.jmc.flightrecorder.internal.parser.ParserStats;
+import org.openjdk.jmc.flightrecorder.internal.util.CanonicalConstantMap;
+import org.openjdk.jmc.flightrecorder.parser.IParserExtension;
+import org.openjdk.jmc.flightrecorder.stacktrace.FrameFilter;
+
+/**
+ * Keeps the parsed events of a bounded number of chunks of a recording file in memory. Chunks are
+ * evicted in least recently used order when the total size of the loaded chunks exceeds the memory
+ * budget, and are parsed again from the file when needed. The constant pools and event types are
+ * shared between all loads so that constants and types are canonicalized over the whole recording.
+ */
+class ChunkCache {
+
+	/**
+	 * Information about a chunk that is collected the first time it is loaded and then kept for as
+	 * long as the cache exists.
+	 */
+	static class ChunkSummary {
+		private final IRange<IQuantity> eventRange;
+		private final Set<String> eventTypes;
+
+		ChunkSummary(IRange<IQuantity> eventRange, Set<String> eventTypes) {
+			this.eventRange = eventRange;
+			this.eventTypes = eventTypes;
+		}
+
+		/**
+		 * @return the range from the earliest start time to the latest end time of the events in
+		 *         the chunk, or {@code null} if the chunk has no events with timestamps
+		 */
+		IRange<IQuantity> getEventRange() {
+			return eventRange;
+		}
+
+		/**
+		 * @return the identifiers of the event types that have events in the chunk
+		 */
+		Set<String> getEventTypes() {
+			return eventTypes;
+		}
+	}
+
+	private final File file;
+	private final long maxLoadedBytes;
+	private final List<? extends IParserExtension> extensions;
+	private final boolean hideExperimentals;
+	private final FrameFilter frameFilter;
+	private final boolean ignoreTruncatedChunk;
+	private final ConcurrentHashMap<Object, CanonicalConstantMap<Object>> constantsByType = new ConcurrentHashMap<>();
+	private final EventTypeRegistry typeRegistry = new EventTypeRegistry();
+	private final LinkedHashMap<ChunkInfo, EventArray[]> loadedChunks = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<ChunkInfo, ChunkSummary> summaries = new HashMap<>();
+	private final Map<String, String[]> typeCategories = new HashMap<>();
+	private final ParserStats constantPoolStats = new ParserStats();
+	private long loadedBytes;
+	private int loadCount;
+
+	ChunkCache(File file, long maxLoadedBytes, List<? extends IParserExtension> extensions, boolean hideExperimentals,
+			FrameFilter frameFilter, boolean ignoreTruncatedChunk) {
+		this.file = file;
+		this.maxLoadedBytes = maxLoadedBytes;
+		this.extensions = extensions;
+		this.hideExperimentals = hideExperimentals;
+		this.frameFilter = frameFilter;
+		this.ignoreTruncatedChunk = ignoreTruncatedChunk;
+	}
+
+	/**
+	 * Get the events of a chunk, loading it from the file if it is not in memory.
+	 *
+	 * @param chunk
+	 *            the chunk to get events for
+	 * @return the event arrays of the chunk
+	 */
+	synchronized EventArray[] getEvents(ChunkInfo chunk) throws IOException, CouldNotLoadRecordingException {
+		EventArray[] events = loadedChunks.get(chunk);
+		if (events == null) {
+			events = load(chunk);
+			loadedChunks.put(chunk, events);
+			loadedBytes += chunk.getChunkSize();
+			evict();
+		}
+		return events;
+	}
+
+	/**
+	 * @param chunk
+	 *            a chunk that has been loaded at least once
+	 * @return the summary of the chunk, or {@code null} if the chunk has never been loaded
+	 */
+	synchronized ChunkSummary getSummary(ChunkInfo chunk) {
+		return summaries.get(chunk);
+	}
+
+	/**
+	 * @param typeId
+	 *            an event type identifier
+	 * @return the category of the event type, or {@code null} if no loaded chunk has contained the
+	 *         type
+	 */
+	synchronized String[] getTypeCategory(String typeId) {
+		return typeCategories.get(typeId);
+	}
+
+	/**
+	 * @return statistics on the constant pools of the chunks that have been loaded at least once
+	 */
+	synchronized IItemCollection getConstantPools() {
+		return constantPoolStats.getConstantPools();
+	}
+
+	synchronized boolean isLoaded(ChunkInfo chunk) {
+		return loadedChunks.containsKey(chunk);
+	}
+
+	/**
+	 * @return the number of times that a chunk has been parsed from the file
+	 */
+	synchronized int getLoadCount() {
+		return loadCount;
+	}
+
+	private void evict() {
+		Iterator<Map.Entry<ChunkInfo, EventArray[]>> it = loadedChunks.entrySet().iterator();
+		// Always keep the most recently used chunk, even if it alone exceeds the budget
+		while (loadedBytes > maxLoadedBytes && loadedChunks.size() > 1) {
+			ChunkInfo eldest = it.next().getKey();
+			it.remove();
+			loadedBytes -= eldest.getChunkSize();
+		}
+	}
+
+	private EventArray[] load(ChunkInfo chunk) throws IOException, CouldNotLoadRecordingException {
+		LoaderContext context = new LoaderContext(extensions, hideExperimentals, frameFilter, constantsByType,
+				typeRegistry);
+		EventArrays arrays;
+		try (RandomAccessFile input = new RandomAccessFile(file, "r")) { //$NON-NLS-1$
+			arrays = FlightRecordingLoader.readChunks(null, context,
+					FlightRecordingLoader.createChunkSupplier(input, Collections.singletonList(chunk)),
+					ignoreTruncatedChunk);
+		}
+		loadCount++;
+		EventArray[] events = arrays.getArrays();
+		if (!summaries.containsKey(chunk)) {
+			summaries.put(chunk, summarize(events));
+			constantPoolStats.addConstantPoolStats(arrays.getParserStats());
+		}
+		for (EventArray ea : events) {
+			typeCategories.putIfAbsent(ea.getType().getIdentifier(), ea.getTypeCategory());
+		}
+		return events;
+	}
+
+	private static ChunkSummary summarize(EventArray[] events) {
+		long start = Long.MAX_VALUE;
+		long end = Long.MIN_VALUE;
+		Set<String> types = new HashSet<>();
+		for (EventArray ea : events) {
+			if (ea.getEvents().length == 0) {
+				continue;
+			}
+			types.add(ea.getType().getIdentifier());
+			IMemberAccessor<IQuantity, IItem> stAccessor = JfrAttributes.START_TIME.getAccessor(ea.getType());
+			IMemberAccessor<IQuantity, IItem> etAccessor = JfrAttributes.END_TIME.getAccessor(ea.getType());
+			if (stAccessor == null || etAccessor == null) {
+				continue;
+			}
+			for (IItem item : ea.getEvents()) {
+				IQuantity st = stAccessor.getMember(item);
+				IQuantity et = etAccessor.getMember(item);
+				if (st == null || et == null) {
+					continue;
+				}
+				start = Math.min(start, st.clampedLongValueIn(UnitLookup.EPOCH_NS));
+				end = Math.max(end, et.clampedLongValueIn(UnitLookup.EPOCH_NS));
+			}
+		}
+		IRange<IQuantity> eventRange = start <= end
+				? QuantityRange.createWithEnd(UnitLookup.EPOCH_NS.quantity(start), UnitLookup.EPOCH_NS.quantity(end))
+				: null;
+		return new ChunkSummary(eventRange, types);
+	}
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.openjdk.jmc.common.item.IAggregator;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemConsumer;
+import org.openjdk.jmc.common.item.IItemFilter;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.common.item.ItemIterableToolkit;
+import org.openjdk.jmc.common.item.PersistableItemFilter.Kind;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IRange;
+import org.openjdk.jmc.common.util.PredicateToolkit;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.internal.ChunkCache.ChunkSummary;
+import org.openjdk.jmc.flightrecorder.parser.IParserExtension;
+import org.openjdk.jmc.flightrecorder.stacktrace.FrameFilter;
+
+/**
+ * An item collection for a recording file that may be too large to keep in memory. Only a bounded
+ * number of chunks are kept in memory at any time and other chunks are parsed again from the file
+ * when they are needed.
+ * <p>
+ * Each chunk is parsed once when the collection is created, in order to find out which event types
+ * it contains and the time range covered by its events. Filters on event types and range filters on
+ * {@link JfrAttributes#LIFETIME} use this information to skip chunks that cannot contain matching
+ * events, so that for example looking at a time range of a recording only loads the chunks that
+ * overlap that range.
+ * <p>
+ * Item types are shared between all loads of the chunks, but items are not. Iterating over the
+ * collection twice may give different, but equal valued, item instances if chunks have been evicted
+ * in between.
+ */
+public final class ChunkedItemCollection implements IItemCollection {
+
+	private final ChunkCache cache;
+	private final List<ChunkInfo> chunks;
+	private final IItemFilter filter;
+	private final Set<IRange<IQuantity>> chunkRanges;
+
+	private ChunkedItemCollection(ChunkCache cache, List<ChunkInfo> chunks, IItemFilter filter,
+			Set<IRange<IQuantity>> chunkRanges) {
+		this.cache = cache;
+		this.chunks = chunks;
+		this.filter = filter;
+		this.chunkRanges = chunkRanges;
+	}
+
+	/**
+	 * Create a collection for an uncompressed recording file.
+	 *
+	 * @param monitor
+	 *            called once for each chunk that has been parsed, may be {@code null}
+	 * @param file
+	 *            the uncompressed recording file
+	 * @param maxLoadedBytes
+	 *            the maximum total file size of the chunks to keep in memory, at least one chunk is
+	 *            always kept
+	 * @param extensions
+	 *            parser extensions to use
+	 * @param hideExperimentals
+	 *            if {@code true}, then events of types marked as experimental will be ignored
+	 * @param ignoreTruncatedChunk
+	 *            if {@code true}, then a truncated last chunk will be ignored
+	 * @param frameFilter
+	 *            frame filter to use when parsing stack traces
+	 * @return an item collection for the file
+	 */
+	public static ChunkedItemCollection load(
+		Runnable monitor, File file, long maxLoadedBytes, List<? extends IParserExtension> extensions,
+		boolean hideExperimentals, boolean ignoreTruncatedChunk, FrameFilter frameFilter)
+			throws IOException, CouldNotLoadRecordingException {
+		List<ChunkInfo> chunks;
+		try (RandomAccessFile input = new RandomAccessFile(file, "r")) { //$NON-NLS-1$
+			chunks = FlightRecordingLoader.readChunkInfo(FlightRecordingLoader.createChunkSupplier(input));
+		}
+		return load(monitor, file, chunks, maxLoadedBytes, extensions, hideExperimentals, ignoreTruncatedChunk,
+				frameFilter);
+	}
+
+	/**
+	 * Create a collection for an uncompressed recording file for which the chunk information has
+	 * already been read.
+	 *
+	 * @param monitor
+	 *            called once for each chunk that has been parsed, may be {@code null}
+	 * @param file
+	 *            the uncompressed recording file
+	 * @param chunks
+	 *            the chunks of the file, as returned by
+	 *            {@link FlightRecordingLoader#readChunkInfo(IChunkSupplier)}
+	 * @param maxLoadedBytes
+	 *            the maximum total file size of the chunks to keep in memory, at least one chunk is
+	 *            always kept
+	 * @param extensions
+	 *            parser extensions to use
+	 * @param hideExperimentals
+	 *            if {@code true}, then events of types marked as experimental will be ignored
+	 * @param ignoreTruncatedChunk
+	 *            if {@code true}, then a truncated last chunk will be ignored
+	 * @param frameFilter
+	 *            frame filter to use when parsing stack traces
+	 * @return an item collection for the file
+	 */
+	public static ChunkedItemCollection load(
+		Runnable monitor, File file, List<ChunkInfo> chunks, long maxLoadedBytes,
+		List<? extends IParserExtension> extensions, boolean hideExperimentals, boolean ignoreTruncatedChunk,
+		FrameFilter frameFilter) throws IOException, CouldNotLoadRecordingException {
+		ChunkCache cache = new ChunkCache(file, maxLoadedBytes, extensions, hideExperimentals, frameFilter,
+				ignoreTruncatedChunk);
+		List<ChunkInfo> included = new ArrayList<>(chunks.size());
+		Set<IQuantity> chunkStarts = new HashSet<>();
+		for (ChunkInfo chunk : chunks) {
+			// Skip duplicated chunks in the same way as when loading the whole recording
+			if (chunkStarts.add(chunk.getChunkRange().getStart())) {
+				cache.getEvents(chunk);
+				included.add(chunk);
+			}
+			if (monitor != null) {
+				monitor.run();
+			}
+		}
+		if (included.isEmpty()) {
+			throw new InvalidJfrFileException("No readable chunks in recording"); //$NON-NLS-1$
+		}
+		Set<IRange<IQuantity>> chunkRanges = new LinkedHashSet<>();
+		for (ChunkInfo chunk : included) {
+			chunkRanges.add(chunk.getChunkRange());
+		}
+		return new ChunkedItemCollection(cache, Collections.unmodifiableList(included), null,
+				Collections.unmodifiableSet(chunkRanges));
+	}
+
+	/**
+	 * @return the chunks that may contain items in this collection
+	 */
+	public List<ChunkInfo> getChunks() {
+		return chunks;
+	}
+
+	/**
+	 * @param typeId
+	 *            an event type identifier
+	 * @return the category of the event type, or {@code null} if the type is not in the recording
+	 */
+	public String[] getTypeCategory(String typeId) {
+		return cache.getTypeCategory(typeId);
+	}
+
+	/**
+	 * Get statistics on the constant pools of the recording, in the same form as
+	 * {@link EventArrays#getConstantPools()}. The constants themselves are not kept in memory, so
+	 * there is no counterpart to {@link EventArrays#getConstants()}.
+	 *
+	 * @return the number of constants and the pool size for each constant pool type
+	 */
+	public IItemCollection getConstantPools() {
+		return cache.getConstantPools();
+	}
+
+	/**
+	 * @return the number of times that a chunk has been parsed from the file, including the initial
+	 *         parsing of all chunks
+	 */
+	public int getChunkLoadCount() {
+		return cache.getLoadCount();
+	}
+
+	/**
+	 * Get a collection with only the items whose lifetime intersects a range.
+	 *
+	 * @param range
+	 *            the time range to include
+	 * @return a collection that only loads the chunks that overlap the range
+	 */
+	public ChunkedItemCollection selectRange(IRange<IQuantity> range) {
+		return apply(ItemFilters.rangeIntersects(JfrAttributes.LIFETIME, range));
+	}
+
+	@Override
+	public ChunkedItemCollection apply(IItemFilter newFilter) {
+		List<ChunkInfo> matching = new ArrayList<>(chunks.size());
+		for (ChunkInfo chunk : chunks) {
+			if (mayMatch(newFilter, cache.getSummary(chunk))) {
+				matching.add(chunk);
+			}
+		}
+		IItemFilter combined = filter == null ? newFilter : ItemFilters.and(filter, newFilter);
+		return new ChunkedItemCollection(cache, Collections.unmodifiableList(matching), combined, chunkRanges);
+	}
+
+	/**
+	 * Check if a filter may match any items in a chunk. Only filters that can be evaluated using
+	 * the chunk summary are considered, any other filter may match.
+	 */
+	private static boolean mayMatch(IItemFilter filter, ChunkSummary summary) {
+		if (summary == null) {
+			return true;
+		}
+		if (filter instanceof ItemFilters.Type) {
+			return summary.getEventTypes().contains(((ItemFilters.Type) filter).getTypeId());
+		} else if (filter instanceof ItemFilters.Types) {
+			return !Collections.disjoint(summary.getEventTypes(), ((ItemFilters.Types) filter).getTypes());
+		} else if (filter instanceof ItemFilters.Composite) {
+			ItemFilters.Composite composite = (ItemFilters.Composite) filter;
+			for (IItemFilter f : composite.getFilters()) {
+				boolean childMayMatch = mayMatch(f, summary);
+				if (composite.isUnion() && childMayMatch) {
+					return true;
+				} else if (!composite.isUnion() && !childMayMatch) {
+					return false;
+				}
+			}
+			return !composite.isUnion();
+		} else if (filter instanceof ItemFilters.AttributeValue) {
+			ItemFilters.AttributeValue<?> av = (ItemFilters.AttributeValue<?>) filter;
+			Kind kind = av.getKind();
+			if (JfrAttributes.LIFETIME.equals(av.getAttribute()) && (kind == Kind.RANGE_INTERSECTS
+					|| kind == Kind.RANGE_CONTAINED || kind == Kind.CENTER_CONTAINED)) {
+				// All of these kinds require the item lifetime to intersect the range
+				@SuppressWarnings("unchecked")
+				IRange<IQuantity> range = (IRange<IQuantity>) av.getValue();
+				IRange<IQuantity> eventRange = summary.getEventRange();
+				return eventRange != null && eventRange.getStart().compareTo(range.getEnd()) <= 0
+						&& eventRange.getEnd().compareTo(range.getStart()) >= 0;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Iterator<IItemIterable> iterator() {
+		return new Iterator<IItemIterable>() {
+			private final Iterator<ChunkInfo> chunkIterator = chunks.iterator();
+			private Iterator<EventArray> arrays = Collections.emptyIterator();
+			private IItemIterable next = findNext();
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public IItemIterable next() {
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				IItemIterable current = next;
+				next = findNext();
+				return current;
+			}
+
+			private IItemIterable findNext() {
+				while (true) {
+					while (arrays.hasNext()) {
+						IItemIterable items = toItemIterable(arrays.next());
+						if (items != null) {
+							return items;
+						}
+					}
+					if (!chunkIterator.hasNext()) {
+						return null;
+					}
+					arrays = Arrays.asList(getEvents(chunkIterator.next())).iterator();
+				}
+			}
+		};
+	}
+
+	private EventArray[] getEvents(ChunkInfo chunk) {
+		try {
+			return cache.getEvents(chunk);
+		} catch (IOException | CouldNotLoadRecordingException e) {
+			throw new IllegalStateException("Could not reload chunk at position " + chunk.getChunkPosistion(), e); //$NON-NLS-1$
+		}
+	}
+
+	private IItemIterable toItemIterable(EventArray array) {
+		IItem[] events = array.getEvents();
+		IItemIterable items = ItemIterableToolkit.build(() -> Arrays.stream(events), array.getType());
+		if (filter == null) {
+			return items;
+		}
+		Predicate<IItem> predicate = filter.getPredicate(array.getType());
+		if (PredicateToolkit.isTrueGuaranteed(predicate)) {
+			return items;
+		} else if (PredicateToolkit.isFalseGuaranteed(predicate)) {
+			return null;
+		}
+		return items.apply(predicate);
+	}
+
+	@Override
+	public boolean hasItems() {
+		Iterator<IItemIterable> it = iterator();
+		while (it.hasNext()) {
+			if (it.next().hasItems()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public <V, C extends IItemConsumer<C>> V getAggregate(IAggregator<V, C> aggregator) {
+		return ItemIterableToolkit.aggregate(aggregator, stream());
+	}
+
+	@Override
+	public Set<IRange<IQuantity>> getUnfilteredTimeRanges() {
+		return chunkRanges;
+	}
+}
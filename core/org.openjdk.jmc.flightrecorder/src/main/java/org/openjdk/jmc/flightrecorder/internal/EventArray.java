@@ -32,8 +32,14 @@
  */
 package org.openjdk.jmc.flightrecorder.internal;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openjdk.jmc.common.IMCThread;
 import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IMemberAccessor;
 import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
 
 /**
  * An array of events sharing a single type.
@@ -43,6 +49,7 @@ public class EventArray {
 	private final IItem[] events;
 	private final IType<IItem> type;
 	private final String[] typeCategory;
+	private volatile Map<IMCThread, int[]> threadIndex;
 
 	/**
 	 * @param events
@@ -69,4 +76,58 @@ public class EventArray {
 	public String[] getTypeCategory() {
 		return typeCategory;
 	}
+
+	/**
+	 * Get an index of the events in this array by event thread. The index is built on first use.
+	 *
+	 * @return a map from thread to the positions in {@link #getEvents()} of the events in that
+	 *         thread, in ascending order. Empty if the events do not have an event thread.
+	 */
+	public Map<IMCThread, int[]> getThreadIndex() {
+		Map<IMCThread, int[]> index = threadIndex;
+		if (index == null) {
+			synchronized (this) {
+				index = threadIndex;
+				if (index == null) {
+					index = buildThreadIndex();
+					threadIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	private Map<IMCThread, int[]> buildThreadIndex() {
+		IMemberAccessor<IMCThread, IItem> accessor = JfrAttributes.EVENT_THREAD.getAccessor(type);
+		Map<IMCThread, int[]> index = new HashMap<>();
+		if (accessor == null) {
+			return index;
+		}
+		// Count the events per thread first, so that each position array is allocated once
+		IMCThread[] threads = new IMCThread[events.length];
+		Map<IMCThread, int[]> counts = new HashMap<>();
+		for (int i = 0; i < events.length; i++) {
+			IMCThread thread = accessor.getMember(events[i]);
+			if (thread != null) {
+				threads[i] = thread;
+				int[] count = counts.get(thread);
+				if (count == null) {
+					counts.put(thread, new int[] {1});
+				} else {
+					count[0]++;
+				}
+			}
+		}
+		for (Map.Entry<IMCThread, int[]> e : counts.entrySet()) {
+			index.put(e.getKey(), new int[e.getValue()[0]]);
+			e.getValue()[0] = 0;
+		}
+		for (int i = 0; i < threads.length; i++) {
+			if (threads[i] != null) {
+				int[] count = counts.get(threads[i]);
+				index.get(threads[i])[count[0]++] = i;
+			}
+		}
+		return index;
+	}
 }
@@ -51,6 +51,7 @@ import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.openjdk.jmc.common.io.IOToolkit;
 import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
 import org.openjdk.jmc.flightrecorder.internal.parser.Chunk;
 import org.openjdk.jmc.flightrecorder.internal.parser.LoaderContext;
@@ -67,6 +68,8 @@ public final class FlightRecordingLoader {
 
 	private static final Logger LOGGER = Logger.getLogger(FlightRecordingLoader.class.getName());
 	private static final String SINGLE_THREADED_PARSER_PROPERTY_KEY = "org.openjdk.jmc.flightrecorder.parser.singlethreaded"; //$NON-NLS-1$
+	// Number of decompressed chunks that may wait for a parser thread when loading from a stream
+	private static final int READ_AHEAD_CHUNKS = 1;
 	private static final int MIN_MEMORY_PER_THREAD = 300 * 1024 * 1024; // Unless the chunks are very big, 300MB of available memory per parallel chunk load should be plenty
 	private static final short VERSION_0 = 0; // JDK7 & JDK8
 	private static final short VERSION_1 = 1; // JDK9 & JDK10
@@ -115,8 +118,38 @@ public final class FlightRecordingLoader {
 	public static EventArrays loadStream(
 		InputStream stream, List<? extends IParserExtension> extensions, boolean hideExperimentals,
 		boolean ignoreTruncatedChunk, FrameFilter frameFilter) throws CouldNotLoadRecordingException, IOException {
-		return readChunks(null, extensions, createChunkSupplier(stream), hideExperimentals, ignoreTruncatedChunk,
-				frameFilter);
+		return loadStream(null, stream, extensions, hideExperimentals, ignoreTruncatedChunk, frameFilter);
+	}
+
+	/**
+	 * Read events from an input stream of JFR data, reporting progress after each loaded chunk. The
+	 * stream may be compressed using GZip, ZIP or LZ4. Unless the single threaded parser is used,
+	 * the stream is read and decompressed on a separate thread so that the next chunks are
+	 * decompressed while the previous ones are parsed.
+	 *
+	 * @param monitor
+	 *            called after each loaded chunk, may be {@code null}
+	 * @param stream
+	 *            input stream
+	 * @param extensions
+	 *            the extensions to use when parsing the data
+	 * @param hideExperimentals
+	 *            if {@code true}, then events of types marked as experimental will be ignored when
+	 *            reading the data
+	 * @param frameFilter
+	 *            the frame filter to apply during parsing, or null for no filtering
+	 * @return an array of EventArrays (one event type per EventArray)
+	 */
+	public static EventArrays loadStream(
+		Runnable monitor, InputStream stream, List<? extends IParserExtension> extensions, boolean hideExperimentals,
+		boolean ignoreTruncatedChunk, FrameFilter frameFilter) throws CouldNotLoadRecordingException, IOException {
+		if (Boolean.getBoolean(SINGLE_THREADED_PARSER_PROPERTY_KEY)) {
+			return readChunks(monitor, extensions, createChunkSupplier(IOToolkit.openUncompressedStream(stream)),
+					hideExperimentals, ignoreTruncatedChunk, frameFilter);
+		}
+		try (PipelinedChunkSupplier chunkSupplier = new PipelinedChunkSupplier(stream, READ_AHEAD_CHUNKS)) {
+			return readChunks(monitor, extensions, chunkSupplier, hideExperimentals, ignoreTruncatedChunk, frameFilter);
+		}
 	}
 
 	public static IChunkSupplier createChunkSupplier(final InputStream input)
@@ -226,17 +259,27 @@ public final class FlightRecordingLoader {
 		Runnable monitor, List<? extends IParserExtension> extensions, IChunkSupplier chunkSupplier,
 		boolean hideExperimentals, boolean ignoreTruncatedChunk, FrameFilter frameFilter)
 			throws CouldNotLoadRecordingException, IOException {
-		LoaderContext context = new LoaderContext(extensions, hideExperimentals, frameFilter);
+		return readChunks(monitor, new LoaderContext(extensions, hideExperimentals, frameFilter), chunkSupplier,
+				ignoreTruncatedChunk);
+	}
+
+	public static EventArrays readChunks(
+		Runnable monitor, LoaderContext context, IChunkSupplier chunkSupplier, boolean ignoreTruncatedChunk)
+			throws CouldNotLoadRecordingException, IOException {
 		Runtime rt = Runtime.getRuntime();
 		long availableMemory = rt.maxMemory() - rt.totalMemory() + rt.freeMemory();
 		long maxBuffersCount = Math.min(Math.max(availableMemory / MIN_MEMORY_PER_THREAD, 1),
 				rt.availableProcessors() - 1);
 
 		ExecutorService threadPool;
+		// Executor for reading parts of large chunks concurrently, one thread per processor
+		ExecutorService segmentExecutor;
 		if (Boolean.getBoolean(SINGLE_THREADED_PARSER_PROPERTY_KEY)) {
 			threadPool = Executors.newSingleThreadExecutor();
+			segmentExecutor = null;
 		} else {
 			threadPool = Executors.newCachedThreadPool();
+			segmentExecutor = Executors.newFixedThreadPool(rt.availableProcessors());
 		}
 
 		int chunkCount = 0;
@@ -246,7 +289,8 @@ public final class FlightRecordingLoader {
 			int outstanding = 0;
 			Set<Long> loadedChunkTimestamps = new HashSet<>();
 			IChunkLoader chunkLoader;
-			while ((chunkLoader = createChunkLoader(chunkSupplier, context, buffer, ignoreTruncatedChunk)) != null) {
+			while ((chunkLoader = createChunkLoader(chunkSupplier, context, buffer, segmentExecutor,
+					ignoreTruncatedChunk)) != null) {
 				Long ts = chunkLoader.getTimestamp();
 				if (!loadedChunkTimestamps.contains(ts)) {
 					loadedChunkTimestamps.add(ts);
@@ -295,6 +339,9 @@ public final class FlightRecordingLoader {
 			}
 		} finally {
 			threadPool.shutdownNow();
+			if (segmentExecutor != null) {
+				segmentExecutor.shutdownNow();
+			}
 		}
 		LOGGER.fine("Loaded JFR with " + chunkCount + " chunks"); //$NON-NLS-1$ //$NON-NLS-2$
 		return context.buildEventArrays();
@@ -314,14 +361,16 @@ public final class FlightRecordingLoader {
 	 * @param buffer
 	 *            Initial byte array to use for storing chunk data. See
 	 *            {@link IChunkSupplier#getNextChunk(byte[])}.
+	 * @param segmentExecutor
+	 *            executor for reading parts of large chunks concurrently, or {@code null}
 	 * @param ignoreTruncatedChunk
 	 *            if true, then any exceptions caused by getting and reading the next chunk will be
 	 *            ignored and instead make the method return null
 	 * @return a new chunk loader or null if no more data is available from the chunk supplier
 	 */
 	private static IChunkLoader createChunkLoader(
-		IChunkSupplier chunkSupplier, LoaderContext context, byte[] buffer, boolean ignoreTruncatedChunk)
-			throws CouldNotLoadRecordingException, IOException {
+		IChunkSupplier chunkSupplier, LoaderContext context, byte[] buffer, ExecutorService segmentExecutor,
+		boolean ignoreTruncatedChunk) throws CouldNotLoadRecordingException, IOException {
 		try {
 			Chunk chunk = chunkSupplier.getNextChunk(buffer);
 			if (chunk != null) {
@@ -331,7 +380,7 @@ public final class FlightRecordingLoader {
 					return ChunkLoaderV0.create(chunk, context);
 				case VERSION_1:
 				case VERSION_2:
-					return ChunkLoaderV1.create(chunk, context);
+					return ChunkLoaderV1.create(chunk, context, segmentExecutor);
 				default:
 					throw new VersionNotSupportedException();
 				}
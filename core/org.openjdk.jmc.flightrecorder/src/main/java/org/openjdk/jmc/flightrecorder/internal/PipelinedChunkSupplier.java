@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.internal;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmc.common.io.IOToolkit;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.internal.parser.Chunk;
+import org.openjdk.jmc.flightrecorder.util.ChunkReader;
+
+/**
+ * Chunk supplier that reads chunks from a possibly compressed stream on a separate thread. The
+ * stream is decompressed and split into chunks using {@link ChunkReader}, and complete chunks are
+ * handed over to the consumer. This lets decompression of the next chunks overlap with the parsing
+ * of the previous ones.
+ * <p>
+ * The supplier must be closed when no longer used, in order to stop the reader thread. The stream
+ * is not closed by the supplier.
+ */
+public final class PipelinedChunkSupplier implements IChunkSupplier, Closeable {
+
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+	private static final Object END_OF_STREAM = new Object();
+
+	private final InputStream input;
+	private final BlockingQueue<Object> chunks;
+	private final Thread reader;
+	private volatile boolean closed;
+	private boolean ended;
+
+	/**
+	 * Start reading chunks from a stream.
+	 *
+	 * @param input
+	 *            the stream to read from, compressed using GZip, ZIP or LZ4 or uncompressed
+	 * @param readAheadChunks
+	 *            the maximum number of read chunks that may wait for the consumer
+	 */
+	public PipelinedChunkSupplier(InputStream input, int readAheadChunks) {
+		this.input = input;
+		chunks = new ArrayBlockingQueue<>(Math.max(readAheadChunks, 1));
+		reader = new Thread(this::readChunks, "JFR Chunk Reader " + THREAD_COUNTER.incrementAndGet()); //$NON-NLS-1$
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	/**
+	 * Counts the uncompressed bytes read, so that data after the last chunk can be detected.
+	 */
+	private static class CountingInputStream extends FilterInputStream {
+		long count;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int value = super.read();
+			if (value >= 0) {
+				count++;
+			}
+			return value;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = super.read(b, off, len);
+			if (read > 0) {
+				count += read;
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+	}
+
+	private void readChunks() {
+		Object next;
+		CountingInputStream uncompressed = null;
+		try {
+			// Close the decompressing stream when done, but leave the input stream to the caller
+			uncompressed = new CountingInputStream(IOToolkit.openUncompressedStream(new FilterInputStream(input) {
+				@Override
+				public void close() {
+				}
+			}));
+			Iterator<byte[]> iterator = ChunkReader.readChunks(uncompressed);
+			long chunkBytes = 0;
+			while (!closed && iterator.hasNext()) {
+				byte[] chunk = iterator.next();
+				chunkBytes += chunk.length;
+				chunks.put(chunk);
+			}
+			if (!closed && uncompressed.count > chunkBytes) {
+				// The iterator stops at data that does not start with the chunk magic
+				next = new InvalidJfrFileException("Data after the last chunk is not a valid chunk"); //$NON-NLS-1$
+			} else {
+				next = END_OF_STREAM;
+			}
+		} catch (InterruptedException e) {
+			return;
+		} catch (IllegalArgumentException e) {
+			// Corrupt or truncated chunk, the cause is usually an IOException
+			next = e.getCause() != null ? e.getCause() : e;
+		} catch (IOException | RuntimeException | Error e) {
+			next = e;
+		} finally {
+			IOToolkit.closeSilently(uncompressed);
+		}
+		try {
+			chunks.put(next);
+		} catch (InterruptedException e) {
+			// Closed while waiting for the consumer
+		}
+	}
+
+	@Override
+	public Chunk getNextChunk(byte[] reusableBuffer) throws CouldNotLoadRecordingException, IOException {
+		if (ended) {
+			return null;
+		}
+		Object next;
+		try {
+			next = chunks.take();
+		} catch (InterruptedException e) {
+			throw new InterruptedIOException();
+		}
+		if (next instanceof byte[]) {
+			return new Chunk((byte[]) next);
+		}
+		ended = true;
+		if (next == END_OF_STREAM) {
+			return null;
+		} else if (next instanceof CouldNotLoadRecordingException) {
+			throw (CouldNotLoadRecordingException) next;
+		} else if (next instanceof IOException) {
+			throw (IOException) next;
+		} else if (next instanceof RuntimeException) {
+			throw (RuntimeException) next;
+		} else if (next instanceof Error) {
+			throw (Error) next;
+		}
+		throw new InvalidJfrFileException((Throwable) next);
+	}
+
+	/**
+	 * Stops the reader thread. If the reader thread is blocked reading from the stream, then it
+	 * stops when the read returns.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		reader.interrupt();
+		chunks.clear();
+	}
+}
@@ -32,7 +32,9 @@
  */
 package org.openjdk.jmc.flightrecorder.internal.parser;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.Arrays;
 
@@ -48,6 +50,8 @@ public class Chunk {
 	private final short minorVersion;
 	private int position;
 	private byte[] data;
+	// Number of bytes at the start of the data buffer that were available when the chunk was created
+	private final int preloaded;
 
 	/**
 	 * @param input
@@ -58,8 +62,27 @@ public class Chunk {
 	 *            a byte array for holding read chunk data
 	 */
 	public Chunk(DataInput input, int offset, byte[] reusableBuffer) throws IOException, InvalidJfrFileException {
+		this(input, offset, reusableBuffer, 0);
+	}
+
+	/**
+	 * Create a chunk from already read chunk data. The data must begin with the magic bytes, which
+	 * are not checked.
+	 *
+	 * @param data
+	 *            the complete chunk data
+	 */
+	public Chunk(byte[] data) throws IOException, InvalidJfrFileException {
+		// Reading beyond the end of the chunk data will fail with an EOFException
+		this(new DataInputStream(new ByteArrayInputStream(data, data.length, 0)), DataInputToolkit.INTEGER_SIZE, data,
+				data.length);
+	}
+
+	private Chunk(DataInput input, int offset, byte[] initialData, int preloaded)
+			throws IOException, InvalidJfrFileException {
 		this.input = input;
-		this.data = reusableBuffer;
+		this.data = initialData;
+		this.preloaded = preloaded;
 		position = offset;
 		byte[] buffer = fill(offset + 2 * DataInputToolkit.SHORT_SIZE);
 		majorVersion = DataInputToolkit.readShort(buffer, offset);
@@ -92,7 +115,10 @@ public class Chunk {
 			data = Arrays.copyOf(data, (int) (fillUpTo * 1.2));
 		}
 		if (fillUpTo > position) {
-			input.readFully(data, position, fillUpTo - position);
+			int readFrom = Math.max(position, preloaded);
+			if (fillUpTo > readFrom) {
+				input.readFully(data, readFrom, fillUpTo - readFrom);
+			}
 			position = fillUpTo;
 		}
 		return data;
@@ -108,8 +134,12 @@ public class Chunk {
 	public void skip(long upToPosition) throws IOException, InvalidJfrFileException {
 		int skipUpTo = getArrayPosition(upToPosition);
 		if (skipUpTo > position) {
-			int skipped = input.skipBytes(skipUpTo - position);
-			position += skipped;
+			int readFrom = Math.max(position, preloaded);
+			if (skipUpTo > readFrom) {
+				position = readFrom + input.skipBytes(skipUpTo - readFrom);
+			} else {
+				position = skipUpTo;
+			}
 		}
 	}
 
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.internal.parser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.unit.StructContentType;
+import org.openjdk.jmc.flightrecorder.internal.parser.ItemBuilder.IItemFactory;
+import org.openjdk.jmc.flightrecorder.parser.ValueField;
+
+/**
+ * Creates the item types for event types, and the factories for creating items of them. A registry
+ * can be shared between loader contexts, so that loads of different chunks of the same recording at
+ * different times use the same type instances for the same event types.
+ * <p>
+ * Event types with the same identifier but different fields get different item types. The first one
+ * keeps the identifier and the others get a unique identifier.
+ */
+public final class EventTypeRegistry {
+
+	static final class EventTypeDefinition {
+		final StructContentType<IItem> eventType;
+		final IItemFactory itemFactory;
+		final List<ValueField> dataStructure;
+
+		private EventTypeDefinition(StructContentType<IItem> eventType, List<ValueField> dataStructure) {
+			this.eventType = eventType;
+			this.dataStructure = dataStructure;
+			itemFactory = ItemBuilder.createItemFactory(eventType, dataStructure);
+		}
+
+		boolean isCompatibleWith(List<ValueField> fields) {
+			if (dataStructure.size() == fields.size()) {
+				for (int i = 0; i < dataStructure.size(); i++) {
+					ValueField vf1 = dataStructure.get(i);
+					ValueField vf2 = fields.get(i);
+					if (!vf1.getIdentifier().equals(vf2.getIdentifier())
+							|| !vf1.getContentType().equals(vf2.getContentType())) {
+						return false;
+					}
+				}
+				return true;
+			}
+			return false;
+		}
+	}
+
+	private final Map<String, List<EventTypeDefinition>> definitions = new HashMap<>();
+
+	/**
+	 * Get the definition of an event type with a compatible data structure, creating it if needed.
+	 */
+	synchronized EventTypeDefinition getDefinition(
+		String identifier, String label, String description, List<ValueField> dataStructure) {
+		List<EventTypeDefinition> variants = definitions.get(identifier);
+		if (variants == null) {
+			variants = new ArrayList<>(1);
+			definitions.put(identifier, variants);
+		}
+		for (EventTypeDefinition definition : variants) {
+			if (definition.isCompatibleWith(dataStructure)) {
+				return definition;
+			}
+		}
+		String typeIdentifier = variants.isEmpty() ? identifier : identifier + UUID.randomUUID().toString();
+		EventTypeDefinition definition = new EventTypeDefinition(
+				new StructContentType<IItem>(typeIdentifier, label, description), dataStructure);
+		variants.add(definition);
+		return definition;
+	}
+}
@@ -56,6 +56,10 @@ import org.openjdk.jmc.flightrecorder.internal.util.CanonicalConstantMap;
 import org.openjdk.jmc.flightrecorder.parser.IConstantPoolExtension;
 import org.openjdk.jmc.flightrecorder.parser.IEventSinkFactory;
 import org.openjdk.jmc.flightrecorder.parser.IParserExtension;
+import org.openjdk.jmc.flightrecorder.parser.filter.FilterExtension;
+import org.openjdk.jmc.flightrecorder.parser.filter.IOnLoadFilter;
+import org.openjdk.jmc.flightrecorder.parser.filter.OnLoadFilters;
+import org.openjdk.jmc.flightrecorder.parser.synthetic.OracleJdkTypeIDsPre11;
 import org.openjdk.jmc.flightrecorder.stacktrace.FrameFilter;
 
 /**
@@ -63,15 +67,16 @@ import org.openjdk.jmc.flightrecorder.stacktrace.FrameFilter;
  * Collects all loaded chunks and combines them to a FlightRecording.
  */
 public class LoaderContext {
-	private final RepositoryBuilder repositoryBuilder = new RepositoryBuilder();
+	private final RepositoryBuilder repositoryBuilder;
 	private final IEventSinkFactory sinkFactory;
-	private final ConcurrentHashMap<Object, CanonicalConstantMap<Object>> constantsByType = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Object, CanonicalConstantMap<Object>> constantsByType;
 	private final boolean hideExperimentals;
 	private final List<? extends IParserExtension> extensions;
 	private final List<IConstantPoolExtension> constPoolExtensions = new CopyOnWriteArrayList<>();
 	private final Set<IRange<IQuantity>> chunkRanges;
 	private final ParserStats parserStats = new ParserStats();
 	private final FrameFilter frameFilter;
+	private final IOnLoadFilter loadFilter;
 
 	public LoaderContext(List<? extends IParserExtension> extensions, boolean hideExperimentals) {
 		this(extensions, hideExperimentals, null);
@@ -79,6 +84,31 @@ public class LoaderContext {
 
 	public LoaderContext(List<? extends IParserExtension> extensions, boolean hideExperimentals,
 			FrameFilter frameFilter) {
+		this(extensions, hideExperimentals, frameFilter, new ConcurrentHashMap<>(), new EventTypeRegistry());
+	}
+
+	/**
+	 * Create a loader context that canonicalizes constants and event types using constant pools and
+	 * an event type registry that may be shared with other loader contexts. This is used when
+	 * chunks of the same recording are loaded at different times, so that constants and types that
+	 * are equal in the different loads are represented by the same instances.
+	 *
+	 * @param extensions
+	 *            parser extensions to use
+	 * @param hideExperimentals
+	 *            if {@code true}, then events of types marked as experimental will be ignored
+	 * @param frameFilter
+	 *            frame filter to use, or {@code null} for none
+	 * @param constantsByType
+	 *            the constant pools to use and populate
+	 * @param typeRegistry
+	 *            the registry to get event types from
+	 */
+	public LoaderContext(List<? extends IParserExtension> extensions, boolean hideExperimentals,
+			FrameFilter frameFilter, ConcurrentHashMap<Object, CanonicalConstantMap<Object>> constantsByType,
+			EventTypeRegistry typeRegistry) {
+		this.constantsByType = constantsByType;
+		this.repositoryBuilder = new RepositoryBuilder(typeRegistry);
 		this.extensions = extensions;
 		this.hideExperimentals = hideExperimentals;
 		this.frameFilter = frameFilter;
@@ -95,6 +125,14 @@ public class LoaderContext {
 		}
 		this.sinkFactory = sinkFactory;
 		this.chunkRanges = new HashSet<>();
+		List<IOnLoadFilter> loadFilters = new ArrayList<>();
+		for (IParserExtension extension : extensions) {
+			if (extension instanceof FilterExtension && ((FilterExtension) extension).getOnLoadFilter() != null) {
+				loadFilters.add(((FilterExtension) extension).getOnLoadFilter());
+			}
+		}
+		this.loadFilter = loadFilters.isEmpty() ? null
+				: OnLoadFilters.and(loadFilters.toArray(new IOnLoadFilter[loadFilters.size()]));
 	}
 
 	public CanonicalConstantMap<Object> getConstantPool(Object poolKey) {
@@ -126,6 +164,39 @@ public class LoaderContext {
 		return frameFilter;
 	}
 
+	/**
+	 * Returns the filter from the {@link FilterExtension filter extensions} of this loader context.
+	 * It is used to skip chunks and events as early as possible while parsing.
+	 *
+	 * @return the combined load filter, or null if there is none
+	 */
+	public IOnLoadFilter getLoadFilter() {
+		return loadFilter;
+	}
+
+	/**
+	 * Checks if events of a type can be skipped without being read. The type identifier may be
+	 * translated later in the chain of parser extensions, so a type is only skipped if the load
+	 * filter rejects both the original and the translated identifier.
+	 *
+	 * @param typeId
+	 *            the identifier of the event type as found in the recording
+	 * @return {@code true} if events of the type must be read
+	 */
+	public boolean allowEventType(String typeId) {
+		return loadFilter == null || loadFilter.allowEventType(typeId)
+				|| loadFilter.allowEventType(OracleJdkTypeIDsPre11.translate(typeId));
+	}
+
+	/**
+	 * @param chunkRange
+	 *            the time range of a chunk
+	 * @return {@code true} if the chunk may contain events that pass the load filter
+	 */
+	public boolean allowChunk(IRange<IQuantity> chunkRange) {
+		return loadFilter == null || loadFilter.allowTimeRange(chunkRange.getStart(), chunkRange.getEnd());
+	}
+
 	public Object constantRead(long constantIndex, Object constant, String eventTypeId) {
 		Object newConstant = constant;
 		for (IConstantPoolExtension m : constPoolExtensions) {
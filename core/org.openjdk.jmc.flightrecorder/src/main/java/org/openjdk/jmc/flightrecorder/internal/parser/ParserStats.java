@@ -75,6 +75,7 @@ public class ParserStats {
 	private final ConcurrentHashMap<String, EventTypeStats> statsByType = new ConcurrentHashMap<>();
 	private final ConcurrentLinkedDeque<ConstantPoolInfo> constantPoolInfoList = new ConcurrentLinkedDeque<>();
 	private final ConcurrentHashMap<String, AtomicLong> entryPoolSizeByType = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, AtomicLong> constantCountByType = new ConcurrentHashMap<>();
 	private IItemCollection poolStats;
 	private IItemCollection constants;
 	private final Map<String, IConstantPoolExtension> constantPoolExtensions = new ConcurrentHashMap<>();
@@ -104,6 +105,22 @@ public class ParserStats {
 		entryPoolSizeByType.computeIfAbsent(typeIdentifier, id -> new AtomicLong()).addAndGet(size);
 	}
 
+	/**
+	 * Add the constant pool statistics of another instance. Only the number of constants and the
+	 * pool sizes are kept, not the constants, so {@link #getConstants()} does not include them.
+	 *
+	 * @param other
+	 *            statistics to add the constant pool counts and sizes from
+	 */
+	public void addConstantPoolStats(ParserStats other) {
+		for (ConstantPoolInfo info : other.constantPoolInfoList) {
+			constantCountByType.computeIfAbsent(info.name, name -> new AtomicLong())
+					.addAndGet(getConstantPoolCount(info.constantPool));
+		}
+		other.entryPoolSizeByType.forEach((name, size) -> addEntryPoolSize(name, size.get()));
+		poolStats = null;
+	}
+
 	public void addConstantPoolExtension(IConstantPoolExtension extension) {
 		constantPoolExtensions.put(extension.getId(), extension);
 	}
@@ -153,6 +170,8 @@ public class ParserStats {
 				ConstPoolItem poolItem = poolStatsByName.computeIfAbsent(info.name, this::createPoolItem);
 				poolItem.count += getConstantPoolCount(info.constantPool);
 			}
+			constantCountByType.forEach(
+					(name, count) -> poolStatsByName.computeIfAbsent(name, this::createPoolItem).count += count.get());
 			poolStats = ItemCollectionToolkit.build(poolStatsByName.values().stream());
 		}
 		return poolStats;
@@ -42,7 +42,6 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -52,6 +51,7 @@ import org.openjdk.jmc.common.item.IMemberAccessor;
 import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.StructContentType;
 import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.internal.parser.EventTypeRegistry.EventTypeDefinition;
 import org.openjdk.jmc.flightrecorder.internal.parser.ItemBuilder.IItemFactory;
 import org.openjdk.jmc.flightrecorder.internal.util.DisjointBuilder;
 import org.openjdk.jmc.flightrecorder.internal.util.DisjointBuilder.ArrayFactory;
@@ -66,6 +66,11 @@ import org.openjdk.jmc.flightrecorder.parser.ValueField;
 class RepositoryBuilder implements IEventSinkFactory {
 	private static final Logger LOGGER = Logger.getLogger(RepositoryBuilder.class.getName());
 	private final Map<String, EventTypeEntry> eventTypes = new HashMap<>();
+	private final EventTypeRegistry typeRegistry;
+
+	RepositoryBuilder(EventTypeRegistry typeRegistry) {
+		this.typeRegistry = typeRegistry;
+	}
 
 	@Override
 	public IEventSink create(
@@ -79,8 +84,8 @@ class RepositoryBuilder implements IEventSinkFactory {
 			} else {
 				while (!eventTypeEntry.isCompatibleWith(dataStructure)) {
 					if (eventTypeEntry.next == null) {
-						eventTypeEntry.next = createEventTypeEntry(identifier + UUID.randomUUID().toString(), label,
-								category, description, dataStructure);
+						eventTypeEntry.next = createEventTypeEntry(identifier, label, category, description,
+								dataStructure);
 						LOGGER.log(Level.WARNING, MessageFormat.format(
 								"Created new event type entry for {0} because the fields did not match those of the previously created one. New identifier is {1}", //$NON-NLS-1$
 								identifier, eventTypeEntry.next.eventType.getIdentifier()));
@@ -93,10 +98,11 @@ class RepositoryBuilder implements IEventSinkFactory {
 		}
 	}
 
-	private static EventTypeEntry createEventTypeEntry(
+	private EventTypeEntry createEventTypeEntry(
 		String identifier, String label, String[] category, String description, List<ValueField> dataStructure) {
-		StructContentType<IItem> eventType = new StructContentType<>(identifier, label, description);
-		IItemFactory itemFactory = ItemBuilder.createItemFactory(eventType, dataStructure);
+		EventTypeDefinition definition = typeRegistry.getDefinition(identifier, label, description, dataStructure);
+		StructContentType<IItem> eventType = definition.eventType;
+		IItemFactory itemFactory = definition.itemFactory;
 		IMemberAccessor<IQuantity, IItem> stAccessor = JfrAttributes.START_TIME.getAccessor(eventType);
 		IMemberAccessor<IQuantity, IItem> etAccessor = JfrAttributes.END_TIME.getAccessor(eventType);
 		if (stAccessor != null && stAccessor != etAccessor) {
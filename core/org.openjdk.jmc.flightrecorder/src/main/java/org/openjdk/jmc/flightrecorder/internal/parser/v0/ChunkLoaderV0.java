@@ -34,10 +34,13 @@ package org.openjdk.jmc.flightrecorder.internal.parser.v0;
 
 import java.io.IOException;
 
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IRange;
 import org.openjdk.jmc.common.unit.QuantityRange;
 import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
 import org.openjdk.jmc.flightrecorder.internal.ChunkInfo;
 import org.openjdk.jmc.flightrecorder.internal.IChunkLoader;
+import org.openjdk.jmc.flightrecorder.internal.SkippedChunkLoader;
 import org.openjdk.jmc.flightrecorder.internal.parser.Chunk;
 import org.openjdk.jmc.flightrecorder.internal.parser.LoaderContext;
 
@@ -47,14 +50,13 @@ public class ChunkLoaderV0 implements IChunkLoader {
 	private final LoaderContext context;
 	private final ChunkMetadata metadata;
 
-	private ChunkLoaderV0(ChunkStructure structure, byte[] data, LoaderContext context)
-			throws CouldNotLoadRecordingException {
+	private ChunkLoaderV0(ChunkStructure structure, byte[] data, LoaderContext context, ChunkMetadata metadata,
+			IRange<IQuantity> chunkRange) {
 		this.structure = structure;
 		this.data = data;
 		this.context = context;
-		// Read metadata
-		metadata = new ChunkMetadata(data, structure.getMetadataOffset());
-		context.addChunkRange(QuantityRange.createWithEnd(metadata.getStartTime(), metadata.getEndTime()));
+		this.metadata = metadata;
+		context.addChunkRange(chunkRange);
 	}
 
 	@Override
@@ -85,7 +87,13 @@ public class ChunkLoaderV0 implements IChunkLoader {
 			throws IOException, CouldNotLoadRecordingException {
 		ChunkStructure structure = new ChunkStructure(input);
 		byte[] buffer = input.fill(structure.getChunkSize());
-		return new ChunkLoaderV0(structure, buffer, context);
+		// Read metadata
+		ChunkMetadata metadata = new ChunkMetadata(buffer, structure.getMetadataOffset());
+		IRange<IQuantity> chunkRange = QuantityRange.createWithEnd(metadata.getStartTime(), metadata.getEndTime());
+		if (!context.allowChunk(chunkRange)) {
+			return new SkippedChunkLoader(buffer, metadata.getStartTime().longValue());
+		}
+		return new ChunkLoaderV0(structure, buffer, context, metadata, chunkRange);
 	}
 
 	public static ChunkInfo getInfo(Chunk input, long position) throws IOException, CouldNotLoadRecordingException {
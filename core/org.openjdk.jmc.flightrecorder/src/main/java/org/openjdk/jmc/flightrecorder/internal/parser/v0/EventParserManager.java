@@ -37,7 +37,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import org.openjdk.jmc.common.IMCThread;
 import org.openjdk.jmc.common.collection.FastAccessNumberMap;
+import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.flightrecorder.JfrAttributes;
 import org.openjdk.jmc.flightrecorder.internal.EventAppearance;
@@ -52,6 +54,7 @@ import org.openjdk.jmc.flightrecorder.messages.internal.Messages;
 import org.openjdk.jmc.flightrecorder.parser.IEventSink;
 import org.openjdk.jmc.flightrecorder.parser.IEventSinkFactory;
 import org.openjdk.jmc.flightrecorder.parser.ValueField;
+import org.openjdk.jmc.flightrecorder.parser.filter.IOnLoadFilter;
 import org.openjdk.jmc.flightrecorder.parser.synthetic.OracleJdkTypeIDsPre11;
 
 class EventParserManager {
@@ -80,11 +83,13 @@ class EventParserManager {
 	private final FastAccessNumberMap<EventTypeEntry> eventTypes = new FastAccessNumberMap<>(100, 5);
 	private final ReaderFactory readerFactory;
 	private final LoaderContext context;
+	private final IOnLoadFilter loadFilter;
 
 	public EventParserManager(ReaderFactory readerFactory, LoaderContext context, ProducerDescriptor ... producers)
 			throws InvalidJfrFileException {
 		this.readerFactory = readerFactory;
 		this.context = context;
+		loadFilter = context.getLoadFilter();
 
 		// Create event types entries
 		for (ProducerDescriptor pd : producers) {
@@ -94,11 +99,12 @@ class EventParserManager {
 				EventTypeBuilder eventSpec = new EventTypeBuilder(id, etd);
 				String[] category = EventAppearance.getHumanSegmentArray(path);
 				category = Arrays.copyOf(category, category.length - 1);
-				IEventSink sink = context.getSinkFactory().create(id, etd.getLabel(), category, etd.getDescription(),
-						eventSpec.getValueFields());
+				// Events of types that are filtered out are skipped without being read
+				IEventSink sink = !context.allowEventType(id) ? null : context.getSinkFactory().create(id,
+						etd.getLabel(), category, etd.getDescription(), eventSpec.getValueFields());
 				String typeId = OracleJdkTypeIDsPre11.translate(id);
-				eventTypes.put(etd.getIdentifier(),
-						new EventTypeEntry(typeId, sink, etd.hasStartTime(), eventSpec.getValueReaders()));
+				eventTypes.put(etd.getIdentifier(), new EventTypeEntry(typeId, sink, etd.hasStartTime(),
+						etd.hasThread(), eventSpec.getValueReaders()));
 			}
 		}
 		eventTypes.put(LOST_EVENT_TYPE_INDEX, createBufferLostEntry(context.getSinkFactory()));
@@ -110,17 +116,31 @@ class EventParserManager {
 			throw new IllegalArgumentException("Event type " + eventTypeId + " is not described in the file"); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 		long size = offset.getEnd() - offset.get();
+		context.updateEventStats(ep.typeId, size);
+		if (ep.sink == null) {
+			return;
+		}
 		long endTime = readerFactory.readTicksTimestamp(data, offset);
 		int valueIndex = 0;
 		if (ep.hasStartTime) {
 			ep.values[valueIndex++] = UnitLookup.EPOCH_NS.quantity(readerFactory.readTicksTimestamp(data, offset));
 		}
-		ep.values[valueIndex++] = UnitLookup.EPOCH_NS.quantity(endTime);
+		IQuantity end = UnitLookup.EPOCH_NS.quantity(endTime);
+		ep.values[valueIndex++] = end;
+		if (loadFilter != null && !loadFilter.allowTimeRange(ep.hasStartTime ? (IQuantity) ep.values[0] : end, end)) {
+			return;
+		}
 		for (int n = 0; n < ep.parsers.length; n++) {
-			ep.values[valueIndex++] = ep.parsers[n].readValue(data, offset, endTime);
+			ep.values[valueIndex] = ep.parsers[n].readValue(data, offset, endTime);
+			if (n == 0 && ep.hasThread && loadFilter != null) {
+				Object thread = ep.values[valueIndex];
+				if (!loadFilter.allowEventThread(thread instanceof IMCThread ? (IMCThread) thread : null)) {
+					return;
+				}
+			}
+			valueIndex++;
 		}
 		ep.sink.addEvent(ep.values);
-		context.updateEventStats(ep.typeId, size);
 	}
 
 	private EventTypeEntry createBufferLostEntry(IEventSinkFactory esf) throws InvalidJfrFileException {
@@ -131,7 +151,8 @@ class EventParserManager {
 				Messages.getString(Messages.EventParserManager_TYPE_BUFFER_LOST),
 				EventAppearance.getHumanSegmentArray("recordings"), //$NON-NLS-1$
 				Messages.getString(Messages.EventParserManager_TYPE_BUFFER_LOST_DESC), eventReader.getValueFields());
-		return new EventTypeEntry(JfrInternalConstants.BUFFER_LOST_TYPE_ID, sink, false, eventReader.getValueReaders());
+		return new EventTypeEntry(JfrInternalConstants.BUFFER_LOST_TYPE_ID, sink, false, true,
+				eventReader.getValueReaders());
 	}
 
 	private class EventTypeBuilder {
@@ -207,12 +228,15 @@ class EventParserManager {
 		private final IValueReader[] parsers;
 		private final IEventSink sink;
 		private final boolean hasStartTime;
+		private final boolean hasThread;
 
-		public EventTypeEntry(String typeId, IEventSink sink, boolean hasStartTime, IValueReader[] valueParsers) {
+		public EventTypeEntry(String typeId, IEventSink sink, boolean hasStartTime, boolean hasThread,
+				IValueReader[] valueParsers) {
 			this.typeId = typeId;
 			parsers = valueParsers;
 			this.sink = sink;
 			this.hasStartTime = hasStartTime;
+			this.hasThread = hasThread;
 			values = new Object[(hasStartTime ? 2 : 1) + parsers.length];
 		}
 	}
@@ -33,29 +33,65 @@
 package org.openjdk.jmc.flightrecorder.internal.parser.v1;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
 
 import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
 import org.openjdk.jmc.flightrecorder.internal.ChunkInfo;
 import org.openjdk.jmc.flightrecorder.internal.IChunkLoader;
 import org.openjdk.jmc.flightrecorder.internal.InvalidJfrFileException;
+import org.openjdk.jmc.flightrecorder.internal.SkippedChunkLoader;
 import org.openjdk.jmc.flightrecorder.internal.parser.Chunk;
 import org.openjdk.jmc.flightrecorder.internal.parser.LoaderContext;
 import org.openjdk.jmc.flightrecorder.internal.parser.v1.ChunkMetadata.ClassElement;
+import org.openjdk.jmc.flightrecorder.internal.parser.v1.TypeManager.EventReader;
 import org.openjdk.jmc.flightrecorder.internal.util.ParserToolkit;
 
 public class ChunkLoaderV1 implements IChunkLoader {
 
 	private final static long CONSTANT_POOL_EVENT_TYPE = 1;
+	// Smallest part of a chunk that is worth reading on a separate thread
+	final static long MIN_SEGMENT_SIZE = 16 * 1024 * 1024;
 
 	private final ChunkStructure header;
 	private final byte[] data;
 	private final LoaderContext context;
+	private final ExecutorService segmentExecutor;
+	private final long minSegmentSize;
+	private final int maxSegmentCount;
 
 	public ChunkLoaderV1(ChunkStructure header, byte[] data, LoaderContext context) {
+		this(header, data, context, null);
+	}
+
+	/**
+	 * @param header
+	 *            the chunk header
+	 * @param data
+	 *            the chunk data
+	 * @param context
+	 *            the loader context to send event data to
+	 * @param segmentExecutor
+	 *            if not {@code null}, large chunks are split into segments at event boundaries and
+	 *            all segments but the first are submitted to this executor. Segments that have not
+	 *            been started when the loader has read the first one are read by the loader itself.
+	 */
+	public ChunkLoaderV1(ChunkStructure header, byte[] data, LoaderContext context, ExecutorService segmentExecutor) {
+		this(header, data, context, segmentExecutor, MIN_SEGMENT_SIZE, Runtime.getRuntime().availableProcessors());
+	}
+
+	ChunkLoaderV1(ChunkStructure header, byte[] data, LoaderContext context, ExecutorService segmentExecutor,
+			long minSegmentSize, int maxSegmentCount) {
 		this.header = header;
 		this.data = data;
 		this.context = context;
+		this.segmentExecutor = segmentExecutor;
+		this.minSegmentSize = minSegmentSize;
+		this.maxSegmentCount = maxSegmentCount;
 		context.addChunkRange(header.getChunkRange());
 	}
 
@@ -80,8 +116,93 @@ public class ChunkLoaderV1 implements IChunkLoader {
 		manager.resolveConstants();
 
 		// Read events
-		long index = header.getBodyStartOffset();
-		while (index < header.getChunkSize()) {
+		long[] segments = findSegments(input);
+		if (segments.length == 2) {
+			EventReader reader = manager.createEventReader();
+			readEvents(input, reader, segments[0], segments[1]);
+			context.setSkippedEventCount(reader.getSkippedEventCount());
+		} else {
+			// Create the readers in event order, so that events with equal timestamps keep their order
+			List<EventReader> readers = new ArrayList<>();
+			for (int i = 0; i < segments.length - 1; i++) {
+				readers.add(manager.createEventReader());
+			}
+			List<FutureTask<?>> futures = new ArrayList<>();
+			try {
+				for (int i = 1; i < segments.length - 1; i++) {
+					EventReader reader = readers.get(i);
+					long start = segments[i];
+					long end = segments[i + 1];
+					FutureTask<?> future = new FutureTask<>(() -> {
+						readEvents(SeekableInputStream.build(data, header.isIntegersCompressed()), reader, start, end);
+						return null;
+					});
+					futures.add(future);
+					segmentExecutor.execute(future);
+				}
+				readEvents(input, readers.get(0), segments[0], segments[1]);
+				for (FutureTask<?> future : futures) {
+					// Read segments that are still queued on this thread instead of waiting for them
+					future.run();
+					future.get();
+				}
+				context.setSkippedEventCount(readers.stream().mapToLong(EventReader::getSkippedEventCount).sum());
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof Exception) {
+					throw (Exception) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw e;
+			} finally {
+				for (FutureTask<?> future : futures) {
+					future.cancel(true);
+				}
+			}
+		}
+		context.addConstantPoolExtensions();
+		return data;
+	}
+
+	/**
+	 * Splits the event part of the chunk into segments that can be read concurrently. Segments
+	 * start at event boundaries, found by following the size of each event.
+	 *
+	 * @return the start offsets of the segments, followed by the end offset of the last segment
+	 */
+	private long[] findSegments(SeekableInputStream input) throws IOException, CouldNotLoadRecordingException {
+		long start = header.getBodyStartOffset();
+		long end = header.getChunkSize();
+		int segmentCount = segmentExecutor == null ? 1
+				: (int) Math.min(maxSegmentCount, (end - start) / minSegmentSize);
+		if (segmentCount <= 1) {
+			return new long[] {start, end};
+		}
+		long segmentSize = (end - start) / segmentCount;
+		long[] segments = new long[segmentCount + 1];
+		int segment = 1;
+		long index = start;
+		while (index < end && segment < segmentCount) {
+			if (index >= start + segment * segmentSize) {
+				segments[segment++] = index;
+			}
+			input.seek(index);
+			int size = input.readInt();
+			if (size == 0) {
+				throw new CouldNotLoadRecordingException("Found event with invalid size (0)"); //$NON-NLS-1$
+			}
+			index += size;
+		}
+		segments[0] = start;
+		segments[segment] = end;
+		return segment == segmentCount ? segments : Arrays.copyOf(segments, segment + 1);
+	}
+
+	private void readEvents(SeekableInputStream input, EventReader reader, long start, long end)
+			throws IOException, CouldNotLoadRecordingException {
+		long index = start;
+		while (index < end) {
 			input.seek(index);
 			int size = input.readInt();
 			long type = input.readLong();
@@ -89,13 +210,10 @@ public class ChunkLoaderV1 implements IChunkLoader {
 				throw new CouldNotLoadRecordingException("Found event with invalid size (0)"); //$NON-NLS-1$
 			}
 			if (type != CONSTANT_POOL_EVENT_TYPE && type != ChunkMetadata.METADATA_EVENT_TYPE) {
-				manager.readEvent(type, input, size);
+				reader.readEvent(type, input, size);
 			}
 			index += size;
 		}
-		context.setSkippedEventCount(manager.getSkippedEventCount());
-		context.addConstantPoolExtensions();
-		return data;
 	}
 
 	private static long readConstantPoolEvent(IDataInput input, TypeManager manager, boolean compressedInts)
@@ -122,9 +240,40 @@ public class ChunkLoaderV1 implements IChunkLoader {
 
 	public static IChunkLoader create(Chunk input, LoaderContext context)
 			throws IOException, CouldNotLoadRecordingException {
+		return create(input, context, null);
+	}
+
+	/**
+	 * Create a chunk loader that may read the events of a large chunk concurrently.
+	 *
+	 * @param input
+	 *            the chunk to load
+	 * @param context
+	 *            the loader context to send event data to
+	 * @param segmentExecutor
+	 *            executor for reading segments of the chunk, or {@code null} to read all events on
+	 *            the loading thread. It must not queue tasks behind the chunk loader itself.
+	 * @return a new chunk loader
+	 */
+	public static IChunkLoader create(Chunk input, LoaderContext context, ExecutorService segmentExecutor)
+			throws IOException, CouldNotLoadRecordingException {
+		return create(input, context, segmentExecutor, MIN_SEGMENT_SIZE, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Create a chunk loader with custom limits for splitting the chunk, so that small chunks can be
+	 * split in tests.
+	 */
+	static IChunkLoader create(
+		Chunk input, LoaderContext context, ExecutorService segmentExecutor, long minSegmentSize, int maxSegmentCount)
+			throws IOException, CouldNotLoadRecordingException {
 		ChunkStructure header = new ChunkStructure(input);
+		if (!context.allowChunk(header.getChunkRange())) {
+			input.skip(header.getChunkSize());
+			return new SkippedChunkLoader(input.getReusableBuffer(), header.getStartTimeNanos());
+		}
 		byte[] data = input.fill(header.getChunkSize());
-		return new ChunkLoaderV1(header, data, context);
+		return new ChunkLoaderV1(header, data, context, segmentExecutor, minSegmentSize, maxSegmentCount);
 	}
 
 	public static ChunkInfo getInfo(Chunk input, long position) throws IOException, CouldNotLoadRecordingException {
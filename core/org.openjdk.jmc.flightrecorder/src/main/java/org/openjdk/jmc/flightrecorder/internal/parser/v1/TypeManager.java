@@ -43,12 +43,15 @@ import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.openjdk.jmc.common.IMCFrame;
+import org.openjdk.jmc.common.IMCThread;
 import org.openjdk.jmc.common.collection.FastAccessNumberMap;
 import org.openjdk.jmc.common.unit.ContentType;
+import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.IUnit;
 import org.openjdk.jmc.common.unit.StructContentType;
 import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.common.util.LabeledIdentifier;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
 import org.openjdk.jmc.flightrecorder.internal.InvalidJfrFileException;
 import org.openjdk.jmc.flightrecorder.internal.parser.LoaderContext;
 import org.openjdk.jmc.flightrecorder.stacktrace.FrameFilter;
@@ -83,6 +86,7 @@ import org.openjdk.jmc.flightrecorder.internal.util.JfrInternalConstants;
 import org.openjdk.jmc.flightrecorder.messages.internal.Messages;
 import org.openjdk.jmc.flightrecorder.parser.IEventSink;
 import org.openjdk.jmc.flightrecorder.parser.ValueField;
+import org.openjdk.jmc.flightrecorder.parser.filter.IOnLoadFilter;
 
 class TypeManager {
 
@@ -316,24 +320,61 @@ class TypeManager {
 
 	private class EventTypeEntry {
 		private final ClassElement element;
+		private final int index;
 		private final List<IValueReader> valueReaders;
-		private Object[] reusableStruct;
-		private IEventSink eventSink;
+		private final List<ValueField> fieldsList = new ArrayList<>();
+		private final List<Integer> skipFields = new ArrayList<>();
+		private boolean hidden;
+		private String typeLabel;
 		private LabeledIdentifier eventType;
 		private LoaderContext context;
-
-		EventTypeEntry(ClassElement element) {
+		private IOnLoadFilter loadFilter;
+		// Positions of the values that the load filter is applied to, or -1
+		private int startTimeIndex = -1;
+		private int durationIndex = -1;
+		private int threadIndex = -1;
+		private int filterIndex = -1;
+
+		EventTypeEntry(ClassElement element, int index) {
 			this.element = element;
+			this.index = index;
 			valueReaders = new ArrayList<>(element.getFieldCount());
 		}
 
-		void readEvent(IDataInput input) throws InvalidJfrFileException, IOException {
+		void readEvent(IDataInput input, IEventSink eventSink, Object[] reusableStruct)
+				throws InvalidJfrFileException, IOException {
+			if (hidden) {
+				// The chunk loader will skip to the next event
+				return;
+			}
 			for (int i = 0; i < valueReaders.size(); i++) {
 				reusableStruct[i] = valueReaders.get(i).read(input, false);
+				if (i == filterIndex && !allowEvent(reusableStruct)) {
+					// Skip the remaining fields
+					return;
+				}
 			}
 			eventSink.addEvent(reusableStruct);
 		}
 
+		private boolean allowEvent(Object[] values) {
+			if (startTimeIndex >= 0 && values[startTimeIndex] instanceof IQuantity) {
+				IQuantity start = (IQuantity) values[startTimeIndex];
+				IQuantity end = start;
+				if (durationIndex >= 0 && values[durationIndex] instanceof IQuantity) {
+					end = start.add((IQuantity) values[durationIndex]);
+				}
+				if (!loadFilter.allowTimeRange(start, end)) {
+					return false;
+				}
+			}
+			if (threadIndex >= 0) {
+				Object thread = values[threadIndex];
+				return loadFilter.allowEventThread(thread instanceof IMCThread ? (IMCThread) thread : null);
+			}
+			return true;
+		}
+
 		LabeledIdentifier getValueType() {
 			if (eventType == null) {
 				eventType = new LabeledIdentifier(element.typeIdentifier, element.classId, element.label,
@@ -344,11 +385,12 @@ class TypeManager {
 
 		void init(LoaderContext context) throws InvalidJfrFileException, IOException {
 			this.context = context;
+			loadFilter = context.getLoadFilter();
 			if (context.hideExperimentals() && element.experimental) {
-				eventSink = new NopEventSink();
+				hidden = true;
+			} else if (!context.allowEventType(element.typeIdentifier)) {
+				hidden = true;
 			} else {
-				List<ValueField> fieldsList = new ArrayList<>();
-				List<Integer> skipFields = new ArrayList<>();
 				for (int i = 0; i < element.getFieldCount(); i++) {
 					FieldElement fe = element.fields.get(i);
 					String valueType = context.getValueInterpretation(element.typeIdentifier, fe.fieldIdentifier);
@@ -373,20 +415,42 @@ class TypeManager {
 									nestedReader.getContentType()));
 						}
 					} else {
+						if (loadFilter != null) {
+							setFilterIndex(fe.fieldIdentifier, valueReaders.size());
+						}
 						valueReaders.add(reader);
 						fieldsList.add(new ValueField(fe.fieldIdentifier, fieldLabel, fe.description,
 								reader.getContentType()));
 					}
 				}
-				String typeLabel = buildLabel(element.typeIdentifier, element);
-				// FIXME: Consider making the category array into something else, like an event type metadata array?
-				eventSink = context.getSinkFactory().create(element.typeIdentifier, typeLabel, element.category,
-						element.description, fieldsList);
-				reusableStruct = new Object[valueReaders.size()];
-				if (skipFields.size() > 0) {
-					eventSink = new SkipFieldsEventSink(eventSink, skipFields, reusableStruct.length);
-				}
+				typeLabel = buildLabel(element.typeIdentifier, element);
+			}
+		}
+
+		private void setFilterIndex(String fieldIdentifier, int index) {
+			if (JfrAttributes.START_TIME.getIdentifier().equals(fieldIdentifier)) {
+				startTimeIndex = index;
+			} else if (JfrAttributes.DURATION.getIdentifier().equals(fieldIdentifier)) {
+				durationIndex = index;
+			} else if (JfrAttributes.EVENT_THREAD.getIdentifier().equals(fieldIdentifier)) {
+				threadIndex = index;
+			} else {
+				return;
+			}
+			filterIndex = Math.max(filterIndex, index);
+		}
+
+		IEventSink createSink() {
+			if (hidden) {
+				return new NopEventSink();
+			}
+			// FIXME: Consider making the category array into something else, like an event type metadata array?
+			IEventSink eventSink = context.getSinkFactory().create(element.typeIdentifier, typeLabel, element.category,
+					element.description, fieldsList);
+			if (skipFields.size() > 0) {
+				eventSink = new SkipFieldsEventSink(eventSink, skipFields, valueReaders.size());
 			}
+			return eventSink;
 		}
 
 		void updateEventStats(long size) {
@@ -394,13 +458,47 @@ class TypeManager {
 		}
 	}
 
+	/**
+	 * Reads events into event sinks of its own. The events of a chunk can be read concurrently by
+	 * reading separate parts of the chunk with separate event readers.
+	 */
+	class EventReader {
+		private final IEventSink[] eventSinks = new IEventSink[eventTypeCount];
+		private final Object[][] reusableStructs = new Object[eventTypeCount][];
+		private long skippedEventCount;
+
+		private EventReader() {
+			for (EventTypeEntry entry : eventTypes) {
+				eventSinks[entry.index] = entry.createSink();
+				reusableStructs[entry.index] = new Object[entry.valueReaders.size()];
+			}
+		}
+
+		void readEvent(long typeId, IDataInput input, long size) throws InvalidJfrFileException, IOException {
+			EventTypeEntry entry = eventTypes.get(typeId);
+			if (entry == null) {
+				// We don't need to do anything here, as the chunk loader will skip to the next event for us.
+				Logger.getLogger(getClass().getName()).log(Level.WARNING,
+						"Event type with id " + typeId + " was not declared"); //$NON-NLS-1$ //$NON-NLS-2$
+				skippedEventCount++;
+			} else {
+				entry.readEvent(input, eventSinks[entry.index], reusableStructs[entry.index]);
+				entry.updateEventStats(size);
+			}
+		}
+
+		long getSkippedEventCount() {
+			return skippedEventCount;
+		}
+	}
+
 	// NOTE: Using constant pool id as identifier.
 	private final Map<Long, StructContentType<Object[]>> structTypes = new HashMap<>();
 	private final FastAccessNumberMap<TypeEntry> otherTypes = new FastAccessNumberMap<>();
 	private final FastAccessNumberMap<EventTypeEntry> eventTypes = new FastAccessNumberMap<>();
 	private final LoaderContext context;
 	private final ChunkStructure header;
-	private long skippedEventCount;
+	private int eventTypeCount;
 
 	TypeManager(List<ClassElement> classList, LoaderContext context, ChunkStructure header)
 			throws InvalidJfrFileException, IOException {
@@ -408,7 +506,7 @@ class TypeManager {
 		this.header = header;
 		for (ClassElement ce : classList) {
 			if (ce.isEventType()) {
-				eventTypes.put(ce.classId, new EventTypeEntry(ce));
+				eventTypes.put(ce.classId, new EventTypeEntry(ce, eventTypeCount++));
 			} else {
 				otherTypes.put(ce.classId, new TypeEntry(ce, context));
 			}
@@ -425,17 +523,14 @@ class TypeManager {
 		}
 	}
 
-	void readEvent(long typeId, IDataInput input, long size) throws InvalidJfrFileException, IOException {
-		EventTypeEntry entry = eventTypes.get(typeId);
-		if (entry == null) {
-			// We don't need to do anything here, as the chunk loader will skip to the next event for us.
-			Logger.getLogger(getClass().getName()).log(Level.WARNING,
-					"Event type with id " + typeId + " was not declared"); //$NON-NLS-1$ //$NON-NLS-2$
-			skippedEventCount++;
-		} else {
-			entry.readEvent(input);
-			entry.updateEventStats(size);
-		}
+	/**
+	 * Creates an event reader. Each event reader creates its own event sinks for all event types,
+	 * so event readers should be created in the order of the events that they will read.
+	 *
+	 * @return a new event reader
+	 */
+	EventReader createEventReader() {
+		return new EventReader();
 	}
 
 	void readConstants(long typeId, IDataInput input, int constantCount) throws InvalidJfrFileException, IOException {
@@ -454,10 +549,6 @@ class TypeManager {
 		context.allConstantPoolsResolved(pools);
 	}
 
-	long getSkippedEventCount() {
-		return skippedEventCount;
-	}
-
 	private TypeEntry getTypeEntry(long typeId) throws InvalidJfrFileException {
 		TypeEntry entry = otherTypes.get(typeId);
 		if (entry == null) {
@@ -57,6 +57,13 @@ public class FilterExtension implements IParserExtension {
 		this.recordingLoadFilter = recordingLoadFilter;
 	}
 
+	/**
+	 * @return the filter used by this extension, or {@code null} if events are not filtered
+	 */
+	public IOnLoadFilter getOnLoadFilter() {
+		return recordingLoadFilter;
+	}
+
 	@Override
 	public IEventSinkFactory getEventSinkFactory(final IEventSinkFactory subFactory) {
 		return new IEventSinkFactory() {
@@ -32,8 +32,17 @@
  */
 package org.openjdk.jmc.flightrecorder.parser.filter;
 
+import org.openjdk.jmc.common.IMCThread;
+import org.openjdk.jmc.common.unit.IQuantity;
+
 /**
  * Filter used when loading a recording.
+ * <p>
+ * The predicates are applied as early as possible while parsing. Events of disallowed types are
+ * skipped without being decoded, chunks whose time range is disallowed are skipped without being
+ * parsed, and the time range and thread of an event are checked before the remaining fields of the
+ * event are decoded. The time range and thread predicates are applied to the values as found in the
+ * recording, before any parser extensions have processed the events.
  */
 public interface IOnLoadFilter {
 
@@ -46,4 +55,34 @@ public interface IOnLoadFilter {
 	 */
 	boolean allowEventType(String eventTypeId);
 
+	/**
+	 * Predicate for allowing events, or whole chunks of events, based on time. For chunks, the
+	 * range is the time range covered by the chunk. For events, the range is from the start time to
+	 * the end time of the event. Events without a start time are not checked.
+	 * <p>
+	 * Note that an event is written to the chunk that is current when the event ends. A skipped
+	 * chunk may therefore contain events that started within an allowed time range.
+	 *
+	 * @param start
+	 *            start of the time range
+	 * @param end
+	 *            end of the time range, equal to the start for instant events
+	 * @return {@code true} if the time range is allowed, {@code false} otherwise.
+	 */
+	default boolean allowTimeRange(IQuantity start, IQuantity end) {
+		return true;
+	}
+
+	/**
+	 * Predicate for allowing an event based on the thread it was emitted in. Events of types that
+	 * have no event thread field in the recording are not checked.
+	 *
+	 * @param thread
+	 *            Event thread, may be {@code null}
+	 * @return {@code true} if events in the thread are allowed, {@code false} otherwise.
+	 */
+	default boolean allowEventThread(IMCThread thread) {
+		return true;
+	}
+
 }
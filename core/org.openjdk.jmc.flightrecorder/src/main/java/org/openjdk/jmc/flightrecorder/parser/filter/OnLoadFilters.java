@@ -32,11 +32,17 @@
  */
 package org.openjdk.jmc.flightrecorder.parser.filter;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import org.openjdk.jmc.common.IMCThread;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IRange;
+
 /**
  * Utility methods for creating {@link IOnLoadFilter}s
  */
@@ -119,4 +125,103 @@ public class OnLoadFilters {
 			}
 		};
 	}
+
+	/**
+	 * Filter that allows events that overlap a specified time range. Chunks that do not overlap the
+	 * time range are skipped entirely, so events that start within the time range but end in a
+	 * later chunk are not included.
+	 *
+	 * @param range
+	 *            the time range to include
+	 * @return a filter
+	 */
+	public static IOnLoadFilter includeTimeRange(final IRange<IQuantity> range) {
+		return new IOnLoadFilter() {
+
+			@Override
+			public boolean allowEventType(String typeId) {
+				return true;
+			}
+
+			@Override
+			public boolean allowTimeRange(IQuantity start, IQuantity end) {
+				return end.compareTo(range.getStart()) >= 0 && start.compareTo(range.getEnd()) <= 0;
+			}
+		};
+	}
+
+	/**
+	 * Filter that allows events emitted in a specified set of Java threads. Events of types that
+	 * have no event thread field in the recording are allowed.
+	 *
+	 * @param javaThreadIds
+	 *            the Java thread ids of the threads to include
+	 * @return a filter
+	 */
+	public static IOnLoadFilter includeThreads(Collection<Long> javaThreadIds) {
+		final Set<Long> includedSet = new HashSet<>(javaThreadIds);
+		return new IOnLoadFilter() {
+
+			@Override
+			public boolean allowEventType(String typeId) {
+				return true;
+			}
+
+			@Override
+			public boolean allowEventThread(IMCThread thread) {
+				return thread != null && includedSet.contains(thread.getThreadId());
+			}
+		};
+	}
+
+	/**
+	 * Filter that allows what all of the specified filters allow.
+	 *
+	 * @param filters
+	 *            the filters to combine
+	 * @return a filter
+	 */
+	public static IOnLoadFilter and(IOnLoadFilter ... filters) {
+		final List<IOnLoadFilter> filterList = new ArrayList<>();
+		for (IOnLoadFilter filter : filters) {
+			if (filter != null) {
+				filterList.add(filter);
+			}
+		}
+		if (filterList.size() == 1) {
+			return filterList.get(0);
+		}
+		return new IOnLoadFilter() {
+
+			@Override
+			public boolean allowEventType(String typeId) {
+				for (IOnLoadFilter filter : filterList) {
+					if (!filter.allowEventType(typeId)) {
+						return false;
+					}
+				}
+				return true;
+			}
+
+			@Override
+			public boolean allowTimeRange(IQuantity start, IQuantity end) {
+				for (IOnLoadFilter filter : filterList) {
+					if (!filter.allowTimeRange(start, end)) {
+						return false;
+					}
+				}
+				return true;
+			}
+
+			@Override
+			public boolean allowEventThread(IMCThread thread) {
+				for (IOnLoadFilter filter : filterList) {
+					if (!filter.allowEventThread(thread)) {
+						return false;
+					}
+				}
+				return true;
+			}
+		};
+	}
 }
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.stacktrace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BooleanSupplier;
+import java.util.stream.StreamSupport;
+
+import org.openjdk.jmc.common.IMCFrame;
+import org.openjdk.jmc.common.IMCMethod;
+import org.openjdk.jmc.common.IMCPackage;
+import org.openjdk.jmc.common.IMCStackTrace;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.util.FormatToolkit;
+import org.openjdk.jmc.common.util.MethodToolkit;
+
+/**
+ * Calls between packages, counted over the stack traces of a collection of items. Package names are
+ * truncated to a given depth, so that for example {@code java.util.concurrent} becomes
+ * {@code java.util} at depth 2.
+ */
+public final class PackageDependencies {
+
+	/**
+	 * Calls from one package to another.
+	 */
+	public static final class Edge {
+		private final String source;
+		private final String target;
+		private final long count;
+
+		Edge(String source, String target, long count) {
+			this.source = source;
+			this.target = target;
+			this.count = count;
+		}
+
+		/**
+		 * @return the calling package
+		 */
+		public String getSource() {
+			return source;
+		}
+
+		/**
+		 * @return the called package, may be the same as the source
+		 */
+		public String getTarget() {
+			return target;
+		}
+
+		/**
+		 * @return the number of calls from the source to the target package in all stack traces
+		 */
+		public long getCount() {
+			return count;
+		}
+	}
+
+	private final Set<String> packages;
+	private final List<Edge> edges;
+	private final int itemCount;
+
+	private PackageDependencies(Set<String> packages, List<Edge> edges, int itemCount) {
+		this.packages = packages;
+		this.edges = edges;
+		this.itemCount = itemCount;
+	}
+
+	/**
+	 * Count the calls between packages in the stack traces of some items.
+	 *
+	 * @param items
+	 *            the items to use, items without stack traces are ignored
+	 * @param packageDepth
+	 *            the number of package name segments to keep, or a non-positive value to keep the
+	 *            full package names
+	 * @param stopFlag
+	 *            polled while counting, the calculation is aborted if it returns {@code true}
+	 * @return the dependencies, or {@code null} if aborted
+	 */
+	public static PackageDependencies build(IItemCollection items, int packageDepth, BooleanSupplier stopFlag) {
+		UniqueStacktraces stacktraces = UniqueStacktraces.aggregate(items, null, false, stopFlag);
+		if (stacktraces == null) {
+			return null;
+		}
+		// Each distinct stack trace is only walked once, weighted by the number of items using it
+		Map<String, Map<String, Long>> counts = StreamSupport.stream(stacktraces.spliterator(), true)
+				.collect(() -> new HashMap<String, Map<String, Long>>(), (map, entry) -> {
+					if (!stopFlag.getAsBoolean()) {
+						addStacktrace(map, entry.getStacktrace(), entry.getCount(), packageDepth);
+					}
+				}, PackageDependencies::merge);
+		if (stopFlag.getAsBoolean()) {
+			return null;
+		}
+		Set<String> packages = new TreeSet<>(counts.keySet());
+		List<Edge> edges = new ArrayList<>();
+		for (Map.Entry<String, Map<String, Long>> source : counts.entrySet()) {
+			for (Map.Entry<String, Long> target : source.getValue().entrySet()) {
+				edges.add(new Edge(source.getKey(), target.getKey(), target.getValue()));
+			}
+		}
+		edges.sort(Comparator.comparingLong(Edge::getCount).reversed().thenComparing(Edge::getSource)
+				.thenComparing(Edge::getTarget));
+		return new PackageDependencies(Collections.unmodifiableSet(packages), Collections.unmodifiableList(edges),
+				stacktraces.getItemCount());
+	}
+
+	private static void addStacktrace(
+		Map<String, Map<String, Long>> counts, IMCStackTrace stacktrace, long count, int packageDepth) {
+		List<? extends IMCFrame> frames = stacktrace.getFrames();
+		String callee = null;
+		// Frames are ordered from the top of the stack, so each frame is called by the next one
+		for (IMCFrame frame : frames) {
+			String caller = getPackage(frame, packageDepth);
+			Map<String, Long> targets = counts.computeIfAbsent(caller, p -> new HashMap<>());
+			if (callee != null) {
+				targets.merge(callee, count, Long::sum);
+			}
+			callee = caller;
+		}
+	}
+
+	private static void merge(Map<String, Map<String, Long>> a, Map<String, Map<String, Long>> b) {
+		for (Map.Entry<String, Map<String, Long>> source : b.entrySet()) {
+			Map<String, Long> targets = a.computeIfAbsent(source.getKey(), p -> new HashMap<>());
+			source.getValue().forEach((target, count) -> targets.merge(target, count, Long::sum));
+		}
+	}
+
+	private static String getPackage(IMCFrame frame, int packageDepth) {
+		IMCMethod method = frame.getMethod();
+		IMCPackage mcPackage = method != null ? method.getType().getPackage() : null;
+		if (mcPackage != null && mcPackage.getName() == null && method.getType().getFullName() != null) {
+			// Types in the default package can have a package without a name
+			mcPackage = MethodToolkit.typeFromBinaryJLS(method.getType().getFullName()).getPackage();
+		}
+		String name = FormatToolkit.getPackage(mcPackage);
+		if (packageDepth > 0) {
+			int end = -1;
+			for (int i = 0; i < packageDepth; i++) {
+				end = name.indexOf('.', end + 1);
+				if (end < 0) {
+					return name;
+				}
+			}
+			return name.substring(0, end);
+		}
+		return name;
+	}
+
+	/**
+	 * @return all packages that occur in the stack traces, sorted by name
+	 */
+	public Set<String> getPackages() {
+		return packages;
+	}
+
+	/**
+	 * @return the calls between packages, sorted by decreasing count
+	 */
+	public List<Edge> getEdges() {
+		return edges;
+	}
+
+	/**
+	 * @return the number of items with stack traces
+	 */
+	public int getItemCount() {
+		return itemCount;
+	}
+}
@@ -36,6 +36,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -178,7 +179,10 @@ public class StacktraceModel {
 	}
 
 	private IMCFrame getFrame(IItem item, int frameIndex) {
-		IMCStackTrace st = accessor.getMember(item);
+		return getFrame(accessor.getMember(item), frameIndex);
+	}
+
+	private IMCFrame getFrame(IMCStackTrace st, int frameIndex) {
 		if (st != null) {
 			if (threadRootAtTop && frameIndex == 0 && st.getTruncationState().isTruncated()) {
 				return UNKNOWN_FRAME;
@@ -208,6 +212,11 @@ public class StacktraceModel {
 		}
 	}
 
+	/**
+	 * Marks stack traces that have no frame at the index in {@link #getDistinctFrames}.
+	 */
+	private static final FrameEntry NO_FRAME = new FrameEntry(null);
+
 	/**
 	 * Return a stream of frame entries that group the input items by distinct categories according
 	 * to the frame separator.
@@ -216,21 +225,36 @@ public class StacktraceModel {
 		Map<Object, SimpleArray<FrameEntry>> categories = new HashMap<>(2000);
 		Object lastCategory = null; // Caching for speed
 		SimpleArray<FrameEntry> lastCategoryEntries = null;
+		// Stack traces are shared by many items, so only look up the entry once for each stack trace
+		Map<IMCStackTrace, FrameEntry> entriesByStacktrace = new IdentityHashMap<>();
 		for (IItem item : items) {
-			IMCFrame frame = getFrame(item, frameIndex);
-			if (frame != null) {
-				// The category is only used to preliminarily group frame entries to speed up the linear findEntryForFrame method
-				// FIXME: Clean up code so that it becomes more readable
-				Object category = frameSeparator.getCategory(frame);
-				if (!category.equals(lastCategory)) {
-					lastCategoryEntries = categories.get(category);
-					lastCategory = category;
-					if (lastCategoryEntries == null) {
-						lastCategoryEntries = new SimpleArray<>(new FrameEntry[1]);
-						categories.put(category, lastCategoryEntries);
+			IMCStackTrace st = accessor.getMember(item);
+			if (st == null) {
+				continue;
+			}
+			FrameEntry entry = entriesByStacktrace.get(st);
+			if (entry == null) {
+				IMCFrame frame = getFrame(st, frameIndex);
+				if (frame == null) {
+					entry = NO_FRAME;
+				} else {
+					// The category is only used to preliminarily group frame entries to speed up the linear findEntryForFrame method
+					// FIXME: Clean up code so that it becomes more readable
+					Object category = frameSeparator.getCategory(frame);
+					if (!category.equals(lastCategory)) {
+						lastCategoryEntries = categories.get(category);
+						lastCategory = category;
+						if (lastCategoryEntries == null) {
+							lastCategoryEntries = new SimpleArray<>(new FrameEntry[1]);
+							categories.put(category, lastCategoryEntries);
+						}
 					}
+					entry = findEntryForFrame(lastCategoryEntries, frame, frameSeparator);
 				}
-				findEntryForFrame(lastCategoryEntries, frame, frameSeparator).items.add(item);
+				entriesByStacktrace.put(st, entry);
+			}
+			if (entry != NO_FRAME) {
+				entry.items.add(item);
 			}
 		}
 		Collection<SimpleArray<FrameEntry>> feArrays = categories.values();
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.stacktrace;
+
+import static org.openjdk.jmc.flightrecorder.JfrAttributes.EVENT_STACKTRACE;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.openjdk.jmc.common.IMCStackTrace;
+import org.openjdk.jmc.common.item.IAttribute;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.unit.IQuantity;
+
+/**
+ * The distinct stack traces of a collection of items, each with the number of items and the total
+ * weight of the items that have it.
+ * <p>
+ * Stack traces are constant pool entries in a recording, so a large number of items typically share
+ * a much smaller number of stack trace instances. Models that are built from the frames of the
+ * stack traces can process each distinct stack trace once instead of once per item. Stack traces
+ * are compared by identity, which is cheap and never merges different stack traces. Equal stack
+ * traces that are different instances, for example from different chunks, get separate entries.
+ * <p>
+ * Entries are kept in the order their stack traces are first encountered in the items.
+ */
+public final class UniqueStacktraces implements Iterable<UniqueStacktraces.Entry> {
+
+	/**
+	 * A distinct stack trace with the aggregated values of the items that have it.
+	 */
+	public static final class Entry {
+		private final IMCStackTrace stacktrace;
+		private final double firstWeight;
+		private int count;
+		private double weight;
+
+		private Entry(IMCStackTrace stacktrace, double firstWeight) {
+			this.stacktrace = stacktrace;
+			this.firstWeight = firstWeight;
+		}
+
+		/**
+		 * @return the stack trace
+		 */
+		public IMCStackTrace getStacktrace() {
+			return stacktrace;
+		}
+
+		/**
+		 * @return the number of items with the stack trace
+		 */
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the sum of the weights of the items with the stack trace
+		 */
+		public double getWeight() {
+			return weight;
+		}
+
+		/**
+		 * @return the weight of the first item with the stack trace
+		 */
+		public double getFirstWeight() {
+			return firstWeight;
+		}
+	}
+
+	private final List<Entry> entries;
+	private final int itemCount;
+
+	private UniqueStacktraces(List<Entry> entries, int itemCount) {
+		this.entries = entries;
+		this.itemCount = itemCount;
+	}
+
+	/**
+	 * Aggregate items by their stack traces. Items without a stack trace are ignored.
+	 *
+	 * @param items
+	 *            the items to aggregate
+	 * @param attribute
+	 *            the attribute to use as item weight, or {@code null} to give all items the weight
+	 *            1
+	 * @param requireAttribute
+	 *            if {@code true}, items that do not have the attribute are ignored, otherwise they
+	 *            get the weight 1. Items that have the attribute but no value for it get the weight
+	 *            0.
+	 * @param stopFlag
+	 *            polled for each item, aggregation is aborted if it returns {@code true}
+	 * @return the aggregated stack traces, or {@code null} if aggregation was aborted
+	 */
+	public static UniqueStacktraces aggregate(
+		IItemCollection items, IAttribute<IQuantity> attribute, boolean requireAttribute, BooleanSupplier stopFlag) {
+		List<Entry> entries = new ArrayList<>();
+		Map<IMCStackTrace, Entry> entriesByStacktrace = new IdentityHashMap<>();
+		int itemCount = 0;
+		for (IItemIterable iterable : items) {
+			if (stopFlag.getAsBoolean()) {
+				return null;
+			}
+			IMemberAccessor<IMCStackTrace, IItem> stacktraceAccessor = iterable.getType()
+					.getAccessor(EVENT_STACKTRACE.getKey());
+			if (stacktraceAccessor == null) {
+				continue;
+			}
+			IMemberAccessor<IQuantity, IItem> quantityAccessor = attribute != null
+					? iterable.getType().getAccessor(attribute.getKey()) : null;
+			if (requireAttribute && attribute != null && quantityAccessor == null) {
+				continue;
+			}
+			// Items of the same type often come in runs with the same stack trace
+			IMCStackTrace lastStacktrace = null;
+			Entry lastEntry = null;
+			for (IItem item : iterable) {
+				if (stopFlag.getAsBoolean()) {
+					return null;
+				}
+				IMCStackTrace stacktrace = stacktraceAccessor.getMember(item);
+				if (stacktrace == null) {
+					continue;
+				}
+				double value = 1.0;
+				if (quantityAccessor != null) {
+					IQuantity quantity = quantityAccessor.getMember(item);
+					value = quantity != null ? quantity.doubleValue() : 0.0;
+				}
+				Entry entry;
+				if (stacktrace == lastStacktrace) {
+					entry = lastEntry;
+				} else {
+					entry = entriesByStacktrace.get(stacktrace);
+					if (entry == null) {
+						entry = new Entry(stacktrace, value);
+						entriesByStacktrace.put(stacktrace, entry);
+						entries.add(entry);
+					}
+					lastStacktrace = stacktrace;
+					lastEntry = entry;
+				}
+				entry.count++;
+				entry.weight += value;
+				itemCount++;
+			}
+		}
+		return new UniqueStacktraces(entries, itemCount);
+	}
+
+	/**
+	 * @return the number of distinct stack traces
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return the number of aggregated items
+	 */
+	public int getItemCount() {
+		return itemCount;
+	}
+
+	@Override
+	public Iterator<Entry> iterator() {
+		return entries.iterator();
+	}
+}
@@ -33,8 +33,6 @@
  */
 package org.openjdk.jmc.flightrecorder.stacktrace.graph;
 
-import static org.openjdk.jmc.flightrecorder.JfrAttributes.EVENT_STACKTRACE;
-
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
@@ -47,18 +45,15 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.openjdk.jmc.common.IMCFrame;
-import org.openjdk.jmc.common.IMCStackTrace;
 import org.openjdk.jmc.common.item.IAttribute;
-import org.openjdk.jmc.common.item.IItem;
 import org.openjdk.jmc.common.item.IItemCollection;
-import org.openjdk.jmc.common.item.IItemIterable;
-import org.openjdk.jmc.common.item.IMemberAccessor;
 import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
 import org.openjdk.jmc.flightrecorder.JfrLoaderToolkit;
 import org.openjdk.jmc.flightrecorder.jdk.JdkFilters;
 import org.openjdk.jmc.flightrecorder.stacktrace.FrameSeparator;
 import org.openjdk.jmc.flightrecorder.stacktrace.FrameSeparator.FrameCategorization;
+import org.openjdk.jmc.flightrecorder.stacktrace.UniqueStacktraces;
 import org.openjdk.jmc.flightrecorder.stacktrace.graph.Node.NodeWrapper;
 
 /**
@@ -84,6 +79,10 @@ public final class StacktraceGraphModel {
 	private final FrameSeparator frameSeparator;
 	private final IItemCollection items;
 	private final IAttribute<IQuantity> attribute;
+	/**
+	 * The items aggregated by stack trace. Models are built from each distinct stack trace once.
+	 */
+	private final UniqueStacktraces stacktraces;
 	private int totalTraceCount;
 	private int totalEdgeCount;
 	private int nodeCounter;
@@ -112,6 +111,7 @@ public final class StacktraceGraphModel {
 		this.frameSeparator = frameSeparator;
 		this.items = items;
 		this.attribute = attribute;
+		this.stacktraces = UniqueStacktraces.aggregate(items, attribute, false, () -> false);
 		buildModel(Collections.emptySet());
 	}
 
@@ -119,6 +119,7 @@ public final class StacktraceGraphModel {
 		this.frameSeparator = model.frameSeparator;
 		this.items = model.items;
 		this.attribute = model.attribute;
+		this.stacktraces = model.stacktraces;
 		buildModel(keptNodes);
 	}
 
@@ -268,35 +269,19 @@ public final class StacktraceGraphModel {
 	}
 
 	private void buildModel(Set<AggregatableFrame> keptNodes) {
-		for (IItemIterable iterable : items) {
-			IMemberAccessor<IMCStackTrace, IItem> stacktraceAccessor = getAccessor(iterable, EVENT_STACKTRACE);
-			if (stacktraceAccessor == null) {
-				continue;
-			}
-			iterable.forEach((item) -> addItem(item, stacktraceAccessor, getAccessor(iterable, attribute), keptNodes));
+		for (UniqueStacktraces.Entry entry : stacktraces) {
+			addStacktrace(entry, keptNodes);
 		}
 	}
 
-	private static <T> IMemberAccessor<T, IItem> getAccessor(IItemIterable iterable, IAttribute<T> attr) {
-		return (attr != null) ? iterable.getType().getAccessor(attr.getKey()) : null;
-	}
-
-	private void addItem(
-		IItem item, IMemberAccessor<IMCStackTrace, IItem> stackTraceAccessor,
-		IMemberAccessor<IQuantity, IItem> quantityAccessor, Set<AggregatableFrame> keptNodes) {
-		IMCStackTrace stackTrace = stackTraceAccessor.getMember(item);
-		if (stackTrace == null) {
-			return;
-		}
-		List<? extends IMCFrame> frames = stackTrace.getFrames();
+	private void addStacktrace(UniqueStacktraces.Entry entry, Set<AggregatableFrame> keptNodes) {
+		List<? extends IMCFrame> frames = entry.getStacktrace().getFrames();
 		if (frames.isEmpty()) {
 			return;
 		}
 
-		double value = 1;
-		if (quantityAccessor != null) {
-			value = quantityAccessor.getMember(item).doubleValue();
-		}
+		int count = entry.getCount();
+		double value = entry.getWeight();
 
 		// First frame is the frame where things are actually happening, i.e. the method
 		// actually responsible for whatever is being tracked (e.g. the method being on
@@ -305,8 +290,8 @@ public final class StacktraceGraphModel {
 		AggregatableFrame firstFrame = new AggregatableFrame(frameSeparator, frames.get(0));
 		if (keepFrame(keptNodes, firstFrame)) {
 			Node n = getOrCreateNode(firstFrame);
-			totalTraceCount++;
-			n.count++;
+			totalTraceCount += count;
+			n.count += count;
 			n.weight += value;
 
 			// Next go through all frames from the thread root, and up the cumulative counts
@@ -317,15 +302,16 @@ public final class StacktraceGraphModel {
 
 				if (keepFrame(keptNodes, currentFrame)) {
 					Node currentNode = getOrCreateNode(currentFrame);
-					currentNode.cumulativeCount++;
+					currentNode.cumulativeCount += count;
 					currentNode.cumulativeWeight += value;
 					if (keepFrame(keptNodes, nextFrame)) {
 						Node nextNode = getOrCreateNode(nextFrame);
-						nextNode.cumulativeCount++;
+						nextNode.cumulativeCount += count;
 						nextNode.cumulativeWeight += value;
-						Edge e = getOrCreateLink(currentNode, nextNode, value);
-						e.count++;
-						totalEdgeCount++;
+						// A new edge gets the value of the first item passing it, as when adding items one by one
+						Edge e = getOrCreateLink(currentNode, nextNode, entry.getFirstWeight());
+						e.count += count;
+						totalEdgeCount += count;
 					}
 				}
 			}
@@ -68,6 +68,11 @@ public final class Node {
 	 */
 	double cumulativeWeight;
 
+	/**
+	 * The number of distinct stack traces that pass through this node.
+	 */
+	int stacktraceCount;
+
 	public static Node newRootNode(AggregatableFrame rootFrame) {
 		return new Node(null, rootFrame);
 	}
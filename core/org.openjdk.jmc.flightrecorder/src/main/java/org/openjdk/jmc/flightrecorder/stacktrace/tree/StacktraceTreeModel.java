@@ -33,24 +33,23 @@
  */
 package org.openjdk.jmc.flightrecorder.stacktrace.tree;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BooleanSupplier;
 
 import org.openjdk.jmc.common.IMCFrame;
 import org.openjdk.jmc.common.IMCMethod;
 import org.openjdk.jmc.common.IMCStackTrace;
 import org.openjdk.jmc.common.item.IAttribute;
-import org.openjdk.jmc.common.item.IItem;
 import org.openjdk.jmc.common.item.IItemCollection;
-import org.openjdk.jmc.common.item.IItemIterable;
-import org.openjdk.jmc.common.item.IMemberAccessor;
 import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.common.util.MCFrame;
 import org.openjdk.jmc.flightrecorder.stacktrace.FrameSeparator;
 import org.openjdk.jmc.flightrecorder.stacktrace.FrameSeparator.FrameCategorization;
-
-import static org.openjdk.jmc.flightrecorder.JfrAttributes.EVENT_STACKTRACE;
+import org.openjdk.jmc.flightrecorder.stacktrace.UniqueStacktraces;
 
 public class StacktraceTreeModel {
 
@@ -71,13 +70,20 @@ public class StacktraceTreeModel {
 	 */
 	private static final IMCFrame ROOT_FRAME = new MCFrame(null, null, null, IMCFrame.Type.UNKNOWN);
 
-	private final IItemCollection items;
+	private IItemCollection items;
 	private final FrameSeparator frameSeparator;
 	private final IAttribute<IQuantity> attribute;
 	private final boolean invertedStacks;
 
 	private final Node root;
 
+	/**
+	 * The node value of each distinct stack trace in the tree, used to find what changed in
+	 * {@link #update(IItemCollection, BooleanSupplier)}.
+	 */
+	private final Map<IMCStackTrace, Double> stacktraceValues = new IdentityHashMap<>();
+	private boolean complete;
+
 	/**
 	 * Builds a StacktraceTreeModel from a given collection of events with defaults: frame separator
 	 * METHOD, the thread root at the top and no value attribute (uses counts).
@@ -166,22 +172,118 @@ public class StacktraceTreeModel {
 
 		AggregatableFrame rootFrame = new AggregatableFrame(frameSeparator, ROOT_FRAME);
 		this.root = Node.newRootNode(rootFrame);
-		for (IItemIterable iterable : items) {
+		// Items share a limited number of stack traces, so process each distinct stack trace once
+		UniqueStacktraces stacktraces = UniqueStacktraces.aggregate(items, attribute, true, stopFlag);
+		if (stacktraces == null) {
+			return;
+		}
+		addAll(stacktraces, stopFlag);
+	}
+
+	private void addAll(UniqueStacktraces stacktraces, BooleanSupplier stopFlag) {
+		for (UniqueStacktraces.Entry entry : stacktraces) {
 			if (stopFlag.getAsBoolean()) {
+				discard();
 				return;
 			}
-			IMemberAccessor<IMCStackTrace, IItem> stacktraceAccessor = getAccessor(iterable, EVENT_STACKTRACE);
-			if (stacktraceAccessor == null) {
-				continue;
+			double value = getNodeValue(entry.getWeight());
+			// if the stack is zero valued for the requested attribute we prune it
+			if (value != 0.0) {
+				stacktraceValues.put(entry.getStacktrace(), value);
+				updateStacktrace(entry.getStacktrace(), 0.0, value);
 			}
-			IMemberAccessor<IQuantity, IItem> quantityAccessor = getAccessor(iterable, attribute);
-			for (final var item : iterable) {
-				if (stopFlag.getAsBoolean()) {
-					return;
-				}
-				addItem(item, stacktraceAccessor, quantityAccessor);
+		}
+		complete = true;
+	}
+
+	/**
+	 * Updates this model to represent a new collection of events, keeping the frame separator,
+	 * stack direction and attribute. Instead of building the tree from scratch, only the distinct
+	 * stack traces whose weight differs between the old and the new collection are added to or
+	 * subtracted from the existing tree, and nodes that no stack trace passes through any longer
+	 * are removed. This is much cheaper than building a new model when the collections mostly
+	 * overlap, for example when a selected time range is adjusted. Nodes that remain in the tree
+	 * keep their order, new nodes are added last. If most of the stack traces changed, the tree is
+	 * rebuilt.
+	 * <p>
+	 * The nodes are modified in place, so the model must not be used by other threads during the
+	 * update. A model whose nodes are being displayed must not be updated; keep a second model to
+	 * update and swap the two when the update is done.
+	 *
+	 * @param items
+	 *            the data we want to represent.
+	 * @param stopFlag
+	 *            enables concurrent interruption. The stop flag is polled and if it ever returns
+	 *            true the method will return early. The partially applied changes are then
+	 *            discarded, leaving an empty tree that is rebuilt by the next update.
+	 * @return {@code true} if the tree was changed, {@code false} if it already represented the new
+	 *         events
+	 */
+	public boolean update(IItemCollection items, BooleanSupplier stopFlag) {
+		this.items = items;
+		UniqueStacktraces stacktraces = UniqueStacktraces.aggregate(items, attribute, true, stopFlag);
+		if (stacktraces == null) {
+			discard();
+			return true;
+		}
+		if (!complete) {
+			rebuild(stacktraces, stopFlag);
+			return true;
+		}
+		List<UniqueStacktraces.Entry> changed = new ArrayList<>();
+		Map<IMCStackTrace, Double> removed = new IdentityHashMap<>(stacktraceValues);
+		for (UniqueStacktraces.Entry entry : stacktraces) {
+			Double oldValue = removed.remove(entry.getStacktrace());
+			if (getNodeValue(entry.getWeight()) != (oldValue != null ? oldValue.doubleValue() : 0.0)) {
+				changed.add(entry);
+			}
+		}
+		int changes = changed.size() + removed.size();
+		if (changes == 0) {
+			return false;
+		}
+		if (changes > stacktraces.size()) {
+			// Subtracting the old stack traces would cost more than adding the new ones to an empty tree
+			rebuild(stacktraces, stopFlag);
+			return true;
+		}
+
+		complete = false;
+		for (Map.Entry<IMCStackTrace, Double> e : removed.entrySet()) {
+			if (stopFlag.getAsBoolean()) {
+				discard();
+				return true;
 			}
+			updateStacktrace(e.getKey(), e.getValue(), 0.0);
+			stacktraceValues.remove(e.getKey());
 		}
+		for (UniqueStacktraces.Entry entry : changed) {
+			if (stopFlag.getAsBoolean()) {
+				discard();
+				return true;
+			}
+			Double oldValue = stacktraceValues.get(entry.getStacktrace());
+			double value = getNodeValue(entry.getWeight());
+			updateStacktrace(entry.getStacktrace(), oldValue != null ? oldValue.doubleValue() : 0.0, value);
+			if (value != 0.0) {
+				stacktraceValues.put(entry.getStacktrace(), value);
+			} else {
+				stacktraceValues.remove(entry.getStacktrace());
+			}
+		}
+		complete = true;
+		return true;
+	}
+
+	private void rebuild(UniqueStacktraces stacktraces, BooleanSupplier stopFlag) {
+		discard();
+		addAll(stacktraces, stopFlag);
+	}
+
+	private void discard() {
+		root.children.clear();
+		stacktraceValues.clear();
+		complete = false;
 	}
 
 	/**
@@ -202,33 +304,34 @@ public class StacktraceTreeModel {
 		return attribute;
 	}
 
-	private void addItem(
-		IItem item, IMemberAccessor<IMCStackTrace, IItem> stacktraceAccessor,
-		IMemberAccessor<IQuantity, IItem> quantityAccessor) {
-		IMCStackTrace stacktrace = stacktraceAccessor.getMember(item);
-		if (stacktrace == null) {
-			return;
-		}
-		List<? extends IMCFrame> frames = stacktrace.getFrames();
-		if (frames == null || frames.isEmpty()) {
-			return;
-		}
+	public FrameSeparator getFrameSeparator() {
+		return frameSeparator;
+	}
 
-		// if we want a specific attribute but its accessor is not available we skip
-		if (attribute != null && quantityAccessor == null) {
-			return;
-		}
+	public boolean isInvertedStacks() {
+		return invertedStacks;
+	}
 
-		// if we don't request a specific attribute, we simply count occurrences
-		double value = (quantityAccessor != null) ? quantityAccessor.getMember(item).doubleValue() : 1.0;
+	private double getNodeValue(double weight) {
+		// if we don't request a specific attribute, the weight is the number of occurrences
 		if (attribute != null && attribute.getContentType() == UnitLookup.MEMORY) {
-			value = value / 1024;
+			return weight / 1024;
 		}
+		return weight;
+	}
 
-		// if the stack is zero valued for the requested attribute we prune it
-		if (attribute != null && value == 0.0) {
+	/**
+	 * Changes the value of a stack trace in the tree. A zero value means that the stack trace is
+	 * not in the tree, so that nodes are created when it is added and removed when no other stack
+	 * trace passes through them.
+	 */
+	private void updateStacktrace(IMCStackTrace stacktrace, double oldValue, double newValue) {
+		List<? extends IMCFrame> frames = stacktrace.getFrames();
+		if (frames == null || frames.isEmpty() || oldValue == newValue) {
 			return;
 		}
+		double delta = newValue - oldValue;
+		int countDelta = (newValue != 0.0 ? 1 : 0) - (oldValue != 0.0 ? 1 : 0);
 
 		Node parent = getRoot();
 		int processedFrames = 0;
@@ -244,9 +347,15 @@ public class StacktraceTreeModel {
 			}
 
 			Node current = getOrCreateNode(parent, frame);
-			current.cumulativeWeight += value;
+			current.stacktraceCount += countDelta;
+			if (current.stacktraceCount == 0) {
+				// the removed stack trace was the only one through this node and its subtree
+				parent.children.removeIf(child -> child == current);
+				return;
+			}
+			current.cumulativeWeight += delta;
 			if (processedFrames == frames.size() - 1) {
-				current.weight += value;
+				current.weight += delta;
 			}
 
 			parent = current;
@@ -270,10 +379,6 @@ public class StacktraceTreeModel {
 		return result;
 	}
 
-	private static <T> IMemberAccessor<T, IItem> getAccessor(IItemIterable iterable, IAttribute<T> attr) {
-		return (attr != null) ? iterable.getType().getAccessor(attr.getKey()) : null;
-	}
-
 	/**
 	 * Extracts a merged tree of successors (callees) for a given method. This finds all occurrences
 	 * of the specified method in the tree and merges their subtrees into a single tree rooted at
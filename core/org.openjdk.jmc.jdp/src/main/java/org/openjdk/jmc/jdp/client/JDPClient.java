@@ -33,9 +33,16 @@
 package org.openjdk.jmc.jdp.client;
 
 import java.io.IOException;
+import java.net.Inet6Address;
 import java.net.InetAddress;
-import java.net.MulticastSocket;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.channels.DatagramChannel;
+import java.util.Enumeration;
 import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.openjdk.jmc.jdp.common.Configuration;
@@ -82,14 +89,46 @@ public final class JDPClient {
 	}
 
 	public synchronized void start() throws IOException {
-		MulticastSocket socket = new MulticastSocket(port);
-		listener = new PacketListener(socket, processor);
-		socket.joinGroup(address);
+		DatagramChannel channel = openChannel(address, port);
+		listener = new PacketListener(channel, processor);
 		ThreadGroup jdpThreads = new ThreadGroup("JDP Client"); //$NON-NLS-1$
 		startThread(jdpThreads, listener, "(JDP Packet Listener)"); //$NON-NLS-1$
 		startThread(jdpThreads, pruner, "(JDP Client Pruner)"); //$NON-NLS-1$
 	}
 
+	/**
+	 * Opens a channel bound to the port, joined to the multicast group on all multicast capable
+	 * network interfaces.
+	 */
+	private static DatagramChannel openChannel(InetAddress group, int port) throws IOException {
+		DatagramChannel channel = DatagramChannel
+				.open(group instanceof Inet6Address ? StandardProtocolFamily.INET6 : StandardProtocolFamily.INET);
+		try {
+			channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+			channel.bind(new InetSocketAddress(port));
+			boolean joined = false;
+			Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+			while (interfaces.hasMoreElements()) {
+				NetworkInterface networkInterface = interfaces.nextElement();
+				try {
+					if (networkInterface.isUp() && networkInterface.supportsMulticast()) {
+						channel.join(group, networkInterface);
+						joined = true;
+					}
+				} catch (IOException e) {
+					LOGGER.log(Level.FINE, "Could not join " + group + " on " + networkInterface, e); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+			}
+			if (!joined) {
+				throw new IOException("Could not join " + group + " on any network interface"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return channel;
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
 	private static void startThread(ThreadGroup group, Runnable r, String name) {
 		Thread t = new Thread(group, r, name);
 		t.setDaemon(true);
@@ -33,45 +33,50 @@
 package org.openjdk.jmc.jdp.client;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.MulticastSocket;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
 import java.util.logging.Level;
 
 import org.openjdk.jmc.jdp.common.JDPPacket;
 
 /**
  * This package private class listens for JDP packets, and sends them to the packet processor for
- * processing.
+ * processing. The receive buffer is reused, and only packets that are not plain heart beats of
+ * already known discoverables are copied and decoded.
  */
 final class PacketListener implements Runnable {
 	private static final int BUFFER_LENGTH = 4096;
-	private final MulticastSocket socket;
+	private final DatagramChannel channel;
 	private final PacketProcessor packetProcessor;
 	private volatile boolean shutdown;
 
-	PacketListener(MulticastSocket socket, PacketProcessor packetProcessor) {
-		this.socket = socket;
+	PacketListener(DatagramChannel channel, PacketProcessor packetProcessor) {
+		this.channel = channel;
 		this.packetProcessor = packetProcessor;
 	}
 
 	@Override
 	public void run() {
-		byte[] buffer = new byte[BUFFER_LENGTH];
-		DatagramPacket dgram = new DatagramPacket(buffer, buffer.length);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_LENGTH);
 
 		while (!shutdown) {
+			buffer.clear();
 			try {
-				socket.receive(dgram);
+				channel.receive(buffer);
 			} catch (IOException e) {
 				if (!shutdown) {
 					JDPClient.LOGGER.log(Level.SEVERE, "Problem listening for JDP packets! Shutting down!", e); //$NON-NLS-1$
-					socket.close();
+					closeChannel();
 				}
 				return;
 			}
+			buffer.flip();
+			if (packetProcessor.processHeartBeat(buffer)) {
+				continue;
+			}
 
-			byte[] data = new byte[dgram.getLength()];
-			System.arraycopy(dgram.getData(), dgram.getOffset(), data, 0, dgram.getLength());
+			byte[] data = new byte[buffer.remaining()];
+			buffer.get(data);
 			try {
 				JDPPacket packet = new JDPPacket(data);
 				packetProcessor.process(packet);
@@ -81,9 +86,17 @@ final class PacketListener implements Runnable {
 		}
 	}
 
+	private void closeChannel() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			JDPClient.LOGGER.log(Level.FINE, "Problem closing JDP channel", e); //$NON-NLS-1$
+		}
+	}
+
 	public void stop() {
 		shutdown = true;
-		socket.close();
+		closeChannel();
 	}
 
 	public boolean isAlive() {
@@ -32,12 +32,16 @@
  */
 package org.openjdk.jmc.jdp.client;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.openjdk.jmc.jdp.client.DiscoveryEvent.Kind;
 import org.openjdk.jmc.jdp.common.JDPPacket;
@@ -45,22 +49,50 @@ import org.openjdk.jmc.jdp.common.JDPPacket;
 /**
  * The package private PacketProcessor will remember detected packets and transmit the appropriate
  * events (FOUND, CHANGED) to the registered listeners.
+ * <p>
+ * Most packets received are heart beats that repeat a packet already known. These are recognized by
+ * {@link #processHeartBeat(ByteBuffer)} without decoding them or taking any locks, so that
+ * thousands of broadcasting JVMs can be tracked.
  */
 final class PacketProcessor {
 	private static final String KEY_BROADCAST_PERIOD = "BROADCAST_INTERVAL"; //$NON-NLS-1$
 
-	private final List<DiscoveryListener> listeners = new ArrayList<>();
-	final Map<String, DiscoverableInfo> infoMap = new HashMap<>();
+	private final List<DiscoveryListener> listeners = new CopyOnWriteArrayList<>();
+	final Map<String, DiscoverableInfo> infoMap = new ConcurrentHashMap<>();
+	// Known packets by the hash code of their encoded form
+	private final Map<Integer, DiscoverableInfo> infoByHash = new ConcurrentHashMap<>();
+	// Discoverables found since the pruner last checked
+	final Queue<DiscoverableInfo> newInfos = new ConcurrentLinkedQueue<>();
 
 	static class DiscoverableInfo {
 		// The timestamp the packet was last discovered.
-		long timestamp;
+		volatile long timestamp;
 		// The calculated heart beat interval
-		long heartBeat;
+		volatile long heartBeat;
 		// Heart beat in packet?
 		boolean needToCalculateHeartBeat = true;
 		// The packet discovered
-		JDPPacket packet;
+		volatile JDPPacket packet;
+		// The hash code of the encoded packet
+		int hash;
+	}
+
+	/**
+	 * Handles the data if it is identical to the last packet received for some discoverable, in
+	 * which case only the heart beat of that discoverable needs to be updated.
+	 *
+	 * @param data
+	 *            the received data, between position and limit. The buffer is not modified.
+	 * @return true if the data was handled, false if it needs to be decoded and passed to
+	 *         {@link #process(JDPPacket)}.
+	 */
+	boolean processHeartBeat(ByteBuffer data) {
+		DiscoverableInfo info = infoByHash.get(data.hashCode());
+		if (info == null || !contentEquals(info.packet.getDiscoveryDataAsByteArray(), data)) {
+			return false;
+		}
+		updateHeartBeat(info, System.currentTimeMillis());
+		return true;
 	}
 
 	public synchronized void process(JDPPacket packet) {
@@ -78,12 +110,44 @@ final class PacketProcessor {
 				info.heartBeat = broadcastPeriod;
 				info.needToCalculateHeartBeat = false;
 			}
+			rememberHash(info);
+			newInfos.add(info);
 			JDPClient.LOGGER.fine("Found " + packet); //$NON-NLS-1$
 			fireEvent(new DiscoveryEvent(Kind.FOUND, packet));
-		} else if (!info.packet.equals(packet)) {
-			JDPClient.LOGGER.fine("Changed " + packet); //$NON-NLS-1$
-			fireEvent(new DiscoveryEvent(Kind.CHANGED, packet));
+		} else if (!Arrays.equals(info.packet.getDiscoveryDataAsByteArray(), packet.getDiscoveryDataAsByteArray())) {
+			boolean changed = !info.packet.equals(packet);
+			// Keep the latest encoding so that its heart beats are recognized
+			infoByHash.remove(info.hash, info);
+			info.packet = packet;
+			rememberHash(info);
+			if (changed) {
+				JDPClient.LOGGER.fine("Changed " + packet); //$NON-NLS-1$
+				fireEvent(new DiscoveryEvent(Kind.CHANGED, packet));
+			}
 		}
+		updateHeartBeat(info, now);
+	}
+
+	/**
+	 * Forgets a discoverable that is considered lost.
+	 *
+	 * @return true if the discoverable was removed, false if it had already been replaced or
+	 *         removed.
+	 */
+	synchronized boolean remove(DiscoverableInfo info) {
+		if (infoMap.remove(info.packet.getSessionId(), info)) {
+			infoByHash.remove(info.hash, info);
+			return true;
+		}
+		return false;
+	}
+
+	private void rememberHash(DiscoverableInfo info) {
+		info.hash = ByteBuffer.wrap(info.packet.getDiscoveryDataAsByteArray()).hashCode();
+		infoByHash.put(info.hash, info);
+	}
+
+	private static void updateHeartBeat(DiscoverableInfo info, long now) {
 		if (info.needToCalculateHeartBeat) {
 			long newHB = now - info.timestamp;
 			info.heartBeat = (info.heartBeat == 0 ? newHB : (info.heartBeat + newHB) / 2);
@@ -91,6 +155,20 @@ final class PacketProcessor {
 		info.timestamp = now;
 	}
 
+	private static boolean contentEquals(byte[] bytes, ByteBuffer data) {
+		int length = data.remaining();
+		if (bytes.length != length) {
+			return false;
+		}
+		int start = data.position();
+		for (int i = 0; i < length; i++) {
+			if (bytes[i] != data.get(start + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private long getBroadcastPeriodFromPayload(Map<String, String> payload) {
 		if (!payload.containsKey(KEY_BROADCAST_PERIOD)) {
 			return -1;
@@ -107,7 +185,7 @@ final class PacketProcessor {
 	/**
 	 * @return a clone of the internal discoverables.
 	 */
-	public synchronized Set<Discoverable> getDiscoverables() {
+	public Set<Discoverable> getDiscoverables() {
 		Set<Discoverable> discoverables = new HashSet<>();
 		for (DiscoverableInfo info : infoMap.values()) {
 			discoverables.add(info.packet);
@@ -115,11 +193,11 @@ final class PacketProcessor {
 		return discoverables;
 	}
 
-	public synchronized void addDiscoveryListener(DiscoveryListener listener) {
+	public void addDiscoveryListener(DiscoveryListener listener) {
 		listeners.add(listener);
 	}
 
-	public synchronized void removeDiscoveryListener(DiscoveryListener listener) {
+	public void removeDiscoveryListener(DiscoveryListener listener) {
 		listeners.remove(listener);
 	}
 }
@@ -32,7 +32,8 @@
  */
 package org.openjdk.jmc.jdp.client;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.openjdk.jmc.jdp.client.DiscoveryEvent.Kind;
 import org.openjdk.jmc.jdp.client.PacketProcessor.DiscoverableInfo;
@@ -40,6 +41,11 @@ import org.openjdk.jmc.jdp.client.PacketProcessor.DiscoverableInfo;
 /**
  * This package private class prunes packets that have timed out, discovering lost services. This
  * class is responsible for emitting {@link DiscoveryEvent.Type} LOST events.
+ * <p>
+ * Discoverables are kept in a hashed timing wheel, bucketed by the pruning tick at which they would
+ * expire if no more heart beats arrived. Each check only looks at the buckets that have come due,
+ * rescheduling the discoverables that have been heard from since, rather than scanning all known
+ * discoverables.
  */
 final class Pruner implements Runnable {
 	/**
@@ -52,6 +58,12 @@ final class Pruner implements Runnable {
 	 */
 	final static int DEFAULT_MAX_HB_TIME = 12000;
 
+	/**
+	 * The number of buckets in the timing wheel. Discoverables expiring further than this many
+	 * ticks ahead simply go another round.
+	 */
+	private final static int WHEEL_SIZE = 64;
+
 	/**
 	 * The maximum time to wait for the next heart beat, no matter what.
 	 */
@@ -64,10 +76,16 @@ final class Pruner implements Runnable {
 
 	private volatile boolean isRunning;
 	private final PacketProcessor processor;
+	@SuppressWarnings("unchecked")
+	private final List<DiscoverableInfo>[] wheel = new List[WHEEL_SIZE];
+	private long lastTick = -1;
 
 	public Pruner(PacketProcessor processor, int maxHBTime) {
 		this.processor = processor;
 		this.maxHBTime = maxHBTime;
+		for (int i = 0; i < WHEEL_SIZE; i++) {
+			wheel[i] = new ArrayList<>();
+		}
 	}
 
 	@Override
@@ -80,28 +98,58 @@ final class Pruner implements Runnable {
 			} catch (InterruptedException e) {
 				// Ignore - don't mind being interrupted.
 			}
-			checkPackets();
+			checkPackets(System.currentTimeMillis());
 		}
 		JDPClient.LOGGER.info("JDP prune thread shutting down!"); //$NON-NLS-1$
 	}
 
-	private void checkPackets() {
+	/**
+	 * Only to be called from a single thread.
+	 *
+	 * @param now
+	 *            the current time in milliseconds
+	 */
+	void checkPackets(long now) {
 		JDPClient.LOGGER.finer("JDP prune checking..."); //$NON-NLS-1$
-		long now = System.currentTimeMillis();
-		synchronized (processor) {
-			Collection<DiscoverableInfo> values = processor.infoMap.values();
-			DiscoverableInfo[] discoverableInfos = values.toArray(new DiscoverableInfo[values.size()]);
-			for (PacketProcessor.DiscoverableInfo info : discoverableInfos) {
-				if (info.heartBeat != 0) {
-					// If we missed a few heart beats, we consider it down.
-					if (now - info.timestamp > (info.heartBeat * HB_MISSED_BEFORE_DOWN)) {
-						remove(info);
-					}
-				} else if ((now - info.timestamp) > maxHBTime) {
+		long tick = now / PRUNING_INTERVAL;
+		if (lastTick < 0) {
+			lastTick = tick - 1;
+		}
+		DiscoverableInfo newInfo;
+		while ((newInfo = processor.newInfos.poll()) != null) {
+			schedule(newInfo, tick);
+		}
+		// Process at most one round, anything later in a bucket will be rescheduled anyway
+		for (long t = Math.max(lastTick + 1, tick - WHEEL_SIZE + 1); t <= tick; t++) {
+			int slot = (int) (t % WHEEL_SIZE);
+			List<DiscoverableInfo> due = wheel[slot];
+			wheel[slot] = new ArrayList<>();
+			for (DiscoverableInfo info : due) {
+				if (now > getDeadline(info)) {
 					remove(info);
+				} else {
+					schedule(info, tick);
 				}
 			}
 		}
+		lastTick = tick;
+	}
+
+	/**
+	 * If we missed a few heart beats, we consider it down.
+	 */
+	private long getDeadline(DiscoverableInfo info) {
+		long heartBeat = info.heartBeat;
+		long timestamp = info.timestamp;
+		if (heartBeat != 0) {
+			return timestamp + (long) (heartBeat * HB_MISSED_BEFORE_DOWN);
+		}
+		return timestamp + maxHBTime;
+	}
+
+	private void schedule(DiscoverableInfo info, long currentTick) {
+		long tick = Math.max(getDeadline(info) / PRUNING_INTERVAL, currentTick + 1);
+		wheel[(int) (tick % WHEEL_SIZE)].add(info);
 	}
 
 	/**
@@ -109,9 +157,10 @@ final class Pruner implements Runnable {
 	 *            the descriptor to remove.
 	 */
 	private void remove(DiscoverableInfo info) {
-		processor.infoMap.remove(info.packet.getSessionId());
-		JDPClient.LOGGER.fine("Lost " + info.packet); //$NON-NLS-1$
-		processor.fireEvent(new DiscoveryEvent(Kind.LOST, info.packet));
+		if (processor.remove(info)) {
+			JDPClient.LOGGER.fine("Lost " + info.packet); //$NON-NLS-1$
+			processor.fireEvent(new DiscoveryEvent(Kind.LOST, info.packet));
+		}
 	}
 
 	public void stop() {
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.common.subscription.internal;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scheduler shared by the attribute subscription pollers of all connections. Instead of one thread
+ * per connection, the polls of all connections are timed by a single scheduler thread and run on a
+ * bounded pool of poll threads. The retrieval of attribute values from different MBeans of one
+ * connection runs on a separate bounded pool of fetch threads with a bounded queue. A poll waits
+ * for the fetches a limited time only, see {@link ConcurrentAttributeFetcher}, so a JVM that does
+ * not respond holds on to fetch threads, at most one per MBean, but not to a poll thread. MBeans
+ * that can not be fetched because all fetch threads are busy are skipped until the next poll.
+ */
+public final class AttributePollingScheduler {
+
+	private static final long WORKER_THREAD_KEEP_ALIVE_SECONDS = 60;
+	private static final int POLL_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+	private static final int FETCH_THREADS = 2 * POLL_THREADS;
+	private static final int FETCH_QUEUE_SIZE = 256;
+
+	private static final AttributePollingScheduler INSTANCE = new AttributePollingScheduler();
+
+	private static class DaemonThreadFactory implements ThreadFactory {
+		private final String name;
+		private final AtomicInteger count = new AtomicInteger();
+
+		DaemonThreadFactory(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, name + " " + count.incrementAndGet()); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	private final ScheduledExecutorService scheduler;
+	private final ExecutorService pollers;
+	private final ExecutorService fetchers;
+
+	private AttributePollingScheduler() {
+		ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(1,
+				new DaemonThreadFactory("RJMX Subscription Scheduler")); //$NON-NLS-1$
+		scheduledExecutor.setRemoveOnCancelPolicy(true);
+		scheduler = scheduledExecutor;
+		// At most one poll per connection is queued, which limits the size of the poll queue
+		pollers = createPool(POLL_THREADS, new LinkedBlockingQueue<Runnable>(), "RJMX Subscription Poller"); //$NON-NLS-1$
+		fetchers = createPool(FETCH_THREADS, new ArrayBlockingQueue<Runnable>(FETCH_QUEUE_SIZE),
+				"RJMX Subscription Fetcher"); //$NON-NLS-1$
+	}
+
+	private static ExecutorService createPool(int threads, BlockingQueue<Runnable> queue, String name) {
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, WORKER_THREAD_KEEP_ALIVE_SECONDS,
+				TimeUnit.SECONDS, queue, new DaemonThreadFactory(name));
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	/**
+	 * @return the scheduler shared by all connections
+	 */
+	public static AttributePollingScheduler getDefault() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Schedule a poll. The poll is run on a poll thread.
+	 *
+	 * @param poll
+	 *            the poll to run
+	 * @param delay
+	 *            the delay in ms
+	 * @return a future that can be used to cancel the poll before it has been started
+	 */
+	ScheduledFuture<?> schedule(Runnable poll, long delay) {
+		return scheduler.schedule(() -> pollers.execute(poll), delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return the executor to use for retrieving attribute values from different MBeans
+	 *         concurrently, rejects tasks when all fetch threads are busy and the queue is full
+	 */
+	Executor getFetchExecutor() {
+		return fetchers;
+	}
+}
@@ -83,10 +83,17 @@ public final class AttributeValueToolkit {
 
 	public static Map<MRI, Object> getAttributes(MBeanServerConnection connection, Iterable<MRI> attributes)
 			throws InstanceNotFoundException, ReflectionException, IOException {
+		Map<MRI, Object> results = new HashMap<>();
+		for (Entry<ObjectName, List<String>> entry : groupByMBean(attributes).entrySet()) {
+			addResults(results, entry.getKey(), getAttributes(connection, entry.getKey(), entry.getValue()));
+		}
+		return results;
+	}
+
+	static Map<ObjectName, List<String>> groupByMBean(Iterable<MRI> attributes) {
 		if (attributes == null) {
 			throw new IllegalArgumentException("Can't fetch anything! attributes == null!"); //$NON-NLS-1$
 		}
-		Map<MRI, Object> results = new HashMap<>();
 		// coalesce all attributes belonging to the same MBean
 		Map<ObjectName, List<String>> mbeanMap = new HashMap<>();
 		for (MRI attribute : attributes) {
@@ -98,14 +105,14 @@ public final class AttributeValueToolkit {
 			}
 			dataPathList.add(attribute.getDataPath());
 		}
-		for (Entry<ObjectName, List<String>> entry : mbeanMap.entrySet()) {
-			AttributeList values = getAttributes(connection, entry.getKey(), entry.getValue());
-			for (Object obj : values) {
-				Attribute value = (Attribute) obj;
-				results.put(new MRI(Type.ATTRIBUTE, entry.getKey(), value.getName()), value.getValue());
-			}
+		return mbeanMap;
+	}
+
+	static void addResults(Map<MRI, Object> results, ObjectName name, AttributeList values) {
+		for (Object obj : values) {
+			Attribute value = (Attribute) obj;
+			results.put(new MRI(Type.ATTRIBUTE, name, value.getName()), value.getValue());
 		}
-		return results;
 	}
 
 	public static AttributeList getAttributes(
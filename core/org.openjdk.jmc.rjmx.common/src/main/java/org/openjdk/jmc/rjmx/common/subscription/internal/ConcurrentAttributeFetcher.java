@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.common.subscription.internal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.management.AttributeList;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import org.openjdk.jmc.rjmx.common.subscription.MRI;
+
+/**
+ * Retrieves attribute values for one {@link DefaultAttributeSubscriptionPoller}. The
+ * {@link MBeanServerConnection#getAttributes(ObjectName, String[])} calls for different MBeans are
+ * issued concurrently on an executor, and each poll waits at most a given time for them.
+ * <p>
+ * A call that has not completed in time is left running and its MBean is skipped by later polls
+ * until the call has completed. The values it retrieved are then returned by the next poll. A slow
+ * or hung MBean therefore holds on to at most one worker thread, however many polls it misses.
+ * <p>
+ * Not thread safe, the fetcher is only used by one poll at a time.
+ */
+public final class ConcurrentAttributeFetcher {
+
+	private final MBeanServerConnection connection;
+	private final Executor executor;
+	private final long timeoutNanos;
+	private final Map<ObjectName, FutureTask<AttributeList>> pendingCalls = new HashMap<>();
+	private final Set<ObjectName> retrieved = new HashSet<>();
+
+	/**
+	 * @param connection
+	 *            the connection to retrieve the values from
+	 * @param executor
+	 *            the executor to issue the calls on
+	 * @param timeout
+	 *            the maximum time in ms that a poll waits for the calls
+	 */
+	public ConcurrentAttributeFetcher(MBeanServerConnection connection, Executor executor, long timeout) {
+		this.connection = connection;
+		this.executor = executor;
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+	}
+
+	/**
+	 * Retrieves attribute values. Attributes of MBeans with a pending call are not retrieved, and
+	 * neither are those of MBeans whose call is rejected by the executor. The values of pending
+	 * calls that have completed since the last poll are included.
+	 *
+	 * @param attributes
+	 *            the attributes to retrieve
+	 * @return a map with the retrieved values
+	 */
+	public Map<MRI, Object> getAttributes(Iterable<MRI> attributes)
+			throws InstanceNotFoundException, ReflectionException, IOException {
+		retrieved.clear();
+		Map<MRI, Object> results = new HashMap<>();
+		Iterator<Entry<ObjectName, FutureTask<AttributeList>>> pending = pendingCalls.entrySet().iterator();
+		while (pending.hasNext()) {
+			Entry<ObjectName, FutureTask<AttributeList>> entry = pending.next();
+			if (entry.getValue().isDone()) {
+				pending.remove();
+				AttributeValueToolkit.addResults(results, entry.getKey(), getResult(entry.getValue(), 0));
+			}
+		}
+
+		List<ObjectName> names = new ArrayList<>();
+		List<FutureTask<AttributeList>> tasks = new ArrayList<>();
+		for (Entry<ObjectName, List<String>> entry : AttributeValueToolkit.groupByMBean(attributes).entrySet()) {
+			if (!pendingCalls.containsKey(entry.getKey())) {
+				FutureTask<AttributeList> task = new FutureTask<>(
+						() -> AttributeValueToolkit.getAttributes(connection, entry.getKey(), entry.getValue()));
+				try {
+					executor.execute(task);
+				} catch (RejectedExecutionException e) {
+					// All workers are busy, skip the MBean in this poll
+					continue;
+				}
+				names.add(entry.getKey());
+				tasks.add(task);
+			}
+		}
+		long deadline = System.nanoTime() + timeoutNanos;
+		for (int i = 0; i < tasks.size(); i++) {
+			try {
+				AttributeList values = getResult(tasks.get(i), deadline - System.nanoTime());
+				if (values == null) {
+					pendingCalls.put(names.get(i), tasks.get(i));
+				} else {
+					AttributeValueToolkit.addResults(results, names.get(i), values);
+					retrieved.add(names.get(i));
+				}
+			} catch (InstanceNotFoundException | ReflectionException | IOException | RuntimeException e) {
+				// The remaining calls are not waited for, but their MBeans are still skipped
+				for (int j = i; j < tasks.size(); j++) {
+					if (!tasks.get(j).isDone()) {
+						pendingCalls.put(names.get(j), tasks.get(j));
+					}
+				}
+				throw e;
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * @param name
+	 *            an MBean name
+	 * @return {@code true} if the last poll retrieved the attributes of the MBean
+	 */
+	public boolean wasRetrieved(ObjectName name) {
+		return retrieved.contains(name);
+	}
+
+	/**
+	 * Cancels all pending calls.
+	 */
+	public void cancel() {
+		for (FutureTask<AttributeList> task : pendingCalls.values()) {
+			task.cancel(true);
+		}
+		pendingCalls.clear();
+	}
+
+	/**
+	 * @return the result of the call or {@code null} if it did not complete in time
+	 */
+	private static AttributeList getResult(FutureTask<AttributeList> task, long timeoutNanos)
+			throws InstanceNotFoundException, ReflectionException, IOException {
+		try {
+			return task.get(Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while retrieving attributes"); //$NON-NLS-1$
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof InstanceNotFoundException) {
+				throw (InstanceNotFoundException) cause;
+			} else if (cause instanceof ReflectionException) {
+				throw (ReflectionException) cause;
+			} else if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+}
@@ -42,6 +42,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.management.InstanceNotFoundException;
@@ -63,10 +65,14 @@ import org.openjdk.jmc.rjmx.common.subscription.internal.IMRISubscriptionDebugIn
  * of the AttributeSubscriptions, schedule calls for retrieving the current value of the
  * corresponding attribute.
  * <p>
- * Note that some attributes are not handled by this subscription thread, for instance notification
+ * The polls are run on the {@link AttributePollingScheduler} shared by all connections. At most one
+ * poll per connection is running at any time, so the state of the poller is only accessed by one
+ * thread at a time.
+ * <p>
+ * Note that some attributes are not handled by this subscription poller, for instance notification
  * based ones.
  */
-public class DefaultAttributeSubscriptionThread extends Thread {
+public class DefaultAttributeSubscriptionPoller implements Runnable {
 	// The logger.
 	private final static Logger LOGGER = Logger.getLogger("org.openjdk.jmc.rjmx.subscription"); //$NON-NLS-1$
 
@@ -78,9 +84,19 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 
 	private final Map<IMRISubscription, SubscriptionStats> subscriptionStats = new HashMap<>();
 	private volatile boolean isRunning = true;
+	private boolean isTerminated;
+	private boolean isPolling;
+	private ScheduledFuture<?> nextPoll;
 	private long lastTimestamp;
 	private final static long MAX_SLEEP_TIME = 2000;
 	private final static long MIN_SLEEP_TIME = 100;
+	// Attributes due within this time are retrieved in the same poll
+	private final static long COALESCE_TIME = MIN_SLEEP_TIME;
+	// The longest time a poll waits for the attribute values
+	private final static long FETCH_TIMEOUT = MAX_SLEEP_TIME;
+	private final AttributePollingScheduler scheduler;
+	private final ConcurrentAttributeFetcher fetcher;
+	private final PollLatencyStatistics pollLatency = new PollLatencyStatistics();
 	private final Set<AbstractAttributeSubscription> recentlyAddedSubscriptions = new HashSet<>();
 	private final Set<AbstractAttributeSubscription> recentlyRemovedSubscriptions = new HashSet<>();
 	private final UnavailableSubscriptionsRepository unavailableSubscriptionsRepository;
@@ -94,40 +110,80 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 		public long lastUpdate = Long.MIN_VALUE;
 	}
 
-	public DefaultAttributeSubscriptionThread(IConnectionHandle connectionHandle)
+	public DefaultAttributeSubscriptionPoller(IConnectionHandle connectionHandle)
+			throws ConnectionException, ServiceNotAvailableException {
+		this(connectionHandle, AttributePollingScheduler.getDefault());
+	}
+
+	public DefaultAttributeSubscriptionPoller(IConnectionHandle connectionHandle, AttributePollingScheduler scheduler)
 			throws ConnectionException, ServiceNotAvailableException {
-		super("RJMX Subscription thread on " + connectionHandle.getServerDescriptor().getDisplayName()); //$NON-NLS-1$
 		this.connectionHandle = connectionHandle;
+		this.scheduler = scheduler;
 		helperService = connectionHandle.getServiceOrThrow(IMBeanHelperService.class);
 		server = connectionHandle.getServiceOrThrow(MBeanServerConnection.class);
+		fetcher = new ConcurrentAttributeFetcher(server, scheduler.getFetchExecutor(), FETCH_TIMEOUT);
 		unavailableSubscriptionsRepository = new UnavailableSubscriptionsRepository(connectionHandle);
 		clearDebugInformation();
 	}
 
 	/**
-	 * This is where all the action is. Starting this thread will start the subscription of the
-	 * registered subscriptions.
+	 * Starts the subscription of the registered subscriptions.
+	 */
+	public synchronized void start() {
+		if (nextPoll == null && isRunning) {
+			nextPoll = scheduler.schedule(this, 0);
+		}
+	}
+
+	/**
+	 * This is where all the action is. Runs one poll and schedules the next one.
 	 */
 	@Override
 	public void run() {
-		while (isRunning) {
-			unregisterSubscriptionsQueuedForRemove();
-			reregisterPreviouslyBadSubscriptions();
-			registerSubscriptionsQueuedForAdd();
-			long sleepTime = retrieveAndDispatchValues();
-			try {
-				sleep(sleepTime);
-			} catch (InterruptedException e) {
-				// We were interrupted - close down shop.
-				isRunning = false;
+		synchronized (this) {
+			// A poll scheduled by shutdown may overlap with a poll that was already started
+			if (isPolling || isTerminated) {
+				return;
 			}
+			isPolling = true;
 		}
+		long sleepTime = MIN_SLEEP_TIME;
+		try {
+			if (isRunning) {
+				try {
+					unregisterSubscriptionsQueuedForRemove();
+					reregisterPreviouslyBadSubscriptions();
+					registerSubscriptionsQueuedForAdd();
+					sleepTime = retrieveAndDispatchValues();
+				} catch (RuntimeException e) {
+					LOGGER.log(Level.SEVERE, "Subscription poller for " //$NON-NLS-1$
+							+ connectionHandle.getServerDescriptor().getDisplayName() + " is terminating", e); //$NON-NLS-1$
+					isRunning = false;
+				}
+			}
+			if (!isRunning) {
+				terminate();
+			}
+		} finally {
+			synchronized (this) {
+				isPolling = false;
+				if (isRunning) {
+					nextPoll = scheduler.schedule(this, sleepTime);
+				} else {
+					isTerminated = true;
+				}
+			}
+		}
+	}
+
+	private void terminate() {
 		synchronized (recentlyRemovedSubscriptions) {
 			recentlyRemovedSubscriptions.addAll(attributeSubscriptions.values());
 			recentlyRemovedSubscriptions.addAll(unavailableSubscriptionsRepository.getAllSubscriptions());
 			unavailableSubscriptionsRepository.dispose();
 		}
 		unregisterSubscriptionsQueuedForRemove();
+		fetcher.cancel();
 	}
 
 	private long retrieveAndDispatchValues() {
@@ -140,14 +196,18 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 		for (AbstractAttributeSubscription subscription : attributeSubscriptions.values()) {
 			SubscriptionStats stats = subscriptionStats.get(subscription);
 			long targetTime = subscription.getUpdatePolicy().getNextUpdate(stats.lastUpdate);
-			if (targetTime <= now) {
+			if (targetTime <= now + COALESCE_TIME) {
 				normalAttributes.add(subscription.getMRIMetadata().getMRI());
 				stats.lastUpdate = now;
 				targetTime = subscription.getUpdatePolicy().getNextUpdate(now);
 			}
 			nextUpdate = Math.min(nextUpdate, targetTime);
 		}
-		retrieveAndDispatchNormalAttributes(normalAttributes);
+		if (!normalAttributes.isEmpty()) {
+			retrieveAndDispatchNormalAttributes(normalAttributes);
+			pollLatency.record(System.currentTimeMillis() - now);
+		}
+		now = System.currentTimeMillis();
 		return Math.max(MIN_SLEEP_TIME, Math.min(nextUpdate - now, MAX_SLEEP_TIME));
 	}
 
@@ -157,19 +217,24 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 		try {
 			List<MRIValueEvent> attributeValues = sampleAttributes(normalAttributes);
 			dispatchEvents(attributeValues);
-			if (attributeValues.size() != normalAttributes.size()) {
-				removeBadAttributes(normalAttributes, attributeValues);
+			// Attributes of MBeans that were skipped in this poll are not missing
+			List<MRI> retrievedAttributes = new ArrayList<>();
+			for (MRI mri : normalAttributes) {
+				if (fetcher.wasRetrieved(mri.getObjectName())) {
+					retrievedAttributes.add(mri);
+				}
 			}
+			removeBadAttributes(retrievedAttributes, attributeValues);
 		} catch (InstanceNotFoundException e) {
 			searchAndRemoveBadAttributes(normalAttributes);
 		} catch (ReflectionException e) {
 			searchAndRemoveBadAttributes(normalAttributes);
 		} catch (InvoluntaryDisconnectException e) {
-			LOGGER.warning("Subscription thread is terminating due to loss of connection!"); //$NON-NLS-1$
+			LOGGER.warning("Subscription poller is terminating due to loss of connection!"); //$NON-NLS-1$
 			dispatchConnectionLostEvents();
 			shutdown();
 		} catch (ConnectException e) {
-			LOGGER.warning("Subscription thread is terminating due to loss of connection!"); //$NON-NLS-1$
+			LOGGER.warning("Subscription poller is terminating due to loss of connection!"); //$NON-NLS-1$
 			dispatchConnectionLostEvents();
 			shutdown();
 		} catch (IOException e) {
@@ -178,7 +243,7 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 			if (isRunning) {
 				throw e;
 			} else {
-				LOGGER.fine("Failed to get attributes, probably since the subscription thread is terminating"); //$NON-NLS-1$
+				LOGGER.fine("Failed to get attributes, probably since the subscription poller is terminating"); //$NON-NLS-1$
 			}
 		}
 	}
@@ -186,7 +251,7 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 	private List<MRIValueEvent> sampleAttributes(Iterable<MRI> attributes)
 			throws IOException, InstanceNotFoundException, ReflectionException {
 		long before = System.currentTimeMillis();
-		Map<MRI, Object> values = AttributeValueToolkit.getAttributes(server, attributes);
+		Map<MRI, Object> values = fetcher.getAttributes(attributes);
 		// FIXME: JMC-4270 - Server time approximation is not reliable
 //		long timestamp = helperService.getApproximateServerTime((System.currentTimeMillis() + before) / 2);
 		long timestamp = (System.currentTimeMillis() + before) / 2;
@@ -207,7 +272,7 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 	}
 
 	/**
-	 * @return the connection handle associated with this subscription thread.
+	 * @return the connection handle associated with this subscription poller.
 	 */
 	public IConnectionHandle getConnectionHandle() {
 		return connectionHandle;
@@ -228,13 +293,9 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 	}
 
 	/**
-	 * This method is only to be called from the subscription thread!
+	 * This method is only to be called from a poll!
 	 */
 	private void registerSubscriptionsQueuedForAdd() {
-		if (Thread.currentThread() != this) {
-			LOGGER.warning("registerQueuedSubscriptions abused in DefaultAttributeSubscriptionThread!"); //$NON-NLS-1$
-		}
-
 		List<AbstractAttributeSubscription> recentlyAdded = new ArrayList<>();
 		synchronized (recentlyAddedSubscriptions) {
 			recentlyAdded.addAll(recentlyAddedSubscriptions);
@@ -256,13 +317,9 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 	}
 
 	/**
-	 * This method is only to be called from the subscription thread!
+	 * This method is only to be called from a poll!
 	 */
 	private void unregisterSubscriptionsQueuedForRemove() {
-		if (Thread.currentThread() != this) {
-			LOGGER.warning("unregisterQueuedSubscriptions abused in DefaultAttributeSubscriptionThread!"); //$NON-NLS-1$
-		}
-
 		List<AbstractAttributeSubscription> recentlyRemoved = new ArrayList<>();
 		synchronized (recentlyRemovedSubscriptions) {
 			if (recentlyRemovedSubscriptions.isEmpty()) {
@@ -332,11 +389,15 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 	}
 
 	/**
-	 *
+	 * Stops polling. If no poll is running, the subscriptions are unregistered by a final poll that
+	 * is scheduled immediately. Otherwise they are unregistered when the running poll completes.
 	 */
-	public void shutdown() {
+	public synchronized void shutdown() {
 		isRunning = false;
-		interrupt();
+		if (nextPoll != null && !isPolling && !isTerminated) {
+			nextPoll.cancel(false);
+			nextPoll = scheduler.schedule(this, 0);
+		}
 	}
 
 	/**
@@ -371,22 +432,14 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 	 *            the attribute values that where returned
 	 */
 	private void removeBadAttributes(List<MRI> attributesToFetch, List<MRIValueEvent> returnedAttributeValues) {
-		int missing = attributesToFetch.size() - returnedAttributeValues.size();
+		Set<MRI> returned = new HashSet<>();
+		for (MRIValueEvent returnedAttributeValue : returnedAttributeValues) {
+			returned.add(returnedAttributeValue.getMRI());
+		}
 		for (MRI attributeToFetch : attributesToFetch) {
-			boolean found = false;
-			for (MRIValueEvent returnedAttributeValue : returnedAttributeValues) {
-				if (attributeToFetch.equals(returnedAttributeValue.getMRI())) {
-					found = true;
-					break;
-				}
-			}
-			if (!found) {
+			if (!returned.contains(attributeToFetch)) {
 				recordConnectionLost(attributeToFetch);
 				removeBadAttribute(attributeToFetch, null);
-				missing -= 1;
-				if (missing <= 0) {
-					return;
-				}
 			}
 		}
 	}
@@ -435,6 +488,10 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 	private void dispatchEvents(List<MRIValueEvent> timestampedDataList) {
 		for (MRIValueEvent event : timestampedDataList) {
 			AbstractAttributeSubscription subscription = getSubscription(event.getMRI());
+			if (subscription == null) {
+				// A late value for a subscription that has been removed since it was requested
+				continue;
+			}
 			setLastTimestamp(Math.max(event.getTimestamp(), getLastTimestamp()));
 			recordEventRecieved(event);
 			subscription.storeAndFireEvent(event);
@@ -467,6 +524,14 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 
 	public void clearDebugInformation() {
 		subscriptionDebugInfo = new HashMap<>();
+		pollLatency.clear();
+	}
+
+	/**
+	 * @return the latency statistics for the polls of this connection
+	 */
+	public PollLatencyStatistics getPollLatencyStatistics() {
+		return pollLatency;
 	}
 
 	public Collection<? extends IMRISubscriptionDebugInformation> getDebugInformation() {
@@ -67,7 +67,7 @@ public final class DefaultAttributeSubscriptionService
 	private final Map<MRI, AbstractAttributeSubscription> activeSubscriptions;
 	// value is either an attribute descriptor or a set of them
 	private final Map<IMRIValueListener, Object> activeListeners;
-	private final DefaultAttributeSubscriptionThread subscriptionThread;
+	private final DefaultAttributeSubscriptionPoller subscriptionPoller;
 	private final DefaultNotificationSubscriptionManager notificationManager;
 
 	public DefaultAttributeSubscriptionService(IConnectionHandle handle)
@@ -75,27 +75,32 @@ public final class DefaultAttributeSubscriptionService
 		this.handle = handle;
 		activeSubscriptions = new HashMap<>();
 		activeListeners = new HashMap<>();
-		subscriptionThread = new DefaultAttributeSubscriptionThread(handle);
-		subscriptionThread.start();
+		subscriptionPoller = new DefaultAttributeSubscriptionPoller(handle);
+		subscriptionPoller.start();
 		notificationManager = new DefaultNotificationSubscriptionManager(handle);
 	}
 
 	@Override
 	public void collectDebugInformation(boolean collect) {
-		subscriptionThread.collectDebugInformation(collect);
+		subscriptionPoller.collectDebugInformation(collect);
 		notificationManager.collectDebugInformation(collect);
 	}
 
 	@Override
 	public void clearDebugInformation() {
-		subscriptionThread.clearDebugInformation();
+		subscriptionPoller.clearDebugInformation();
 		notificationManager.clearDebugInformation();
 	}
 
+	@Override
+	public PollLatencyStatistics getPollLatencyStatistics() {
+		return subscriptionPoller.getPollLatencyStatistics();
+	}
+
 	@Override
 	public Collection<IMRISubscriptionDebugInformation> getDebugInformation() {
 		Collection<IMRISubscriptionDebugInformation> debugInformation = new HashSet<>();
-		debugInformation.addAll(subscriptionThread.getDebugInformation());
+		debugInformation.addAll(subscriptionPoller.getDebugInformation());
 		debugInformation.addAll(notificationManager.getDebugInformation());
 		return debugInformation;
 	}
@@ -297,7 +302,7 @@ public final class DefaultAttributeSubscriptionService
 	private void destroyAttibuteSubscription(AbstractAttributeSubscription subscription) {
 		switch (subscription.getMRIMetadata().getMRI().getType()) {
 		case ATTRIBUTE:
-			subscriptionThread.unregisterAttributeSubscription(subscription);
+			subscriptionPoller.unregisterAttributeSubscription(subscription);
 			break;
 		case NOTIFICATION:
 			notificationManager.unregisterNotificationAttributeSubscription(subscription);
@@ -345,10 +350,10 @@ public final class DefaultAttributeSubscriptionService
 	}
 
 	/**
-	 * Checks if we're connected. If we are, we will check if there is a subscription thread. If
-	 * there is one, the subscription will be registered with it, else a subscription thread will be
+	 * Checks if we're connected. If we are, we will check if there is a subscription poller. If
+	 * there is one, the subscription will be registered with it, else a subscription poller will be
 	 * created. If it is a notification based subscription, it will be registered with the
-	 * notification manager instead of the subscription thread.
+	 * notification manager instead of the subscription poller.
 	 *
 	 * @param connectionHandle
 	 * @param subscription
@@ -362,7 +367,7 @@ public final class DefaultAttributeSubscriptionService
 		if (subscription.getMRIMetadata().getMRI().getType() == Type.NOTIFICATION) {
 			notificationManager.registerNotificationAttributeSubscription(subscription);
 		} else {
-			subscriptionThread.registerAttributeSubscription(subscription);
+			subscriptionPoller.registerAttributeSubscription(subscription);
 		}
 	}
 
@@ -372,7 +377,7 @@ public final class DefaultAttributeSubscriptionService
 	}
 
 	/**
-	 * Will shut down all subscription threads and clear all subscriptions for the the specified
+	 * Will shut down the subscription poller and clear all subscriptions for the the specified
 	 * connector model, and stop listening on changes in the connector model.
 	 * <p>
 	 * No more events will ever be sent from the subscriptions previously created and associated
@@ -380,7 +385,7 @@ public final class DefaultAttributeSubscriptionService
 	 */
 	@Override
 	public synchronized void dispose() {
-		subscriptionThread.shutdown();
+		subscriptionPoller.shutdown();
 		notificationManager.shutdown();
 		activeSubscriptions.clear();
 		activeListeners.clear();
@@ -406,6 +411,6 @@ public final class DefaultAttributeSubscriptionService
 
 	@Override
 	public boolean isMRIUnavailable(MRI attributeDescriptor) {
-		return subscriptionThread.isAttributeUnavailable(attributeDescriptor);
+		return subscriptionPoller.isAttributeUnavailable(attributeDescriptor);
 	}
 }
@@ -44,4 +44,6 @@ public interface ISubscriptionDebugService {
 	public void clearDebugInformation();
 
 	public Collection<IMRISubscriptionDebugInformation> getDebugInformation();
+
+	public PollLatencyStatistics getPollLatencyStatistics();
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.common.subscription.internal;
+
+/**
+ * Latency statistics for the attribute polls of one connection. A poll is one round of retrieving
+ * the values of all attributes that are due for an update.
+ */
+public final class PollLatencyStatistics {
+
+	// Weight of the latest poll in the moving average
+	private static final double AVERAGE_WEIGHT = 0.1;
+
+	private long pollCount;
+	private long lastLatency;
+	private long maxLatency;
+	private double averageLatency;
+
+	synchronized void record(long latency) {
+		averageLatency = pollCount == 0 ? latency : averageLatency + AVERAGE_WEIGHT * (latency - averageLatency);
+		pollCount++;
+		lastLatency = latency;
+		maxLatency = Math.max(maxLatency, latency);
+	}
+
+	synchronized void clear() {
+		pollCount = 0;
+		lastLatency = 0;
+		maxLatency = 0;
+		averageLatency = 0;
+	}
+
+	/**
+	 * @return the number of polls
+	 */
+	public synchronized long getPollCount() {
+		return pollCount;
+	}
+
+	/**
+	 * @return the latency in ms of the last poll
+	 */
+	public synchronized long getLastLatency() {
+		return lastLatency;
+	}
+
+	/**
+	 * @return the largest latency in ms of any poll
+	 */
+	public synchronized long getMaxLatency() {
+		return maxLatency;
+	}
+
+	/**
+	 * @return an exponential moving average of the poll latency in ms
+	 */
+	public synchronized double getAverageLatency() {
+		return averageLatency;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "Polls: " + pollCount + " Last: " + lastLatency + " ms Average: " + averageLatency + " ms Max: " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				+ maxLatency + " ms"; //$NON-NLS-1$
+	}
+}
@@ -38,7 +38,6 @@ import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
 
-import org.openjdk.jmc.common.collection.BoundedList;
 import org.openjdk.jmc.rjmx.common.services.IAttributeStorage;
 import org.openjdk.jmc.rjmx.common.services.MRIDataSeries;
 import org.openjdk.jmc.rjmx.common.subscription.IMRIValueListener;
@@ -47,11 +46,16 @@ import org.openjdk.jmc.rjmx.common.subscription.MRI;
 import org.openjdk.jmc.rjmx.common.subscription.MRIValueEvent;
 import org.openjdk.jmc.common.xydata.DefaultTimestampedData;
 import org.openjdk.jmc.common.xydata.ITimestampedData;
+import org.openjdk.jmc.common.xydata.MultiResolutionDataSeries;
+import org.openjdk.jmc.common.xydata.TimestampedDataRingBuffer;
+import org.openjdk.jmc.common.xydata.TimestampedDataRollup;
 
 /**
- * Simple attribute storage that contains attribute events.
+ * Simple attribute storage that contains attribute events. Min/max/average rollups of the events
+ * are kept as well, so that long time ranges can be rendered without iterating over every event.
  * <p>
- * NOTE: You must synchronize on the storage if you use the dataseries iterator!
+ * The events are stored in a {@link TimestampedDataRingBuffer}, so the data series iterators can be
+ * used without synchronizing with the subscription poller. Iterators see a snapshot of the events.
  */
 public class BufferingAttributeStorage extends Observable implements IAttributeStorage {
 
@@ -65,7 +69,31 @@ public class BufferingAttributeStorage extends Observable implements IAttributeS
 		return currentRetainedEventValues;
 	}
 
-	private final BoundedList<ITimestampedData> cache = new BoundedList<>(lookupRetainedEventValues());
+	private static final long NANOS_PER_SECOND = 1000L * 1000L * 1000L;
+
+	private class BufferingDataSeries implements MRIDataSeries, MultiResolutionDataSeries<ITimestampedData> {
+
+		@Override
+		public Iterator<ITimestampedData> createIterator(long min, long max) {
+			return cache.iterator();
+		}
+
+		@Override
+		public Iterator<ITimestampedData> createIterator(long min, long max, int resolution) {
+			int level = rollup.selectLevel(min, max, resolution);
+			return level < 0 ? cache.iterator() : rollup.createIterator(level, min, max);
+		}
+
+		@Override
+		public MRI getAttribute() {
+			return mri;
+		}
+	}
+
+	private final TimestampedDataRingBuffer cache = new TimestampedDataRingBuffer(lookupRetainedEventValues());
+	// Events are typically retained for one second each, so keep the rollups for the same time span
+	private final TimestampedDataRollup rollup = new TimestampedDataRollup(
+			lookupRetainedEventValues() * NANOS_PER_SECOND, TimestampedDataRollup.DEFAULT_BUCKET_WIDTHS);
 	private final MRI mri;
 	private final ISubscriptionService subscriptionService;
 	private final IMRIValueListener valueListener = new IMRIValueListener() {
@@ -76,9 +104,11 @@ public class BufferingAttributeStorage extends Observable implements IAttributeS
 				if (lookupRetainedEventValues() != cache.getMaxSize()) {
 					cache.setMaxSize(Math.max(lookupRetainedEventValues(), Math.max(cache.getSize() - 1000, 1)));
 				}
-				DefaultTimestampedData data = new DefaultTimestampedData(event.getTimestamp() * 1000 * 1000L,
-						((Number) value).doubleValue());
-				cache.add(data);
+				long timestamp = event.getTimestamp() * 1000 * 1000L;
+				double doubleValue = ((Number) value).doubleValue();
+				cache.add(timestamp, doubleValue);
+				rollup.add(timestamp, doubleValue);
+				DefaultTimestampedData data = new DefaultTimestampedData(timestamp, doubleValue);
 				setChanged();
 				notifyObservers(data);
 			}
@@ -89,19 +119,7 @@ public class BufferingAttributeStorage extends Observable implements IAttributeS
 	public BufferingAttributeStorage(MRI attribute, ISubscriptionService subscriptionService) {
 		mri = attribute;
 		this.subscriptionService = subscriptionService;
-		dataSeries.add(new MRIDataSeries() {
-
-			@Override
-			public Iterator<ITimestampedData> createIterator(long min, long max) {
-				return cache.iterator();
-			}
-
-			@Override
-			public MRI getAttribute() {
-				return mri;
-			}
-		});
-
+		dataSeries.add(new BufferingDataSeries());
 	}
 
 	@Override
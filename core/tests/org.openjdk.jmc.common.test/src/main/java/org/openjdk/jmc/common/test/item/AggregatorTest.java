@@ -32,12 +32,17 @@
  */
 package org.openjdk.jmc.common.test.item;
 
+import java.util.Collections;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.openjdk.jmc.common.item.Aggregators;
 import org.openjdk.jmc.common.item.Aggregators.AdvancedMaxAggregator;
 import org.openjdk.jmc.common.item.Aggregators.AdvancedMinAggregator;
+import org.openjdk.jmc.common.item.IAggregator;
 import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemConsumer;
+import org.openjdk.jmc.common.item.IItemIterable;
 import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.test.MCTestCase;
 import org.openjdk.jmc.test.mock.item.MockAggregators;
@@ -206,6 +211,29 @@ public class AggregatorTest extends MCTestCase {
 		}
 	}
 
+	@Test
+	public void testMergeIntoEmptyConsumer() {
+		assertMergeIntoEmptyConsumer(MockAggregators.SUM);
+		assertMergeIntoEmptyConsumer(MockAggregators.VARIANCEP);
+		assertMergeIntoEmptyConsumer(Aggregators.avg(MockAttributes.DOUBLE_VALUE));
+	}
+
+	private static <C extends IItemConsumer<C>> void assertMergeIntoEmptyConsumer(
+		IAggregator<IQuantity, C> aggregator) {
+		IItemCollection mockCollection = MockCollections.getNumberCollection(new Number[] {101, 10, 135, 10});
+		IItemIterable items = mockCollection.iterator().next();
+		C empty = aggregator.newItemConsumer(items.getType());
+		C full = aggregator.newItemConsumer(items.getType());
+		items.forEach(full::consume);
+		IQuantity expected = aggregator.getValue(Collections.singleton(full).iterator());
+
+		// The merge result must not share state with the merged consumer
+		C merged = empty.merge(full);
+		Assert.assertSame(empty, merged);
+		items.forEach(full::consume);
+		Assert.assertEquals(expected, aggregator.getValue(Collections.singleton(merged).iterator()));
+	}
+
 	public static void main(String[] args) {
 		System.out.println(MockCollections.generateFullPrecisionString(MockCollections.generateNumberArray(400, 999)));
 	}
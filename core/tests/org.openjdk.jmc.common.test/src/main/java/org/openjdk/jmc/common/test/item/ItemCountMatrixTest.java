@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.common.test.item;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.ItemCountMatrix;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.test.MCTestCase;
+import org.openjdk.jmc.test.mock.item.MockAttributes;
+import org.openjdk.jmc.test.mock.item.MockCollections;
+
+public class ItemCountMatrixTest extends MCTestCase {
+
+	private static final IItemCollection ITEMS = MockCollections
+			.getNumberCollection(new Number[] {1, 5, 12, 25, 26, 29});
+
+	@Test
+	public void testSingleDimension() {
+		ItemCountMatrix matrix = ItemCountMatrix.build(ITEMS, MockAttributes.DOUBLE_VALUE,
+				UnitLookup.NUMBER_UNITY.quantity(10), () -> false);
+		Assert.assertEquals(0, matrix.getXStart().doubleValue(), 0);
+		Assert.assertEquals(3, matrix.getXBucketCount());
+		Assert.assertEquals(1, matrix.getYBucketCount());
+		Assert.assertNull(matrix.getYStart());
+		Assert.assertEquals(2, matrix.getCount(0));
+		Assert.assertEquals(1, matrix.getCount(1));
+		Assert.assertEquals(3, matrix.getCount(2));
+		Assert.assertEquals(6, matrix.getTotalCount());
+	}
+
+	@Test
+	public void testTwoDimensions() {
+		ItemCountMatrix matrix = ItemCountMatrix.build(ITEMS, MockAttributes.DOUBLE_VALUE,
+				UnitLookup.NUMBER_UNITY.quantity(10), MockAttributes.INDEX_VALUE, 2, () -> false);
+		Assert.assertEquals(2, matrix.getYBucketCount());
+		Assert.assertEquals(2.5, matrix.getYBucketSize().doubleValue(), 0);
+		long[][] expected = {{2, 0}, {1, 0}, {0, 3}};
+		for (int x = 0; x < expected.length; x++) {
+			for (int y = 0; y < expected[x].length; y++) {
+				Assert.assertEquals(expected[x][y], matrix.getCount(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void testBucketSizeIsLimited() {
+		IItemCollection items = MockCollections.getNumberCollection(new Number[] {0, 10000000});
+		ItemCountMatrix matrix = ItemCountMatrix.build(items, MockAttributes.DOUBLE_VALUE,
+				UnitLookup.NUMBER_UNITY.quantity(1), () -> false);
+		Assert.assertTrue(matrix.getXBucketCount() <= ItemCountMatrix.MAX_CELLS);
+		Assert.assertEquals(3, matrix.getXBucketSize().doubleValue(), 0);
+		Assert.assertEquals(1, matrix.getCount(0));
+		Assert.assertEquals(1, matrix.getCount(matrix.getXBucketCount() - 1));
+	}
+
+	@Test
+	public void testManyItems() {
+		// enough items and buckets for the counts to be split and merged
+		Number[] values = new Number[100000];
+		long[] expected = new long[5000];
+		for (int i = 0; i < values.length; i++) {
+			int value = (int) ((i * 7919L) % 50000);
+			values[i] = value;
+			expected[value / 10]++;
+		}
+		ItemCountMatrix matrix = ItemCountMatrix.build(MockCollections.getNumberCollection(values),
+				MockAttributes.DOUBLE_VALUE, UnitLookup.NUMBER_UNITY.quantity(10), () -> false);
+		Assert.assertEquals(expected.length, matrix.getXBucketCount());
+		for (int x = 0; x < expected.length; x++) {
+			Assert.assertEquals(expected[x], matrix.getCount(x));
+		}
+		Assert.assertEquals(values.length, matrix.getTotalCount());
+	}
+
+	@Test
+	public void testStopped() {
+		Assert.assertNull(ItemCountMatrix.build(ITEMS, MockAttributes.DOUBLE_VALUE,
+				UnitLookup.NUMBER_UNITY.quantity(10), () -> true));
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.common.test.item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmc.common.item.Aggregators;
+import org.openjdk.jmc.common.item.Aggregators.CountConsumer;
+import org.openjdk.jmc.common.item.GroupingAggregator;
+import org.openjdk.jmc.common.item.GroupingAggregator.CountedGroupEntry;
+import org.openjdk.jmc.common.item.GroupingAggregator.GroupEntry;
+import org.openjdk.jmc.common.item.IAggregator;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemConsumer;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.test.MCTestCase;
+import org.openjdk.jmc.test.mock.item.MockAttributes;
+import org.openjdk.jmc.test.mock.item.MockCollections;
+
+@SuppressWarnings("nls")
+public class TopNGroupingAggregatorTest extends MCTestCase {
+	private static final int KEYS = 5000;
+	private static final int TOP = 10;
+
+	@Test
+	public void testExactWhenAllKeysFit() {
+		Number[] values = generateSkewedArray(20000, 100);
+		Map<IQuantity, Integer> exact = countExactly(values);
+		List<CountedGroupEntry<IQuantity, CountConsumer>> groups = getTopN(values, 100);
+		Assert.assertEquals(exact.size(), groups.size());
+		for (CountedGroupEntry<IQuantity, CountConsumer> group : groups) {
+			Assert.assertEquals(0, group.getMaxError());
+			Assert.assertEquals(exact.get(group.getKey()).longValue(), group.getCount());
+			Assert.assertEquals(group.getCount(), group.getConsumer().getCount());
+		}
+	}
+
+	@Test
+	public void testTopKeys() {
+		Number[] values = generateSkewedArray(200000, KEYS);
+		Map<IQuantity, Integer> exact = countExactly(values);
+		List<CountedGroupEntry<IQuantity, CountConsumer>> groups = getTopN(values, 100);
+		Assert.assertEquals(100, groups.size());
+		assertTopKeys(exact, groups);
+	}
+
+	@Test
+	public void testMerge() {
+		Number[] values = generateSkewedArray(200000, KEYS);
+		Map<IQuantity, Integer> exact = countExactly(values);
+		IItemCollection items = MockCollections.getNumberCollection(values);
+		List<CountedGroupEntry<IQuantity, CountConsumer>> groups = getMergedTopN(items, createTopN(100));
+		Assert.assertEquals(100, groups.size());
+		assertTopKeys(exact, groups);
+	}
+
+	private static void assertTopKeys(
+		Map<IQuantity, Integer> exact, List<CountedGroupEntry<IQuantity, CountConsumer>> groups) {
+		List<Map.Entry<IQuantity, Integer>> sorted = new ArrayList<>(exact.entrySet());
+		sorted.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+		long previous = Long.MAX_VALUE;
+		for (CountedGroupEntry<IQuantity, CountConsumer> group : groups) {
+			Assert.assertTrue(group.getCount() <= previous);
+			previous = group.getCount();
+			long exactCount = exact.get(group.getKey());
+			Assert.assertTrue(group.getCount() >= exactCount);
+			Assert.assertTrue(group.getCount() - group.getMaxError() <= exactCount);
+			Assert.assertTrue(group.getConsumer().getCount() <= exactCount);
+		}
+		for (int i = 0; i < TOP; i++) {
+			Assert.assertEquals(sorted.get(i).getKey(), groups.get(i).getKey());
+		}
+	}
+
+	private static List<CountedGroupEntry<IQuantity, CountConsumer>> getTopN(Number[] values, int maxGroups) {
+		return toList(MockCollections.getNumberCollection(values).getAggregate(createTopN(maxGroups)));
+	}
+
+	private static IAggregator<Iterable<? extends GroupEntry<IQuantity, CountConsumer>>, ?> createTopN(int maxGroups) {
+		return GroupingAggregator.buildTopN("Top", null, MockAttributes.DOUBLE_VALUE, Aggregators.count(), type -> true,
+				maxGroups);
+	}
+
+	/**
+	 * Splits the items over several consumers and merges them.
+	 */
+	private static <C extends IItemConsumer<C>> List<CountedGroupEntry<IQuantity, CountConsumer>> getMergedTopN(
+		IItemCollection items, IAggregator<Iterable<? extends GroupEntry<IQuantity, CountConsumer>>, C> aggregator) {
+		List<C> consumers = new ArrayList<>();
+		for (IItemIterable iterable : items) {
+			IType<IItem> type = iterable.getType();
+			for (int i = 0; i < 3; i++) {
+				consumers.add(aggregator.newItemConsumer(type));
+			}
+			int i = 0;
+			for (IItem item : iterable) {
+				consumers.get(i++ % 3).consume(item);
+			}
+		}
+		return toList(aggregator.getValue(consumers.iterator()));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<CountedGroupEntry<IQuantity, CountConsumer>> toList(
+		Iterable<? extends GroupEntry<IQuantity, CountConsumer>> groups) {
+		List<CountedGroupEntry<IQuantity, CountConsumer>> list = new ArrayList<>();
+		Iterator<? extends GroupEntry<IQuantity, CountConsumer>> it = groups.iterator();
+		while (it.hasNext()) {
+			list.add((CountedGroupEntry<IQuantity, CountConsumer>) it.next());
+		}
+		return list;
+	}
+
+	private static Map<IQuantity, Integer> countExactly(Number[] values) {
+		IItemCollection items = MockCollections.getNumberCollection(values);
+		Map<IQuantity, Integer> counts = new HashMap<>();
+		for (GroupEntry<IQuantity, CountConsumer> group : items.getAggregate(GroupingAggregator.build("Exact", null,
+				MockAttributes.DOUBLE_VALUE, Aggregators.count(), type -> true))) {
+			counts.put(group.getKey(), group.getConsumer().getCount());
+		}
+		return counts;
+	}
+
+	/**
+	 * Numbers from 0 to keys - 1 where lower numbers are more common, roughly following Zipf's law,
+	 * in random order.
+	 */
+	private static Number[] generateSkewedArray(int n, int keys) {
+		Random random = new Random(4711);
+		double[] cumulative = new double[keys];
+		double sum = 0;
+		for (int i = 0; i < keys; i++) {
+			sum += 1.0 / (i + 1);
+			cumulative[i] = sum;
+		}
+		Number[] values = new Number[n];
+		for (int i = 0; i < n; i++) {
+			int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+			values[i] = index < 0 ? -index - 1 : index;
+		}
+		return values;
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.common.test.xydata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.openjdk.jmc.common.xydata.ITimestampedData;
+import org.openjdk.jmc.common.xydata.TimestampedDataRingBuffer;
+
+public class TimestampedDataRingBufferTest {
+
+	private static void assertContents(TimestampedDataRingBuffer buffer, long first, long last) {
+		long expected = first;
+		for (ITimestampedData data : buffer) {
+			assertEquals(expected, data.getX().longValue());
+			assertEquals(expected, data.getY().doubleValue(), 0);
+			expected++;
+		}
+		assertEquals(last + 1, expected);
+		assertEquals(last - first + 1, buffer.getSize());
+	}
+
+	@Test
+	public void testEmpty() {
+		TimestampedDataRingBuffer buffer = new TimestampedDataRingBuffer(10);
+		assertEquals(0, buffer.getSize());
+		assertNull(buffer.getFirst());
+		assertNull(buffer.getLast());
+		assertFalse(buffer.iterator().hasNext());
+	}
+
+	@Test
+	public void testWrapAround() {
+		TimestampedDataRingBuffer buffer = new TimestampedDataRingBuffer(3000);
+		for (int i = 0; i < 10000; i++) {
+			buffer.add(i, i);
+		}
+		assertContents(buffer, 7000, 9999);
+		assertEquals(7000, buffer.getFirst().getX().longValue());
+		assertEquals(9999, buffer.getLast().getX().longValue());
+	}
+
+	@Test
+	public void testSetMaxSize() {
+		TimestampedDataRingBuffer buffer = new TimestampedDataRingBuffer(3000);
+		for (int i = 0; i < 2000; i++) {
+			buffer.add(i, i);
+		}
+		buffer.setMaxSize(500);
+		assertContents(buffer, 1500, 1999);
+		buffer.setMaxSize(5000);
+		for (int i = 2000; i < 8000; i++) {
+			buffer.add(i, i);
+		}
+		assertContents(buffer, 3000, 7999);
+	}
+
+	@Test
+	public void testSnapshotIterator() {
+		TimestampedDataRingBuffer buffer = new TimestampedDataRingBuffer(100);
+		for (int i = 0; i < 10; i++) {
+			buffer.add(i, i);
+		}
+		Iterator<ITimestampedData> it = buffer.iterator();
+		buffer.add(10, 10);
+		int count = 0;
+		while (it.hasNext()) {
+			it.next();
+			count++;
+		}
+		assertEquals(10, count);
+	}
+
+	@Test
+	public void testOverwrittenDataIsSkipped() {
+		TimestampedDataRingBuffer buffer = new TimestampedDataRingBuffer(10);
+		for (int i = 0; i < 10; i++) {
+			buffer.add(i, i);
+		}
+		Iterator<ITimestampedData> it = buffer.iterator();
+		assertEquals(0, it.next().getX().longValue());
+		for (int i = 10; i < 15; i++) {
+			buffer.add(i, i);
+		}
+		// Data points 1 to 4 have been overwritten, data added after the snapshot is not returned
+		long expected = 5;
+		while (it.hasNext()) {
+			assertEquals(expected++, it.next().getX().longValue());
+		}
+		assertEquals(10, expected);
+	}
+
+	@Test
+	public void testConcurrentReaders() throws Exception {
+		TimestampedDataRingBuffer buffer = new TimestampedDataRingBuffer(5000);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread writer = new Thread(() -> {
+			for (int i = 0; i < 2000000; i++) {
+				buffer.add(i, i);
+			}
+		});
+		writer.start();
+		Thread[] readers = new Thread[2];
+		for (int r = 0; r < readers.length; r++) {
+			readers[r] = new Thread(() -> {
+				try {
+					while (writer.isAlive()) {
+						long previous = -1;
+						for (ITimestampedData data : buffer) {
+							long x = data.getX().longValue();
+							assertEquals(x, data.getY().doubleValue(), 0);
+							assertTrue(x > previous);
+							previous = x;
+						}
+					}
+				} catch (Throwable t) {
+					failure.set(t);
+				}
+			});
+			readers[r].start();
+		}
+		writer.join();
+		for (Thread reader : readers) {
+			reader.join();
+		}
+		if (failure.get() != null) {
+			throw new AssertionError(failure.get());
+		}
+		assertContents(buffer, 1995000, 1999999);
+	}
+}
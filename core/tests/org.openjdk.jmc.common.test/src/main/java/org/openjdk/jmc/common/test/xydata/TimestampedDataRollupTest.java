@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.common.test.xydata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.openjdk.jmc.common.xydata.AggregatedTimestampedData;
+import org.openjdk.jmc.common.xydata.ITimestampedData;
+import org.openjdk.jmc.common.xydata.TimestampedDataRollup;
+
+public class TimestampedDataRollupTest {
+
+	private static final long SECOND = 1000L * 1000L * 1000L;
+	private static final long MINUTE = 60 * SECOND;
+	private static final long HOUR = 60 * MINUTE;
+
+	private static List<AggregatedTimestampedData> toList(Iterator<ITimestampedData> it) {
+		List<AggregatedTimestampedData> list = new ArrayList<>();
+		while (it.hasNext()) {
+			list.add((AggregatedTimestampedData) it.next());
+		}
+		return list;
+	}
+
+	@Test
+	public void testAggregation() {
+		TimestampedDataRollup rollup = new TimestampedDataRollup(HOUR, MINUTE);
+		for (int i = 0; i < 120; i++) {
+			rollup.add(i * SECOND, i);
+		}
+		List<AggregatedTimestampedData> buckets = toList(rollup.createIterator(0, 0, 2 * MINUTE));
+		assertEquals(2, buckets.size());
+		AggregatedTimestampedData first = buckets.get(0);
+		assertEquals(30 * SECOND, first.getX().longValue());
+		assertEquals(0, first.getMin(), 0);
+		assertEquals(59, first.getMax(), 0);
+		assertEquals(29.5, first.getY().doubleValue(), 0.0001);
+		assertEquals(60, first.getCount());
+		// The second bucket is still open
+		AggregatedTimestampedData second = buckets.get(1);
+		assertEquals(60, second.getMin(), 0);
+		assertEquals(119, second.getMax(), 0);
+	}
+
+	@Test
+	public void testSelectLevel() {
+		TimestampedDataRollup rollup = new TimestampedDataRollup(24 * HOUR,
+				TimestampedDataRollup.DEFAULT_BUCKET_WIDTHS);
+		for (long t = 0; t < 24 * HOUR; t += SECOND) {
+			rollup.add(t, 1);
+		}
+		// A day fits 24 hour buckets, 1440 minute buckets and 8640 ten second buckets
+		assertEquals(2, rollup.selectLevel(0, 24 * HOUR, 20));
+		assertEquals(1, rollup.selectLevel(0, 24 * HOUR, 1000));
+		assertEquals(0, rollup.selectLevel(0, 24 * HOUR, 2000));
+		assertEquals(-1, rollup.selectLevel(0, 10 * SECOND, 1000));
+		// The interval is limited to the available data
+		assertEquals(1, rollup.selectLevel(Long.MIN_VALUE, Long.MAX_VALUE, 1000));
+	}
+
+	@Test
+	public void testRetention() {
+		TimestampedDataRollup rollup = new TimestampedDataRollup(10 * MINUTE, MINUTE);
+		for (long t = 0; t < HOUR; t += SECOND) {
+			rollup.add(t, 1);
+		}
+		assertEquals(49 * MINUTE, rollup.getDataStart(0));
+		List<AggregatedTimestampedData> buckets = toList(rollup.createIterator(0, Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(11, buckets.size());
+	}
+
+	@Test
+	public void testDataEnd() {
+		TimestampedDataRollup rollup = new TimestampedDataRollup(HOUR, MINUTE, HOUR);
+		assertEquals(Long.MIN_VALUE, rollup.getDataEnd(0));
+		rollup.add(90 * SECOND, 1);
+		// The open bucket is included
+		assertEquals(2 * MINUTE, rollup.getDataEnd(0));
+		assertEquals(HOUR, rollup.getDataEnd(1));
+		rollup.closeBuckets();
+		assertEquals(2 * MINUTE, rollup.getDataEnd(0));
+
+		TimestampedDataRollup restored = new TimestampedDataRollup(HOUR, MINUTE, HOUR);
+		restored.addBucket(0, MINUTE, 1, 1, 1, 1);
+		assertEquals(2 * MINUTE, restored.getDataEnd(0));
+		assertEquals(Long.MIN_VALUE, restored.getDataEnd(1));
+	}
+
+	@Test
+	public void testClosedBucketsAndRestore() {
+		final List<long[]> closed = new ArrayList<>();
+		TimestampedDataRollup rollup = new TimestampedDataRollup(0, SECOND, MINUTE) {
+			@Override
+			protected void bucketClosed(int level, long start, double min, double max, double sum, long count) {
+				closed.add(new long[] {level, start, (long) min, (long) max, (long) sum, count});
+			}
+		};
+		rollup.add(0, 1);
+		rollup.add(SECOND / 2, 3);
+		rollup.add(SECOND, 5);
+		assertEquals(1, closed.size());
+		rollup.closeBuckets();
+		assertEquals(3, closed.size());
+
+		TimestampedDataRollup restored = new TimestampedDataRollup(HOUR, SECOND, MINUTE);
+		for (long[] b : closed) {
+			restored.addBucket((int) b[0], b[1], b[2], b[3], b[4], b[5]);
+		}
+		List<AggregatedTimestampedData> minutes = toList(restored.createIterator(1, 0, MINUTE));
+		assertEquals(1, minutes.size());
+		assertEquals(1, minutes.get(0).getMin(), 0);
+		assertEquals(5, minutes.get(0).getMax(), 0);
+		assertEquals(3, minutes.get(0).getCount());
+		assertEquals(2, toList(restored.createIterator(0, 0, MINUTE)).size());
+	}
+
+	@Test
+	public void testSnapshotIsolation() {
+		TimestampedDataRollup rollup = new TimestampedDataRollup(HOUR, SECOND);
+		rollup.add(0, 1);
+		Iterator<ITimestampedData> it = rollup.createIterator(0, 0, HOUR);
+		rollup.add(SECOND, 2);
+		rollup.add(2 * SECOND, 3);
+		assertTrue(it.hasNext());
+		it.next();
+		assertFalse(it.hasNext());
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.test.rules.jdk.combine;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.openjdk.jmc.flightrecorder.rules.jdk.combine.Combinable;
+import org.openjdk.jmc.flightrecorder.rules.jdk.combine.Combiner;
+
+/**
+ * Compares the time taken by {@link Combiner#combine(Combinable[])} and by the straightforward
+ * implementation in {@link CombinerTest} for the spans used by the tests, and prints the median of
+ * five runs for each.
+ */
+@SuppressWarnings("nls")
+public class CombinerBenchmark {
+
+	public static void main(String[] args) {
+		Random random = new Random(4711);
+		for (int count : new int[] {10000, 100000, 1000000}) {
+			benchmark("duration spans", count, CombinerTest.createDurationSpans(count, random));
+			benchmark("count spans", count, CombinerTest.createCountSpans(count, random));
+			benchmark("limit spans", count, CombinerTest.createLimitSpans(count, random));
+			benchmark("cascading spans", count, CombinerTest.createCascadingSpans(count));
+		}
+	}
+
+	private static <T extends Combinable<T>> void benchmark(String name, int count, T[] spans) {
+		long[] compacting = new long[5];
+		long[] linked = new long[5];
+		for (int i = 0; i < compacting.length; i++) {
+			long start = System.nanoTime();
+			CombinerTest.combineByCompacting(spans.clone());
+			compacting[i] = System.nanoTime() - start;
+			start = System.nanoTime();
+			Combiner.combine(spans.clone());
+			linked[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(compacting);
+		Arrays.sort(linked);
+		System.out.println(String.format("%-16s %8d: compacting %8.2f ms, combiner %8.2f ms", name, count,
+				compacting[compacting.length / 2] / 1e6, linked[linked.length / 2] / 1e6));
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.test.rules.jdk.combine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.openjdk.jmc.flightrecorder.rules.jdk.combine.Combinable;
+import org.openjdk.jmc.flightrecorder.rules.jdk.combine.Combiner;
+import org.openjdk.jmc.flightrecorder.rules.jdk.combine.SpanLimit;
+import org.openjdk.jmc.flightrecorder.rules.jdk.combine.SpanSquare;
+
+/**
+ * Checks that {@link Combiner} gives exactly the same result as the straightforward implementation
+ * that compacts the whole array in each pass.
+ */
+@SuppressWarnings("nls")
+public class CombinerTest {
+
+	@Test
+	public void testSmall() {
+		for (int length = 0; length < 8; length++) {
+			for (long seed = 0; seed < 200; seed++) {
+				assertSameResult(createDurationSpans(length, new Random(seed)), CombinerTest::toString);
+				assertSameResult(createLimitSpans(length, new Random(seed)), CombinerTest::toString);
+			}
+		}
+	}
+
+	@Test
+	public void testDurationSpans() {
+		for (long seed = 0; seed < 20; seed++) {
+			assertSameResult(createDurationSpans(10000, new Random(seed)), CombinerTest::toString);
+		}
+	}
+
+	@Test
+	public void testCountSpans() {
+		for (long seed = 0; seed < 20; seed++) {
+			assertSameResult(createCountSpans(10000, new Random(seed)), CombinerTest::toString);
+		}
+	}
+
+	@Test
+	public void testLimitSpans() {
+		for (long seed = 0; seed < 20; seed++) {
+			assertSameResult(createLimitSpans(10000, new Random(seed)), CombinerTest::toString);
+		}
+	}
+
+	@Test
+	public void testCascadingSpans() {
+		assertSameResult(createCascadingSpans(5000), CombinerTest::toString);
+	}
+
+	private static <T extends Combinable<T>> void assertSameResult(T[] spans, Function<T, String> toString) {
+		T[] expected = spans.clone();
+		int expectedCount = combineByCompacting(expected);
+		T[] actual = spans.clone();
+		int actualCount = Combiner.combine(actual);
+		assertEquals(expectedCount, actualCount);
+		for (int i = 0; i < expectedCount; i++) {
+			assertEquals(toString.apply(expected[i]), toString.apply(actual[i]));
+		}
+	}
+
+	private static String toString(SpanSquare span) {
+		return span.start + " " + span.end + " " + span.mass + " " + span.density;
+	}
+
+	private static String toString(SpanLimit span) {
+		return span.start + " " + span.end + " " + span.value + " " + span.limit;
+	}
+
+	/**
+	 * Events with durations, mostly spread out but sometimes in bursts.
+	 */
+	static SpanSquare[] createDurationSpans(int count, Random random) {
+		SpanSquare[] spans = new SpanSquare[count];
+		long time = 0;
+		for (int i = 0; i < count; i++) {
+			boolean burst = random.nextInt(10) == 0;
+			time += burst ? random.nextInt(10) : random.nextInt(1000);
+			long duration = 1 + (burst ? random.nextInt(1000) : random.nextInt(100));
+			spans[i] = new SpanSquare(time, time + duration);
+			time += duration;
+		}
+		return spans;
+	}
+
+	/**
+	 * Periods between samples of an accumulating counter.
+	 */
+	static SpanSquare[] createCountSpans(int count, Random random) {
+		SpanSquare[] spans = new SpanSquare[count];
+		long time = 0;
+		for (int i = 0; i < count; i++) {
+			long next = time + 1 + random.nextInt(1000);
+			spans[i] = new SpanSquare(time, next, random.nextInt(5) == 0 ? random.nextInt(10000) : random.nextInt(10));
+			time = next;
+		}
+		return spans;
+	}
+
+	static SpanLimit[] createLimitSpans(int count, Random random) {
+		SpanLimit[] spans = new SpanLimit[count];
+		for (int i = 0; i < count; i++) {
+			spans[i] = new SpanLimit(i * 1000L, (i + 1) * 1000L, random.nextDouble(), 0.5);
+		}
+		return spans;
+	}
+
+	/**
+	 * A large value followed by values that are only over the limit when combined with it, so that
+	 * each pass only combines one pair.
+	 */
+	static SpanLimit[] createCascadingSpans(int count) {
+		SpanLimit[] spans = new SpanLimit[count];
+		for (int i = 0; i < count; i++) {
+			spans[i] = new SpanLimit(i * 1000L, (i + 1) * 1000L, i == 0 ? Double.MAX_VALUE : 0, 0.5);
+		}
+		return spans;
+	}
+
+	/**
+	 * The previous implementation of {@link Combiner#combine(Combinable[])}.
+	 */
+	static <T extends Combinable<T>> int combineByCompacting(T[] objects) {
+		int lastIndex = objects.length - 1;
+		while (lastIndex > 0) {
+			int lastKeepIndex = 0;
+			for (int i = 0; i < lastIndex; i++) {
+				int secondIndex = i + 1;
+				if (secondIndex == lastIndex) {
+					objects[lastKeepIndex] = objects[i];
+				} else {
+					T combined = objects[i].combineWith(objects[secondIndex]);
+					if (combined != null) {
+						objects[lastKeepIndex] = combined;
+						i++;
+					} else {
+						objects[lastKeepIndex] = objects[i];
+					}
+				}
+				lastKeepIndex++;
+			}
+			if (lastKeepIndex == lastIndex) {
+				break;
+			}
+			lastIndex = lastKeepIndex;
+		}
+		return lastIndex + 1;
+	}
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.rules.report;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openjdk.jmc.common.item.Aggregators;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.common.util.IPreferenceValueProvider;
+import org.openjdk.jmc.common.util.TypedPreference;
+import org.openjdk.jmc.flightrecorder.jdk.JdkTypeIDs;
+import org.openjdk.jmc.flightrecorder.rules.AbstractRule;
+import org.openjdk.jmc.flightrecorder.rules.DependsOn;
+import org.openjdk.jmc.flightrecorder.rules.IResult;
+import org.openjdk.jmc.flightrecorder.rules.IResultValueProvider;
+import org.openjdk.jmc.flightrecorder.rules.IRule;
+import org.openjdk.jmc.flightrecorder.rules.PopulatedResult;
+import org.openjdk.jmc.flightrecorder.rules.ResultBuilder;
+import org.openjdk.jmc.flightrecorder.rules.ResultToolkit;
+import org.openjdk.jmc.flightrecorder.rules.Severity;
+import org.openjdk.jmc.flightrecorder.rules.TypedResult;
+import org.openjdk.jmc.flightrecorder.rules.util.RulesToolkit.EventAvailability;
+import org.openjdk.jmc.flightrecorder.test.util.RecordingToolkit;
+
+@SuppressWarnings("nls")
+public class RuleResultCacheTest {
+
+	private static final TypedPreference<IQuantity> WARNING_LIMIT = new TypedPreference<>("warning.limit",
+			"Warning limit", "Event count to warn at", UnitLookup.NUMBER, UnitLookup.NUMBER_UNITY.quantity(1000));
+	private static final TypedResult<IQuantity> EVENT_COUNT = new TypedResult<>("eventCount", "Event count",
+			"Number of events", UnitLookup.NUMBER, IQuantity.class);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File recording;
+
+	@Before
+	public void copyRecording() throws Exception {
+		recording = folder.newFile("recording.jfr");
+		try (InputStream in = RecordingToolkit.getNamedRecordingResource("8u60.jfr")) {
+			Files.copy(in, recording.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	@Test
+	public void testCachedResultsAreReused() throws Exception {
+		CountingRule countingRule = new CountingRule("Counting");
+		FailingRule failingRule = new FailingRule();
+		List<IRule> rules = Arrays.<IRule> asList(countingRule, failingRule);
+		RuleResultCache cache = new RuleResultCache(folder.newFolder("cache"));
+
+		Map<IRule, Future<IResult>> first = cache.evaluate(recording, rules, null);
+		Map<IRule, Future<IResult>> second = cache.evaluate(recording, rules, null);
+		assertEquals(1, countingRule.evaluations.get());
+		// Failures are not cached, so only the failing rule is evaluated again
+		assertEquals(2, failingRule.evaluations.get());
+
+		IResult original = first.get(countingRule).get();
+		IResult cached = second.get(countingRule).get();
+		assertTrue(cached instanceof PopulatedResult);
+		assertEquals(original.getSeverity(), cached.getSeverity());
+		assertEquals(original.getResult(TypedResult.SCORE), cached.getResult(TypedResult.SCORE));
+		PopulatedResult populated = PopulatedResult.create(original);
+		assertEquals(populated.getSummary(), cached.getSummary());
+		assertEquals(populated.getExplanation(), cached.getExplanation());
+		assertNull(cached.getSolution());
+		assertEquals(populated.getHtmlSummary(), ((PopulatedResult) cached).getHtmlSummary());
+		assertTrue(cached.getSummary().startsWith("Found "));
+		assertEquals(cached.getSummary(), ResultToolkit.populateMessage(cached, cached.getSummary(), false));
+
+		try {
+			second.get(failingRule).get();
+			fail("Expected the evaluation error");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause().getMessage().contains("Evaluation failed"));
+		}
+	}
+
+	@Test
+	public void testChangedPreferencesInvalidateCache() throws Exception {
+		CountingRule countingRule = new CountingRule("Counting");
+		List<IRule> rules = Collections.<IRule> singletonList(countingRule);
+		RuleResultCache cache = new RuleResultCache(folder.newFolder("cache"));
+
+		cache.evaluate(recording, rules, null);
+		IPreferenceValueProvider lowLimit = new IPreferenceValueProvider() {
+			@SuppressWarnings("unchecked")
+			@Override
+			public <T> T getPreferenceValue(TypedPreference<T> preference) {
+				if (preference == WARNING_LIMIT) {
+					return (T) UnitLookup.NUMBER_UNITY.quantity(1);
+				}
+				return preference.getDefaultValue();
+			}
+		};
+		IResult result = cache.evaluate(recording, rules, lowLimit).get(countingRule).get();
+		assertEquals(2, countingRule.evaluations.get());
+		assertEquals(Severity.WARNING, result.getSeverity());
+
+		cache.evaluate(recording, rules, lowLimit);
+		assertEquals(2, countingRule.evaluations.get());
+	}
+
+	@Test
+	public void testAddedRuleReevaluates() throws Exception {
+		CountingRule first = new CountingRule("First");
+		CountingRule second = new CountingRule("Second");
+		RuleResultCache cache = new RuleResultCache(folder.newFolder("cache"));
+
+		cache.evaluate(recording, Collections.<IRule> singletonList(first), null);
+		Map<IRule, Future<IResult>> results = cache.evaluate(recording, Arrays.<IRule> asList(first, second), null);
+		assertEquals(1, first.evaluations.get());
+		assertEquals(1, second.evaluations.get());
+		assertTrue(results.get(first).get() instanceof PopulatedResult);
+		assertEquals(Severity.OK, results.get(second).get().getSeverity());
+
+		cache.evaluate(recording, Collections.<IRule> singletonList(second), null);
+		cache.evaluate(recording, Collections.<IRule> singletonList(first), null);
+		assertEquals(1, first.evaluations.get());
+		assertEquals(1, second.evaluations.get());
+	}
+
+	@Test
+	public void testDependencyOfMissedRuleReevaluates() throws Exception {
+		CountingRule dependency = new CountingRule(CountingRule.class.getSimpleName());
+		DependentRule dependent = new DependentRule();
+		RuleResultCache cache = new RuleResultCache(folder.newFolder("cache"));
+
+		cache.evaluate(recording, Collections.<IRule> singletonList(dependency), null);
+		Map<IRule, Future<IResult>> results = cache.evaluate(recording, Arrays.<IRule> asList(dependency, dependent),
+				null);
+		// The dependent rule needs the typed results of its dependency, which are not cached
+		assertEquals(2, dependency.evaluations.get());
+		assertEquals(1, dependent.evaluations.get());
+		assertEquals(Severity.OK, results.get(dependent).get().getSeverity());
+	}
+
+	@Test
+	public void testModifiedRecordingReevaluates() throws Exception {
+		CountingRule countingRule = new CountingRule("Counting");
+		List<IRule> rules = Collections.<IRule> singletonList(countingRule);
+		RuleResultCache cache = new RuleResultCache(folder.newFolder("cache"));
+
+		cache.evaluate(recording, rules, null);
+		assertTrue(recording.setLastModified(recording.lastModified() - 60000));
+		cache.evaluate(recording, rules, null);
+		cache.evaluate(recording, rules, null);
+		assertEquals(2, countingRule.evaluations.get());
+	}
+
+	private static class CountingRule extends AbstractRule {
+		final AtomicInteger evaluations = new AtomicInteger();
+
+		CountingRule(String id) {
+			super(id, id, "test", Collections.<TypedPreference<?>> singletonList(WARNING_LIMIT),
+					Arrays.<TypedResult<?>> asList(TypedResult.SCORE, EVENT_COUNT),
+					Collections.<String, EventAvailability> emptyMap());
+		}
+
+		@Override
+		protected IResult getResult(IItemCollection items, IPreferenceValueProvider vp, IResultValueProvider rp) {
+			evaluations.incrementAndGet();
+			IQuantity count = UnitLookup.NUMBER_UNITY.quantity(
+					items.apply(ItemFilters.type(JdkTypeIDs.CPU_LOAD)).getAggregate(Aggregators.count()).longValue());
+			boolean warn = count.compareTo(vp.getPreferenceValue(WARNING_LIMIT)) >= 0;
+			return ResultBuilder.createFor(this, vp).setSeverity(warn ? Severity.WARNING : Severity.OK)
+					.setSummary("Found {eventCount} CPU load events.")
+					.setExplanation("The limit is 'high' & <not> exceeded.")
+					.addResult(TypedResult.SCORE, UnitLookup.NUMBER_UNITY.quantity(warn ? 80 : 10))
+					.addResult(EVENT_COUNT, count).build();
+		}
+	}
+
+	@DependsOn(CountingRule.class)
+	private static class DependentRule extends CountingRule {
+		DependentRule() {
+			super("Dependent");
+		}
+	}
+
+	private static class FailingRule extends AbstractRule {
+		final AtomicInteger evaluations = new AtomicInteger();
+
+		FailingRule() {
+			super("Failing", "Failing", "test", Collections.<TypedPreference<?>> emptyList(),
+					Collections.<TypedResult<?>> emptyList(), Collections.<String, EventAvailability> emptyMap());
+		}
+
+		@Override
+		protected IResult getResult(IItemCollection items, IPreferenceValueProvider vp, IResultValueProvider rp) {
+			evaluations.incrementAndGet();
+			throw new IllegalStateException("Evaluation failed");
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.serializers.json.test;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.openjdk.jmc.common.item.ItemCountMatrix;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.flightrecorder.serializers.json.ItemCountMatrixJsonSerializer;
+import org.openjdk.jmc.test.mock.item.MockAttributes;
+import org.openjdk.jmc.test.mock.item.MockCollections;
+
+@SuppressWarnings("nls")
+public class ItemCountMatrixJsonSerializerTest {
+
+	@Test
+	public void testSerializeMatrix() {
+		ItemCountMatrix matrix = ItemCountMatrix.build(
+				MockCollections.getNumberCollection(new Number[] {1, 5, 12, 25, 26, 29}), MockAttributes.DOUBLE_VALUE,
+				UnitLookup.NUMBER_UNITY.quantity(10), MockAttributes.INDEX_VALUE, 2, () -> false);
+		String expected = "{\n" + "  \"xStart\": 0, \n" + "  \"xUnit\": \"\", \n" + "  \"xBucketSize\": 10, \n"
+				+ "  \"yStart\": 0, \n" + "  \"yUnit\": \"\", \n" + "  \"yBucketSize\": 2.5, \n" + "  \"total\": 6, \n"
+				+ "  \"counts\": [[2, 0], [1, 0], [0, 3]]\n" + "}";
+		assertEquals(expected, ItemCountMatrixJsonSerializer.toJsonString(matrix).replaceAll("\\r\\n", "\n"));
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.internal.parser.v1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+import org.openjdk.jmc.common.io.IOToolkit;
+import org.openjdk.jmc.common.item.IAccessorKey;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.flightrecorder.internal.EventArray;
+import org.openjdk.jmc.flightrecorder.internal.EventArrays;
+import org.openjdk.jmc.flightrecorder.internal.FlightRecordingLoader;
+import org.openjdk.jmc.flightrecorder.internal.IChunkLoader;
+import org.openjdk.jmc.flightrecorder.internal.IChunkSupplier;
+import org.openjdk.jmc.flightrecorder.internal.parser.Chunk;
+import org.openjdk.jmc.flightrecorder.internal.parser.LoaderContext;
+import org.openjdk.jmc.flightrecorder.parser.ParserExtensionRegistry;
+import org.openjdk.jmc.flightrecorder.test.util.RecordingToolkit;
+import org.openjdk.jmc.test.io.IOResource;
+
+@SuppressWarnings("nls")
+public class ChunkLoaderV1Test {
+	// Small enough to split every chunk of the test recordings into several segments
+	private static final long MIN_SEGMENT_SIZE = 4096;
+	private static final int MAX_SEGMENT_COUNT = 8;
+
+	@Test
+	public void testSegmentedLoadMatchesSequentialLoad() throws Exception {
+		assertSegmentedLoadMatchesSequentialLoad(Executors.newCachedThreadPool());
+	}
+
+	@Test
+	public void testQueuedSegmentsMatchSequentialLoad() throws Exception {
+		// With one thread most segments stay queued and are read by the loader thread
+		assertSegmentedLoadMatchesSequentialLoad(Executors.newSingleThreadExecutor());
+	}
+
+	private static void assertSegmentedLoadMatchesSequentialLoad(ExecutorService executor) throws Exception {
+		int comparedRecordings = 0;
+		try {
+			for (IOResource resource : RecordingToolkit.getRecordings()) {
+				EventArrays sequential = load(resource, null);
+				if (sequential == null) {
+					continue;
+				}
+				EventArrays segmented = load(resource, executor);
+				assertSameEvents(resource.getName(), sequential, segmented);
+				comparedRecordings++;
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertTrue(comparedRecordings > 0);
+	}
+
+	/**
+	 * @return the events of the recording, or {@code null} if it is not in the version 1 or 2
+	 *         format
+	 */
+	private static EventArrays load(IOResource resource, ExecutorService executor) throws Exception {
+		LoaderContext context = new LoaderContext(ParserExtensionRegistry.getParserExtensions(), false);
+		try (InputStream in = IOToolkit.openUncompressedStream(resource.open())) {
+			IChunkSupplier chunkSupplier = FlightRecordingLoader.createChunkSupplier(in);
+			byte[] buffer = new byte[0];
+			Chunk chunk;
+			while ((chunk = chunkSupplier.getNextChunk(buffer)) != null) {
+				if (chunk.getMajorVersion() < 1) {
+					return null;
+				}
+				context.setVersion(chunk.getMajorVersion(), chunk.getMinorVersion());
+				IChunkLoader loader = ChunkLoaderV1.create(chunk, context, executor, MIN_SEGMENT_SIZE,
+						MAX_SEGMENT_COUNT);
+				buffer = loader.call();
+			}
+		}
+		return context.buildEventArrays();
+	}
+
+	private static void assertSameEvents(String recording, EventArrays expected, EventArrays actual) {
+		assertEquals(recording, expected.getParserStats().getChunkCount(), actual.getParserStats().getChunkCount());
+		assertEquals(recording, expected.getParserStats().getSkippedEventCount(),
+				actual.getParserStats().getSkippedEventCount());
+		assertEquals(recording, getEventStats(expected), getEventStats(actual));
+		assertEquals(recording, getEvents(expected), getEvents(actual));
+	}
+
+	private static Map<String, String> getEventStats(EventArrays events) {
+		Map<String, String> stats = new TreeMap<>();
+		events.getParserStats().forEachEventType(
+				s -> stats.put(s.getName(), s.getCount() + " events, " + s.getTotalSize() + " bytes"));
+		return stats;
+	}
+
+	/**
+	 * Describes the events of each type. Types that are defined differently in different chunks get
+	 * a random suffix on their identifier, so the identifier is used without the suffix. Duration
+	 * events are split into arrays of non-overlapping events depending on the order they were read
+	 * in, so the events are sorted on their description.
+	 */
+	private static Map<String, List<String>> getEvents(EventArrays events) {
+		Map<String, List<String>> descriptions = new TreeMap<>();
+		for (EventArray array : events.getArrays()) {
+			IType<IItem> type = array.getType();
+			String identifier = type.getIdentifier()
+					.replaceFirst("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$", "");
+			List<String> typeDescriptions = descriptions.computeIfAbsent(identifier, k -> new ArrayList<>());
+			for (IItem event : array.getEvents()) {
+				StringBuilder description = new StringBuilder();
+				for (IAccessorKey<?> key : type.getAccessorKeys().keySet()) {
+					description.append(key.getIdentifier()).append('=').append(type.getAccessor(key).getMember(event))
+							.append(", ");
+				}
+				typeDescriptions.add(description.toString());
+			}
+		}
+		descriptions.values().forEach(Collections::sort);
+		return descriptions;
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openjdk.jmc.common.item.Aggregators;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IRange;
+import org.openjdk.jmc.common.unit.QuantityRange;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.JfrLoaderToolkit;
+import org.openjdk.jmc.flightrecorder.internal.ChunkedItemCollection;
+import org.openjdk.jmc.flightrecorder.internal.EventArrays;
+import org.openjdk.jmc.flightrecorder.internal.FlightRecordingLoader;
+import org.openjdk.jmc.flightrecorder.jdk.JdkAttributes;
+import org.openjdk.jmc.flightrecorder.parser.ParserExtensionRegistry;
+import org.openjdk.jmc.flightrecorder.stacktrace.FrameFilter;
+import org.openjdk.jmc.flightrecorder.test.util.RecordingToolkit;
+
+public class ChunkedItemCollectionTest {
+	private static final String RECORDING = "flush_metadata.jfr";
+	private static final int CHUNK_COUNT = 2;
+
+	private static File recordingFile;
+	private static IItemCollection fullyLoaded;
+
+	@BeforeClass
+	public static void setUp() throws IOException, CouldNotLoadRecordingException {
+		recordingFile = File.createTempFile("chunked", ".jfr");
+		try (InputStream in = RecordingToolkit.getNamedRecordingResource(RECORDING)) {
+			Files.copy(in, recordingFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		fullyLoaded = JfrLoaderToolkit.loadEvents(recordingFile);
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		recordingFile.delete();
+	}
+
+	private static ChunkedItemCollection load(long maxLoadedBytes) throws IOException, CouldNotLoadRecordingException {
+		return ChunkedItemCollection.load(null, recordingFile, maxLoadedBytes,
+				ParserExtensionRegistry.getParserExtensions(), false, false, FrameFilter.EXCLUDE_HIDDEN);
+	}
+
+	private static long count(IItemCollection items) {
+		return items.getAggregate(Aggregators.count()).longValue();
+	}
+
+	private static Set<String> typeIds(IItemCollection items) {
+		Set<String> types = new HashSet<>();
+		for (IItemIterable ii : items) {
+			if (ii.hasItems()) {
+				types.add(ii.getType().getIdentifier());
+			}
+		}
+		return types;
+	}
+
+	@Test
+	public void testSameItemsAsFullLoad() throws IOException, CouldNotLoadRecordingException {
+		AtomicInteger parsedChunks = new AtomicInteger();
+		ChunkedItemCollection chunked = ChunkedItemCollection.load(parsedChunks::incrementAndGet, recordingFile, 1,
+				ParserExtensionRegistry.getParserExtensions(), false, false, FrameFilter.EXCLUDE_HIDDEN);
+		assertEquals(CHUNK_COUNT, parsedChunks.get());
+		assertEquals(CHUNK_COUNT, chunked.getChunks().size());
+		assertEquals(fullyLoaded.getUnfilteredTimeRanges(), chunked.getUnfilteredTimeRanges());
+		assertEquals(count(fullyLoaded), count(chunked));
+		Set<String> types = typeIds(fullyLoaded);
+		assertEquals(types, typeIds(chunked));
+		for (String type : types) {
+			assertEquals(type, count(fullyLoaded.apply(ItemFilters.type(type))),
+					count(chunked.apply(ItemFilters.type(type))));
+		}
+	}
+
+	@Test
+	public void testEvictsChunksOverBudget() throws IOException, CouldNotLoadRecordingException {
+		ChunkedItemCollection chunked = load(1);
+		assertEquals(CHUNK_COUNT, chunked.getChunkLoadCount());
+		// Only the last chunk is kept, so loading the first one again evicts the last one
+		count(chunked);
+		assertEquals(CHUNK_COUNT * 2, chunked.getChunkLoadCount());
+	}
+
+	@Test
+	public void testTypesAreSharedBetweenReloads() throws IOException, CouldNotLoadRecordingException {
+		ChunkedItemCollection chunked = load(1);
+		Map<String, IType<?>> types = new HashMap<>();
+		for (int i = 0; i < 2; i++) {
+			// Each iteration reloads all chunks
+			for (IItemIterable ii : chunked) {
+				IType<?> previous = types.putIfAbsent(ii.getType().getIdentifier(), ii.getType());
+				if (previous != null) {
+					assertSame(previous, ii.getType());
+				}
+			}
+		}
+		assertEquals(CHUNK_COUNT * 3, chunked.getChunkLoadCount());
+	}
+
+	@Test
+	public void testKeepsChunksWithinBudget() throws IOException, CouldNotLoadRecordingException {
+		ChunkedItemCollection chunked = load(Long.MAX_VALUE);
+		count(chunked);
+		count(chunked);
+		assertEquals(CHUNK_COUNT, chunked.getChunkLoadCount());
+	}
+
+	@Test
+	public void testSelectRange() throws IOException, CouldNotLoadRecordingException {
+		ChunkedItemCollection chunked = load(1);
+		IQuantity start = chunked.getChunks().get(0).getChunkRange().getStart();
+		IRange<IQuantity> range = QuantityRange.createWithExtent(start, UnitLookup.SECOND.quantity(1));
+		ChunkedItemCollection selected = chunked.selectRange(range);
+		assertEquals(count(fullyLoaded.apply(ItemFilters.rangeIntersects(JfrAttributes.LIFETIME, range))),
+				count(selected));
+		assertTrue(selected.getChunks().size() < CHUNK_COUNT);
+	}
+
+	@Test
+	public void testConstantPoolsMatchFullLoad() throws IOException, CouldNotLoadRecordingException {
+		EventArrays events;
+		try (InputStream in = new FileInputStream(recordingFile)) {
+			events = FlightRecordingLoader.loadStream(in, false, false);
+		}
+		Map<String, String> expected = poolStats(events.getConstantPools());
+		assertTrue(!expected.isEmpty());
+		assertEquals(expected, poolStats(load(1).getConstantPools()));
+	}
+
+	private static Map<String, String> poolStats(IItemCollection pools) {
+		Map<String, String> stats = new HashMap<>();
+		for (IItemIterable ii : pools) {
+			@SuppressWarnings("unchecked")
+			IType<IItem> type = (IType<IItem>) ii.getType();
+			IMemberAccessor<?, IItem> name = type.getAccessor(JdkAttributes.CONSTANT_POOLS_NAME.getKey());
+			IMemberAccessor<?, IItem> count = type.getAccessor(JdkAttributes.CONSTANT_POOLS_COUNT.getKey());
+			IMemberAccessor<?, IItem> size = type.getAccessor(JdkAttributes.CONSTANT_POOLS_SIZE.getKey());
+			for (IItem item : ii) {
+				stats.put(String.valueOf(name.getMember(item)), count.getMember(item) + " " + size.getMember(item));
+			}
+		}
+		return stats;
+	}
+
+	@Test
+	public void testPruneChunksByType() throws IOException, CouldNotLoadRecordingException {
+		ChunkedItemCollection chunked = load(1);
+		assertEquals(0, chunked.apply(ItemFilters.type("no.such.Type")).getChunks().size());
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+import org.openjdk.jmc.common.io.IOToolkit;
+import org.openjdk.jmc.common.item.Aggregators;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrLoaderToolkit;
+import org.openjdk.jmc.flightrecorder.internal.EventArray;
+import org.openjdk.jmc.flightrecorder.internal.EventArrays;
+import org.openjdk.jmc.flightrecorder.internal.InvalidJfrFileException;
+import org.openjdk.jmc.flightrecorder.test.util.RecordingToolkit;
+
+public class CompressedStreamLoadingTest {
+	private static final String RECORDING = "flush_metadata.jfr";
+	private static final int CHUNK_COUNT = 2;
+
+	private static byte[] readRecording() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (InputStream in = RecordingToolkit.getNamedRecordingResource(RECORDING)) {
+			IOToolkit.copy(in, out);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream gz = new GZIPOutputStream(out)) {
+			gz.write(data);
+		}
+		return out.toByteArray();
+	}
+
+	private static long count(IItemCollection items) {
+		return items.getAggregate(Aggregators.count()).longValue();
+	}
+
+	private static long count(EventArrays events) {
+		long count = 0;
+		for (EventArray array : events.getArrays()) {
+			count += array.getEvents().length;
+		}
+		return count;
+	}
+
+	@Test
+	public void testLoadGzippedStream() throws IOException, CouldNotLoadRecordingException {
+		byte[] recording = readRecording();
+		long expected = count(JfrLoaderToolkit.loadEvents(new ByteArrayInputStream(recording)));
+		AtomicInteger loadedChunks = new AtomicInteger();
+		EventArrays events = JfrLoaderToolkit.loadStream(loadedChunks::incrementAndGet,
+				new ByteArrayInputStream(gzip(recording)), false, false, true);
+		assertEquals(CHUNK_COUNT, loadedChunks.get());
+		assertEquals(expected, count(events));
+	}
+
+	@Test
+	public void testIgnoreTruncatedChunk() throws IOException, CouldNotLoadRecordingException {
+		byte[] recording = readRecording();
+		byte[] truncated = Arrays.copyOf(recording, recording.length - 100);
+		AtomicInteger loadedChunks = new AtomicInteger();
+		EventArrays events = JfrLoaderToolkit.loadStream(loadedChunks::incrementAndGet,
+				new ByteArrayInputStream(gzip(truncated)), false, true, true);
+		assertEquals(CHUNK_COUNT - 1, loadedChunks.get());
+		assertTrue(count(events) > 0);
+	}
+
+	@Test
+	public void testStreamIsNotClosed() throws IOException, CouldNotLoadRecordingException {
+		AtomicBoolean closed = new AtomicBoolean();
+		InputStream stream = new ByteArrayInputStream(gzip(readRecording())) {
+			@Override
+			public void close() throws IOException {
+				closed.set(true);
+				super.close();
+			}
+		};
+		JfrLoaderToolkit.loadStream(null, stream, false, false, true);
+		assertFalse(closed.get());
+	}
+
+	@Test(expected = InvalidJfrFileException.class)
+	public void testDataAfterLastChunk() throws IOException, CouldNotLoadRecordingException {
+		byte[] recording = readRecording();
+		byte[] withGarbage = Arrays.copyOf(recording, recording.length + 100);
+		Arrays.fill(withGarbage, recording.length, withGarbage.length, (byte) 'x');
+		JfrLoaderToolkit.loadStream(null, new ByteArrayInputStream(gzip(withGarbage)), false, false, true);
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedChunk() throws IOException, CouldNotLoadRecordingException {
+		byte[] recording = readRecording();
+		byte[] truncated = Arrays.copyOf(recording, recording.length - 100);
+		JfrLoaderToolkit.loadStream(null, new ByteArrayInputStream(gzip(truncated)), false, false, true);
+	}
+}
@@ -36,14 +36,27 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.openjdk.jmc.common.IMCThread;
+import org.openjdk.jmc.common.item.Aggregators;
+import org.openjdk.jmc.common.item.IItem;
 import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.item.ItemToolkit;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IRange;
+import org.openjdk.jmc.common.unit.QuantityRange;
+import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
 import org.openjdk.jmc.flightrecorder.JfrLoaderToolkit;
 import org.openjdk.jmc.flightrecorder.parser.IParserExtension;
 import org.openjdk.jmc.flightrecorder.parser.ParserExtensionRegistry;
@@ -88,6 +101,127 @@ public class FilteredRecordingTest {
 				"Expected event types matching '" + JVM_INFORMATION_REGEXP + "'");
 	}
 
+	@Test
+	public void testTimeRangeFilter() throws IOException, CouldNotLoadRecordingException {
+		for (IOResourceSet resourceSet : PrintoutsToolkit.getTestResources()) {
+			IItemCollection allItems = loadEvents(resourceSet, null);
+			IQuantity first = allItems.getAggregate(Aggregators.min(JfrAttributes.START_TIME));
+			IQuantity last = allItems.getAggregate(Aggregators.max(JfrAttributes.END_TIME));
+			if (first == null || last == null) {
+				continue;
+			}
+			IQuantity extent = last.subtract(first);
+			IQuantity start = first.add(extent.multiply(0.4));
+			IQuantity end = first.add(extent.multiply(0.6));
+			IRange<IQuantity> window = QuantityRange.createWithEnd(start, end);
+			IItemCollection filteredItems = loadEvents(resourceSet, OnLoadFilters.includeTimeRange(window));
+			String recording = " (Recording: " + resourceSet.getResource(0).getName() + ")";
+			// Events that end within the time range are in chunks that overlap the time range
+			Assert.assertEquals("Events ending in the time range" + recording,
+					countEvents(allItems, item -> endsIn(item, window)),
+					countEvents(filteredItems, item -> endsIn(item, window)));
+			long filteredCount = countEvents(filteredItems, item -> true);
+			Assert.assertEquals("Events overlapping the time range" + recording, filteredCount,
+					countEvents(filteredItems, item -> overlaps(item, window)));
+			Assert.assertTrue("Expected some events to be filtered out" + recording,
+					filteredCount < countEvents(allItems, item -> true));
+		}
+	}
+
+	@Test
+	public void testTimeRangeFilterOutsideRecording() throws IOException, CouldNotLoadRecordingException {
+		IRange<IQuantity> window = QuantityRange.createWithEnd(UnitLookup.EPOCH_MS.quantity(0),
+				UnitLookup.EPOCH_MS.quantity(1000));
+		for (IOResourceSet resourceSet : PrintoutsToolkit.getTestResources()) {
+			IItemCollection items = loadEvents(resourceSet, OnLoadFilters.includeTimeRange(window));
+			Assert.assertFalse(
+					"Expected all chunks to be skipped (Recording: " + resourceSet.getResource(0).getName() + ")",
+					items.hasItems());
+		}
+	}
+
+	@Test
+	public void testThreadFilter() throws IOException, CouldNotLoadRecordingException {
+		for (IOResourceSet resourceSet : PrintoutsToolkit.getTestResources()) {
+			IItemCollection allItems = loadEvents(resourceSet, null);
+			Set<IMCThread> threads = allItems.getAggregate(Aggregators.distinct(JfrAttributes.EVENT_THREAD));
+			Long threadId = null;
+			for (IMCThread thread : threads) {
+				if (thread.getThreadId() != null) {
+					threadId = thread.getThreadId();
+					break;
+				}
+			}
+			if (threadId == null) {
+				continue;
+			}
+			Long includedId = threadId;
+			IItemCollection filteredItems = loadEvents(resourceSet,
+					OnLoadFilters.includeThreads(Collections.singleton(includedId)));
+			String recording = " (Recording: " + resourceSet.getResource(0).getName() + ")";
+			Assert.assertEquals("Events in thread " + includedId + recording,
+					countEvents(allItems, item -> inThread(item, includedId)),
+					countEvents(filteredItems, item -> inThread(item, includedId)));
+			Assert.assertTrue("Expected some events to be filtered out" + recording,
+					countEvents(filteredItems, item -> true) < countEvents(allItems, item -> true));
+		}
+	}
+
+	private static IItemCollection loadEvents(IOResourceSet resourceSet, IOnLoadFilter onLoadFilter)
+			throws IOException, CouldNotLoadRecordingException {
+		try (InputStream recordingStream = resourceSet.getResource(0).open()) {
+			List<IParserExtension> extensions = new ArrayList<>(ParserExtensionRegistry.getParserExtensions());
+			if (onLoadFilter != null) {
+				extensions.add(new FilterExtension(onLoadFilter));
+			}
+			return JfrLoaderToolkit.loadEvents(recordingStream, extensions, true);
+		}
+	}
+
+	private static long countEvents(IItemCollection items, Predicate<IItem> predicate) {
+		long count = 0;
+		for (IItemIterable ii : items) {
+			for (IItem item : ii) {
+				if (predicate.test(item)) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	private static boolean endsIn(IItem item, IRange<IQuantity> range) {
+		IMemberAccessor<IQuantity, IItem> endAccessor = JfrAttributes.END_TIME
+				.getAccessor(ItemToolkit.getItemType(item));
+		if (endAccessor == null) {
+			return true;
+		}
+		IQuantity end = endAccessor.getMember(item);
+		return end.compareTo(range.getStart()) >= 0 && end.compareTo(range.getEnd()) <= 0;
+	}
+
+	private static boolean overlaps(IItem item, IRange<IQuantity> range) {
+		IMemberAccessor<IQuantity, IItem> startAccessor = JfrAttributes.START_TIME
+				.getAccessor(ItemToolkit.getItemType(item));
+		IMemberAccessor<IQuantity, IItem> endAccessor = JfrAttributes.END_TIME
+				.getAccessor(ItemToolkit.getItemType(item));
+		if (startAccessor == null || endAccessor == null) {
+			return true;
+		}
+		return endAccessor.getMember(item).compareTo(range.getStart()) >= 0
+				&& startAccessor.getMember(item).compareTo(range.getEnd()) <= 0;
+	}
+
+	private static boolean inThread(IItem item, Long threadId) {
+		IMemberAccessor<IMCThread, IItem> accessor = JfrAttributes.EVENT_THREAD
+				.getAccessor(ItemToolkit.getItemType(item));
+		if (accessor == null) {
+			return false;
+		}
+		IMCThread thread = accessor.getMember(item);
+		return thread != null && threadId.equals(thread.getThreadId());
+	}
+
 	private void checkFilter(
 		IOnLoadFilter onLoadFilter, String typeToCheck, boolean expect, String unexpectedAfterFilterString)
 			throws IOException, CouldNotLoadRecordingException, AssertionError {
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openjdk.jmc.common.IMCFrame;
+import org.openjdk.jmc.common.IMCPackage;
+import org.openjdk.jmc.common.IMCStackTrace;
+import org.openjdk.jmc.common.IMCType;
+import org.openjdk.jmc.common.item.Aggregators;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.util.FormatToolkit;
+import org.openjdk.jmc.common.util.MethodToolkit;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.jdk.JdkFilters;
+import org.openjdk.jmc.flightrecorder.stacktrace.PackageDependencies;
+import org.openjdk.jmc.flightrecorder.stacktrace.PackageDependencies.Edge;
+import org.openjdk.jmc.flightrecorder.test.util.RecordingToolkit;
+
+@SuppressWarnings("nls")
+public class PackageDependenciesTest {
+
+	private static IItemCollection recording;
+
+	@BeforeClass
+	public static void beforeAll() throws IOException, CouldNotLoadRecordingException {
+		recording = RecordingToolkit.getNamedRecording("metadata_new.jfr");
+	}
+
+	@Test
+	public void testEdgesMatchStacktraces() {
+		IItemCollection samples = recording.apply(JdkFilters.EXECUTION_SAMPLE);
+		Map<String, Long> expected = new HashMap<>();
+		for (IItemIterable iterable : samples) {
+			IMemberAccessor<IMCStackTrace, IItem> accessor = JfrAttributes.EVENT_STACKTRACE
+					.getAccessor(iterable.getType());
+			for (IItem item : iterable) {
+				List<? extends IMCFrame> frames = accessor.getMember(item).getFrames();
+				for (int i = frames.size() - 1; i > 0; i--) {
+					String source = truncate(getPackage(frames.get(i)), 2);
+					String target = truncate(getPackage(frames.get(i - 1)), 2);
+					expected.merge(source + " " + target, 1L, Long::sum);
+				}
+			}
+		}
+
+		PackageDependencies dependencies = PackageDependencies.build(samples, 2, () -> false);
+		assertEquals(samples.getAggregate(Aggregators.count()).longValue(), dependencies.getItemCount());
+		assertEquals(expected.size(), dependencies.getEdges().size());
+		long previous = Long.MAX_VALUE;
+		for (Edge edge : dependencies.getEdges()) {
+			assertEquals(expected.get(edge.getSource() + " " + edge.getTarget()).longValue(), edge.getCount());
+			assertTrue(edge.getCount() <= previous);
+			assertTrue(dependencies.getPackages().contains(edge.getSource()));
+			assertTrue(dependencies.getPackages().contains(edge.getTarget()));
+			previous = edge.getCount();
+		}
+	}
+
+	@Test
+	public void testPackageDepth() {
+		PackageDependencies dependencies = PackageDependencies.build(recording.apply(JdkFilters.EXECUTION_SAMPLE), 1,
+				() -> false);
+		for (String name : dependencies.getPackages()) {
+			assertTrue(name, name.indexOf('.') < 0);
+		}
+	}
+
+	@Test
+	public void testStopped() {
+		assertNull(PackageDependencies.build(recording, 2, () -> true));
+	}
+
+	private static String getPackage(IMCFrame frame) {
+		IMCType type = frame.getMethod().getType();
+		IMCPackage mcPackage = type.getPackage();
+		if (mcPackage.getName() == null) {
+			mcPackage = MethodToolkit.typeFromBinaryJLS(type.getFullName()).getPackage();
+		}
+		return FormatToolkit.getPackage(mcPackage);
+	}
+
+	private static String truncate(String name, int depth) {
+		String[] parts = name.split("\\.");
+		return String.join(".", Arrays.copyOf(parts, Math.min(depth, parts.length)));
+	}
+}
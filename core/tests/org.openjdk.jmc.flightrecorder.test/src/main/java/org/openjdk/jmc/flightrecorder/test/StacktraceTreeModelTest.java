@@ -42,8 +42,12 @@ import java.util.Map;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.openjdk.jmc.common.item.Aggregators;
 import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
 import org.openjdk.jmc.flightrecorder.jdk.JdkAttributes;
 import org.openjdk.jmc.flightrecorder.stacktrace.FrameSeparator;
 import org.openjdk.jmc.flightrecorder.stacktrace.tree.Node;
@@ -54,6 +58,8 @@ import org.openjdk.jmc.test.io.IOResourceSet;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class StacktraceTreeModelTest {
 
@@ -169,6 +175,60 @@ public class StacktraceTreeModelTest {
 		assertEquals(expected, leafValues);
 	}
 
+	@Test
+	public void testTreeModelUpdate() {
+		IQuantity start = testRecording.getAggregate(Aggregators.min(JfrAttributes.START_TIME));
+		IQuantity end = testRecording.getAggregate(Aggregators.max(JfrAttributes.END_TIME));
+		IQuantity third = end.subtract(start).multiply(1.0 / 3);
+		IItemCollection first = testRecording
+				.apply(ItemFilters.interval(JfrAttributes.END_TIME, start, true, start.add(third.multiply(2)), true));
+		IItemCollection second = testRecording
+				.apply(ItemFilters.interval(JfrAttributes.END_TIME, start.add(third), true, end, true));
+
+		for (boolean inverted : new boolean[] {false, true}) {
+			StacktraceTreeModel model = new StacktraceTreeModel(first, separator, inverted,
+					JdkAttributes.ALLOCATION_SIZE);
+			Map<String, List<Double>> firstValues = getNodeValues(model.getRoot());
+			assertTrue(model.update(second, () -> false));
+			assertEquals(getNodeValues(
+					new StacktraceTreeModel(second, separator, inverted, JdkAttributes.ALLOCATION_SIZE).getRoot()),
+					getNodeValues(model.getRoot()));
+			assertTrue(model.update(first, () -> false));
+			assertEquals(firstValues, getNodeValues(model.getRoot()));
+
+			model = new StacktraceTreeModel(first, separator, inverted);
+			firstValues = getNodeValues(model.getRoot());
+			assertFalse(model.update(first, () -> false));
+			assertTrue(model.update(second, () -> false));
+			assertEquals(getNodeValues(new StacktraceTreeModel(second, separator, inverted).getRoot()),
+					getNodeValues(model.getRoot()));
+			assertTrue(model.update(testRecording, () -> false));
+			assertEquals(getNodeValues(new StacktraceTreeModel(testRecording, separator, inverted).getRoot()),
+					getNodeValues(model.getRoot()));
+			// an interrupted update discards its changes and the next update rebuilds the tree
+			model.update(second, () -> true);
+			assertTrue(model.getRoot().getChildren().isEmpty());
+			assertTrue(model.update(first, () -> false));
+			assertEquals(firstValues, getNodeValues(model.getRoot()));
+		}
+	}
+
+	private Map<String, List<Double>> getNodeValues(Node root) {
+		Map<String, List<Double>> values = new HashMap<>();
+		collectNodeValues(root, "", values);
+		return values;
+	}
+
+	private void collectNodeValues(Node node, String parentPath, Map<String, List<Double>> accumulator) {
+		String path = parentPath + "/" + node.getFrame().getHumanReadableShortString();
+		// round away differences from the order in which the weights were added
+		accumulator.put(path,
+				asList(Math.rint(node.getWeight() * 1e6) / 1e6, Math.rint(node.getCumulativeWeight() * 1e6) / 1e6));
+		for (Node child : node.getChildren()) {
+			collectNodeValues(child, path, accumulator);
+		}
+	}
+
 	private Map<String, List<Double>> getLeafNodeValues(Node root) {
 		Map<String, List<Double>> leafValues = new HashMap<>();
 		pickLeaves(root, leafValues);
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openjdk.jmc.common.IMCThread;
+import org.openjdk.jmc.common.item.Aggregators;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemFilter;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.jdk.JdkTypeIDs;
+import org.openjdk.jmc.flightrecorder.test.util.RecordingToolkit;
+
+@SuppressWarnings("nls")
+public class ThreadFilterIndexTest {
+
+	private static IItemCollection recording;
+	private static List<IMCThread> threads;
+
+	@BeforeClass
+	public static void beforeAll() throws IOException, CouldNotLoadRecordingException {
+		recording = RecordingToolkit.getNamedRecording("metadata_new.jfr");
+		threads = new ArrayList<>(recording.getAggregate(Aggregators.distinct(JfrAttributes.EVENT_THREAD)));
+		assertTrue("Expected a recording with several threads", threads.size() > 3);
+	}
+
+	@Test
+	public void testEquals() {
+		for (IMCThread thread : threads) {
+			IItemFilter filter = ItemFilters.equals(JfrAttributes.EVENT_THREAD, thread);
+			assertSameItems(recording.apply(unindexed(filter)), recording.apply(filter));
+		}
+	}
+
+	@Test
+	public void testMemberOf() {
+		Set<IMCThread> selected = new HashSet<>(threads.subList(0, 3));
+		IItemFilter filter = ItemFilters.memberOf(JfrAttributes.EVENT_THREAD, selected);
+		assertSameItems(recording.apply(unindexed(filter)), recording.apply(filter));
+	}
+
+	@Test
+	public void testAndWithType() {
+		for (IMCThread thread : threads) {
+			IItemFilter filter = ItemFilters.and(ItemFilters.equals(JfrAttributes.EVENT_THREAD, thread),
+					ItemFilters.type(JdkTypeIDs.EXECUTION_SAMPLE, JdkTypeIDs.JAVA_THREAD_START));
+			assertSameItems(recording.apply(unindexed(filter)), recording.apply(filter));
+		}
+	}
+
+	@Test
+	public void testFurtherFiltering() {
+		IMCThread thread = threads.get(0);
+		IItemCollection indexed = recording.apply(ItemFilters.equals(JfrAttributes.EVENT_THREAD, thread))
+				.apply(ItemFilters.type(JdkTypeIDs.EXECUTION_SAMPLE));
+		IItemCollection expected = recording.apply(ItemFilters.type(JdkTypeIDs.EXECUTION_SAMPLE))
+				.apply(unindexed(ItemFilters.equals(JfrAttributes.EVENT_THREAD, thread)));
+		assertSameItems(expected, indexed);
+	}
+
+	private static IItemFilter unindexed(IItemFilter filter) {
+		return new IItemFilter() {
+			@Override
+			public Predicate<IItem> getPredicate(IType<IItem> type) {
+				return filter.getPredicate(type);
+			}
+		};
+	}
+
+	private static void assertSameItems(IItemCollection expected, IItemCollection actual) {
+		assertEquals(expected.getAggregate(Aggregators.count()), actual.getAggregate(Aggregators.count()));
+		Iterator<IItemIterable> expectedIterables = expected.iterator();
+		Iterator<IItemIterable> actualIterables = actual.iterator();
+		while (expectedIterables.hasNext()) {
+			IItemIterable expectedIterable = expectedIterables.next();
+			IItemIterable actualIterable = actualIterables.next();
+			assertEquals(expectedIterable.getType(), actualIterable.getType());
+			assertEquals(expectedIterable.getItemCount(), actualIterable.getItemCount());
+			Iterator<IItem> actualItems = actualIterable.iterator();
+			for (IItem item : expectedIterable) {
+				assertTrue(item == actualItems.next());
+			}
+			assertTrue(!actualItems.hasNext());
+		}
+		assertTrue(!actualIterables.hasNext());
+	}
+}
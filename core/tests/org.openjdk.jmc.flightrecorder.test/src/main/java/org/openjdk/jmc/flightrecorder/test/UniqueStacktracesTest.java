@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openjdk.jmc.common.IDescribable;
+import org.openjdk.jmc.common.IMCStackTrace;
+import org.openjdk.jmc.common.item.IAccessorKey;
+import org.openjdk.jmc.common.item.IAttribute;
+import org.openjdk.jmc.common.item.ICanonicalAccessorFactory;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.common.item.ItemCollectionToolkit;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.jdk.JdkAttributes;
+import org.openjdk.jmc.flightrecorder.jdk.JdkFilters;
+import org.openjdk.jmc.flightrecorder.stacktrace.FrameSeparator;
+import org.openjdk.jmc.flightrecorder.stacktrace.FrameSeparator.FrameCategorization;
+import org.openjdk.jmc.flightrecorder.stacktrace.UniqueStacktraces;
+import org.openjdk.jmc.flightrecorder.stacktrace.graph.Node;
+import org.openjdk.jmc.flightrecorder.stacktrace.graph.StacktraceGraphModel;
+import org.openjdk.jmc.flightrecorder.test.util.RecordingToolkit;
+
+@SuppressWarnings("nls")
+public class UniqueStacktracesTest {
+
+	private static IItemCollection recording;
+
+	@BeforeClass
+	public static void beforeAll() throws IOException, CouldNotLoadRecordingException {
+		recording = RecordingToolkit.getNamedRecording("metadata_new.jfr");
+	}
+
+	@Test
+	public void testCountsMatchItems() {
+		IItemCollection samples = recording.apply(JdkFilters.EXECUTION_SAMPLE);
+		Map<IMCStackTrace, Integer> expected = new IdentityHashMap<>();
+		int itemCount = 0;
+		for (IItemIterable iterable : samples) {
+			IMemberAccessor<IMCStackTrace, IItem> accessor = JfrAttributes.EVENT_STACKTRACE
+					.getAccessor(iterable.getType());
+			for (IItem item : iterable) {
+				IMCStackTrace stacktrace = accessor.getMember(item);
+				if (stacktrace != null) {
+					expected.merge(stacktrace, 1, Integer::sum);
+					itemCount++;
+				}
+			}
+		}
+
+		UniqueStacktraces stacktraces = UniqueStacktraces.aggregate(samples, null, false, () -> false);
+		assertEquals(itemCount, stacktraces.getItemCount());
+		assertEquals(expected.size(), stacktraces.size());
+		assertTrue("Expected samples to share stack traces", stacktraces.size() < itemCount);
+		for (UniqueStacktraces.Entry entry : stacktraces) {
+			int count = expected.get(entry.getStacktrace());
+			assertEquals(count, entry.getCount());
+			assertEquals(count, entry.getWeight(), 0);
+			assertEquals(1, entry.getFirstWeight(), 0);
+		}
+	}
+
+	@Test
+	public void testWeights() {
+		IItemCollection allocations = recording.apply(JdkFilters.ALLOC_ALL);
+		double expectedWeight = 0;
+		for (IItemIterable iterable : allocations) {
+			IMemberAccessor<IMCStackTrace, IItem> stacktraceAccessor = JfrAttributes.EVENT_STACKTRACE
+					.getAccessor(iterable.getType());
+			IMemberAccessor<IQuantity, IItem> sizeAccessor = JdkAttributes.ALLOCATION_SIZE
+					.getAccessor(iterable.getType());
+			for (IItem item : iterable) {
+				if (stacktraceAccessor.getMember(item) != null) {
+					expectedWeight += sizeAccessor.getMember(item).doubleValue();
+				}
+			}
+		}
+
+		double weight = 0;
+		for (UniqueStacktraces.Entry entry : UniqueStacktraces.aggregate(allocations, JdkAttributes.ALLOCATION_SIZE,
+				true, () -> false)) {
+			weight += entry.getWeight();
+		}
+		assertTrue(expectedWeight > 0);
+		assertEquals(expectedWeight, weight, expectedWeight * 1e-12);
+	}
+
+	@Test
+	public void testRequireAttribute() {
+		IItemCollection samples = recording.apply(JdkFilters.EXECUTION_SAMPLE);
+		assertEquals(0, UniqueStacktraces.aggregate(samples, JdkAttributes.ALLOCATION_SIZE, true, () -> false).size());
+		UniqueStacktraces unweighted = UniqueStacktraces.aggregate(samples, JdkAttributes.ALLOCATION_SIZE, false,
+				() -> false);
+		for (UniqueStacktraces.Entry entry : unweighted) {
+			assertEquals(entry.getCount(), entry.getWeight(), 0);
+		}
+	}
+
+	@Test
+	public void testMissingWeights() {
+		IItemCollection allocations = recording.apply(JdkFilters.ALLOC_ALL);
+		IItemCollection withoutSizes = ItemCollectionToolkit.build(() -> allocations.stream()
+				.map(iterable -> new MissingValueIterable(iterable, JdkAttributes.ALLOCATION_SIZE.getKey())));
+		UniqueStacktraces expected = UniqueStacktraces.aggregate(allocations, null, false, () -> false);
+		UniqueStacktraces stacktraces = UniqueStacktraces.aggregate(withoutSizes, JdkAttributes.ALLOCATION_SIZE, true,
+				() -> false);
+		assertTrue(expected.getItemCount() > 0);
+		assertEquals(expected.getItemCount(), stacktraces.getItemCount());
+		assertEquals(expected.size(), stacktraces.size());
+		for (UniqueStacktraces.Entry entry : stacktraces) {
+			assertEquals(0, entry.getWeight(), 0);
+			assertEquals(0, entry.getFirstWeight(), 0);
+		}
+	}
+
+	@Test
+	public void testStopFlag() {
+		assertNull(UniqueStacktraces.aggregate(recording, null, false, () -> true));
+	}
+
+	@Test
+	public void testOrderOfFirstOccurrence() {
+		IItemCollection samples = recording.apply(JdkFilters.EXECUTION_SAMPLE);
+		IItemIterable first = samples.iterator().next();
+		IMCStackTrace firstStacktrace = JfrAttributes.EVENT_STACKTRACE.getAccessor(first.getType())
+				.getMember(first.iterator().next());
+		UniqueStacktraces stacktraces = UniqueStacktraces.aggregate(samples, null, false, () -> false);
+		assertSame(firstStacktrace, stacktraces.iterator().next().getStacktrace());
+	}
+
+	@Test
+	public void testGraphModelCounts() {
+		IItemCollection samples = recording.apply(JdkFilters.EXECUTION_SAMPLE);
+		int nonEmpty = 0;
+		for (UniqueStacktraces.Entry entry : UniqueStacktraces.aggregate(samples, null, false, () -> false)) {
+			if (!entry.getStacktrace().getFrames().isEmpty()) {
+				nonEmpty += entry.getCount();
+			}
+		}
+		StacktraceGraphModel model = new StacktraceGraphModel(new FrameSeparator(FrameCategorization.METHOD, false),
+				samples, null);
+		assertEquals(nonEmpty, model.getTotalTraceCount());
+		int nodeCount = 0;
+		double nodeWeight = 0;
+		for (Node node : model.getNodes()) {
+			nodeCount += node.getCount();
+			nodeWeight += node.getWeight();
+		}
+		assertEquals(nonEmpty, nodeCount);
+		assertEquals(nonEmpty, nodeWeight, 0);
+	}
+
+	/**
+	 * Items whose type has an attribute, but where no item has a value for it.
+	 */
+	private static class MissingValueIterable implements IItemIterable {
+		private final IItemIterable iterable;
+		private final IType<IItem> type;
+
+		MissingValueIterable(IItemIterable iterable, IAccessorKey<?> missingKey) {
+			this.iterable = iterable;
+			IType<IItem> delegate = iterable.getType();
+			this.type = new IType<IItem>() {
+				@Override
+				public String getName() {
+					return delegate.getName();
+				}
+
+				@Override
+				public String getDescription() {
+					return delegate.getDescription();
+				}
+
+				@Override
+				@Deprecated
+				public List<IAttribute<?>> getAttributes() {
+					return delegate.getAttributes();
+				}
+
+				@Override
+				public Map<IAccessorKey<?>, ? extends IDescribable> getAccessorKeys() {
+					return delegate.getAccessorKeys();
+				}
+
+				@Override
+				public boolean hasAttribute(ICanonicalAccessorFactory<?> attribute) {
+					return delegate.hasAttribute(attribute);
+				}
+
+				@Override
+				public <M> IMemberAccessor<M, IItem> getAccessor(IAccessorKey<M> key) {
+					IMemberAccessor<M, IItem> accessor = delegate.getAccessor(key);
+					return accessor != null && key.equals(missingKey) ? item -> null : accessor;
+				}
+
+				@Override
+				public String getIdentifier() {
+					return delegate.getIdentifier();
+				}
+			};
+		}
+
+		@Override
+		public Iterator<IItem> iterator() {
+			return iterable.iterator();
+		}
+
+		@Override
+		public IType<IItem> getType() {
+			return type;
+		}
+
+		@Override
+		public boolean hasItems() {
+			return iterable.hasItems();
+		}
+
+		@Override
+		public long getItemCount() {
+			return iterable.getItemCount();
+		}
+
+		@Override
+		public IItemIterable apply(Predicate<IItem> predicate) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -37,12 +37,23 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
+import org.openjdk.jmc.flightrecorder.writer.api.Types;
 
 class ConstantPoolTest {
 	private ConstantPool instance;
@@ -92,4 +103,103 @@ class ConstantPoolTest {
 
 		assertEquals(value, instance.get(value.getConstantPoolIndex()));
 	}
+
+	@Test
+	void addOrGetConcurrently() throws Exception {
+		int threads = 8;
+		int values = 1000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Callable<List<TypedValueImpl>>> tasks = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				tasks.add(() -> {
+					List<TypedValueImpl> added = new ArrayList<>();
+					for (int i = 0; i < values; i++) {
+						added.add(instance.addOrGet("value" + i));
+					}
+					return added;
+				});
+			}
+			List<Future<List<TypedValueImpl>>> results = executor.invokeAll(tasks);
+			List<TypedValueImpl> first = results.get(0).get();
+			Set<Long> indexes = new HashSet<>();
+			for (int i = 0; i < values; i++) {
+				TypedValueImpl value = first.get(i);
+				for (Future<List<TypedValueImpl>> result : results) {
+					assertSame(value, result.get().get(i));
+				}
+				assertTrue(value.getConstantPoolIndex() >= 1 && value.getConstantPoolIndex() <= values);
+				assertTrue(indexes.add(value.getConstantPoolIndex()));
+				assertSame(value, instance.get(value.getConstantPoolIndex()));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void stringsAreNotPooledOverLimit() {
+		ConstantPool stringPool = new ConstantPool(mockBuiltinType(Types.Builtin.STRING), 2);
+
+		TypedValueImpl first = stringPool.addOrGet("first");
+		TypedValueImpl second = stringPool.addOrGet("second");
+		TypedValueImpl third = stringPool.addOrGet("third");
+		assertEquals(1, first.getConstantPoolIndex());
+		assertEquals(2, second.getConstantPoolIndex());
+		assertEquals(Long.MIN_VALUE, third.getConstantPoolIndex());
+		assertEquals("third", third.getValue());
+		assertSame(first, stringPool.addOrGet("first"));
+		assertNull(stringPool.get(3));
+	}
+
+	@Test
+	void stringsAreNotPooledOverLimitConcurrently() throws Exception {
+		int threads = 8;
+		int values = 1000;
+		int maxStrings = 300;
+		ConstantPool stringPool = new ConstantPool(mockBuiltinType(Types.Builtin.STRING), maxStrings);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int offset = t * values / threads;
+				tasks.add(() -> {
+					for (int i = 0; i < values; i++) {
+						stringPool.addOrGet("value" + (offset + i) % values);
+					}
+					return null;
+				});
+			}
+			for (Future<Void> result : executor.invokeAll(tasks)) {
+				result.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		int pooled = 0;
+		for (int i = 0; i < values; i++) {
+			long index = stringPool.addOrGet("value" + i).getConstantPoolIndex();
+			if (index != Long.MIN_VALUE) {
+				assertEquals("value" + i, stringPool.get(index).getValue());
+				pooled++;
+			}
+		}
+		assertEquals(maxStrings, pooled);
+	}
+
+	@Test
+	void otherBuiltinsAreNotLimited() {
+		ConstantPool longPool = new ConstantPool(mockBuiltinType(Types.Builtin.LONG), 2);
+		for (long i = 1; i <= 3; i++) {
+			assertEquals(i, longPool.addOrGet(i).getConstantPoolIndex());
+		}
+	}
+
+	private static TypeImpl mockBuiltinType(Types.Builtin builtin) {
+		TypeImpl type = Mockito.mock(TypeImpl.class);
+		Mockito.when(type.canAccept(ArgumentMatchers.any())).thenReturn(true);
+		Mockito.when(type.isBuiltin()).thenReturn(true);
+		Mockito.when(type.getTypeName()).thenReturn(builtin.getTypeName());
+		return type;
+	}
 }
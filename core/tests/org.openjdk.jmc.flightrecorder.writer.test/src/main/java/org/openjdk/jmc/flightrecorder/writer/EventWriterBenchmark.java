@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import org.openjdk.jmc.flightrecorder.writer.api.EventWriter;
+import org.openjdk.jmc.flightrecorder.writer.api.RecordingSettings;
+import org.openjdk.jmc.flightrecorder.writer.api.Type;
+import org.openjdk.jmc.flightrecorder.writer.api.TypedValue;
+import org.openjdk.jmc.flightrecorder.writer.api.Types;
+
+/**
+ * Compares writing events with the
+ * {@linkplain org.openjdk.jmc.flightrecorder.writer.api.TypedValueBuilder builder} API to writing
+ * them with an {@linkplain EventWriter}. Prints the number of events written per second and the
+ * number of bytes allocated per event for both. The recordings are discarded.
+ * <p>
+ * Usage: EventWriterBenchmark [-events &lt;count&gt;] [-rounds &lt;count&gt;]
+ */
+public class EventWriterBenchmark {
+	private static final String EVENTS = "-events";
+	private static final String ROUNDS = "-rounds";
+
+	public static void main(String[] args) throws IOException {
+		Map<String, String> commands = parseArguments(args);
+		int events = Integer.parseInt(commands.get(EVENTS));
+		int rounds = Integer.parseInt(commands.get(ROUNDS));
+
+		for (int round = 0; round < rounds; round++) {
+			run("builder", events, EventWriterBenchmark::writeWithBuilder);
+			run("event writer", events, EventWriterBenchmark::writeWithEventWriter);
+		}
+	}
+
+	private interface Benchmark {
+		IntConsumer prepare(RecordingImpl recording, Type eventType, TypedValue thread);
+	}
+
+	private static void run(String name, int events, Benchmark benchmark) throws IOException {
+		try (RecordingImpl recording = new RecordingImpl(OutputStream.nullOutputStream(), new RecordingSettings())) {
+			Type eventType = recording.registerEventType("benchmark.Event", builder -> {
+				builder.addField("count", Types.Builtin.INT).addField("value", Types.Builtin.LONG).addField("label",
+						Types.Builtin.STRING);
+			});
+			TypedValue thread = recording.getType(Types.JDK.THREAD).asValue(builder -> {
+				builder.putField("javaThreadId", 1L).putField("osThreadId", 1L).putField("javaName", "benchmark");
+			});
+			IntConsumer writer = benchmark.prepare(recording, eventType, thread);
+
+			com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory
+					.getThreadMXBean();
+			long threadId = Thread.currentThread().getId();
+			long startBytes = threadBean.getThreadAllocatedBytes(threadId);
+			long startTime = System.nanoTime();
+			for (int i = 0; i < events; i++) {
+				writer.accept(i);
+			}
+			long nanos = System.nanoTime() - startTime;
+			long bytes = threadBean.getThreadAllocatedBytes(threadId) - startBytes;
+			System.out.println(String.format("%-12s: %d events in %d ms (%.0f events/s, %.1f bytes/event)", name,
+					events, nanos / 1000000, events * 1e9 / nanos, (double) bytes / events));
+		}
+	}
+
+	private static IntConsumer writeWithBuilder(RecordingImpl recording, Type eventType, TypedValue thread) {
+		return i -> recording.writeEvent(eventType.asValue(builder -> {
+			builder.putField("startTime", System.nanoTime()).putField("eventThread", thread).putField("count", i)
+					.putField("value", i * 31L).putField("label", "label");
+		}));
+	}
+
+	private static IntConsumer writeWithEventWriter(RecordingImpl recording, Type eventType, TypedValue thread) {
+		EventWriter writer = recording.newEventWriter(eventType);
+		int startTime = writer.getFieldIndex("startTime");
+		int eventThread = writer.getFieldIndex("eventThread");
+		int count = writer.getFieldIndex("count");
+		int value = writer.getFieldIndex("value");
+		int label = writer.getFieldIndex("label");
+		return i -> writer.putField(startTime, System.nanoTime()).putField(eventThread, thread).putField(count, i)
+				.putField(value, i * 31L).putField(label, "label").commit();
+	}
+
+	private static Map<String, String> parseArguments(String[] args) {
+		Map<String, String> commandMap = new HashMap<>();
+		commandMap.put(EVENTS, "1000000");
+		commandMap.put(ROUNDS, "5");
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			commandMap.put(args[i], args[i + 1]);
+		}
+		return commandMap;
+	}
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmc.common.IMCThread;
+import org.openjdk.jmc.common.item.Attribute;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.JfrLoaderToolkit;
+import org.openjdk.jmc.flightrecorder.writer.api.EventWriter;
+import org.openjdk.jmc.flightrecorder.writer.api.Recording;
+import org.openjdk.jmc.flightrecorder.writer.api.Recordings;
+import org.openjdk.jmc.flightrecorder.writer.api.Type;
+import org.openjdk.jmc.flightrecorder.writer.api.TypeStructureBuilder;
+import org.openjdk.jmc.flightrecorder.writer.api.TypedValue;
+import org.openjdk.jmc.flightrecorder.writer.api.Types;
+
+import jdk.jfr.Event;
+
+class EventWriterImplTest {
+	private Recording recording;
+	private Path jfrPath;
+	private Type eventType;
+	private IType<IItem> loadedType;
+
+	@BeforeEach
+	void setup() throws Exception {
+		jfrPath = Files.createTempFile("jfr-writer-test-event-writer-", ".jfr");
+		recording = Recordings.newRecording(jfrPath);
+		eventType = recording.registerEventType("test.WriterEvent", builder -> {
+			builder.addField("count", Types.Builtin.INT).addField("value", Types.Builtin.LONG)
+					.addField("ratio", Types.Builtin.DOUBLE).addField("flag", Types.Builtin.BOOLEAN)
+					.addField("label", Types.Builtin.STRING);
+		});
+	}
+
+	@AfterEach
+	void teardown() throws Exception {
+		if (recording != null) {
+			recording.close();
+		}
+		if (jfrPath != null) {
+			Files.deleteIfExists(jfrPath);
+		}
+	}
+
+	@Test
+	void writeEvents() throws Exception {
+		TypedValue thread = recording.getType(Types.JDK.THREAD).asValue(builder -> {
+			builder.putField("javaThreadId", 42L).putField("osThreadId", 42L).putField("javaName", "writer-thread");
+		});
+		EventWriter writer = recording.newEventWriter(eventType);
+		int count = writer.getFieldIndex("count");
+		int value = writer.getFieldIndex("value");
+		int ratio = writer.getFieldIndex("ratio");
+		int flag = writer.getFieldIndex("flag");
+		int label = writer.getFieldIndex("label");
+		int eventThread = writer.getFieldIndex("eventThread");
+		for (int i = 0; i < 100; i++) {
+			writer.putField(count, i).putField(value, i * 1_000_000_000L).putField(ratio, i / 4.0)
+					.putField(flag, i % 2 == 0).putField(label, "label-" + (i % 3)).putField(eventThread, thread)
+					.commit();
+		}
+		recording.close();
+
+		List<IItem> events = loadEvents();
+		assertEquals(100, events.size());
+		IMemberAccessor<IQuantity, IItem> countAccessor = quantityAccessor("count");
+		IMemberAccessor<Number, IItem> valueAccessor = numberAccessor("value");
+		IMemberAccessor<IQuantity, IItem> ratioAccessor = quantityAccessor("ratio");
+		IMemberAccessor<Boolean, IItem> flagAccessor = Attribute.attr("flag", "flag", UnitLookup.FLAG)
+				.getAccessor(loadedType);
+		IMemberAccessor<String, IItem> labelAccessor = Attribute.attr("label", "label", UnitLookup.PLAIN_TEXT)
+				.getAccessor(loadedType);
+		IMemberAccessor<IMCThread, IItem> threadAccessor = JfrAttributes.EVENT_THREAD.getAccessor(loadedType);
+		for (IItem event : events) {
+			int i = (int) countAccessor.getMember(event).longValue();
+			assertEquals(i * 1_000_000_000L, valueAccessor.getMember(event).longValue());
+			assertEquals(i / 4.0, ratioAccessor.getMember(event).doubleValue());
+			assertEquals(i % 2 == 0, flagAccessor.getMember(event));
+			assertEquals("label-" + (i % 3), labelAccessor.getMember(event));
+			assertEquals("writer-thread", threadAccessor.getMember(event).getThreadName());
+		}
+	}
+
+	@Test
+	void writeEventsWithDefaults() throws Exception {
+		EventWriter writer = recording.newEventWriter(eventType);
+		writer.commit();
+		// all fields are reset after commit
+		writer.putField(writer.getFieldIndex("count"), 7).commit();
+		recording.writeEvent(eventType.asValue(builder -> builder.putField("count", 8)));
+		recording.close();
+
+		List<IItem> events = loadEvents();
+		assertEquals(3, events.size());
+		IMemberAccessor<IQuantity, IItem> countAccessor = quantityAccessor("count");
+		IMemberAccessor<Number, IItem> valueAccessor = numberAccessor("value");
+		IMemberAccessor<String, IItem> labelAccessor = Attribute.attr("label", "label", UnitLookup.PLAIN_TEXT)
+				.getAccessor(loadedType);
+		IMemberAccessor<IQuantity, IItem> startTimeAccessor = JfrAttributes.START_TIME.getAccessor(loadedType);
+		long counts = 0;
+		for (IItem event : events) {
+			counts += countAccessor.getMember(event).longValue();
+			assertEquals(0L, valueAccessor.getMember(event).longValue());
+			assertNull(labelAccessor.getMember(event));
+			assertTrue(startTimeAccessor.getMember(event).longValue() > 0L);
+		}
+		assertEquals(15, counts);
+	}
+
+	@Test
+	void writeRepeatedStrings() throws Exception {
+		EventWriter writer = recording.newEventWriter(eventType);
+		int count = writer.getFieldIndex("count");
+		int label = writer.getFieldIndex("label");
+		for (int i = 0; i < 6; i++) {
+			writer.putField(count, i).putField(label, i < 2 ? "first" : i < 4 ? null : new String("second")).commit();
+		}
+		recording.close();
+
+		assertLabels(loadEvents(), "first", "first", null, null, "second", "second");
+	}
+
+	@Test
+	void writeEventsWithDefaultEventWriter() throws Exception {
+		// a recording that does not override newEventWriter
+		Recording delegating = new DelegatingRecording(recording);
+		EventWriter writer = delegating.newEventWriter(eventType);
+		assertEquals(eventType, writer.getType());
+		int count = writer.getFieldIndex("count");
+		int label = writer.getFieldIndex("label");
+		for (int i = 0; i < 6; i++) {
+			writer.putField(count, i).putField(label, i < 2 ? "first" : i < 4 ? null : "second").commit();
+		}
+		delegating.close();
+
+		assertLabels(loadEvents(), "first", "first", null, null, "second", "second");
+		assertThrows(IllegalArgumentException.class, () -> writer.getFieldIndex("missing"));
+		assertThrows(IllegalArgumentException.class,
+				() -> delegating.newEventWriter(recording.getType(Types.JDK.THREAD)));
+	}
+
+	@Test
+	void invalidFields() {
+		EventWriter writer = recording.newEventWriter(eventType);
+		assertThrows(IllegalArgumentException.class, () -> writer.getFieldIndex("missing"));
+		assertThrows(IllegalArgumentException.class, () -> writer.putField(writer.getFieldIndex("count"), 1L));
+		assertThrows(IllegalArgumentException.class, () -> writer.putField(writer.getFieldIndex("label"), 1));
+		assertThrows(IllegalArgumentException.class, () -> writer.putField(writer.getFieldIndex("eventThread"),
+				recording.getType(Types.JDK.CLASS_LOADER).nullValue()));
+		assertThrows(IllegalArgumentException.class,
+				() -> writer.putField(writer.getFieldIndex("eventThread"), new TypedValue[0]));
+	}
+
+	@Test
+	void invalidEventType() {
+		assertThrows(IllegalArgumentException.class, () -> recording.newEventWriter(null));
+		assertThrows(IllegalArgumentException.class,
+				() -> recording.newEventWriter(recording.getType(Types.JDK.THREAD)));
+	}
+
+	private void assertLabels(List<IItem> events, String ... labels) {
+		IMemberAccessor<IQuantity, IItem> countAccessor = quantityAccessor("count");
+		IMemberAccessor<String, IItem> labelAccessor = Attribute.attr("label", "label", UnitLookup.PLAIN_TEXT)
+				.getAccessor(loadedType);
+		assertEquals(labels.length, events.size());
+		String[] loaded = new String[labels.length];
+		for (IItem event : events) {
+			loaded[(int) countAccessor.getMember(event).longValue() % labels.length] = labelAccessor.getMember(event);
+		}
+		assertArrayEquals(labels, loaded);
+	}
+
+	private List<IItem> loadEvents() throws Exception {
+		IItemCollection collection = JfrLoaderToolkit.loadEvents(jfrPath.toFile());
+		List<IItem> events = new ArrayList<>();
+		for (IItemIterable lane : collection) {
+			if (lane.getType().getIdentifier().equals(eventType.getTypeName())) {
+				loadedType = lane.getType();
+				lane.forEach(events::add);
+			}
+		}
+		return events;
+	}
+
+	private IMemberAccessor<Number, IItem> numberAccessor(String name) {
+		return Attribute.attr(name, name, UnitLookup.RAW_NUMBER).getAccessor(loadedType);
+	}
+
+	private IMemberAccessor<IQuantity, IItem> quantityAccessor(String name) {
+		return Attribute.attr(name, name, UnitLookup.NUMBER).getAccessor(loadedType);
+	}
+
+	private static final class DelegatingRecording extends Recording {
+		private final Recording delegate;
+
+		DelegatingRecording(Recording delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public RecordingImpl rotateChunk() {
+			return delegate.rotateChunk();
+		}
+
+		@Override
+		public RecordingImpl writeEvent(TypedValue event) {
+			return delegate.writeEvent(event);
+		}
+
+		@Override
+		public RecordingImpl writeEvent(Event event) {
+			return delegate.writeEvent(event);
+		}
+
+		@Override
+		public Type registerEventType(String name) {
+			return delegate.registerEventType(name);
+		}
+
+		@Override
+		public Type registerEventType(Class<? extends Event> eventType) {
+			return delegate.registerEventType(eventType);
+		}
+
+		@Override
+		public Type registerEventType(String name, Consumer<TypeStructureBuilder> builderCallback) {
+			return delegate.registerEventType(name, builderCallback);
+		}
+
+		@Override
+		public Type registerAnnotationType(String name) {
+			return delegate.registerAnnotationType(name);
+		}
+
+		@Override
+		public Type registerAnnotationType(String name, Consumer<TypeStructureBuilder> builderCallback) {
+			return delegate.registerAnnotationType(name, builderCallback);
+		}
+
+		@Override
+		public Type registerType(String name, Consumer<TypeStructureBuilder> builderCallback) {
+			return delegate.registerType(name, builderCallback);
+		}
+
+		@Override
+		public Type registerType(String name, String supertype, Consumer<TypeStructureBuilder> builderCallback) {
+			return delegate.registerType(name, supertype, builderCallback);
+		}
+
+		@Override
+		public Type getType(TypesImpl.JDK type) {
+			return delegate.getType(type);
+		}
+
+		@Override
+		public Type getType(String typeName) {
+			return delegate.getType(typeName);
+		}
+
+		@Override
+		public Types getTypes() {
+			return delegate.getTypes();
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+	}
+}
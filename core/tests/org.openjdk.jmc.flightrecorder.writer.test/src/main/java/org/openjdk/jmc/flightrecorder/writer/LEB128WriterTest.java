@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class LEB128WriterTest {
+	private static Stream<Arguments> writers() {
+		return Stream.of(Arguments.of("byte array", (Supplier<LEB128Writer>) () -> new LEB128ByteArrayWriter(16)),
+				// small segments, so that values are split between segments
+				Arguments.of("segments",
+						(Supplier<LEB128Writer>) () -> new LEB128SegmentWriter(new ByteBufferPool(16, 4))));
+	}
+
+	private static long[] testValues() {
+		List<Long> values = new ArrayList<>();
+		for (int shift = 0; shift < 64; shift++) {
+			values.add(1L << shift);
+			values.add((1L << shift) - 1);
+			values.add(-(1L << shift));
+		}
+		Random random = new Random(42);
+		for (int i = 0; i < 1000; i++) {
+			values.add(random.nextLong() >>> random.nextInt(64));
+		}
+		return values.stream().mapToLong(Long::longValue).toArray();
+	}
+
+	/** The reference encoding, one 7-bit group at a time with a 9th byte holding 8 bits */
+	private static void encode(ByteArrayOutputStream out, long data) {
+		for (int i = 0; i < 8; i++) {
+			if ((data & LEB128Writer.COMPRESSED_INT_MASK) == 0) {
+				out.write((int) data);
+				return;
+			}
+			out.write((int) (data | LEB128Writer.EXT_BIT) & 0xff);
+			data >>= 7;
+		}
+		out.write((int) data & 0xff);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("writers")
+	void writeLong(String name, Supplier<LEB128Writer> writerSupplier) {
+		LEB128Writer writer = writerSupplier.get();
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		for (long value : testValues()) {
+			writer.writeLong(value);
+			encode(expected, value);
+			assertEquals(expected.size(), writer.position());
+		}
+		assertArrayEquals(expected.toByteArray(), writer.export());
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("writers")
+	void writeRaw(String name, Supplier<LEB128Writer> writerSupplier) {
+		LEB128Writer writer = writerSupplier.get();
+		ByteBuffer expected = ByteBuffer.allocate(1024);
+		for (int i = 0; i < 30; i++) {
+			writer.writeByte((byte) i).writeShortRaw((short) (i * 1001)).writeIntRaw(i * 100_003)
+					.writeLongRaw(i * 10_000_000_019L).writeDouble(i / 3.0);
+			expected.put((byte) i).putShort((short) (i * 1001)).putInt(i * 100_003).putLong(i * 10_000_000_019L)
+					.putDouble(i / 3.0);
+		}
+		assertArrayEquals(toArray(expected), writer.export());
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("writers")
+	void writeIntPadded(String name, Supplier<LEB128Writer> writerSupplier) {
+		LEB128Writer writer = writerSupplier.get();
+		writer.writeByte((byte) 1).writeIntPadded(0).writeBytes(new byte[40]);
+		writer.writeIntPadded(1, 300);
+		assertEquals(45, writer.position());
+		byte[] data = writer.export();
+		assertArrayEquals(new byte[] {(byte) 0xac, (byte) 0x82, (byte) 0x80, 0}, Arrays.copyOfRange(data, 1, 5));
+		assertThrows(IllegalArgumentException.class, () -> writer.writeIntPadded(1 << 28));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("writers")
+	void exportSegments(String name, Supplier<LEB128Writer> writerSupplier) {
+		LEB128Writer writer = writerSupplier.get();
+		for (int i = 0; i < 100; i++) {
+			writer.writeUTF("value-" + i);
+		}
+		ByteBuffer segments = ByteBuffer.allocate(writer.position());
+		writer.exportSegments(segments::put);
+		assertArrayEquals(writer.export(), toArray(segments));
+	}
+
+	@Test
+	void segmentsAreReleased() {
+		ByteBufferPool pool = new ByteBufferPool(16, 4);
+		LEB128SegmentWriter writer = new LEB128SegmentWriter(pool);
+		writer.writeBytes(new byte[20]);
+		List<ByteBuffer> segments = new ArrayList<>();
+		writer.exportSegments(segments::add);
+		assertEquals(2, segments.size());
+		writer.reset();
+		assertEquals(0, writer.position());
+		// the exported segments share their memory with the pooled segments
+		pool.acquire().put(0, (byte) 42);
+		assertEquals(42, segments.get(0).get(0));
+	}
+
+	private static byte[] toArray(ByteBuffer buffer) {
+		buffer.flip();
+		byte[] data = new byte[buffer.remaining()];
+		buffer.get(data);
+		return data;
+	}
+}
@@ -43,7 +43,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 import jdk.jfr.Event;
@@ -62,14 +67,18 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.openjdk.jmc.common.IMCStackTrace;
 import org.openjdk.jmc.common.item.Attribute;
 import org.openjdk.jmc.common.item.IAttribute;
 import org.openjdk.jmc.common.item.IItem;
 import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IMemberAccessor;
 import org.openjdk.jmc.common.item.IType;
 import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
 import org.openjdk.jmc.flightrecorder.JfrLoaderToolkit;
 import org.openjdk.jmc.flightrecorder.testutils.parser.ChunkHeader;
 import org.openjdk.jmc.flightrecorder.testutils.parser.ChunkParserListener;
@@ -336,6 +345,120 @@ class RecordingImplTest {
 
 	}
 
+	@Test
+	void writeJfrEventsConcurrently() throws Exception {
+		int threads = 8;
+		int eventsPerThread = 500;
+		Thread[] writers = new Thread[threads];
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		for (int t = 0; t < threads; t++) {
+			writers[t] = new Thread(() -> {
+				try {
+					for (int i = 0; i < eventsPerThread; i++) {
+						writeAtDepth(i % 8);
+					}
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			});
+			writers[t].start();
+		}
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		recording.close();
+		assertNull(failure.get());
+
+		try (ByteArrayInputStream is = new ByteArrayInputStream(bos.toByteArray())) {
+			IItemCollection events = JfrLoaderToolkit.loadEvents(is);
+			int count = 0;
+			for (IItemIterable lane : events) {
+				IType<IItem> type = lane.getType();
+				if (type.getIdentifier().equals(EventWithStackTrace.class.getSimpleName())) {
+					IMemberAccessor<IMCStackTrace, IItem> stackTraceAccessor = JfrAttributes.EVENT_STACKTRACE
+							.getAccessor(type);
+					assertNotNull(stackTraceAccessor);
+					for (IItem event : lane) {
+						IMCStackTrace stackTrace = stackTraceAccessor.getMember(event);
+						assertNotNull(stackTrace);
+						assertFalse(stackTrace.getFrames().isEmpty());
+						count++;
+					}
+				}
+			}
+			assertEquals(threads * eventsPerThread, count);
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	void writeRotatedChunks(boolean toFile) throws Exception {
+		Path jfrPath = Files.createTempFile("jfr-writer-test-rotated-", ".jfr");
+		try {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			RecordingImpl rotating = toFile ? new RecordingImpl(jfrPath, new RecordingSettings())
+					: new RecordingImpl(output, new RecordingSettings());
+			int threads = 4;
+			int eventsPerThread = 4000;
+			Thread[] writers = new Thread[threads];
+			AtomicReference<Throwable> failure = new AtomicReference<>();
+			for (int t = 0; t < threads; t++) {
+				int thread = t;
+				writers[t] = new Thread(() -> {
+					try {
+						for (int i = 0; i < eventsPerThread; i++) {
+							SimpleTestEvent e = new SimpleTestEvent();
+							e.fld = "event-" + thread + "-" + i;
+							e.timestamp = i;
+							rotating.writeEvent(e);
+							// finished chunks span several segments and are spilled before close
+							if (i % 1500 == 1499) {
+								rotating.rotateChunk();
+							}
+						}
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+				});
+				writers[t].start();
+			}
+			for (Thread writer : writers) {
+				writer.join();
+			}
+			rotating.close();
+			assertNull(failure.get());
+
+			IItemCollection events = toFile ? JfrLoaderToolkit.loadEvents(jfrPath.toFile())
+					: JfrLoaderToolkit.loadEvents(new ByteArrayInputStream(output.toByteArray()));
+			IAttribute<String> fldAttr = Attribute.attr("fld", "fld", UnitLookup.PLAIN_TEXT);
+			Set<String> values = new HashSet<>();
+			for (IItemIterable lane : events) {
+				IType<IItem> type = lane.getType();
+				if (type.getIdentifier().equals(SimpleTestEvent.class.getSimpleName())) {
+					IMemberAccessor<String, IItem> fldAccessor = fldAttr.getAccessor(type);
+					for (IItem event : lane) {
+						assertTrue(values.add(fldAccessor.getMember(event)));
+					}
+				}
+			}
+			assertEquals(threads * eventsPerThread, values.size());
+			for (int t = 0; t < threads; t++) {
+				assertTrue(values.contains("event-" + t + "-0"));
+				assertTrue(values.contains("event-" + t + "-" + (eventsPerThread - 1)));
+			}
+		} finally {
+			Files.deleteIfExists(jfrPath);
+		}
+	}
+
+	private void writeAtDepth(int depth) {
+		if (depth > 0) {
+			writeAtDepth(depth - 1);
+		} else {
+			recording.writeEvent(new EventWithStackTrace());
+		}
+	}
+
 	@Test
 	void registerAnnotationTypeNullName() {
 		assertThrows(IllegalArgumentException.class, () -> recording.registerAnnotationType(null));
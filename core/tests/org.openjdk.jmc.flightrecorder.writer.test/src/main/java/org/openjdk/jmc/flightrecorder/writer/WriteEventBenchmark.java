@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.openjdk.jmc.flightrecorder.writer.api.RecordingSettings;
+
+import jdk.jfr.Event;
+import jdk.jfr.StackTrace;
+
+/**
+ * Measures the throughput of {@link RecordingImpl#writeEvent(Event)} for events with stack traces
+ * when writing from 1, 2, 4, ... up to a maximum number of threads, and prints the number of events
+ * written per second for each thread count. The recording is discarded.
+ * <p>
+ * Usage: WriteEventBenchmark [-threads &lt;max count&gt;] [-events &lt;count per thread&gt;]
+ * [-depth &lt;max stack depth&gt;]
+ */
+public class WriteEventBenchmark {
+	private static final String THREADS = "-threads";
+	private static final String EVENTS = "-events";
+	private static final String DEPTH = "-depth";
+
+	@StackTrace(true)
+	public static final class BenchmarkEvent extends Event {
+		public long value;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> commands = parseArguments(args);
+		int maxThreads = Integer.parseInt(commands.get(THREADS));
+		int events = Integer.parseInt(commands.get(EVENTS));
+		int depth = Integer.parseInt(commands.get(DEPTH));
+
+		// warm up
+		run(Math.min(4, maxThreads), events, depth);
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			long nanos = run(threads, events, depth);
+			long written = (long) threads * events;
+			System.out.println(String.format("%2d threads: %d events in %d ms (%.0f events/s)", threads, written,
+					nanos / 1000000, written * 1e9 / nanos));
+		}
+	}
+
+	private static long run(int threads, int events, int depth) throws IOException, InterruptedException {
+		RecordingImpl recording = new RecordingImpl(OutputStream.nullOutputStream(), new RecordingSettings());
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] writers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			writers[t] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < events; i++) {
+					writeAtDepth(recording, i % depth, i);
+				}
+			});
+			writers[t].start();
+		}
+		long startTime = System.nanoTime();
+		start.countDown();
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		long nanos = System.nanoTime() - startTime;
+		recording.close();
+		return nanos;
+	}
+
+	private static void writeAtDepth(RecordingImpl recording, int depth, long value) {
+		if (depth > 0) {
+			writeAtDepth(recording, depth - 1, value);
+		} else {
+			BenchmarkEvent event = new BenchmarkEvent();
+			event.value = value;
+			recording.writeEvent(event);
+		}
+	}
+
+	private static Map<String, String> parseArguments(String[] args) {
+		Map<String, String> commandMap = new HashMap<>();
+		commandMap.put(THREADS, "64");
+		commandMap.put(EVENTS, "20000");
+		commandMap.put(DEPTH, "32");
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			commandMap.put(args[i], args[i + 1]);
+		}
+		return commandMap;
+	}
+}
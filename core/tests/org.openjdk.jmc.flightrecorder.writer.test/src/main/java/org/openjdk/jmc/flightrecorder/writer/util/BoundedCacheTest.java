@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+	@Test
+	void invalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(1, 0));
+	}
+
+	@Test
+	void computeOncePerKey() {
+		BoundedCache<String, Object> cache = new BoundedCache<>(16, 4);
+		AtomicInteger calls = new AtomicInteger();
+		Object value = cache.computeIfAbsent("key", k -> {
+			calls.incrementAndGet();
+			return new Object();
+		});
+		assertSame(value, cache.computeIfAbsent("key", k -> {
+			calls.incrementAndGet();
+			return new Object();
+		}));
+		assertEquals(1, calls.get());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void nullKey() {
+		BoundedCache<String, String> cache = new BoundedCache<>(16, 4);
+		assertEquals("null", cache.computeIfAbsent(null, String::valueOf));
+		assertEquals("null", cache.computeIfAbsent(null, k -> "other"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void sizeIsBounded() {
+		BoundedCache<Integer, Integer> cache = new BoundedCache<>(64, 8);
+		for (int i = 0; i < 10_000; i++) {
+			assertEquals(i, cache.computeIfAbsent(i, k -> k));
+		}
+		assertTrue(cache.size() <= 64, "Cache size " + cache.size() + " exceeds the capacity");
+		// the most recently used entry is still cached
+		assertEquals(9_999, cache.computeIfAbsent(9_999, k -> -1));
+	}
+
+	@Test
+	void concurrentAccessYieldsSameValue() throws Exception {
+		int threads = 8;
+		BoundedCache<Integer, Object> cache = new BoundedCache<>(1024, 16);
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Object[]>> results = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				Callable<Object[]> task = () -> {
+					start.await();
+					Object[] values = new Object[512];
+					for (int i = 0; i < values.length; i++) {
+						values[i] = cache.computeIfAbsent(i, k -> new Object());
+					}
+					return values;
+				};
+				results.add(executor.submit(task));
+			}
+			start.countDown();
+			Object[] expected = results.get(0).get();
+			for (Future<Object[]> result : results) {
+				Object[] values = result.get();
+				for (int i = 0; i < values.length; i++) {
+					assertSame(expected[i], values[i]);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -40,12 +40,14 @@ import org.openjdk.jmc.jdp.client.JDPClientTest;
 import org.openjdk.jmc.jdp.client.JDPJMXTest;
 import org.openjdk.jmc.jdp.client.JDPPacketTest;
 import org.openjdk.jmc.jdp.client.JDPServerTest;
+import org.openjdk.jmc.jdp.client.PacketProcessorTest;
 
 /**
  * The test suite for all the tests related to the JDP component.
  */
 @RunWith(Suite.class)
-@SuiteClasses({JDPClientTest.class, JDPJMXTest.class, JDPPacketTest.class, JDPServerTest.class})
+@SuiteClasses({JDPClientTest.class, JDPJMXTest.class, JDPPacketTest.class, JDPServerTest.class,
+		PacketProcessorTest.class})
 public class AllTests {
 
 }
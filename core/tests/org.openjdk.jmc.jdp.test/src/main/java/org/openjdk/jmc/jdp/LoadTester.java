@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.jdp;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmc.jdp.client.DiscoveryEvent;
+import org.openjdk.jmc.jdp.client.JDPClient;
+import org.openjdk.jmc.jdp.client.TestToolkit;
+import org.openjdk.jmc.jdp.common.Configuration;
+import org.openjdk.jmc.jdp.common.JDPPacket;
+import org.openjdk.jmc.jdp.server.JDPServer;
+
+/**
+ * Replays synthetic JDP packets from a large number of simulated JVMs to a JDP client over
+ * loopback, and prints how many packets were sent per second and how many JVMs were discovered.
+ * <p>
+ * Usage: LoadTester [-jvms &lt;count&gt;] [-rounds &lt;count&gt;] [-port &lt;port&gt;]
+ */
+@SuppressWarnings("nls")
+public class LoadTester {
+	private static final String JVMS = "-jvms";
+	private static final String ROUNDS = "-rounds";
+	private static final String PORT = "-port";
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		Map<String, String> commands = parseArguments(args);
+		int jvms = Integer.parseInt(commands.get(JVMS));
+		int rounds = Integer.parseInt(commands.get(ROUNDS));
+		int port = Integer.parseInt(commands.get(PORT));
+
+		AtomicInteger found = new AtomicInteger();
+		AtomicInteger lost = new AtomicInteger();
+		JDPClient client = new JDPClient(TestToolkit.TEST_MULTICAST_ADDRESS, port,
+				Configuration.DEFAULT_MAX_HEART_BEAT_TIMEOUT);
+		client.addDiscoveryListener(event -> {
+			if (event.getKind() == DiscoveryEvent.Kind.FOUND) {
+				found.incrementAndGet();
+			} else if (event.getKind() == DiscoveryEvent.Kind.LOST) {
+				lost.incrementAndGet();
+			}
+		});
+		client.start();
+
+		ByteBuffer[] packets = createPackets(jvms);
+		InetSocketAddress target = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+		try (DatagramChannel channel = DatagramChannel.open()) {
+			long start = System.nanoTime();
+			for (int round = 0; round < rounds; round++) {
+				for (ByteBuffer packet : packets) {
+					channel.send(packet.duplicate(), target);
+				}
+			}
+			long nanos = System.nanoTime() - start;
+			long sent = (long) jvms * rounds;
+			System.out.println(String.format("Sent %d packets in %d ms (%.0f packets/s)", sent, nanos / 1000000,
+					sent * 1e9 / nanos));
+		}
+		Thread.sleep(1000);
+		System.out.println(String.format("Discovered %d of %d JVMs, %d found and %d lost events",
+				client.getDiscoverables().size(), jvms, found.get(), lost.get()));
+		client.stop();
+	}
+
+	private static ByteBuffer[] createPackets(int count) {
+		ByteBuffer[] packets = new ByteBuffer[count];
+		for (int i = 0; i < count; i++) {
+			Map<String, String> data = new HashMap<>();
+			data.put(JDPServer.KEY_DISCOVERABLE_ID, TestToolkit.generateNewID("LoadTester"));
+			data.put(JDPServer.KEY_PERIOD, "5000");
+			data.put("JMX_SERVICE_URL", "service:jmx:rmi:///jndi/rmi://host" + i + ":7091/jmxrmi");
+			data.put("MAIN_CLASS", "org.example.Main" + i);
+			packets[i] = ByteBuffer.wrap(new JDPPacket(data).getDiscoveryDataAsByteArray());
+		}
+		return packets;
+	}
+
+	private static Map<String, String> parseArguments(String[] args) {
+		Map<String, String> commandMap = new HashMap<>();
+		commandMap.put(JVMS, "5000");
+		commandMap.put(ROUNDS, "20");
+		commandMap.put(PORT, Integer.toString(TestToolkit.TEST_MULTICAST_PORT));
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			commandMap.put(args[i], args[i + 1]);
+		}
+		return commandMap;
+	}
+}
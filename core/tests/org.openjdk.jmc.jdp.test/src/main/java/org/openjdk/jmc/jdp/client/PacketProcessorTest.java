@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.jdp.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.openjdk.jmc.jdp.client.PacketProcessor.DiscoverableInfo;
+import org.openjdk.jmc.jdp.common.JDPPacket;
+import org.openjdk.jmc.jdp.server.JDPServer;
+
+@SuppressWarnings("nls")
+public class PacketProcessorTest {
+	private PacketProcessor processor;
+	private List<DiscoveryEvent> events;
+
+	@Before
+	public void setUp() {
+		processor = new PacketProcessor();
+		events = new ArrayList<>();
+		processor.addDiscoveryListener(events::add);
+	}
+
+	@Test
+	public void testHeartBeat() throws Exception {
+		JDPPacket packet = createPacket("a", "gorilla");
+		ByteBuffer data = toDirectBuffer(packet);
+		assertFalse(processor.processHeartBeat(data));
+		processor.process(packet);
+		assertTrue(processor.processHeartBeat(data));
+		assertEquals(0, data.position());
+		assertFalse(processor.processHeartBeat(toDirectBuffer(createPacket("a", "mongo"))));
+		assertFalse(processor.processHeartBeat(toDirectBuffer(createPacket("b", "gorilla"))));
+		assertEquals(1, events.size());
+		assertEquals(DiscoveryEvent.Kind.FOUND, events.get(0).getKind());
+	}
+
+	@Test
+	public void testChangePacket() throws Exception {
+		processor.process(createPacket("a", "gorilla"));
+		JDPPacket changed = createPacket("a", "mongo");
+		processor.process(changed);
+		processor.process(new JDPPacket(changed.getDiscoveryDataAsByteArray()));
+		assertTrue(processor.processHeartBeat(toDirectBuffer(changed)));
+		assertEquals(2, events.size());
+		assertEquals(DiscoveryEvent.Kind.CHANGED, events.get(1).getKind());
+		assertEquals("mongo", processor.getDiscoverables().iterator().next().getPayload().get("apa"));
+	}
+
+	@Test
+	public void testPrune() throws Exception {
+		Pruner pruner = new Pruner(processor, Pruner.DEFAULT_MAX_HB_TIME);
+		JDPPacket packet = createPacket("a", "gorilla");
+		processor.process(packet);
+		DiscoverableInfo info = processor.infoMap.get("a");
+		long start = info.timestamp;
+		long timeout = (long) (1000 * Pruner.HB_MISSED_BEFORE_DOWN);
+
+		pruner.checkPackets(start);
+		pruner.checkPackets(start + timeout / 2);
+		info.timestamp = start + timeout / 2;
+		pruner.checkPackets(start + timeout + timeout / 4);
+		assertEquals(1, processor.getDiscoverables().size());
+
+		pruner.checkPackets(start + 2 * timeout + 2 * Pruner.PRUNING_INTERVAL);
+		assertEquals(0, processor.getDiscoverables().size());
+		assertEquals(DiscoveryEvent.Kind.LOST, events.get(events.size() - 1).getKind());
+		assertFalse(processor.processHeartBeat(toDirectBuffer(packet)));
+	}
+
+	private static JDPPacket createPacket(String id, String value) {
+		Map<String, String> data = new HashMap<>();
+		data.put(JDPServer.KEY_DISCOVERABLE_ID, id);
+		data.put(JDPServer.KEY_PERIOD, "1000");
+		data.put("apa", value);
+		return new JDPPacket(data);
+	}
+
+	private static ByteBuffer toDirectBuffer(JDPPacket packet) {
+		byte[] bytes = packet.getDiscoveryDataAsByteArray();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+		buffer.put(bytes).flip();
+		return buffer;
+	}
+}